@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.bench;
+
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import com.zerocracy.Farm;
+import com.zerocracy.FkFarm;
+import com.zerocracy.FkProject;
+import com.zerocracy.Project;
+import com.zerocracy.claims.ClaimOut;
+import com.zerocracy.farm.StkSafe;
+import com.zerocracy.farm.reactive.Brigade;
+import com.zerocracy.farm.reactive.StkRuntime;
+import groovy.lang.Script;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.cactoos.iterable.Mapped;
+import org.cactoos.list.ListOf;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.reflections.Reflections;
+import org.reflections.scanners.SubTypesScanner;
+import org.xembly.Xembler;
+
+/**
+ * Benchmark of {@link Brigade} with all stakeholders of the farm,
+ * dispatching a mix of claims in a fake farm.
+ *
+ * @since 1.0
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BrigadeBench {
+
+    /**
+     * Brigade.
+     */
+    private Brigade brigade;
+
+    /**
+     * Claims to dispatch.
+     */
+    private List<XML> claims;
+
+    /**
+     * Project.
+     */
+    private Project project;
+
+    /**
+     * Make brigade.
+     * @throws Exception If fails
+     */
+    @Setup
+    public void setup() throws Exception {
+        final Farm farm = FkFarm.props();
+        this.brigade = new Brigade(
+            new Mapped<>(
+                cls -> new StkSafe(
+                    cls.getSimpleName(), farm, new StkRuntime(cls, farm)
+                ),
+                new Reflections(
+                    "com.zerocracy.stk", new SubTypesScanner(false)
+                ).getSubTypesOf(Script.class)
+            )
+        );
+        this.claims = new ListOf<>(
+            BrigadeBench.claim(new ClaimOut().type("Hello")),
+            BrigadeBench.claim(
+                new ClaimOut().type("Hello").token("test;notoken")
+            ),
+            BrigadeBench.claim(new ClaimOut().type("Benchmark nothing"))
+        );
+    }
+
+    /**
+     * New project for every iteration, to keep its claims small.
+     * @throws Exception If fails
+     */
+    @Setup(Level.Iteration)
+    public void project() throws Exception {
+        this.project = new FkProject();
+    }
+
+    @Benchmark
+    public int apply() throws Exception {
+        int total = 0;
+        for (final XML claim : this.claims) {
+            total += this.brigade.apply(this.project, claim);
+        }
+        return total;
+    }
+
+    /**
+     * Claim XML.
+     * @param claim Claim
+     * @return XML of the claim
+     */
+    private static XML claim(final ClaimOut claim) {
+        return new XMLDocument(
+            new Xembler(claim).xmlQuietly()
+        ).nodes("/claim").get(0);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.bench;
+
+import com.zerocracy.cash.Cash;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link Cash} parsing and arithmetic.
+ *
+ * @since 1.0
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CashBench {
+
+    /**
+     * Rate of a developer.
+     */
+    private Cash rate;
+
+    /**
+     * Balance of a project.
+     */
+    private Cash balance;
+
+    /**
+     * Parse cash.
+     * @throws Exception If fails
+     */
+    @Setup
+    public void setup() throws Exception {
+        this.rate = new Cash.S("$25.50");
+        this.balance = new Cash.S("$1024.75");
+    }
+
+    @Benchmark
+    public Cash parse() throws Exception {
+        return new Cash.S("$1234.56");
+    }
+
+    @Benchmark
+    public String print() {
+        return this.balance.toString();
+    }
+
+    @Benchmark
+    public Cash payment() {
+        // @checkstyle MagicNumber (1 line)
+        return this.balance.add(this.rate.mul(30L).div(60L));
+    }
+
+    @Benchmark
+    public int compare() {
+        return this.balance.compareTo(this.rate);
+    }
+}
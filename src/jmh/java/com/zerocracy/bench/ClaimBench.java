@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.bench;
+
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.MessageAttributeValue;
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import com.zerocracy.claims.ClaimIn;
+import com.zerocracy.claims.MsgPriority;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark of {@link ClaimIn} accessors and ordering of claim messages
+ * by {@link MsgPriority}.
+ *
+ * @since 1.0
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ClaimBench {
+
+    /**
+     * Priorities of messages.
+     */
+    private static final String[] PRIORITIES = {"HIGH", "NORMAL", "LOW"};
+
+    /**
+     * Amount of messages.
+     */
+    private static final int SIZE = 100;
+
+    /**
+     * Claim XML.
+     */
+    private XML claim;
+
+    /**
+     * Messages to sort.
+     */
+    private List<Message> messages;
+
+    /**
+     * Make claim and messages.
+     */
+    @Setup
+    public void setup() {
+        this.claim = new XMLDocument(
+            String.join(
+                "",
+                "<claim id='1'><created>2019-01-01T01:01:01Z</created>",
+                "<type>Order was given</type><token>github;test/test;1",
+                "</token><author>yegor256</author><params>",
+                "<param name='job'>gh:test/test#1</param>",
+                "<param name='login'>yegor256</param>",
+                "<param name='role'>DEV</param>",
+                "<param name='reason'>Just for fun</param>",
+                "</params></claim>"
+            )
+        ).nodes("/claim").get(0);
+        this.messages = new ArrayList<>(ClaimBench.SIZE);
+        for (int idx = 0; idx < ClaimBench.SIZE; ++idx) {
+            final Message msg = new Message().withMessageId(
+                Integer.toString(idx)
+            );
+            if (idx % (ClaimBench.PRIORITIES.length + 1) != 0) {
+                msg.addMessageAttributesEntry(
+                    "priority",
+                    new MessageAttributeValue()
+                        .withDataType("String")
+                        .withStringValue(
+                            ClaimBench.PRIORITIES[
+                                idx % ClaimBench.PRIORITIES.length
+                            ]
+                        )
+                );
+            }
+            this.messages.add(msg);
+        }
+    }
+
+    @Benchmark
+    public void accessors(final Blackhole hole) {
+        final ClaimIn input = new ClaimIn(this.claim);
+        hole.consume(input.type());
+        hole.consume(input.cid());
+        hole.consume(input.created());
+        hole.consume(input.hasToken());
+        hole.consume(input.token());
+        hole.consume(input.author());
+        hole.consume(input.param("job"));
+        hole.consume(input.param("minutes", "0"));
+    }
+
+    @Benchmark
+    public Map<String, String> params() {
+        return new ClaimIn(this.claim).params();
+    }
+
+    @Benchmark
+    public List<Message> priorities() {
+        final List<Message> sorted = new ArrayList<>(this.messages);
+        sorted.sort(Comparator.comparing(MsgPriority::from).reversed());
+        return sorted;
+    }
+}
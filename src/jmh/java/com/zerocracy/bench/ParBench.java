@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.bench;
+
+import com.zerocracy.Farm;
+import com.zerocracy.FkFarm;
+import com.zerocracy.Par;
+import com.zerocracy.pmo.Catalog;
+import com.zerocracy.pmo.Pmo;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link Par} formatting.
+ *
+ * @since 1.0
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParBench {
+
+    /**
+     * PMO with one project in catalog.
+     */
+    private Pmo pmo;
+
+    /**
+     * Make PMO.
+     * @throws Exception If fails
+     */
+    @Setup
+    public void setup() throws Exception {
+        final Farm farm = FkFarm.props();
+        this.pmo = new Pmo(farm);
+        new Catalog(this.pmo).bootstrap().add("C00000001", "2019/01");
+    }
+
+    @Benchmark
+    public String plain() throws Exception {
+        return new Par(
+            "The job %s was assigned to @%s, see §5;",
+            "the budget is 30 minute(s), ARC will review"
+        ).say("gh:test/test#1", "yegor256");
+    }
+
+    @Benchmark
+    public String withProject() throws Exception {
+        return new Par(
+            this.pmo,
+            "Project %s was paused by @%s, see [policy](/policy)"
+        ).say("C00000001", "yegor256");
+    }
+}
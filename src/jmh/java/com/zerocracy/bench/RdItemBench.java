@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.bench;
+
+import com.zerocracy.Farm;
+import com.zerocracy.FkFarm;
+import com.zerocracy.farm.ruled.RdFarm;
+import com.zerocracy.pm.scope.Wbs;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of updates through ruled items of {@link RdFarm}, which
+ * evaluate auto-propagation and validation rules on every change.
+ *
+ * @since 1.0
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RdItemBench {
+
+    /**
+     * The job to change.
+     */
+    private static final String JOB = "gh:test/test#50";
+
+    /**
+     * WBS of ruled project.
+     */
+    private Wbs wbs;
+
+    /**
+     * Counter of updates.
+     */
+    private long counter;
+
+    /**
+     * Make WBS with jobs.
+     * @throws Exception If fails
+     */
+    @Setup
+    public void setup() throws Exception {
+        final Farm farm = new RdFarm(FkFarm.props());
+        this.wbs = new Wbs(
+            farm.find("@id='C00000000'").iterator().next()
+        ).bootstrap();
+        // @checkstyle MagicNumber (1 line)
+        for (int idx = 0; idx < 100; ++idx) {
+            this.wbs.add(String.format("gh:test/test#%d", idx));
+        }
+    }
+
+    @Benchmark
+    public void update() throws Exception {
+        final String role;
+        if (++this.counter % 2L == 0L) {
+            role = "DEV";
+        } else {
+            role = "REV";
+        }
+        this.wbs.role(RdItemBench.JOB, role);
+    }
+}
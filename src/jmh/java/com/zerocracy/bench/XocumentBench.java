@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.bench;
+
+import com.zerocracy.Farm;
+import com.zerocracy.FkFarm;
+import com.zerocracy.Project;
+import com.zerocracy.Xocument;
+import com.zerocracy.pm.scope.Wbs;
+import com.zerocracy.pmo.Catalog;
+import com.zerocracy.pmo.People;
+import com.zerocracy.pmo.Pmo;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xembly.Directives;
+
+/**
+ * Benchmark of {@link Xocument} reads and writes of PMO and project
+ * files with realistic amount of entries.
+ *
+ * @since 1.0
+ * @checkstyle VisibilityModifierCheck (500 lines)
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class XocumentBench {
+
+    /**
+     * Amount of projects, people and jobs.
+     */
+    @Param({"100", "1000"})
+    public int size;
+
+    /**
+     * The catalog.xml.
+     */
+    private Xocument catalog;
+
+    /**
+     * The people.xml.
+     */
+    private Xocument people;
+
+    /**
+     * The wbs.xml.
+     */
+    private Xocument wbs;
+
+    /**
+     * Counter of modifications.
+     */
+    private long counter;
+
+    /**
+     * Create files.
+     * @throws Exception If fails
+     */
+    @Setup
+    public void setup() throws Exception {
+        final Path dir = Files.createTempDirectory("jmh");
+        final Farm farm = FkFarm.props();
+        final Pmo pmo = new Pmo(farm);
+        final Catalog ctl = new Catalog(pmo).bootstrap();
+        final People ppl = new People(pmo).bootstrap();
+        final Project project = farm.find("@id='C00000000'")
+            .iterator().next();
+        final Wbs jobs = new Wbs(project).bootstrap();
+        for (int idx = 0; idx < this.size; ++idx) {
+            ctl.add(XocumentBench.pid(idx), XocumentBench.pid(idx));
+            ppl.invite(XocumentBench.uid(idx), "0crat", true);
+            jobs.add(XocumentBench.job(idx));
+        }
+        this.catalog = XocumentBench.copy(pmo, "catalog.xml", dir);
+        this.people = XocumentBench.copy(pmo, "people.xml", dir);
+        this.wbs = XocumentBench.copy(project, "wbs.xml", dir);
+    }
+
+    @Benchmark
+    public List<String> catalogXpath() throws Exception {
+        return this.catalog.xpath(
+            String.format(
+                "/catalog/project[@id='%s']/title/text()",
+                XocumentBench.pid(this.size / 2)
+            )
+        );
+    }
+
+    @Benchmark
+    public void catalogModify() throws Exception {
+        this.catalog.modify(
+            new Directives()
+                .xpath(
+                    String.format(
+                        "/catalog/project[@id='%s']/jobs",
+                        XocumentBench.pid(this.size / 2)
+                    )
+                )
+                .set(++this.counter)
+        );
+    }
+
+    @Benchmark
+    public List<String> peopleXpath() throws Exception {
+        return this.people.xpath(
+            String.format(
+                "/people/person[@id='%s']/mentor/text()",
+                XocumentBench.uid(this.size / 2)
+            )
+        );
+    }
+
+    @Benchmark
+    public void peopleModify() throws Exception {
+        this.people.modify(
+            new Directives()
+                .xpath(
+                    String.format(
+                        "/people/person[@id='%s']",
+                        XocumentBench.uid(this.size / 2)
+                    )
+                )
+                .addIf("details")
+                .set(++this.counter)
+        );
+    }
+
+    @Benchmark
+    public List<String> wbsXpath() throws Exception {
+        return this.wbs.xpath(
+            String.format(
+                "/wbs/job[@id='%s']/role/text()",
+                XocumentBench.job(this.size / 2)
+            )
+        );
+    }
+
+    @Benchmark
+    public void wbsModify() throws Exception {
+        final String role;
+        if (++this.counter % 2L == 0L) {
+            role = "DEV";
+        } else {
+            role = "REV";
+        }
+        this.wbs.modify(
+            new Directives()
+                .xpath(
+                    String.format(
+                        "/wbs/job[@id='%s']/role",
+                        XocumentBench.job(this.size / 2)
+                    )
+                )
+                .set(role)
+        );
+    }
+
+    /**
+     * Copy item to the directory.
+     * @param project Project
+     * @param name Item name
+     * @param dir Directory
+     * @return Xocument of the copy
+     * @throws Exception If fails
+     */
+    private static Xocument copy(final Project project, final String name,
+        final Path dir) throws Exception {
+        final Path target = dir.resolve(name);
+        project.acq(name).read(
+            path -> Files.copy(
+                path, target, StandardCopyOption.REPLACE_EXISTING
+            )
+        );
+        return new Xocument(target);
+    }
+
+    /**
+     * Project id.
+     * @param idx Index
+     * @return Id
+     */
+    private static String pid(final int idx) {
+        return String.format("C%08d", idx);
+    }
+
+    /**
+     * User id.
+     * @param idx Index
+     * @return Id
+     */
+    private static String uid(final int idx) {
+        return String.format("user%d", idx);
+    }
+
+    /**
+     * Job id.
+     * @param idx Index
+     * @return Id
+     */
+    private static String job(final int idx) {
+        return String.format("gh:test/test#%d", idx);
+    }
+}
@@ -43,7 +43,7 @@ import java.time.Instant
 def exec(Project pmo, XML xml) {
   new Assume(pmo, xml).type('Ping daily').isPmo()
   Farm farm = binding.variables.farm
-  if (new Props(farm).has('//testing')) {
+  if (new Props(farm).testing()) {
     return
   }
   KpiMetrics metrics = new KpiOf(farm)
@@ -44,7 +44,7 @@ def exec(Project project, XML xml) {
   )
   Farm farm = binding.variables.farm
   Props props = new Props(farm)
-  if (props.has('//testing') && !binding.variables.slack_testing) {
+  if (props.testing() && !binding.variables.slack_testing) {
     Logger.info(this, 'Message to Slack [%s]: %s', claim.token(), message)
     return
   }
@@ -44,7 +44,7 @@ def exec(Project project, XML xml) {
       .type('Recharge project')
       .param('triggered_by', new ClaimIn(xml).cid())
       .unique('recharge')
-    if (!new Props(farm).has('//testing')) {
+    if (!new Props(farm).testing()) {
       recharge.until(Duration.ofMinutes(5))
     }
     recharge.postTo(new ClaimsOf(farm, project))
@@ -49,7 +49,7 @@ def exec(Project project, XML xml) {
   //  MkPull.merge should change 'merged' boolean flag in pull JSON, see github docs.
   //  Also jcabi can implement Pull.Smart.merged() method to check that PR was merged.
   boolean merged
-  if (new Props(farm).has('//testing')) {
+  if (new Props(farm).testing()) {
     merged = true
   } else {
     merged = pull.json().getBoolean('merged', false)
@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy;
+
+import com.jcabi.log.Logger;
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.xml.XMLConstants;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
+import org.cactoos.Input;
+import org.cactoos.io.InputOf;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+/**
+ * Local mirror of datum.
+ *
+ * <p>Documents of datum.zerocracy.com (XSDs, upgrades, rules and their
+ * indexes) are taken from the classpath ("/datum" directory) or from
+ * the directory on disk, if they are there. Otherwise they are
+ * downloaded once and saved to the directory. The directory is
+ * versioned by {@link Xocument#VERSION}, since "latest" documents
+ * change together with it. The directory is set by "datum.dir" system
+ * property and can be prepared in advance, in order to run
+ * without network access.</p>
+ *
+ * <p>Compiled XSD schemas are kept in memory forever, there are not
+ * too many of them. {@link #warm()} compiles all schemas of the
+ * current version at once.</p>
+ *
+ * @since 1.0
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ * @checkstyle ClassFanOutComplexityCheck (500 lines)
+ */
+@SuppressWarnings("PMD.ExcessiveImports")
+public final class Datum {
+
+    /**
+     * Singleton.
+     */
+    public static final Datum INSTANCE = new Datum(
+        Paths.get(
+            System.getProperty(
+                "datum.dir",
+                Paths.get(
+                    System.getProperty("java.io.tmpdir"), "zerocracy-datum"
+                ).toString()
+            )
+        ).resolve(Xocument.VERSION)
+    );
+
+    /**
+     * Host of datum.
+     */
+    private static final String HOST = "datum.zerocracy.com";
+
+    /**
+     * Mirror directory.
+     */
+    private final Path dir;
+
+    /**
+     * Compiled schemas by URL.
+     */
+    private final ConcurrentMap<String, Schema> schemas;
+
+    /**
+     * Documents found locally.
+     */
+    private final AtomicLong local;
+
+    /**
+     * Documents downloaded.
+     */
+    private final AtomicLong remote;
+
+    /**
+     * Ctor.
+     * @param path Mirror directory
+     */
+    Datum(final Path path) {
+        this.dir = path;
+        this.schemas = new ConcurrentHashMap<>(0);
+        this.local = new AtomicLong();
+        this.remote = new AtomicLong();
+    }
+
+    /**
+     * Content of the URL.
+     * @param url The URL
+     * @return Input
+     * @throws IOException If fails
+     */
+    public Input input(final URL url) throws IOException {
+        final Input input;
+        if (Datum.HOST.equals(url.getHost())) {
+            final URL res = Datum.class.getResource(
+                String.format("/datum%s", url.getPath())
+            );
+            final Path file = this.dir.resolve(url.getPath().substring(1));
+            if (res != null) {
+                this.local.incrementAndGet();
+                input = new InputOf(res);
+            } else if (Files.exists(file)) {
+                this.local.incrementAndGet();
+                input = new InputOf(file);
+            } else {
+                this.download(url, file);
+                input = new InputOf(file);
+            }
+        } else {
+            input = new InputOf(url);
+        }
+        return input;
+    }
+
+    /**
+     * Compiled schema.
+     * @param uri URL of XSD
+     * @return Schema
+     * @throws IOException If fails
+     */
+    public Schema schema(final String uri) throws IOException {
+        Schema schema = this.schemas.get(uri);
+        if (schema == null) {
+            final SchemaFactory factory = SchemaFactory.newInstance(
+                XMLConstants.W3C_XML_SCHEMA_NS_URI
+            );
+            factory.setResourceResolver(new XsdResolver());
+            try (final InputStream src = this.input(new URL(uri)).stream()) {
+                schema = factory.newSchema(new StreamSource(src, uri));
+            } catch (final SAXException ex) {
+                throw new IOException(
+                    String.format("Failed to compile %s", uri), ex
+                );
+            }
+            this.schemas.putIfAbsent(uri, schema);
+        }
+        return schema;
+    }
+
+    /**
+     * Validate the document against the schema it refers to.
+     * @param xml The document
+     * @return The same document, if it's valid
+     * @throws IOException If fails
+     */
+    public XML validated(final XML xml) throws IOException {
+        final List<String> loc = xml.xpath(
+            "/*/@xsi:noNamespaceSchemaLocation"
+        );
+        if (!loc.isEmpty()) {
+            final List<String> errors = new LinkedList<>();
+            final Validator validator = this.schema(loc.get(0)).newValidator();
+            validator.setErrorHandler(new Datum.Errors(errors));
+            try {
+                validator.validate(new DOMSource(xml.node()));
+            } catch (final SAXException ex) {
+                errors.add(ex.getMessage());
+            }
+            if (!errors.isEmpty()) {
+                throw new IllegalArgumentException(
+                    String.format(
+                        "%d XML validation error(s) against %s: %s",
+                        errors.size(), loc.get(0), String.join("; ", errors)
+                    )
+                );
+            }
+        }
+        return xml;
+    }
+
+    /**
+     * Compile all schemas of the current version.
+     * @return Amount of schemas compiled
+     * @throws IOException If fails
+     */
+    public int warm() throws IOException {
+        final long start = System.currentTimeMillis();
+        final int total = this.warm(
+            String.format(
+                "http://%s/%s/xsd", Datum.HOST, Xocument.VERSION
+            )
+        );
+        Logger.info(
+            this, "%d XSD schemas of %s compiled in %[ms]s: %s",
+            total, Xocument.VERSION, System.currentTimeMillis() - start, this
+        );
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%d local, %d downloaded, %d schemas",
+            this.local.get(), this.remote.get(), this.schemas.size()
+        );
+    }
+
+    /**
+     * Compile all schemas in the directory, recursively.
+     * @param base URL of the directory
+     * @return Amount of schemas compiled
+     * @throws IOException If fails
+     */
+    private int warm(final String base) throws IOException {
+        final XML index = new XMLDocument(
+            this.input(new URL(String.format("%s/index.xml", base))).stream()
+        );
+        int total = 0;
+        for (final XML entry : index.nodes("/index/entry")) {
+            final String uri = entry.xpath("@uri").get(0);
+            if (entry.xpath("@dir").contains("true")) {
+                total += this.warm(uri);
+            } else if (uri.endsWith(".xsd")) {
+                try {
+                    this.schema(uri);
+                    ++total;
+                } catch (final IOException ex) {
+                    Logger.warn(
+                        this, "Can't compile %s: %[exception]s", uri, ex
+                    );
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Download the document to the mirror.
+     * @param url URL of it
+     * @param file File in the mirror
+     * @throws IOException If fails
+     */
+    private void download(final URL url, final Path file)
+        throws IOException {
+        Files.createDirectories(file.getParent());
+        final Path tmp = Files.createTempFile(file.getParent(), "datum", "");
+        try (final InputStream src = url.openStream()) {
+            Files.copy(src, tmp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        this.remote.incrementAndGet();
+        Logger.info(this, "%s saved to %s", url, file);
+    }
+
+    /**
+     * Collector of validation errors.
+     */
+    private static final class Errors implements ErrorHandler {
+
+        /**
+         * Errors.
+         */
+        private final List<String> list;
+
+        /**
+         * Ctor.
+         * @param errors List of errors
+         */
+        Errors(final List<String> errors) {
+            this.list = errors;
+        }
+
+        @Override
+        public void warning(final SAXParseException ex) {
+            // ignore it
+        }
+
+        @Override
+        public void error(final SAXParseException ex) {
+            this.list.add(Datum.Errors.message(ex));
+        }
+
+        @Override
+        public void fatalError(final SAXParseException ex) {
+            this.list.add(Datum.Errors.message(ex));
+        }
+
+        /**
+         * Message of the error.
+         * @param ex The error
+         * @return Text
+         */
+        private static String message(final SAXParseException ex) {
+            return String.format(
+                "%d:%d: %s",
+                ex.getLineNumber(), ex.getColumnNumber(), ex.getMessage()
+            );
+        }
+    }
+}
@@ -0,0 +1,498 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy;
+
+import com.jcabi.aspects.Tv;
+import com.jcabi.log.Logger;
+import com.jcabi.log.VerboseRunnable;
+import com.jcabi.log.VerboseThreads;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
+import com.zerocracy.entry.ExtMongo;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import org.bson.Document;
+import org.xembly.Directive;
+import org.xembly.Directives;
+
+/**
+ * Latency histograms of stakeholders, by claim types.
+ *
+ * <p>Every histogram has logarithmic buckets, four per each doubling of
+ * microseconds, so percentiles are accurate within 19%. Histograms
+ * live in memory since the start of the process and are saved to the
+ * {@code time_taken} collection of the {@code metrics} database every
+ * five minutes, one document per stakeholder and claim type.</p>
+ *
+ * <p>The class is thread-safe.</p>
+ *
+ * @since 1.0
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ * @checkstyle ClassFanOutComplexityCheck (500 lines)
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class Latencies implements Iterable<Directive> {
+
+    /**
+     * Instance for the entire process.
+     */
+    public static final Latencies INSTANCE = new Latencies();
+
+    /**
+     * Amount of buckets.
+     */
+    private static final int BUCKETS = 128;
+
+    /**
+     * Histograms by stakeholder and claim type.
+     */
+    private final Map<String, Latencies.Histogram> histograms;
+
+    /**
+     * Saving thread.
+     */
+    private final ExecutorService saver;
+
+    /**
+     * When histograms were saved last time.
+     */
+    private final AtomicLong saved;
+
+    /**
+     * Ctor.
+     */
+    public Latencies() {
+        this.histograms = new ConcurrentHashMap<>(0);
+        this.saver = Executors.newSingleThreadExecutor(
+            new VerboseThreads(Latencies.class)
+        );
+        this.saved = new AtomicLong(System.currentTimeMillis());
+    }
+
+    /**
+     * Add execution.
+     * @param stk Stakeholder name
+     * @param type Claim type
+     * @param nano Time taken, in nanoseconds
+     * @param error TRUE if it failed
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    public void add(final String stk, final String type, final long nano,
+        final boolean error) {
+        this.histograms.computeIfAbsent(
+            String.format("%s %s", stk, type),
+            key -> new Latencies.Histogram(stk, type)
+        ).add(nano, error);
+    }
+
+    /**
+     * Save histograms in background, if it's time to.
+     * @param farm Farm
+     */
+    public void save(final Farm farm) {
+        final long last = this.saved.get();
+        final long now = System.currentTimeMillis();
+        if (now - last > TimeUnit.MINUTES.toMillis((long) Tv.FIVE)
+            && this.saved.compareAndSet(last, now)) {
+            this.saver.submit(
+                new VerboseRunnable(
+                    () -> {
+                        this.save(
+                            new ExtMongo(farm).shared()
+                                .getDatabase(Measured.COLLECTION)
+                                .getCollection(Measured.TIME_TAKEN)
+                        );
+                        return null;
+                    },
+                    true, false
+                )
+            );
+        }
+    }
+
+    /**
+     * Save histograms right now.
+     * @param col Collection
+     */
+    public void save(final MongoCollection<Document> col) {
+        final List<WriteModel<Document>> docs = new ArrayList<>(0);
+        for (final Latencies.Row row : this.rows("stakeholder")) {
+            docs.add(
+                new ReplaceOneModel<>(
+                    Filters.and(
+                        Filters.eq("stakeholder", row.stk),
+                        Filters.eq("claim_type", row.type)
+                    ),
+                    new Document("stakeholder", row.stk)
+                        .append("claim_type", row.type)
+                        .append("date_time", new Date())
+                        .append("count", row.count)
+                        .append("errors", row.errors)
+                        .append("p50", row.median)
+                        .append("p95", row.high)
+                        .append("p99", row.top)
+                        .append("max", row.max)
+                        .append(Measured.TIME_TAKEN, row.total),
+                    new ReplaceOptions().upsert(true)
+                )
+            );
+        }
+        if (!docs.isEmpty()) {
+            col.bulkWrite(docs, new BulkWriteOptions().ordered(false));
+        }
+        Logger.info(this, "%d latency histograms saved", docs.size());
+    }
+
+    /**
+     * Snapshot of all histograms.
+     * @param sort Column to sort by, descending: "count", "errors",
+     *  "p50", "p95", "p99", "max", "total"; by stakeholder name otherwise
+     * @return Rows
+     */
+    public List<Latencies.Row> rows(final String sort) {
+        final List<Latencies.Row> rows = new ArrayList<>(
+            this.histograms.size()
+        );
+        for (final Latencies.Histogram hist : this.histograms.values()) {
+            rows.add(hist.row());
+        }
+        rows.sort(Latencies.Row.comparator(sort));
+        return rows;
+    }
+
+    @Override
+    public Iterator<Directive> iterator() {
+        final Directives dirs = new Directives().add("latencies");
+        final List<Latencies.Row> rows = this.rows("total");
+        for (final Latencies.Row row
+            : rows.subList(0, Math.min(rows.size(), Tv.TWENTY))) {
+            dirs.append(row.directives());
+        }
+        return dirs.up().iterator();
+    }
+
+    /**
+     * Snapshot of one histogram, times in milliseconds.
+     */
+    public static final class Row {
+
+        /**
+         * Stakeholder.
+         */
+        private final String stk;
+
+        /**
+         * Claim type.
+         */
+        private final String type;
+
+        /**
+         * Executions.
+         */
+        private final long count;
+
+        /**
+         * Failed executions.
+         */
+        private final long errors;
+
+        /**
+         * Median.
+         */
+        private final double median;
+
+        /**
+         * 95th percentile.
+         */
+        private final double high;
+
+        /**
+         * 99th percentile.
+         */
+        private final double top;
+
+        /**
+         * Max.
+         */
+        private final double max;
+
+        /**
+         * Total time.
+         */
+        private final double total;
+
+        /**
+         * Ctor.
+         * @param stk Stakeholder
+         * @param type Claim type
+         * @param counts Executions and errors
+         * @param times Median, 95th, 99th percentiles, max and total
+         */
+        Row(final String stk, final String type, final long[] counts,
+            final double... times) {
+            this.stk = stk;
+            this.type = type;
+            this.count = counts[0];
+            this.errors = counts[1];
+            this.median = times[0];
+            this.high = times[1];
+            // @checkstyle MagicNumber (3 lines)
+            this.top = times[2];
+            this.max = times[3];
+            this.total = times[4];
+        }
+
+        /**
+         * Stakeholder.
+         * @return Name
+         */
+        public String stakeholder() {
+            return this.stk;
+        }
+
+        /**
+         * Executions.
+         * @return Count
+         */
+        public long count() {
+            return this.count;
+        }
+
+        /**
+         * Failed executions.
+         * @return Count
+         */
+        public long errors() {
+            return this.errors;
+        }
+
+        /**
+         * The row as directives.
+         * @return Directives
+         */
+        public Iterable<Directive> directives() {
+            return new Directives()
+                .add("row")
+                .attr("stakeholder", this.stk)
+                .attr("type", this.type)
+                .add("count").set(this.count).up()
+                .add("errors").set(this.errors).up()
+                .add("p50").set(Latencies.Row.format(this.median)).up()
+                .add("p95").set(Latencies.Row.format(this.high)).up()
+                .add("p99").set(Latencies.Row.format(this.top)).up()
+                .add("max").set(Latencies.Row.format(this.max)).up()
+                .add("total").set(Latencies.Row.format(this.total)).up()
+                .up();
+        }
+
+        /**
+         * Comparator by column, descending.
+         * @param column Column
+         * @return Comparator
+         */
+        private static Comparator<Latencies.Row> comparator(
+            final String column) {
+            final Comparator<Latencies.Row> cmp;
+            switch (column) {
+                case "count":
+                    cmp = Comparator.comparingLong(row -> -row.count);
+                    break;
+                case "errors":
+                    cmp = Comparator.comparingLong(row -> -row.errors);
+                    break;
+                case "p50":
+                    cmp = Comparator.comparingDouble(row -> -row.median);
+                    break;
+                case "p95":
+                    cmp = Comparator.comparingDouble(row -> -row.high);
+                    break;
+                case "p99":
+                    cmp = Comparator.comparingDouble(row -> -row.top);
+                    break;
+                case "max":
+                    cmp = Comparator.comparingDouble(row -> -row.max);
+                    break;
+                case "total":
+                    cmp = Comparator.comparingDouble(row -> -row.total);
+                    break;
+                default:
+                    cmp = Comparator.comparing(
+                        (Latencies.Row row) -> row.stk
+                    ).thenComparing(row -> row.type);
+                    break;
+            }
+            return cmp;
+        }
+
+        /**
+         * Format milliseconds.
+         * @param msec Milliseconds
+         * @return Text
+         */
+        private static String format(final double msec) {
+            return String.format("%.1f", msec);
+        }
+    }
+
+    /**
+     * Histogram of one stakeholder and claim type.
+     */
+    private static final class Histogram {
+
+        /**
+         * Stakeholder.
+         */
+        private final String stk;
+
+        /**
+         * Claim type.
+         */
+        private final String type;
+
+        /**
+         * Counters by bucket.
+         */
+        private final AtomicLongArray buckets;
+
+        /**
+         * Executions.
+         */
+        private final LongAdder count;
+
+        /**
+         * Failed executions.
+         */
+        private final LongAdder errors;
+
+        /**
+         * Total time, microseconds.
+         */
+        private final LongAdder total;
+
+        /**
+         * Max time, microseconds.
+         */
+        private final AtomicLong max;
+
+        /**
+         * Ctor.
+         * @param name Stakeholder
+         * @param kind Claim type
+         */
+        Histogram(final String name, final String kind) {
+            this.stk = name;
+            this.type = kind;
+            this.buckets = new AtomicLongArray(Latencies.BUCKETS);
+            this.count = new LongAdder();
+            this.errors = new LongAdder();
+            this.total = new LongAdder();
+            this.max = new AtomicLong();
+        }
+
+        /**
+         * Add execution.
+         * @param nano Time, nanoseconds
+         * @param error TRUE if failed
+         */
+        public void add(final long nano, final boolean error) {
+            final long micros = Math.max(
+                1L, TimeUnit.NANOSECONDS.toMicros(nano)
+            );
+            this.buckets.incrementAndGet(Latencies.Histogram.bucket(micros));
+            this.count.increment();
+            if (error) {
+                this.errors.increment();
+            }
+            this.total.add(micros);
+            this.max.accumulateAndGet(micros, Math::max);
+        }
+
+        /**
+         * Snapshot.
+         * @return Row
+         */
+        public Latencies.Row row() {
+            final long[] counts = new long[Latencies.BUCKETS];
+            long sum = 0L;
+            for (int idx = 0; idx < counts.length; ++idx) {
+                counts[idx] = this.buckets.get(idx);
+                sum += counts[idx];
+            }
+            final double msec = (double) TimeUnit.MILLISECONDS.toMicros(1L);
+            final double limit = (double) this.max.get() / msec;
+            return new Latencies.Row(
+                this.stk, this.type,
+                new long[] {sum, this.errors.sum()},
+                // @checkstyle MagicNumber (3 lines)
+                Math.min(limit, Latencies.Histogram.pct(counts, sum, 0.5)),
+                Math.min(limit, Latencies.Histogram.pct(counts, sum, 0.95)),
+                Math.min(limit, Latencies.Histogram.pct(counts, sum, 0.99)),
+                limit,
+                (double) this.total.sum() / msec
+            );
+        }
+
+        /**
+         * Bucket of the time.
+         * @param micros Microseconds, positive
+         * @return Bucket number
+         */
+        private static int bucket(final long micros) {
+            return (int) Math.min(
+                (long) (Latencies.BUCKETS - 1),
+                // @checkstyle MagicNumber (1 line)
+                (long) Math.floor(Math.log(micros) / Math.log(2.0) * 4.0)
+            );
+        }
+
+        /**
+         * Percentile, in milliseconds: upper bound of its bucket.
+         * @param counts Counters
+         * @param sum Total count
+         * @param pct Percentile, like 0.95
+         * @return Milliseconds
+         */
+        private static double pct(final long[] counts, final long sum,
+            final double pct) {
+            final long rank = (long) Math.ceil(pct * (double) sum);
+            long seen = 0L;
+            int idx = 0;
+            while (idx < counts.length - 1 && seen + counts[idx] < rank) {
+                seen += counts[idx];
+                ++idx;
+            }
+            // @checkstyle MagicNumber (1 line)
+            return Math.pow(2.0, (double) (idx + 1) / 4.0)
+                / (double) TimeUnit.MILLISECONDS.toMicros(1L);
+        }
+    }
+}
@@ -17,20 +17,20 @@
 package com.zerocracy;
 
 import com.jcabi.xml.XML;
+import com.zerocracy.claims.ClaimIn;
+import com.zerocracy.farm.MismatchException;
 import java.io.IOException;
 
 /**
  * Stakeholder which collects execution metrics.
  *
+ * <p>Time taken by every execution is added to {@link Latencies},
+ * by the name of the stakeholder and the type of the claim. Failed
+ * executions are counted as errors. Claims the stakeholder is not
+ * interested in (see {@link MismatchException}) are not counted
+ * at all.</p>
+ *
  * @since 1.0
- * @todo #1172:30min Add performance metrics: add measurement of time taken
- *  to execute Measured stakeholder. Time taken must be saved to mongodb
- *  instance on database "metrics", collection "time_taken". Fields to be saved:
- *  "stakeholder" with stakeholder class qualified name, "claim_type" with
- *  claim type, "date_time" with datetime of execution, "time_taken" with time
- *  taken to stakeholder process claim. After this decorate StkRuntime so it
- *  could really collect the metrics and fix test in MeasuredText
- *  .collectTimeTakenToExecute if needed.
  * @todo #1172:30min Add performance metrics: add measurement of other
  *  performance metrics (track S3 artifacts download, xml document
  *  modifications, footprint access) and save the to mongodb under database
@@ -48,23 +48,73 @@ public final class Measured implements Stakeholder {
      */
     public static final String TIME_TAKEN = "time_taken";
 
+    /**
+     * Farm.
+     */
+    private final Farm farm;
+
     /**
      * Stakeholder to be measured.
      */
     private final Stakeholder stk;
 
+    /**
+     * Stakeholder name.
+     */
+    private final String name;
+
+    /**
+     * Histograms.
+     */
+    private final Latencies latencies;
+
+    /**
+     * Ctor.
+     * @param farm Farm
+     * @param stk Stakeholder to be measured
+     * @param name Stakeholder name
+     */
+    public Measured(final Farm farm, final Stakeholder stk,
+        final String name) {
+        this(farm, stk, name, Latencies.INSTANCE);
+    }
+
     /**
      * Ctor.
+     * @param farm Farm
      * @param stk Stakeholder to be measured
+     * @param name Stakeholder name
+     * @param latencies Histograms
+     * @checkstyle ParameterNumberCheck (3 lines)
      */
-    public Measured(final Stakeholder stk) {
+    public Measured(final Farm farm, final Stakeholder stk,
+        final String name, final Latencies latencies) {
+        this.farm = farm;
         this.stk = stk;
+        this.name = name;
+        this.latencies = latencies;
     }
 
     @Override
     public void process(final Project project, final XML claim)
         throws IOException {
-        this.stk.process(project, claim);
-        throw new IllegalStateException("measured stakeholder not implemented");
+        final long start = System.nanoTime();
+        boolean error = true;
+        boolean skipped = false;
+        try {
+            this.stk.process(project, claim);
+            error = false;
+        } catch (final MismatchException ex) {
+            skipped = true;
+            throw ex;
+        } finally {
+            if (!skipped) {
+                this.latencies.add(
+                    this.name, new ClaimIn(claim).type(),
+                    System.nanoTime() - start, error
+                );
+                this.latencies.save(this.farm);
+            }
+        }
     }
 }
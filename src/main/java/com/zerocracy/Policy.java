@@ -16,21 +16,19 @@
  */
 package com.zerocracy;
 
-import com.jcabi.xml.XMLDocument;
 import com.zerocracy.cash.Cash;
 import com.zerocracy.farm.props.Props;
 import com.zerocracy.pmo.Pmo;
 import java.io.IOException;
-import java.net.URL;
-import java.util.Iterator;
-import org.cactoos.io.InputOf;
-import org.cactoos.text.TextOf;
+import java.time.Duration;
 
 /**
  * Policy numbers.
  *
  * <p>This class goes to our live policy at www.zerocracy.com/policy.html,
  * finds the number needed inside the HTML, and returns it.
+ * The page is cached by {@link PolicyPage} for "/policy/ttl" seconds
+ * (10 minutes by default).
  * If it's a testing mode, the test value is returned.</p>
  *
  * @since 1.0
@@ -91,24 +89,17 @@ public final class Policy {
     public String get(final String param, final String test)
         throws IOException {
         final String result;
-        if (new Props(this.pmo).has("//testing")) {
+        if (new Props(this.pmo).testing()) {
             result = test;
         } else {
-            final Iterator<String> items = new XMLDocument(
-                new TextOf(
-                    new InputOf(
-                        new URL("http://www.zerocracy.com/policy.html")
+            result = PolicyPage.INSTANCE.value(
+                param,
+                Duration.ofSeconds(
+                    Long.parseLong(
+                        new Props(this.pmo).get("//policy/ttl", "600")
                     )
-                ).asString()
-            ).xpath(String.format("//*[@id='%s']/text()", param)).iterator();
-            if (!items.hasNext()) {
-                throw new IllegalArgumentException(
-                    String.format(
-                        "Policy item '%s' not found", param
-                    )
-                );
-            }
-            result = items.next();
+                )
+            );
         }
         return result;
     }
@@ -0,0 +1,330 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy;
+
+import com.jcabi.log.Logger;
+import com.jcabi.log.VerboseRunnable;
+import com.jcabi.log.VerboseThreads;
+import com.jcabi.xml.XMLDocument;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.cactoos.io.InputOf;
+import org.cactoos.text.TextOf;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * Cached policy page.
+ *
+ * <p>The page is downloaded and its paragraphs are indexed by their
+ * IDs. When the index is older than TTL, it's still used, while the
+ * page is downloaded again in background, with "If-None-Match" and
+ * "If-Modified-Since" headers. If the page can't be downloaded,
+ * the old index stays, so readers wait for the website only until
+ * the page is downloaded for the first time.</p>
+ *
+ * @since 1.0
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ * @checkstyle ClassFanOutComplexityCheck (500 lines)
+ */
+@SuppressWarnings("PMD.ExcessiveImports")
+final class PolicyPage {
+
+    /**
+     * Singleton.
+     */
+    public static final PolicyPage INSTANCE = new PolicyPage(
+        "http://www.zerocracy.com/policy.html"
+    );
+
+    /**
+     * URL of the page.
+     */
+    private final String url;
+
+    /**
+     * Current state.
+     */
+    private final AtomicReference<PolicyPage.State> state;
+
+    /**
+     * Is refresh in progress.
+     */
+    private final AtomicBoolean refreshing;
+
+    /**
+     * Refreshing thread.
+     */
+    private final ExecutorService service;
+
+    /**
+     * Downloads.
+     */
+    private final AtomicLong downloads;
+
+    /**
+     * Checks, which found the page not modified.
+     */
+    private final AtomicLong checks;
+
+    /**
+     * Failed downloads.
+     */
+    private final AtomicLong failures;
+
+    /**
+     * Ctor.
+     * @param addr URL of the page
+     */
+    PolicyPage(final String addr) {
+        this.url = addr;
+        this.state = new AtomicReference<>();
+        this.refreshing = new AtomicBoolean();
+        this.service = Executors.newSingleThreadExecutor(
+            new VerboseThreads(PolicyPage.class)
+        );
+        this.downloads = new AtomicLong();
+        this.checks = new AtomicLong();
+        this.failures = new AtomicLong();
+    }
+
+    /**
+     * Text of the paragraph.
+     * @param id ID of the paragraph
+     * @param ttl How long the page is used without checking
+     * @return Text
+     * @throws IOException If fails
+     */
+    public String value(final String id, final Duration ttl)
+        throws IOException {
+        PolicyPage.State current = this.state.get();
+        if (current == null) {
+            current = this.initial();
+        }
+        if (System.currentTimeMillis() - current.loaded > ttl.toMillis()) {
+            this.refresh();
+        }
+        final String value = current.index.get(id);
+        if (value == null) {
+            throw new IllegalArgumentException(
+                String.format("Policy item '%s' not found", id)
+            );
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%d downloads, %d checks, %d failures",
+            this.downloads.get(), this.checks.get(), this.failures.get()
+        );
+    }
+
+    /**
+     * First state: downloaded page.
+     * @return State
+     * @throws IOException If fails
+     */
+    private PolicyPage.State initial() throws IOException {
+        synchronized (this.state) {
+            PolicyPage.State current = this.state.get();
+            if (current == null) {
+                current = this.fetch(null);
+                this.state.set(current);
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Start refreshing in background, if not yet.
+     */
+    private void refresh() {
+        if (this.refreshing.compareAndSet(false, true)) {
+            this.service.submit(
+                new VerboseRunnable(
+                    () -> {
+                        final PolicyPage.State before = this.state.get();
+                        try {
+                            this.state.set(this.fetch(before));
+                        } catch (final IOException ex) {
+                            this.failures.incrementAndGet();
+                            this.state.set(before.touched());
+                            Logger.warn(
+                                this, "Can't refresh %s: %[exception]s",
+                                this.url, ex
+                            );
+                        } finally {
+                            this.refreshing.set(false);
+                        }
+                    },
+                    true, false
+                )
+            );
+        }
+    }
+
+    /**
+     * Download the page, if it was modified.
+     * @param before Current state or NULL
+     * @return New state
+     * @throws IOException If fails
+     */
+    private PolicyPage.State fetch(final PolicyPage.State before)
+        throws IOException {
+        final URLConnection conn = new URL(this.url).openConnection();
+        // @checkstyle MagicNumber (2 lines)
+        conn.setConnectTimeout((int) TimeUnit.SECONDS.toMillis(5L));
+        conn.setReadTimeout((int) TimeUnit.SECONDS.toMillis(10L));
+        if (before != null && !before.etag.isEmpty()) {
+            conn.setRequestProperty("If-None-Match", before.etag);
+        }
+        if (before != null && !before.modified.isEmpty()) {
+            conn.setRequestProperty("If-Modified-Since", before.modified);
+        }
+        final PolicyPage.State after;
+        if (conn instanceof HttpURLConnection
+            && ((HttpURLConnection) conn).getResponseCode()
+            == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            this.checks.incrementAndGet();
+            after = before.touched();
+        } else {
+            try (final InputStream src = conn.getInputStream()) {
+                after = new PolicyPage.State(
+                    PolicyPage.index(new TextOf(new InputOf(src)).asString()),
+                    PolicyPage.header(conn, "ETag"),
+                    PolicyPage.header(conn, "Last-Modified"),
+                    System.currentTimeMillis()
+                );
+            }
+            this.downloads.incrementAndGet();
+        }
+        return after;
+    }
+
+    /**
+     * Header of the response.
+     * @param conn Connection
+     * @param name Name of the header
+     * @return Value or empty string
+     */
+    private static String header(final URLConnection conn,
+        final String name) {
+        final String value = conn.getHeaderField(name);
+        final String header;
+        if (value == null) {
+            header = "";
+        } else {
+            header = value;
+        }
+        return header;
+    }
+
+    /**
+     * Index paragraphs of the page by ID.
+     * @param html The page
+     * @return Texts by IDs
+     */
+    private static Map<String, String> index(final String html) {
+        final NodeList all = ((Document) new XMLDocument(html).node())
+            .getElementsByTagName("*");
+        final Map<String, String> index = new HashMap<>(all.getLength());
+        for (int idx = 0; idx < all.getLength(); ++idx) {
+            final Element element = (Element) all.item(idx);
+            final String id = element.getAttribute("id");
+            if (!id.isEmpty() && !index.containsKey(id)) {
+                final NodeList kids = element.getChildNodes();
+                for (int kid = 0; kid < kids.getLength(); ++kid) {
+                    if (kids.item(kid).getNodeType() == Node.TEXT_NODE) {
+                        index.put(id, kids.item(kid).getNodeValue());
+                        break;
+                    }
+                }
+            }
+        }
+        return Collections.unmodifiableMap(index);
+    }
+
+    /**
+     * State of the page.
+     */
+    private static final class State {
+
+        /**
+         * Texts by IDs.
+         */
+        private final Map<String, String> index;
+
+        /**
+         * ETag of the page.
+         */
+        private final String etag;
+
+        /**
+         * Last-Modified of the page.
+         */
+        private final String modified;
+
+        /**
+         * When it was loaded or checked, msec.
+         */
+        private final long loaded;
+
+        /**
+         * Ctor.
+         * @param idx Texts by IDs
+         * @param tag ETag
+         * @param mdf Last-Modified
+         * @param time When it was loaded
+         * @checkstyle ParameterNumberCheck (3 lines)
+         */
+        State(final Map<String, String> idx, final String tag,
+            final String mdf, final long time) {
+            this.index = idx;
+            this.etag = tag;
+            this.modified = mdf;
+            this.loaded = time;
+        }
+
+        /**
+         * The same state, just checked.
+         * @return State
+         */
+        public PolicyPage.State touched() {
+            return new PolicyPage.State(
+                this.index, this.etag, this.modified,
+                System.currentTimeMillis()
+            );
+        }
+    }
+}
@@ -18,12 +18,37 @@ package com.zerocracy;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.EqualsAndHashCode;
+import org.cactoos.Func;
+import org.cactoos.Proc;
+import org.cactoos.func.IoCheckedFunc;
+import org.cactoos.func.IoCheckedProc;
 
 /**
  * Project's items transaction.
  *
+ * <p>Modifications of items are not applied to the origin project
+ * immediately. They are applied to local copies of the items, which
+ * are visible to readers of this transaction only, and remembered.
+ * On {@link #commit()} all modifications of an item are applied to
+ * the origin item in one update, in the order items were first
+ * modified. That's why rules and S3 see every item only once per
+ * transaction. If the transaction is closed without a commit, or was
+ * marked as failed by {@link #fail()}, nothing is applied to the origin
+ * project.</p>
+ *
+ * <p>The class is not thread-safe.</p>
+ *
  * @since 1.0
  */
+@EqualsAndHashCode(of = "origin")
 public final class Txn implements Project, Closeable {
 
     /**
@@ -31,17 +56,28 @@ public final class Txn implements Project, Closeable {
      */
     private final Project origin;
 
+    /**
+     * Modified items by name, in order of modification.
+     */
+    private final Map<String, Txn.Change> changes;
+
+    /**
+     * Did it fail.
+     */
+    private boolean broken;
+
     /**
      * Ctor.
      * @param origin Origin project
      */
     public Txn(final Project origin) {
         this.origin = origin;
+        this.changes = new LinkedHashMap<>(0);
     }
 
     @Override
     public Item acq(final String file) throws IOException {
-        return this.origin.acq(file);
+        return new Txn.TxnItem(this, file);
     }
 
     @Override
@@ -50,16 +86,155 @@ public final class Txn implements Project, Closeable {
     }
 
     /**
-     * Commit transaction.
+     * Mark transaction as failed, it will never be committed.
+     */
+    public void fail() {
+        this.broken = true;
+    }
+
+    /**
+     * Did it fail.
+     * @return TRUE if it was marked as failed
+     */
+    public boolean failed() {
+        return this.broken;
+    }
+
+    /**
+     * Commit transaction, unless it failed.
      * @throws IOException If fails
-     * @checkstyle NonStaticMethodCheck (50 lines)
      */
     public void commit() throws IOException {
-        // nothing to commit
+        try {
+            if (!this.broken) {
+                for (final Map.Entry<String, Txn.Change> ent
+                    : this.changes.entrySet()) {
+                    final List<Proc<Path>> writers = ent.getValue().writers;
+                    this.origin.acq(ent.getKey()).update(
+                        path -> {
+                            for (final Proc<Path> writer : writers) {
+                                writer.exec(path);
+                            }
+                        }
+                    );
+                }
+            }
+        } finally {
+            this.close();
+        }
     }
 
     @Override
     public void close() throws IOException {
-        // nothing to close
+        for (final Txn.Change change : this.changes.values()) {
+            TempFiles.INSTANCE.dispose(change.copy);
+        }
+        this.changes.clear();
+    }
+
+    /**
+     * Modifications of one item.
+     */
+    private static final class Change {
+
+        /**
+         * Local copy with all modifications applied.
+         */
+        private final Path copy;
+
+        /**
+         * Modifications.
+         */
+        private final List<Proc<Path>> writers;
+
+        /**
+         * Ctor.
+         * @param copy Local copy
+         */
+        Change(final Path copy) {
+            this.copy = copy;
+            this.writers = new ArrayList<>(1);
+        }
+    }
+
+    /**
+     * Item of the transaction.
+     */
+    private static final class TxnItem implements Item {
+
+        /**
+         * Transaction.
+         */
+        private final Txn txn;
+
+        /**
+         * Item name.
+         */
+        private final String name;
+
+        /**
+         * Ctor.
+         * @param txn Transaction
+         * @param name Item name
+         */
+        TxnItem(final Txn txn, final String name) {
+            this.txn = txn;
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("txn:%s", this.name);
+        }
+
+        @Override
+        public <T> T read(final Func<Path, T> reader) throws IOException {
+            final Txn.Change change = this.txn.changes.get(this.name);
+            final T result;
+            if (change == null) {
+                result = this.txn.origin.acq(this.name).read(reader);
+            } else {
+                final Path tmp = TempFiles.INSTANCE.newFile(this, ".xml");
+                try {
+                    if (Files.exists(change.copy)) {
+                        Files.copy(
+                            change.copy, tmp,
+                            StandardCopyOption.REPLACE_EXISTING
+                        );
+                    } else {
+                        Files.delete(tmp);
+                    }
+                    result = new IoCheckedFunc<>(reader).apply(tmp);
+                } finally {
+                    TempFiles.INSTANCE.dispose(tmp);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public void update(final Proc<Path> writer) throws IOException {
+            Txn.Change change = this.txn.changes.get(this.name);
+            if (change == null) {
+                final Path copy = TempFiles.INSTANCE.newFile(this, ".xml");
+                this.txn.origin.acq(this.name).read(
+                    path -> {
+                        if (Files.exists(path)) {
+                            Files.copy(
+                                path, copy,
+                                StandardCopyOption.REPLACE_EXISTING
+                            );
+                        } else {
+                            Files.delete(copy);
+                        }
+                        return copy;
+                    }
+                );
+                change = new Txn.Change(copy);
+                this.txn.changes.put(this.name, change);
+            }
+            new IoCheckedProc<>(writer).exec(change.copy);
+            change.writers.add(writer);
+        }
     }
 }
@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy;
+
+import com.jcabi.xml.XML;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.cactoos.Func;
+import org.cactoos.func.UncheckedFunc;
+
+/**
+ * Cache of parsed and validated XML files.
+ *
+ * <p>Every entry is bound to the SHA-256 of the file content, not to
+ * the file itself. As soon as the content changes, no matter who
+ * changed it and how fast, the file is parsed again. Different files
+ * with the same content (e.g. temporary copies of one item) share one
+ * entry. The least recently used entries are evicted when the cache
+ * is full.</p>
+ *
+ * <p>The class is thread-safe. Queries to the same document are
+ * serialized, because DOM is not safe for concurrent access.</p>
+ *
+ * @since 1.0
+ */
+final class XmlCache {
+
+    /**
+     * Max amount of entries.
+     */
+    private final int max;
+
+    /**
+     * Parser of the file.
+     */
+    private final Func<Path, XML> parser;
+
+    /**
+     * Entries by content hash, in access order.
+     */
+    private final Map<String, XmlCache.Entry> entries;
+
+    /**
+     * Hits counter.
+     */
+    private final AtomicLong hits;
+
+    /**
+     * Misses counter.
+     */
+    private final AtomicLong misses;
+
+    /**
+     * Ctor.
+     * @param max Max amount of entries
+     * @param parser Parser of the file
+     */
+    XmlCache(final int max, final Func<Path, XML> parser) {
+        this.max = max;
+        this.parser = parser;
+        // @checkstyle MagicNumber (1 line)
+        this.entries = new LinkedHashMap<>(max, 0.75f, true);
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+    }
+
+    /**
+     * Query parsed document of the file.
+     * @param file The file
+     * @param query Query to apply to the document
+     * @param <T> Result type
+     * @return Query result
+     * @throws FileNotFoundException If file is absent
+     */
+    public <T> T query(final Path file, final Func<XML, T> query)
+        throws FileNotFoundException {
+        final String key = XmlCache.key(file);
+        XmlCache.Entry entry = this.entry(key);
+        if (entry.xml == null) {
+            this.misses.incrementAndGet();
+            entry = this.save(
+                key,
+                new XmlCache.Entry(
+                    new UncheckedFunc<>(this.parser).apply(file),
+                    entry.xsds
+                )
+            );
+        } else {
+            this.hits.incrementAndGet();
+        }
+        synchronized (entry) {
+            return new UncheckedFunc<>(query).apply(entry.xml);
+        }
+    }
+
+    /**
+     * Write the document to the file and remember it.
+     *
+     * <p>The document is already valid and has current version, that's
+     * why XSDs the file was bootstrapped with stay the same.</p>
+     * @param file The file
+     * @param xml Document, which is already valid
+     * @throws IOException If fails
+     */
+    public void write(final Path file, final XML xml) throws IOException {
+        final Set<String> xsds;
+        if (Files.exists(file)) {
+            xsds = this.entry(XmlCache.key(file)).xsds;
+        } else {
+            xsds = Collections.emptySet();
+        }
+        final byte[] bytes = xml.toString().getBytes(StandardCharsets.UTF_8);
+        Files.write(file, bytes);
+        this.save(XmlCache.key(bytes), new XmlCache.Entry(xml, xsds));
+    }
+
+    /**
+     * Was this content of the file already bootstrapped with XSD.
+     * @param file The file
+     * @param xsd XSD path
+     * @return TRUE if it was
+     * @throws IOException If fails
+     */
+    public boolean booted(final Path file, final String xsd)
+        throws IOException {
+        return Files.exists(file) && Files.size(file) > 0L
+            && this.entry(XmlCache.key(file)).xsds.contains(xsd);
+    }
+
+    /**
+     * Mark current content of the file as bootstrapped with XSD.
+     * @param file The file
+     * @param xsd XSD path
+     * @throws IOException If fails
+     */
+    public void boot(final Path file, final String xsd) throws IOException {
+        final String key = XmlCache.key(file);
+        final XmlCache.Entry entry = this.entry(key);
+        final Set<String> xsds = new HashSet<>(entry.xsds);
+        xsds.add(xsd);
+        this.save(key, new XmlCache.Entry(entry.xml, xsds));
+    }
+
+    @Override
+    public String toString() {
+        final int size;
+        synchronized (this.entries) {
+            size = this.entries.size();
+        }
+        return String.format(
+            "%d/%d entries, %d hits, %d misses",
+            size, this.max, this.hits.get(), this.misses.get()
+        );
+    }
+
+    /**
+     * Entry of the content.
+     * @param key Content hash
+     * @return Entry, maybe empty
+     */
+    private XmlCache.Entry entry(final String key) {
+        final XmlCache.Entry entry;
+        synchronized (this.entries) {
+            entry = this.entries.get(key);
+        }
+        final XmlCache.Entry found;
+        if (entry == null) {
+            found = new XmlCache.Entry(null, Collections.emptySet());
+        } else {
+            found = entry;
+        }
+        return found;
+    }
+
+    /**
+     * Save the entry.
+     * @param key Content hash
+     * @param entry The entry
+     * @return The entry saved
+     */
+    private XmlCache.Entry save(final String key, final XmlCache.Entry entry) {
+        synchronized (this.entries) {
+            this.entries.put(key, entry);
+            final Iterator<String> iter = this.entries.keySet().iterator();
+            while (this.entries.size() > this.max) {
+                iter.next();
+                iter.remove();
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Hash of the file content.
+     * @param file The file
+     * @return Hash
+     * @throws FileNotFoundException If file is absent
+     */
+    private static String key(final Path file) throws FileNotFoundException {
+        final byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file);
+        } catch (final NoSuchFileException ex) {
+            throw new FileNotFoundException(ex.getMessage());
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return XmlCache.key(bytes);
+    }
+
+    /**
+     * Hash of the content.
+     * @param bytes Content
+     * @return Hash
+     */
+    private static String key(final byte[] bytes) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException err) {
+            throw new IllegalStateException("SHA-256 algorithm required", err);
+        }
+        return Base64.getEncoder().encodeToString(digest.digest(bytes));
+    }
+
+    /**
+     * Cache entry.
+     */
+    private static final class Entry {
+
+        /**
+         * Parsed document, NULL if not parsed yet.
+         */
+        private final XML xml;
+
+        /**
+         * XSDs this content was bootstrapped with.
+         */
+        private final Set<String> xsds;
+
+        /**
+         * Ctor.
+         * @param xml Document
+         * @param xsds Bootstrapped XSDs
+         */
+        Entry(final XML xml, final Set<String> xsds) {
+            this.xml = xml;
+            this.xsds = xsds;
+        }
+    }
+}
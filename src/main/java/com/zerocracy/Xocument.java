@@ -17,7 +17,6 @@
 package com.zerocracy;
 
 import com.jcabi.log.Logger;
-import com.jcabi.xml.StrictXML;
 import com.jcabi.xml.XML;
 import com.jcabi.xml.XMLDocument;
 import com.jcabi.xml.XSL;
@@ -33,12 +32,9 @@ import java.nio.file.StandardOpenOption;
 import java.util.LinkedList;
 import java.util.List;
 import org.apache.commons.lang3.StringUtils;
-import org.cactoos.cache.SoftFunc;
-import org.cactoos.func.SyncFunc;
-import org.cactoos.func.UncheckedFunc;
+import org.cactoos.func.IoCheckedFunc;
+import org.cactoos.func.SolidFunc;
 import org.cactoos.io.InputOf;
-import org.cactoos.io.InputStreamOf;
-import org.cactoos.io.InputWithFallback;
 import org.cactoos.io.LengthOf;
 import org.cactoos.io.TeeInput;
 import org.cactoos.iterable.Mapped;
@@ -50,7 +46,6 @@ import org.cactoos.text.TextOf;
 import org.cactoos.text.UncheckedText;
 import org.cactoos.time.DateAsText;
 import org.w3c.dom.Node;
-import org.w3c.dom.ls.LSResourceResolver;
 import org.xembly.Directive;
 import org.xembly.Directives;
 import org.xembly.Xembler;
@@ -77,19 +72,12 @@ public final class Xocument {
     public static final String VERSION = "0.66.1";
 
     /**
-     * Cache of documents.
+     * Cache of documents, only successfully loaded ones.
      */
-    private static final UncheckedFunc<URL, XML> INDEXES = new UncheckedFunc<>(
-        new SyncFunc<>(
-            new SoftFunc<>(
-                url -> new XMLDocument(
-                    new TextOf(
-                        new InputWithFallback(
-                            new InputOf(url),
-                            new InputOf("<index/>")
-                        )
-                    ).asString()
-                )
+    private static final IoCheckedFunc<URL, XML> INDEXES = new IoCheckedFunc<>(
+        new SolidFunc<>(
+            url -> new XMLDocument(
+                new TextOf(Datum.INSTANCE.input(url)).asString()
             )
         )
     );
@@ -102,9 +90,13 @@ public final class Xocument {
     );
 
     /**
-     * XSD resolver.
+     * Parsed and validated documents.
      */
-    private static final LSResourceResolver RESOLVER = new XsdResolver();
+    private static final XmlCache DOCS = new XmlCache(
+        // @checkstyle MagicNumber (1 line)
+        256,
+        path -> Datum.INSTANCE.validated(new XMLDocument(path.toFile()))
+    );
 
     /**
      * File.
@@ -141,41 +133,9 @@ public final class Xocument {
      */
     public Xocument bootstrap(final String xsd)
         throws IOException {
-        final String root = StringUtils.substringAfterLast(xsd, "/");
-        final String uri = Xocument.url(
-            String.format("/%s/xsd/%s.xsd", Xocument.VERSION, xsd)
-        ).toString();
-        final Path path = this.file;
-        if (!path.toFile().exists() || Files.size(path) == 0L) {
-            Files.write(
-                path,
-                String.join(
-                    " ",
-                    String.format("<%s", root),
-                    String.format("version='%s'", Xocument.VERSION),
-                    String.format("updated='%s'", new DateAsText().asString()),
-                    "xmlns:xsi='http://www.w3.org/2001/XMLSchema-instance'",
-                    String.format(
-                        "xsi:noNamespaceSchemaLocation='%s'/>", uri
-                    )
-                ).getBytes(StandardCharsets.UTF_8),
-                StandardOpenOption.CREATE
-            );
-        }
-        final XML xml = this.upgraded(new XMLDocument(path.toFile()), xsd);
-        final String schema = xml.xpath(
-            String.format("/%s/@xsi:noNamespaceSchemaLocation", root)
-        ).get(0);
-        if (!schema.equals(uri)) {
-            this.modify(
-                new Directives().xpath(String.format("/%s", root)).attr(
-                    "xsi:noNamespaceSchemaLocation", uri
-                )
-            );
-            Logger.info(
-                this, "XSD upgraded to \"%s\" in %s", uri,
-                this.file.getFileName()
-            );
+        if (!Xocument.DOCS.booted(this.file, xsd)) {
+            this.boot(xsd);
+            Xocument.DOCS.boot(this.file, xsd);
         }
         return this;
     }
@@ -187,11 +147,7 @@ public final class Xocument {
      * @throws FileNotFoundException If fails
      */
     public List<String> xpath(final String xpath) throws FileNotFoundException {
-        final XML xml = new StrictXML(
-            new XMLDocument(this.file.toFile()),
-            Xocument.RESOLVER
-        );
-        return xml.xpath(xpath);
+        return Xocument.DOCS.query(this.file, xml -> xml.xpath(xpath));
     }
 
     /**
@@ -228,11 +184,16 @@ public final class Xocument {
      * @throws FileNotFoundException If fails
      */
     public List<XML> nodes(final String xpath) throws FileNotFoundException {
-        final XML xml = new StrictXML(
-            new XMLDocument(this.file.toFile()),
-            Xocument.RESOLVER
+        return Xocument.DOCS.query(
+            this.file,
+            xml -> {
+                final List<XML> nodes = new LinkedList<>();
+                for (final XML node : xml.nodes(xpath)) {
+                    nodes.add(new XMLDocument(node.node()));
+                }
+                return nodes;
+            }
         );
-        return xml.nodes(xpath);
     }
 
     /**
@@ -244,17 +205,14 @@ public final class Xocument {
         final XML before = new XMLDocument(this.toString());
         final Node node = before.node();
         new Xembler(dirs).applyQuietly(node);
-        final XML xml = new StrictXML(
+        final XML xml = Datum.INSTANCE.validated(
             Xocument.COMPRESS.with(
                 "version", Xocument.VERSION
-            ).transform(new XMLDocument(node)),
-            Xocument.RESOLVER
+            ).transform(new XMLDocument(node))
         );
         final String after = xml.toString();
         if (!before.toString().equals(after)) {
-            Files.write(
-                this.file, after.getBytes(StandardCharsets.UTF_8)
-            );
+            Xocument.DOCS.write(this.file, xml);
             Logger.info(
                 this,
                 "modified '%s': %s",
@@ -266,6 +224,50 @@ public final class Xocument {
         }
     }
 
+    /**
+     * Bootstrap the file: create, upgrade and set XSD location.
+     * @param xsd Path of XSD
+     * @throws IOException If fails
+     */
+    private void boot(final String xsd) throws IOException {
+        final String root = StringUtils.substringAfterLast(xsd, "/");
+        final String uri = Xocument.url(
+            String.format("/%s/xsd/%s.xsd", Xocument.VERSION, xsd)
+        ).toString();
+        final Path path = this.file;
+        if (!path.toFile().exists() || Files.size(path) == 0L) {
+            Files.write(
+                path,
+                String.join(
+                    " ",
+                    String.format("<%s", root),
+                    String.format("version='%s'", Xocument.VERSION),
+                    String.format("updated='%s'", new DateAsText().asString()),
+                    "xmlns:xsi='http://www.w3.org/2001/XMLSchema-instance'",
+                    String.format(
+                        "xsi:noNamespaceSchemaLocation='%s'/>", uri
+                    )
+                ).getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE
+            );
+        }
+        final XML xml = this.upgraded(new XMLDocument(path.toFile()), xsd);
+        final String schema = xml.xpath(
+            String.format("/%s/@xsi:noNamespaceSchemaLocation", root)
+        ).get(0);
+        if (!schema.equals(uri)) {
+            this.modify(
+                new Directives().xpath(String.format("/%s", root)).attr(
+                    "xsi:noNamespaceSchemaLocation", uri
+                )
+            );
+            Logger.info(
+                this, "XSD upgraded to \"%s\" in %s", uri,
+                this.file.getFileName()
+            );
+        }
+    }
+
     /**
      * Upgrade if necessary.
      * @param xml XML to upgrade
@@ -296,7 +298,7 @@ public final class Xocument {
                             && Xocument.compare(ver, Xocument.VERSION) <= 0) {
                             final URL url = new URL(node.xpath("@uri").get(0));
                             output = XSLDocument.make(
-                                new InputStreamOf(url)
+                                Datum.INSTANCE.input(url).stream()
                             ).transform(input);
                             Logger.info(
                                 this,
@@ -306,7 +308,7 @@ public final class Xocument {
                         }
                         return output;
                     },
-                    Xocument.INDEXES.apply(
+                    Xocument.index(
                         Xocument.url(
                             String.format(
                                 "/latest/upgrades/%s/index.xml",
@@ -323,6 +325,25 @@ public final class Xocument {
         return after;
     }
 
+    /**
+     * Index of documents, empty if it can't be loaded now.
+     * @param url URL of the index
+     * @return Index
+     */
+    private static XML index(final URL url) {
+        XML index;
+        try {
+            index = Xocument.INDEXES.apply(url);
+        } catch (final IOException ex) {
+            Logger.warn(
+                Xocument.class, "Failed to load index %s: %[exception]s",
+                url, ex
+            );
+            index = new XMLDocument("<index/>");
+        }
+        return index;
+    }
+
     /**
      * Build URL.
      * @param path Path
@@ -0,0 +1,519 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.claims;
+
+import com.jcabi.aspects.Tv;
+import com.jcabi.log.Logger;
+import com.jcabi.log.VerboseRunnable;
+import com.jcabi.log.VerboseThreads;
+import com.jcabi.xml.XML;
+import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import com.zerocracy.Farm;
+import com.zerocracy.entry.ExtMongo;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.bson.Document;
+import org.cactoos.Scalar;
+import org.cactoos.scalar.IoCheckedScalar;
+import org.cactoos.scalar.SolidScalar;
+import org.xembly.Directive;
+import org.xembly.Directives;
+
+/**
+ * Footprint, which writes claims in background.
+ *
+ * <p>Claims are not written to Mongo right away. {@link #open(String, XML,
+ * String, String)} and {@link #close(String, XML)} only put an upsert
+ * into a bounded buffer. One background thread takes them out of the
+ * buffer and writes them in ordered bulks, either when the bulk is full
+ * or when the delay is over.</p>
+ *
+ * <p>{@link #open(String, XML, String, String)} fails right away only
+ * if the same claim (not a ping) is still in the buffer, this check
+ * doesn't touch Mongo. A claim which is already in Mongo is found
+ * by the writer: the upsert doesn't insert it again, and the writer
+ * reports and counts it as a duplicate.</p>
+ *
+ * <p>A bulk which failed is retried until it succeeds, so each update
+ * is delivered at least once. Updates are idempotent: the document is
+ * inserted only if it's absent and closing just sets the date. When the
+ * buffer is full new updates are dropped and counted, the claim
+ * processing is never blocked by writes to Mongo.</p>
+ *
+ * <p>The class is thread-safe.</p>
+ *
+ * @since 1.0
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class AsyncFootprint implements Closeable, Iterable<Directive> {
+
+    /**
+     * Collection to write to.
+     */
+    private final IoCheckedScalar<MongoCollection<Document>> collection;
+
+    /**
+     * Buffer of updates.
+     */
+    private final BlockingQueue<AsyncFootprint.Update> buffer;
+
+    /**
+     * Claims opened and not written yet, as "pid cid".
+     */
+    private final Set<String> opened;
+
+    /**
+     * Capacity of the buffer.
+     */
+    private final int capacity;
+
+    /**
+     * Max size of one bulk.
+     */
+    private final int bulk;
+
+    /**
+     * Max delay of one update, in milliseconds.
+     */
+    private final long delay;
+
+    /**
+     * Writing thread.
+     */
+    private final ExecutorService service;
+
+    /**
+     * Was writer started.
+     */
+    private final AtomicBoolean started;
+
+    /**
+     * Was it closed.
+     */
+    private final AtomicBoolean closed;
+
+    /**
+     * Updates accepted and not written yet.
+     */
+    private final AtomicLong pending;
+
+    /**
+     * Updates written.
+     */
+    private final AtomicLong written;
+
+    /**
+     * Bulks written.
+     */
+    private final AtomicLong bulks;
+
+    /**
+     * Updates dropped.
+     */
+    private final AtomicLong dropped;
+
+    /**
+     * Failed bulk writes.
+     */
+    private final AtomicLong failures;
+
+    /**
+     * Claims found in Mongo by the writer.
+     */
+    private final AtomicLong duplicates;
+
+    /**
+     * Ctor.
+     * @param farm Farm
+     */
+    public AsyncFootprint(final Farm farm) {
+        this(
+            () -> new ExtMongo(farm).shared()
+                .getDatabase("footprint")
+                .getCollection("claims"),
+            // @checkstyle MagicNumber (1 line)
+            Tv.TEN * Tv.THOUSAND, Tv.FIVE * Tv.HUNDRED, (long) Tv.THOUSAND
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param col Collection
+     * @param capacity Max amount of updates in the buffer
+     * @param bulk Max amount of updates in one bulk
+     * @param delay Max delay of an update in milliseconds
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    public AsyncFootprint(final Scalar<MongoCollection<Document>> col,
+        final int capacity, final int bulk, final long delay) {
+        this.collection = new IoCheckedScalar<>(new SolidScalar<>(col));
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.opened = ConcurrentHashMap.newKeySet();
+        this.capacity = capacity;
+        this.bulk = bulk;
+        this.delay = delay;
+        this.service = Executors.newSingleThreadExecutor(
+            new VerboseThreads(AsyncFootprint.class)
+        );
+        this.started = new AtomicBoolean();
+        this.closed = new AtomicBoolean();
+        this.pending = new AtomicLong();
+        this.written = new AtomicLong();
+        this.bulks = new AtomicLong();
+        this.dropped = new AtomicLong();
+        this.failures = new AtomicLong();
+        this.duplicates = new AtomicLong();
+    }
+
+    /**
+     * Open the claim.
+     * @param pid Project ID
+     * @param xml The claim XML
+     * @param signature Claim signature
+     * @param version Version of the farm
+     * @throws IOException If fails
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    public void open(final String pid, final XML xml, final String signature,
+        final String version) throws IOException {
+        final ClaimIn claim = new ClaimIn(xml);
+        final String key;
+        if ("Ping".equals(claim.type())) {
+            key = "";
+        } else {
+            key = String.format("%s %s", pid, claim.cid());
+            this.unique(claim, pid, key);
+        }
+        this.offer(
+            new AsyncFootprint.Update(
+                key,
+                new UpdateOneModel<>(
+                    Footprint.filter(claim, pid),
+                    new Document(
+                        "$setOnInsert",
+                        Footprint.document(claim, pid, version, signature)
+                    ),
+                    new UpdateOptions().upsert(true)
+                )
+            )
+        );
+    }
+
+    /**
+     * Close the claim.
+     * @param pid Project ID
+     * @param xml The claim XML
+     */
+    public void close(final String pid, final XML xml) {
+        this.offer(
+            new AsyncFootprint.Update(
+                "",
+                new UpdateOneModel<>(
+                    Footprint.filter(new ClaimIn(xml), pid),
+                    Updates.currentDate("closed")
+                )
+            )
+        );
+    }
+
+    /**
+     * Wait until everything accepted so far is written.
+     * @param timeout Max time to wait, in milliseconds
+     * @return TRUE if everything is written
+     * @throws InterruptedException If interrupted
+     */
+    public boolean flush(final long timeout) throws InterruptedException {
+        final long start = System.currentTimeMillis();
+        while (this.pending.get() > 0L
+            && System.currentTimeMillis() - start < timeout) {
+            TimeUnit.MILLISECONDS.sleep((long) Tv.TEN);
+        }
+        return this.pending.get() == 0L;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.closed.set(true);
+        this.service.shutdown();
+        try {
+            if (!this.service.awaitTermination(1L, TimeUnit.MINUTES)) {
+                Logger.warn(
+                    this, "Footprint is closed with %d updates lost",
+                    this.pending.get()
+                );
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException(ex);
+        }
+    }
+
+    @Override
+    public Iterator<Directive> iterator() {
+        return new Directives()
+            .add("footprint")
+            .add("queued").set(this.buffer.size()).up()
+            .add("capacity").set(this.capacity).up()
+            .add("pending").set(this.pending.get()).up()
+            .add("written").set(this.written.get()).up()
+            .add("bulks").set(this.bulks.get()).up()
+            .add("dropped").set(this.dropped.get()).up()
+            .add("failures").set(this.failures.get()).up()
+            .add("duplicates").set(this.duplicates.get()).up()
+            .up()
+            .iterator();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            String.join(
+                "",
+                "%d/%d queued, %d written in %d bulks, ",
+                "%d dropped, %d failures, %d duplicates"
+            ),
+            this.buffer.size(), this.capacity, this.written.get(),
+            this.bulks.get(), this.dropped.get(), this.failures.get(),
+            this.duplicates.get()
+        );
+    }
+
+    /**
+     * Make sure the claim is not in the buffer yet.
+     * @param claim The claim
+     * @param pid Project ID
+     * @param key Key of the claim
+     */
+    private void unique(final ClaimIn claim, final String pid,
+        final String key) {
+        if (!this.opened.add(key)) {
+            throw AsyncFootprint.duplicate(claim, pid);
+        }
+    }
+
+    /**
+     * Put the update into the buffer, if there is a space for it.
+     * @param update The update
+     */
+    private void offer(final AsyncFootprint.Update update) {
+        this.start();
+        this.pending.incrementAndGet();
+        if (this.closed.get() || !this.buffer.offer(update)) {
+            this.opened.remove(update.key);
+            this.pending.decrementAndGet();
+            final long drops = this.dropped.incrementAndGet();
+            if (drops % (long) Tv.HUNDRED == 1L) {
+                Logger.warn(
+                    this, "Footprint update dropped, %s", this
+                );
+            }
+        }
+    }
+
+    /**
+     * Start writing thread, if not started yet.
+     */
+    private void start() {
+        if (this.started.compareAndSet(false, true)) {
+            this.service.submit(
+                new VerboseRunnable(this::run, true, false)
+            );
+        }
+    }
+
+    /**
+     * Write updates until closed and the buffer is empty.
+     */
+    private void run() {
+        try {
+            while (!this.closed.get() || !this.buffer.isEmpty()) {
+                final List<AsyncFootprint.Update> batch = this.next();
+                if (!batch.isEmpty()) {
+                    this.write(batch);
+                }
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Take next bulk from the buffer, waiting not longer than the delay.
+     * @return Updates, maybe empty
+     * @throws InterruptedException If interrupted
+     */
+    private List<AsyncFootprint.Update> next()
+        throws InterruptedException {
+        final List<AsyncFootprint.Update> batch = new ArrayList<>(this.bulk);
+        final long deadline = System.currentTimeMillis() + this.delay;
+        long left = this.delay;
+        while (batch.size() < this.bulk && left > 0L) {
+            final AsyncFootprint.Update update = this.buffer.poll(
+                left, TimeUnit.MILLISECONDS
+            );
+            if (update == null) {
+                break;
+            }
+            batch.add(update);
+            this.buffer.drainTo(batch, this.bulk - batch.size());
+            if (this.closed.get()) {
+                break;
+            }
+            left = deadline - System.currentTimeMillis();
+        }
+        return batch;
+    }
+
+    /**
+     * Write the bulk, retrying until it succeeds.
+     *
+     * <p>When the footprint is already closed the bulk is retried
+     * only a few times and then dropped. Duplicates are reported only
+     * if the first attempt succeeds, since a failed attempt may have
+     * inserted a part of the bulk.</p>
+     * @param batch Updates to write in this order
+     * @throws InterruptedException If interrupted
+     */
+    private void write(final List<AsyncFootprint.Update> batch)
+        throws InterruptedException {
+        final List<WriteModel<Document>> models =
+            new ArrayList<>(batch.size());
+        for (final AsyncFootprint.Update update : batch) {
+            models.add(update.model);
+        }
+        int attempt = 0;
+        boolean done = false;
+        while (!done) {
+            try {
+                final BulkWriteResult res = this.collection.value().bulkWrite(
+                    models, new BulkWriteOptions().ordered(true)
+                );
+                if (attempt == 0) {
+                    this.report(batch, res);
+                }
+                this.written.addAndGet((long) batch.size());
+                this.bulks.incrementAndGet();
+                done = true;
+            } catch (final MongoException | IOException ex) {
+                ++attempt;
+                this.failures.incrementAndGet();
+                Logger.warn(
+                    this, "Failed to write %d footprint updates (#%d): %s",
+                    batch.size(), attempt, ex.getLocalizedMessage()
+                );
+                if (this.closed.get() && attempt >= Tv.THREE) {
+                    this.dropped.addAndGet((long) batch.size());
+                    done = true;
+                } else {
+                    TimeUnit.SECONDS.sleep(
+                        (long) Math.min(attempt, Tv.THIRTY)
+                    );
+                }
+            }
+        }
+        for (final AsyncFootprint.Update update : batch) {
+            this.opened.remove(update.key);
+        }
+        this.pending.addAndGet((long) -batch.size());
+    }
+
+    /**
+     * Report claims of the bulk which were already in Mongo.
+     * @param batch Updates written
+     * @param res Result of the bulk
+     */
+    private void report(final List<AsyncFootprint.Update> batch,
+        final BulkWriteResult res) {
+        final Set<Integer> inserted = new HashSet<>(res.getUpserts().size());
+        for (final BulkWriteUpsert upsert : res.getUpserts()) {
+            inserted.add(upsert.getIndex());
+        }
+        for (int idx = 0; idx < batch.size(); ++idx) {
+            final String key = batch.get(idx).key;
+            if (!key.isEmpty() && !inserted.contains(idx)) {
+                this.duplicates.incrementAndGet();
+                Logger.warn(
+                    this, "Claim \"%s\" is already in the footprint", key
+                );
+            }
+        }
+    }
+
+    /**
+     * Error about duplicate claim.
+     * @param claim The claim
+     * @param pid Project ID
+     * @return Exception
+     */
+    private static IllegalArgumentException duplicate(final ClaimIn claim,
+        final String pid) {
+        return new IllegalArgumentException(
+            String.format(
+                "Claim #%s (%s) already exists for %s",
+                claim.cid(), claim.type(), pid
+            )
+        );
+    }
+
+    /**
+     * Update in the buffer.
+     */
+    private static final class Update {
+
+        /**
+         * Key of the opened claim, or empty.
+         */
+        private final String key;
+
+        /**
+         * Update of Mongo.
+         */
+        private final WriteModel<Document> model;
+
+        /**
+         * Ctor.
+         * @param key Key of the opened claim, or empty
+         * @param model Update of Mongo
+         */
+        Update(final String key, final WriteModel<Document> model) {
+            this.key = key;
+            this.model = model;
+        }
+    }
+}
@@ -16,57 +16,135 @@
  */
 package com.zerocracy.claims;
 
+import com.amazonaws.services.sqs.model.MessageAttributeValue;
+import com.amazonaws.services.sqs.model.SendMessageRequest;
+import com.jcabi.aspects.Tv;
+import com.jcabi.log.Logger;
 import com.jcabi.xml.XML;
 import java.io.Closeable;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * Batch processing of {@link Claims}.
  *
+ * <p>Claims are buffered and sent to SQS by
+ * {@link ClaimsSqs#send(List)} in batches of up to ten messages,
+ * which is the limit of SendMessageBatch. The batch is sent as soon
+ * as it is full, when the next claim doesn't fit into the maximum
+ * size of the batch, or on {@link #close()}.</p>
+ *
+ * <p>Claims posted to {@link ClaimsSqs} are collected into batches
+ * only in a thread, which called {@link #start()}, until
+ * {@link #finish()} or {@link #cancel()} is called, see
+ * {@link com.zerocracy.farm.StkBatched}. Such batches are not sent
+ * when they are full, but only by {@link #finish()}, so that nothing
+ * is sent before the claim, which posted them, is done.</p>
+ *
  * @since 1.0
- * @todo #1545:30min Implement BatchClaims for sending claims in batch.
- *  Assure that maximum batch size is 256KB for each batch and after
- *  implementation remove expected exception from tests in BatchClaimsTest.
  */
 public final class BatchClaims implements Claims, Closeable {
 
+    /**
+     * Batches of current thread by queue and project,
+     * NULL if batching is off.
+     */
+    private static final ThreadLocal<Map<String, BatchClaims>> OPEN =
+        new ThreadLocal<>();
+
+    /**
+     * Default maximum batch size (in KB).
+     */
+    private static final int MAX = 256;
+
+    /**
+     * Origin.
+     */
+    private final ClaimsSqs origin;
+
     /**
      * Maximum batch size (in KB).
      */
     private final int max;
 
     /**
-     * Default ctor.
+     * Send batches as soon as they are full.
      */
-    BatchClaims() {
-        // @checkstyle MagicNumberCheck (1 line)
-        this(256);
+    private final boolean eager;
+
+    /**
+     * Full batches, not sent yet.
+     */
+    private final List<List<SendMessageRequest>> ready;
+
+    /**
+     * Buffered messages.
+     */
+    private final List<SendMessageRequest> buffer;
+
+    /**
+     * Size of buffered messages, in bytes.
+     */
+    private long size;
+
+    /**
+     * Ctor.
+     * @param origin Origin claims
+     */
+    BatchClaims(final ClaimsSqs origin) {
+        this(origin, BatchClaims.MAX);
+    }
+
+    /**
+     * Ctor.
+     * @param origin Origin claims
+     * @param max Maximum batch size, in KB
+     */
+    BatchClaims(final ClaimsSqs origin, final int max) {
+        this(origin, max, true);
     }
 
     /**
      * Ctor.
+     * @param origin Origin claims
      * @param max Maximum batch size, in KB
+     * @param eager Send batches as soon as they are full
      */
-    BatchClaims(final int max) {
+    private BatchClaims(final ClaimsSqs origin, final int max,
+        final boolean eager) {
+        this.origin = origin;
         this.max = max;
+        this.eager = eager;
+        this.ready = new ArrayList<>(1);
+        this.buffer = new ArrayList<>(Tv.TEN);
     }
 
     @Override
     public void submit(final XML claim) throws IOException {
-        throw new UnsupportedOperationException("submit(XML) not implemented");
+        this.submit(claim, Instant.MAX);
     }
 
     @Override
-    public void submit(final XML claim, final Instant expires) {
-        throw new UnsupportedOperationException(
-            "submit(XML, Instant) not implemented"
-        );
+    public void submit(final XML claim, final Instant expires)
+        throws IOException {
+        final Optional<SendMessageRequest> msg =
+            this.origin.message(claim, expires);
+        if (msg.isPresent()) {
+            this.add(msg.get());
+        }
     }
 
     @Override
     public void close() throws IOException {
-        throw new UnsupportedOperationException("close() not implemented");
+        final List<IOException> failures = new ArrayList<>(0);
+        final int total = this.send(failures);
+        BatchClaims.failed(failures, total);
     }
 
     /**
@@ -77,4 +155,194 @@ public final class BatchClaims implements Claims, Closeable {
         return this.max;
     }
 
+    /**
+     * Start batching claims in current thread.
+     * @return TRUE if started, FALSE if batching was already on
+     */
+    @SuppressWarnings("PMD.ProhibitPublicStaticMethods")
+    public static boolean start() {
+        final boolean start = BatchClaims.OPEN.get() == null;
+        if (start) {
+            BatchClaims.OPEN.set(new HashMap<>(1));
+        }
+        return start;
+    }
+
+    /**
+     * Send all batches of current thread and stop batching.
+     *
+     * <p>Every batch is sent, even if some of them fail. Failures are
+     * reported together, as suppressed exceptions of one.</p>
+     * @throws IOException If some batches were not sent
+     */
+    @SuppressWarnings("PMD.ProhibitPublicStaticMethods")
+    public static void finish() throws IOException {
+        final Map<String, BatchClaims> batches = BatchClaims.OPEN.get();
+        BatchClaims.OPEN.remove();
+        if (batches != null) {
+            final List<IOException> failures = new ArrayList<>(0);
+            int total = 0;
+            for (final BatchClaims batch : batches.values()) {
+                total += batch.send(failures);
+            }
+            BatchClaims.failed(failures, total);
+        }
+    }
+
+    /**
+     * Drop all batches of current thread, without sending them, and
+     * stop batching.
+     */
+    @SuppressWarnings("PMD.ProhibitPublicStaticMethods")
+    public static void cancel() {
+        final Map<String, BatchClaims> batches = BatchClaims.OPEN.get();
+        BatchClaims.OPEN.remove();
+        if (batches != null) {
+            int dropped = 0;
+            for (final BatchClaims batch : batches.values()) {
+                dropped += batch.buffer.size();
+                for (final List<SendMessageRequest> msgs : batch.ready) {
+                    dropped += msgs.size();
+                }
+            }
+            if (dropped > 0) {
+                Logger.info(
+                    BatchClaims.class, "%d claims were not sent", dropped
+                );
+            }
+        }
+    }
+
+    /**
+     * Batch of current thread for these claims.
+     *
+     * <p>Claims are usually created anew for every submit, so
+     * the batch is found by queue and project, not by the instance.</p>
+     *
+     * @param claims Claims
+     * @return Batch or nothing if batching is off
+     * @throws IOException If fails
+     */
+    static Optional<BatchClaims> bound(final ClaimsSqs claims)
+        throws IOException {
+        final Map<String, BatchClaims> batches = BatchClaims.OPEN.get();
+        final Optional<BatchClaims> batch;
+        if (batches == null) {
+            batch = Optional.empty();
+        } else {
+            batch = Optional.of(
+                batches.computeIfAbsent(
+                    claims.key(),
+                    key -> new BatchClaims(claims, BatchClaims.MAX, false)
+                )
+            );
+        }
+        return batch;
+    }
+
+    /**
+     * Add message to the batch.
+     * @param msg Message
+     * @throws IOException If fails
+     */
+    void add(final SendMessageRequest msg) throws IOException {
+        final long length = BatchClaims.length(msg);
+        if (this.buffer.size() == Tv.TEN
+            || this.size + length > (long) this.max << Tv.TEN) {
+            this.seal();
+        }
+        this.buffer.add(msg);
+        this.size += length;
+        if (this.buffer.size() == Tv.TEN) {
+            this.seal();
+        }
+    }
+
+    /**
+     * Close the current batch and send it, if eager.
+     * @throws IOException If fails
+     */
+    private void seal() throws IOException {
+        this.pack();
+        if (this.eager) {
+            this.close();
+        }
+    }
+
+    /**
+     * Move buffered messages to a batch.
+     */
+    private void pack() {
+        if (!this.buffer.isEmpty()) {
+            this.ready.add(new ArrayList<>(this.buffer));
+            this.buffer.clear();
+            this.size = 0L;
+        }
+    }
+
+    /**
+     * Send all batches, even if some of them fail.
+     * @param failures Failures of batches, which were not sent
+     * @return How many batches there were
+     */
+    private int send(final List<IOException> failures) {
+        this.pack();
+        final int total = this.ready.size();
+        for (final List<SendMessageRequest> batch : this.ready) {
+            try {
+                this.origin.send(batch);
+            } catch (final IOException ex) {
+                failures.add(ex);
+            }
+        }
+        this.ready.clear();
+        return total;
+    }
+
+    /**
+     * Fail if some batches were not sent.
+     * @param failures Failures
+     * @param total How many batches there were
+     * @throws IOException If there are failures
+     */
+    private static void failed(final List<IOException> failures,
+        final int total) throws IOException {
+        if (!failures.isEmpty()) {
+            final IOException error = new IOException(
+                String.format(
+                    "%d of %d batches of claims were not sent",
+                    failures.size(), total
+                )
+            );
+            for (final IOException failure : failures) {
+                error.addSuppressed(failure);
+            }
+            throw error;
+        }
+    }
+
+    /**
+     * Size of the message as SQS counts it: body and attributes.
+     * @param msg Message
+     * @return Size in bytes
+     */
+    private static long length(final SendMessageRequest msg) {
+        long length = (long) BatchClaims.bytes(msg.getMessageBody());
+        for (final Map.Entry<String, MessageAttributeValue> attr
+            : msg.getMessageAttributes().entrySet()) {
+            length += (long) (BatchClaims.bytes(attr.getKey())
+                + BatchClaims.bytes(attr.getValue().getDataType())
+                + BatchClaims.bytes(attr.getValue().getStringValue()));
+        }
+        return length;
+    }
+
+    /**
+     * Length of the text in UTF-8.
+     * @param text Text
+     * @return Length in bytes
+     */
+    private static int bytes(final String text) {
+        return text.getBytes(StandardCharsets.UTF_8).length;
+    }
 }
@@ -44,11 +44,17 @@ public final class ClaimGuts implements Iterable<Directive> {
      */
     private final List<Iterable<Message>> queues;
 
+    /**
+     * Other details.
+     */
+    private final List<Iterable<Directive>> details;
+
     /**
      * Ctor.
      */
     public ClaimGuts() {
         this.queues = new LinkedList<>();
+        this.details = new LinkedList<>();
     }
 
     @Override
@@ -88,6 +94,9 @@ public final class ClaimGuts implements Iterable<Directive> {
             }
         }
         dirs.up();
+        for (final Iterable<Directive> more : this.details) {
+            dirs.append(more);
+        }
         return dirs.iterator();
     }
 
@@ -99,4 +108,13 @@ public final class ClaimGuts implements Iterable<Directive> {
     public void add(final Iterable<Message> queue) {
         this.queues.add(queue);
     }
+
+    /**
+     * Add more details, e.g. statistics of intake.
+     *
+     * @param dirs Directives
+     */
+    public void append(final Iterable<Directive> dirs) {
+        this.details.add(dirs);
+    }
 }
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.claims;
+
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.MessageSystemAttributeName;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.xembly.Directive;
+import org.xembly.Directives;
+
+/**
+ * Statistics of claims intake from SQS.
+ *
+ * <p>Intake rate is the amount of messages received during the last
+ * complete minute. Lag is the age of the oldest message in the last
+ * poll, i.e. how long it was waiting in SQS before we received it.</p>
+ *
+ * <p>The class is thread-safe.</p>
+ *
+ * @since 1.0
+ */
+final class ClaimsIntake implements Iterable<Directive> {
+
+    /**
+     * Rate window, in msec.
+     */
+    private static final long WINDOW = Duration.ofMinutes(1L).toMillis();
+
+    /**
+     * Amount of pollers.
+     */
+    private final AtomicLong pollers;
+
+    /**
+     * Polls made.
+     */
+    private final AtomicLong polls;
+
+    /**
+     * Polls which returned nothing.
+     */
+    private final AtomicLong empty;
+
+    /**
+     * Polls skipped since local queue was full.
+     */
+    private final AtomicLong backoffs;
+
+    /**
+     * Messages received.
+     */
+    private final AtomicLong received;
+
+    /**
+     * Messages added to local queue.
+     */
+    private final AtomicLong enqueued;
+
+    /**
+     * Messages deleted from SQS as expired.
+     */
+    private final AtomicLong deleted;
+
+    /**
+     * Lag of the last poll, in msec.
+     */
+    private final AtomicLong lag;
+
+    /**
+     * Max lag, in msec.
+     */
+    private final AtomicLong slowest;
+
+    /**
+     * Start of current rate window, msec.
+     */
+    private final AtomicLong start;
+
+    /**
+     * Messages received in current rate window.
+     */
+    private final AtomicLong current;
+
+    /**
+     * Messages received in last complete window.
+     */
+    private final AtomicLong rate;
+
+    /**
+     * Ctor.
+     */
+    ClaimsIntake() {
+        this.pollers = new AtomicLong();
+        this.polls = new AtomicLong();
+        this.empty = new AtomicLong();
+        this.backoffs = new AtomicLong();
+        this.received = new AtomicLong();
+        this.enqueued = new AtomicLong();
+        this.deleted = new AtomicLong();
+        this.lag = new AtomicLong();
+        this.slowest = new AtomicLong();
+        this.start = new AtomicLong(System.currentTimeMillis());
+        this.current = new AtomicLong();
+        this.rate = new AtomicLong();
+    }
+
+    /**
+     * Pollers were started.
+     * @param total Amount of pollers
+     */
+    public void started(final int total) {
+        this.pollers.addAndGet((long) total);
+    }
+
+    /**
+     * Messages were received in one poll.
+     * @param messages Messages received
+     * @param queued How many of them were added to local queue
+     */
+    public void polled(final Iterable<Message> messages, final int queued) {
+        final long now = System.currentTimeMillis();
+        this.roll(now);
+        this.polls.incrementAndGet();
+        long oldest = now;
+        int total = 0;
+        for (final Message msg : messages) {
+            final Map<String, String> attrs = msg.getAttributes();
+            final String sent = attrs.get(
+                MessageSystemAttributeName.SentTimestamp.toString()
+            );
+            if (sent != null) {
+                oldest = Math.min(oldest, Long.parseLong(sent));
+            }
+            ++total;
+        }
+        if (total == 0) {
+            this.empty.incrementAndGet();
+        } else {
+            this.lag.set(now - oldest);
+            this.slowest.accumulateAndGet(now - oldest, Math::max);
+        }
+        this.received.addAndGet((long) total);
+        this.current.addAndGet((long) total);
+        this.enqueued.addAndGet((long) queued);
+    }
+
+    /**
+     * Poll was skipped, since local queue is full.
+     */
+    public void backoff() {
+        this.backoffs.incrementAndGet();
+    }
+
+    /**
+     * Expired messages were deleted from SQS.
+     * @param total Amount of them
+     */
+    public void deleted(final int total) {
+        this.deleted.addAndGet((long) total);
+    }
+
+    /**
+     * Intake rate, messages per minute.
+     * @return Rate
+     */
+    public long rate() {
+        this.roll(System.currentTimeMillis());
+        return this.rate.get();
+    }
+
+    @Override
+    public Iterator<Directive> iterator() {
+        return new Directives()
+            .add("intake")
+            .add("pollers").set(this.pollers.get()).up()
+            .add("polls").set(this.polls.get()).up()
+            .add("empty").set(this.empty.get()).up()
+            .add("backoffs").set(this.backoffs.get()).up()
+            .add("received").set(this.received.get()).up()
+            .add("enqueued").set(this.enqueued.get()).up()
+            .add("deleted").set(this.deleted.get()).up()
+            .add("rate").attr("per", "minute").set(this.rate()).up()
+            .add("lag").attr("max", this.slowest.get())
+            .set(this.lag.get()).up()
+            .up()
+            .iterator();
+    }
+
+    /**
+     * Close the rate window if it's over.
+     * @param now Current time, msec
+     */
+    private void roll(final long now) {
+        final long begin = this.start.get();
+        final long spent = now - begin;
+        if (spent >= ClaimsIntake.WINDOW
+            && this.start.compareAndSet(begin, now)) {
+            this.rate.set(
+                this.current.getAndSet(0L) * ClaimsIntake.WINDOW / spent
+            );
+        }
+    }
+}
@@ -18,9 +18,13 @@ package com.zerocracy.claims;
 
 import com.amazonaws.services.sqs.AmazonSQS;
 import com.amazonaws.services.sqs.model.AmazonSQSException;
-import com.amazonaws.services.sqs.model.DeleteMessageRequest;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResult;
 import com.amazonaws.services.sqs.model.Message;
 import com.amazonaws.services.sqs.model.MessageAttributeValue;
+import com.amazonaws.services.sqs.model.MessageSystemAttributeName;
 import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
 import com.jcabi.aspects.Tv;
 import com.jcabi.log.Logger;
@@ -30,44 +34,54 @@ import com.jcabi.xml.XMLDocument;
 import com.zerocracy.Farm;
 import com.zerocracy.claims.proc.MsgExpired;
 import com.zerocracy.entry.ExtSqs;
+import com.zerocracy.farm.props.Props;
 import com.zerocracy.shutdown.ShutdownHook;
 import java.io.Closeable;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.PriorityBlockingQueue;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import org.cactoos.scalar.UncheckedScalar;
 import org.cactoos.text.UncheckedText;
+import org.xembly.Directive;
 
 /**
  * Claims routine.
  * <p>
  * This class uses long-polling to fetch claims from SQS queue.
+ * A few pollers receive messages back to back, the amount of them
+ * is configured by {@code /props/sqs/pollers} property. When
+ * the local queue is filled by more than a half, pollers slow down,
+ * and when it's full they stop receiving messages and remove expired
+ * ones instead.
+ * </p>
  *
  * @since 1.0
- * @todo #1731:30min ClaimsRoutine is too complex and not testable,
- *  let's refactor it to few simpler classes and unit test them
- *  if possible.
  * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
- * @checkstyle ExecutableStatementCountCheck (500 lines)
+ * @checkstyle ClassFanOutComplexityCheck (500 lines)
  */
 @SuppressWarnings(
     {
         "PMD.AvoidDuplicateLiterals",
         "PMD.AvoidInstantiatingObjectsInLoops",
-        "PMD.ExcessiveImports"
+        "PMD.ExcessiveImports",
+        "PMD.TooManyMethods"
     }
 )
-public final class ClaimsRoutine implements Runnable, Closeable {
+public final class ClaimsRoutine implements Runnable, Closeable,
+    Iterable<Directive> {
 
     /**
      * Message by priority comparator.
@@ -91,14 +105,19 @@ public final class ClaimsRoutine implements Runnable, Closeable {
     private static final int QUEUE_SIZE = 1024;
 
     /**
-     * Delay to fetch claims.
+     * Default amount of pollers.
      */
-    private static final long DELAY = 11L;
+    private static final int POLLERS = 4;
 
     /**
-     * Scheduled service.
+     * Max pause between polls, in msec.
      */
-    private final ScheduledExecutorService service;
+    private static final long PAUSE = TimeUnit.SECONDS.toMillis(11L);
+
+    /**
+     * Executor of pollers.
+     */
+    private final ExecutorService service;
 
     /**
      * Farm.
@@ -110,19 +129,31 @@ public final class ClaimsRoutine implements Runnable, Closeable {
      */
     private final BlockingQueue<Message> queue;
 
+    /**
+     * Intake statistics.
+     */
+    private final ClaimsIntake intake;
+
+    /**
+     * When local queue was sanitized last time, msec.
+     */
+    private final AtomicLong sanitized;
+
     /**
      * Ctor.
      *
      * @param farm Farm
      */
     public ClaimsRoutine(final Farm farm) {
-        this.service = Executors.newSingleThreadScheduledExecutor(
+        this.service = Executors.newCachedThreadPool(
             new VerboseThreads(ClaimsRoutine.class)
         );
         this.farm = farm;
         this.queue = new PriorityBlockingQueue<>(
             ClaimsRoutine.QUEUE_SIZE, ClaimsRoutine.BY_PRIORITY
         );
+        this.intake = new ClaimsIntake();
+        this.sanitized = new AtomicLong();
     }
 
     /**
@@ -131,46 +162,88 @@ public final class ClaimsRoutine implements Runnable, Closeable {
      * @param shutdown Shutdown hook
      */
     public void start(final ShutdownHook shutdown) {
+        final int pollers = new UncheckedScalar<>(
+            () -> Integer.parseInt(
+                new Props(this.farm).get(
+                    "//sqs/pollers",
+                    Integer.toString(ClaimsRoutine.POLLERS)
+                )
+            )
+        ).value();
         Logger.info(
             this,
-            "Starting claims routine with local queue size = %s",
-            ClaimsRoutine.QUEUE_SIZE
-        );
-        this.service.scheduleWithFixedDelay(
-            new VerboseRunnable(
-                new ClaimsRoutine.ShutdownRunnable(this, shutdown)
-            ),
-            0L,
-            ClaimsRoutine.DELAY,
-            TimeUnit.SECONDS
+            "Starting claims routine with %d pollers, local queue size = %s",
+            pollers, ClaimsRoutine.QUEUE_SIZE
         );
+        for (int idx = 0; idx < pollers; ++idx) {
+            this.service.submit(
+                new VerboseRunnable(
+                    new ClaimsRoutine.Poller(this, shutdown), true
+                )
+            );
+        }
+        this.intake.started(pollers);
     }
 
     @Override
-    @SuppressWarnings(
-        {
-            "PMD.AvoidInstantiatingObjectsInLoops",
-            "PMD.ConfusingTernary",
-            "PMD.AvoidCatchingGenericException",
-            "PMD.CyclomaticComplexity"
-        }
-    )
     public void run() {
-        final boolean full = this.queue.size() + ClaimsRoutine.LIMIT
-            >= ClaimsRoutine.QUEUE_SIZE;
+        this.poll();
+    }
+
+    @Override
+    public void close() {
+        this.service.shutdownNow();
+    }
+
+    /**
+     * Local queue of messages ordered by priority.
+     * @return Message queue
+     */
+    public BlockingQueue<Message> messages() {
+        return this.queue;
+    }
+
+    @Override
+    public Iterator<Directive> iterator() {
+        return this.intake.iterator();
+    }
+
+    /**
+     * Receive one portion of messages.
+     * @return How long to pause before next poll, msec
+     */
+    private long poll() {
         final AmazonSQS sqs = new UncheckedScalar<>(new ExtSqs(this.farm))
             .value();
         final String url =
             new UncheckedText(new ClaimsQueueUrl(this.farm))
                 .asString();
-        if (full) {
+        final long pause;
+        if (this.queue.size() + ClaimsRoutine.LIMIT
+            >= ClaimsRoutine.QUEUE_SIZE) {
             Logger.info(
                 this, "Queue is full (%s), skipping",
                 this.queue.size()
             );
+            this.intake.backoff();
             this.sanitize(sqs, url);
-            return;
+            pause = ClaimsRoutine.PAUSE;
+        } else {
+            this.receive(sqs, url);
+            if (this.queue.size() > Tv.HUNDRED) {
+                this.sanitize(sqs, url);
+            }
+            pause = ClaimsRoutine.pause(this.queue.size());
         }
+        return pause;
+    }
+
+    /**
+     * Receive messages and put them into local queue.
+     * @param sqs SQS queue
+     * @param url Queue url
+     */
+    private void receive(final AmazonSQS sqs, final String url) {
         Logger.debug(
             this,
             "receiving messages: limit=%d; timout=2m",
@@ -180,35 +253,24 @@ public final class ClaimsRoutine implements Runnable, Closeable {
             new ReceiveMessageRequest(url)
                 .withMessageAttributeNames(
                     "project", "signature", ClaimsRoutine.UNTIL,
-                    "expires", "priority"
+                    "expires", "priority", "type"
+                )
+                .withAttributeNames(
+                    MessageSystemAttributeName.SentTimestamp.toString()
                 )
                 .withVisibilityTimeout(
                     (int) Duration.ofMinutes(2L).getSeconds()
                 ).withWaitTimeSeconds(Tv.TEN)
                 .withMaxNumberOfMessages(ClaimsRoutine.LIMIT)
         ).getMessages();
-        Logger.info(
-            this,
-            "received %d messages, sqs has %s",
-            messages.size(),
-            new UncheckedScalar<>(new SqsQueueSize(this.farm)).value()
-        );
+        final List<Message> expired = new LinkedList<>();
         int queued = 0;
         for (final Message message : messages) {
             Logger.debug(this, "received message: %s", message);
             final Map<String, MessageAttributeValue> attr =
                 message.getMessageAttributes();
             if (new MsgExpired(message).value()) {
-                sqs.deleteMessage(
-                    new DeleteMessageRequest()
-                        .withQueueUrl(url)
-                        .withReceiptHandle(message.getReceiptHandle())
-                );
-                Logger.info(
-                    this,
-                    "Removed expired message: %s",
-                    message.getMessageId()
-                );
+                expired.add(message);
                 continue;
             }
             attr.put(
@@ -225,69 +287,118 @@ public final class ClaimsRoutine implements Runnable, Closeable {
             ClaimsRoutine.addClaim(this.queue, message);
             ++queued;
         }
-        Logger.info(
-            this,
-            "received %d messages from SQS, enqueued %d, size %d",
-            messages.size(), queued, this.queue.size()
-        );
-        if (this.queue.size() > Tv.HUNDRED) {
-            try {
-                this.sanitize(sqs, url);
-                // @checkstyle IllegalCatch (1 line)
-            } catch (final Exception err) {
-                Logger.warn(this, "Sanitize failed: %[exception]s");
-            }
+        this.delete(sqs, url, expired);
+        this.intake.polled(messages, queued);
+        if (!messages.isEmpty()) {
+            Logger.info(
+                this,
+                "received %d messages from SQS, enqueued %d, size %d",
+                messages.size(), queued, this.queue.size()
+            );
         }
     }
 
-    @Override
-    public void close() {
-        this.service.shutdown();
-    }
-
     /**
-     * Local queue of messages ordered by priority.
-     * @return Message queue
+     * Sanitize messages on high load.
+     * <p>
+     * It's done by one poller at a time and not more often than once
+     * per pause, since it's not cheap for a big queue.
+     * </p>
+     *
+     * @param sqs SQS queue
+     * @param url Queue url
      */
-    public BlockingQueue<Message> messages() {
-        return this.queue;
+    private void sanitize(final AmazonSQS sqs, final String url) {
+        final long now = System.currentTimeMillis();
+        final long last = this.sanitized.get();
+        if (now - last >= ClaimsRoutine.PAUSE
+            && this.sanitized.compareAndSet(last, now)) {
+            final List<Message> removed = new LinkedList<>();
+            final Iterator<Message> iter = this.queue.iterator();
+            while (iter.hasNext()) {
+                final Message msg = iter.next();
+                if (new MsgExpired(msg).value()
+                    || ClaimsRoutine.isOldPing(msg)) {
+                    iter.remove();
+                    removed.add(msg);
+                }
+            }
+            this.delete(sqs, url, removed);
+        }
     }
 
     /**
-     * Sanitize messages on high load.
+     * Delete messages from SQS in batches.
      *
      * @param sqs SQS queue
      * @param url Queue url
+     * @param messages Messages to delete
      */
-    private void sanitize(final AmazonSQS sqs, final String url) {
-        final Iterator<Message> iter = this.queue.iterator();
-        while (iter.hasNext()) {
-            final Message msg = iter.next();
-            if (new MsgExpired(msg).value() || ClaimsRoutine.isOldPing(msg)) {
-                iter.remove();
-                try {
-                    sqs.deleteMessage(
-                        new DeleteMessageRequest()
-                            .withQueueUrl(url)
-                            .withReceiptHandle(msg.getReceiptHandle())
-                    );
-                } catch (final AmazonSQSException err) {
+    private void delete(final AmazonSQS sqs, final String url,
+        final List<Message> messages) {
+        for (int start = 0; start < messages.size();
+            start += ClaimsRoutine.LIMIT) {
+            final List<DeleteMessageBatchRequestEntry> entries =
+                new ArrayList<>(ClaimsRoutine.LIMIT);
+            for (final Message msg : messages.subList(
+                start, Math.min(start + ClaimsRoutine.LIMIT, messages.size())
+            )) {
+                entries.add(
+                    new DeleteMessageBatchRequestEntry(
+                        Integer.toString(entries.size()),
+                        msg.getReceiptHandle()
+                    )
+                );
+            }
+            try {
+                final DeleteMessageBatchResult res = sqs.deleteMessageBatch(
+                    new DeleteMessageBatchRequest(url, entries)
+                );
+                for (final BatchResultErrorEntry err : res.getFailed()) {
                     Logger.error(
                         this,
-                        "Failed to delete expired message: %[exception]s",
-                        err
+                        "Failed to delete expired message %s: %s",
+                        messages.get(start + Integer.parseInt(err.getId()))
+                            .getMessageId(),
+                        err.getMessage()
                     );
-                    continue;
                 }
+                this.intake.deleted(res.getSuccessful().size());
                 Logger.info(
                     this,
-                    "Sanitize: removed message: %s",
-                    msg.getMessageId()
+                    "Removed %d expired messages",
+                    res.getSuccessful().size()
+                );
+            } catch (final AmazonSQSException err) {
+                Logger.error(
+                    this,
+                    "Failed to delete expired messages: %[exception]s",
+                    err
                 );
             }
         }
     }
 
+    /**
+     * Pause before next poll.
+     * <p>
+     * There is no pause while local queue is less than half full,
+     * then it grows with the size of the queue.
+     * </p>
+     * @param size Size of local queue
+     * @return Pause, msec
+     */
+    private static long pause(final int size) {
+        final int half = ClaimsRoutine.QUEUE_SIZE / 2;
+        final long pause;
+        if (size > half) {
+            pause = ClaimsRoutine.PAUSE * (long) (size - half) / (long) half;
+        } else {
+            pause = 0L;
+        }
+        return pause;
+    }
+
     /**
      * Check if ping claim is old.
      * @param msg Message
@@ -319,14 +430,14 @@ public final class ClaimsRoutine implements Runnable, Closeable {
     }
 
     /**
-     * Runnable decorator with shutdown hook check.
+     * Poller, which receives messages until shutdown.
      */
-    private static final class ShutdownRunnable implements Runnable {
+    private static final class Poller implements Runnable {
 
         /**
-         * Origin runnable.
+         * Routine.
          */
-        private final Runnable origin;
+        private final ClaimsRoutine routine;
 
         /**
          * Shutdown hook.
@@ -336,19 +447,42 @@ public final class ClaimsRoutine implements Runnable, Closeable {
         /**
          * Ctor.
          *
-         * @param origin Origin runnable
+         * @param routine Routine
          * @param shutdown Shutdown hook
          */
-        ShutdownRunnable(final Runnable origin,
-            final ShutdownHook shutdown) {
-            this.origin = origin;
+        Poller(final ClaimsRoutine routine, final ShutdownHook shutdown) {
+            this.routine = routine;
             this.shutdown = shutdown;
         }
 
         @Override
+        @SuppressWarnings("PMD.AvoidCatchingGenericException")
         public void run() {
-            if (this.shutdown.check()) {
-                this.origin.run();
+            int failures = 0;
+            while (this.shutdown.check()
+                && !Thread.currentThread().isInterrupted()) {
+                long pause;
+                try {
+                    pause = this.routine.poll();
+                    failures = 0;
+                    // @checkstyle IllegalCatchCheck (1 line)
+                } catch (final RuntimeException err) {
+                    ++failures;
+                    pause = TimeUnit.SECONDS.toMillis(
+                        (long) Math.min(failures, Tv.THIRTY)
+                    );
+                    Logger.warn(
+                        this, "Poll failed %d times: %[exception]s",
+                        failures, err
+                    );
+                }
+                if (pause > 0L) {
+                    try {
+                        Thread.sleep(pause);
+                    } catch (final InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
             }
         }
     }
@@ -17,7 +17,12 @@
 package com.zerocracy.claims;
 
 import com.amazonaws.services.sqs.AmazonSQS;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
 import com.amazonaws.services.sqs.model.MessageAttributeValue;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequest;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.SendMessageBatchResult;
+import com.amazonaws.services.sqs.model.SendMessageBatchResultEntry;
 import com.amazonaws.services.sqs.model.SendMessageRequest;
 import com.amazonaws.services.sqs.model.SendMessageResult;
 import com.jcabi.log.Logger;
@@ -26,11 +31,17 @@ import com.zerocracy.Farm;
 import com.zerocracy.Project;
 import java.io.IOException;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import org.cactoos.iterable.Mapped;
 import org.cactoos.scalar.And;
 import org.cactoos.scalar.IoCheckedScalar;
+import org.cactoos.text.JoinedText;
 
 /**
  * Claims queue on Amazon SQS.
@@ -41,6 +52,11 @@ import org.cactoos.scalar.IoCheckedScalar;
 @SuppressWarnings("PMD.AvoidDuplicateLiterals")
 public final class ClaimsSqs implements Claims {
 
+    /**
+     * Attempts to send failed entries of a batch.
+     */
+    private static final int ATTEMPTS = 3;
+
     /**
      * Farm.
      */
@@ -82,22 +98,169 @@ public final class ClaimsSqs implements Claims {
     @Override
     public void submit(final XML claim, final Instant expires)
         throws IOException {
+        final Optional<SendMessageRequest> msg = this.message(claim, expires);
+        if (msg.isPresent()) {
+            final Optional<BatchClaims> batch = BatchClaims.bound(this);
+            if (batch.isPresent()) {
+                batch.get().add(msg.get());
+            } else {
+                Logger.debug(this, "sending message: %s", msg.get());
+                final SendMessageResult res = this.sqs.sendMessage(msg.get());
+                Logger.info(
+                    this,
+                    "Claim '%s' (%s) was send: mid=%s",
+                    claim.xpath("/claim/@id").get(0),
+                    claim.xpath("/claim/type/text()").get(0), res
+                );
+            }
+        }
+    }
+
+    @Override
+    public void submit(final XML claim) throws IOException {
+        this.submit(claim, Instant.MAX);
+    }
+
+    /**
+     * Build a message for the claim.
+     * @param claim Claim XML
+     * @param expires When this claim expires
+     * @return Message or nothing if the claim should be skipped
+     * @throws IOException If fails
+     */
+    Optional<SendMessageRequest> message(final XML claim,
+        final Instant expires) throws IOException {
         final String type = claim.xpath("/claim/type/text()").get(0);
-        if (this.skip(claim)) {
+        final Optional<SendMessageRequest> message;
+        if (this.skip(type)) {
             Logger.info(
                 this,
                 "claims queue is too big, skipping claim %s",
                 type
             );
-            return;
+            message = Optional.empty();
+        } else {
+            message = Optional.of(this.request(claim, expires));
+        }
+        return message;
+    }
+
+    /**
+     * Key of these claims: queue and project.
+     * @return Key
+     * @throws IOException If fails
+     */
+    String key() throws IOException {
+        return String.format("%s %s", this.queue, this.project.pid());
+    }
+
+    /**
+     * Send messages in one batch.
+     *
+     * <p>Entries failed by SQS are sent again, only them, since
+     * the rest are already in the queue. Entries rejected as
+     * malformed (sender fault) are not retried.</p>
+     * @param messages Messages, not more than 10
+     * @throws IOException If some of them were not sent
+     */
+    void send(final List<SendMessageRequest> messages) throws IOException {
+        List<SendMessageRequest> left = messages;
+        final List<String> errors = new LinkedList<>();
+        int attempt = 0;
+        while (!left.isEmpty()) {
+            ++attempt;
+            final SendMessageBatchResult res = this.sqs.sendMessageBatch(
+                new SendMessageBatchRequest(
+                    this.queue, ClaimsSqs.entries(left)
+                )
+            );
+            Logger.info(
+                this,
+                "%d claims of %s were sent in batch: %s",
+                res.getSuccessful().size(), this.project.pid(),
+                new JoinedText(
+                    ", ",
+                    new Mapped<>(
+                        SendMessageBatchResultEntry::getMessageId,
+                        res.getSuccessful()
+                    )
+                ).asString()
+            );
+            final List<SendMessageRequest> retry =
+                new ArrayList<>(res.getFailed().size());
+            for (final BatchResultErrorEntry fail : res.getFailed()) {
+                final SendMessageRequest msg =
+                    left.get(Integer.parseInt(fail.getId()));
+                if (Boolean.TRUE.equals(fail.getSenderFault())
+                    || attempt == ClaimsSqs.ATTEMPTS) {
+                    Logger.warn(
+                        this, "Claim %s was not sent: %s %s%n%s",
+                        msg.getMessageDeduplicationId(),
+                        fail.getCode(), fail.getMessage(),
+                        msg.getMessageBody()
+                    );
+                    errors.add(
+                        String.format(
+                            "%s: %s %s", msg.getMessageDeduplicationId(),
+                            fail.getCode(), fail.getMessage()
+                        )
+                    );
+                } else {
+                    retry.add(msg);
+                }
+            }
+            left = retry;
+        }
+        if (!errors.isEmpty()) {
+            throw new IOException(
+                String.format(
+                    "%d of %d claims of %s were not sent: %s",
+                    errors.size(), messages.size(), this.project.pid(),
+                    String.join(", ", errors)
+                )
+            );
         }
+    }
+
+    /**
+     * Batch entries of messages, identified by their positions.
+     * @param messages Messages
+     * @return Entries
+     */
+    private static List<SendMessageBatchRequestEntry> entries(
+        final List<SendMessageRequest> messages) {
+        final List<SendMessageBatchRequestEntry> entries =
+            new ArrayList<>(messages.size());
+        for (final SendMessageRequest msg : messages) {
+            entries.add(
+                new SendMessageBatchRequestEntry(
+                    Integer.toString(entries.size()), msg.getMessageBody()
+                )
+                    .withMessageGroupId(msg.getMessageGroupId())
+                    .withMessageDeduplicationId(
+                        msg.getMessageDeduplicationId()
+                    )
+                    .withMessageAttributes(msg.getMessageAttributes())
+            );
+        }
+        return entries;
+    }
+
+    /**
+     * Build a request for the claim.
+     * @param claim Claim XML
+     * @param expires When this claim expires
+     * @return Request
+     * @throws IOException If fails
+     */
+    private SendMessageRequest request(final XML claim, final Instant expires)
+        throws IOException {
         final SendMessageRequest msg = new SendMessageRequest(
             this.queue, claim.toString()
         ).withMessageGroupId(this.group(claim));
         final Map<String, MessageAttributeValue> attrs = new HashMap<>(1);
-        final String signature = new ClaimSignature(
-            claim.nodes("//claim").get(0)
-        ).asString();
+        final XML node = claim.nodes("//claim").get(0);
+        final String signature = new ClaimSignature(node).asString();
         if (!expires.equals(Instant.MAX)) {
             attrs.put(
                 "expires",
@@ -112,6 +275,12 @@ public final class ClaimsSqs implements Claims {
                 .withDataType("String")
                 .withStringValue(signature)
         );
+        attrs.put(
+            "type",
+            new MessageAttributeValue()
+                .withDataType("String")
+                .withStringValue(new ClaimIn(node).type())
+        );
         attrs.put(
             "project",
             new MessageAttributeValue()
@@ -148,19 +317,7 @@ public final class ClaimsSqs implements Claims {
             )
         );
         msg.setMessageAttributes(attrs);
-        Logger.debug(this, "sending message: %s", msg);
-        final SendMessageResult res = this.sqs.sendMessage(msg);
-        Logger.info(
-            this,
-            "Claim '%s' (%s) was send: mid=%s",
-            claim.xpath("/claim/@id").get(0),
-            type, res
-        );
-    }
-
-    @Override
-    public void submit(final XML claim) throws IOException {
-        this.submit(claim, Instant.MAX);
+        return msg;
     }
 
     /**
@@ -182,19 +339,19 @@ public final class ClaimsSqs implements Claims {
     }
 
     /**
-     * Can we skip this claim.
-     * @param claim Claim
+     * Can we skip a claim of this type.
+     * <p>
+     * Only pings are skipped, so the size of the queue is not
+     * checked for other claims at all.
+     * @param type Claim type
      * @return True if skip
      * @throws IOException If fails
      */
-    private boolean skip(final XML claim) throws IOException {
-        final long size = new IoCheckedScalar<>(
-            new IoCheckedScalar<>(new SqsQueueSize(this.farm))
-        ).value();
-        final String type = claim.xpath("/claim/type/text()").get(0);
-        // @checkstyle MagicNumberCheck (1 line)
-        return size > 256L
-            // @checkstyle LineLengthCheck (1 line)
-            && ("ping".equalsIgnoreCase(type) || "ping hourly".equalsIgnoreCase(type));
+    private boolean skip(final String type) throws IOException {
+        return ("ping".equalsIgnoreCase(type)
+            || "ping hourly".equalsIgnoreCase(type))
+            && new IoCheckedScalar<>(new SqsQueueSize(this.farm)).value()
+            // @checkstyle MagicNumberCheck (1 line)
+            > 256L;
     }
 }
@@ -34,6 +34,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 
 /**
  * Footprint.
@@ -43,11 +44,6 @@ import org.bson.Document;
 @SuppressWarnings("PMD.AvoidDuplicateLiterals")
 public final class Footprint implements Closeable {
 
-    /**
-     * Footprint lock.
-     */
-    private static final Object LOCK = new Object();
-
     /**
      * Database name.
      */
@@ -73,6 +69,11 @@ public final class Footprint implements Closeable {
      */
     private final Farm farm;
 
+    /**
+     * Close the client on {@link #close()}.
+     */
+    private final boolean owned;
+
     /**
      * Ctor.
      * @param farm Farm
@@ -80,19 +81,33 @@ public final class Footprint implements Closeable {
      * @throws IOException If fails
      */
     public Footprint(final Farm farm, final Project pkt) throws IOException {
-        this(new ExtMongo(farm).value(), pkt.pid(), farm);
+        this(new ExtMongo(farm).shared(), pkt.pid(), farm, false);
     }
 
     /**
      * Ctor.
-     * @param clt Client
+     * @param clt Client, which will be closed by {@link #close()}
      * @param pkt Project name
      * @param farm Farm
      */
     public Footprint(final MongoClient clt, final String pkt, final Farm farm) {
+        this(clt, pkt, farm, true);
+    }
+
+    /**
+     * Ctor.
+     * @param clt Client
+     * @param pkt Project name
+     * @param farm Farm
+     * @param own Close the client on {@link #close()}
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    private Footprint(final MongoClient clt, final String pkt,
+        final Farm farm, final boolean own) {
         this.mongo = clt;
         this.pid = pkt;
         this.farm = farm;
+        this.owned = own;
     }
 
     /**
@@ -107,58 +122,73 @@ public final class Footprint implements Closeable {
      */
     public void open(final XML xml, final String signature)
         throws IOException {
-        synchronized (Footprint.LOCK) {
-            final ClaimIn claim = new ClaimIn(xml);
-            final String cid = claim.cid();
-            final MongoCollection<Document> col =
-                this.mongo.getDatabase("footprint")
-                    .getCollection("claims");
-            try (
-                final MongoCursor<Document> found = col.find(
-                    Filters.and(
-                        Filters.eq("cid", cid),
-                        Filters.eq("project", this.pid)
-                    )
-                ).iterator()
-            ) {
-                if (found.hasNext() && !claim.type().equals("Ping")) {
-                    throw new IllegalArgumentException(
-                        String.format(
-                            "Claim #%s (%s) already exists for %s",
-                            cid, claim.type(), this.pid
-                        )
-                    );
-                }
-            }
-            Document doc = new Document()
-                .append("cid", cid)
-                .append(
-                    "version",
-                    new Props(this.farm).get("//build/version", "")
+        final ClaimIn claim = new ClaimIn(xml);
+        final String cid = claim.cid();
+        final MongoCollection<Document> col =
+            this.mongo.getDatabase("footprint")
+                .getCollection("claims");
+        try (
+            final MongoCursor<Document> found = col.find(
+                Filters.and(
+                    Filters.eq("cid", cid),
+                    Filters.eq("project", this.pid)
                 )
-                .append("project", this.pid)
-                .append("type", claim.type())
-                .append("created", claim.created())
-                .append("signature", signature);
-            if (claim.hasAuthor()) {
-                doc = doc.append("author", claim.author());
-            }
-            if (claim.hasToken()) {
-                doc = doc.append("token", claim.token());
+            ).iterator()
+        ) {
+            if (found.hasNext() && !claim.type().equals("Ping")) {
+                throw new IllegalArgumentException(
+                    String.format(
+                        "Claim #%s (%s) already exists for %s",
+                        cid, claim.type(), this.pid
+                    )
+                );
             }
-            final Set<Map.Entry<String, String>> entries =
-                claim.params().entrySet();
-            for (final Map.Entry<String, String> ent : entries) {
-                final Object val;
-                if (ent.getValue().matches("[0-9]+")) {
-                    val = Long.parseLong(ent.getValue());
-                } else {
-                    val = ent.getValue();
-                }
-                doc = doc.append(ent.getKey(), val);
+        }
+        col.insertOne(
+            Footprint.document(
+                claim, this.pid,
+                new Props(this.farm).get("//build/version", ""),
+                signature
+            )
+        );
+    }
+
+    /**
+     * Document of the claim, just opened.
+     * @param claim The claim
+     * @param pkt Project ID
+     * @param version Version of the farm
+     * @param signature Claim signature
+     * @return Document
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    static Document document(final ClaimIn claim, final String pkt,
+        final String version, final String signature) {
+        Document doc = new Document()
+            .append("cid", claim.cid())
+            .append("version", version)
+            .append("project", pkt)
+            .append("type", claim.type())
+            .append("created", claim.created())
+            .append("signature", signature);
+        if (claim.hasAuthor()) {
+            doc = doc.append("author", claim.author());
+        }
+        if (claim.hasToken()) {
+            doc = doc.append("token", claim.token());
+        }
+        final Set<Map.Entry<String, String>> entries =
+            claim.params().entrySet();
+        for (final Map.Entry<String, String> ent : entries) {
+            final Object val;
+            if (ent.getValue().matches("[0-9]+")) {
+                val = Long.parseLong(ent.getValue());
+            } else {
+                val = ent.getValue();
             }
-            col.insertOne(doc);
+            doc = doc.append(ent.getKey(), val);
         }
+        return doc;
     }
 
     /**
@@ -166,20 +196,28 @@ public final class Footprint implements Closeable {
      * @param xml The claim XML
      */
     public void close(final XML xml) {
-        synchronized (Footprint.LOCK) {
-            final ClaimIn claim = new ClaimIn(xml);
-            this.mongo.getDatabase(Footprint.DBNAME)
-                .getCollection(Footprint.CLAIMS)
-                .updateOne(
-                    Filters.and(
-                        Filters.eq("cid", claim.cid()),
-                        Filters.eq("project", this.pid),
-                        Filters.eq("type", claim.type()),
-                        Filters.eq("created", claim.created())
-                    ),
-                    Updates.currentDate("closed")
-                );
-        }
+        final ClaimIn claim = new ClaimIn(xml);
+        this.mongo.getDatabase(Footprint.DBNAME)
+            .getCollection(Footprint.CLAIMS)
+            .updateOne(
+                Footprint.filter(claim, this.pid),
+                Updates.currentDate("closed")
+            );
+    }
+
+    /**
+     * Filter, which finds exactly one claim.
+     * @param claim The claim
+     * @param pkt Project ID
+     * @return Filter
+     */
+    static Bson filter(final ClaimIn claim, final String pkt) {
+        return Filters.and(
+            Filters.eq("cid", claim.cid()),
+            Filters.eq("project", pkt),
+            Filters.eq("type", claim.type()),
+            Filters.eq("created", claim.created())
+        );
     }
 
     /**
@@ -216,6 +254,8 @@ public final class Footprint implements Closeable {
 
     @Override
     public void close() {
-        this.mongo.close();
+        if (this.owned) {
+            this.mongo.close();
+        }
     }
 }
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.claims;
+
+import com.jcabi.log.Logger;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import com.zerocracy.Farm;
+import com.zerocracy.entry.ExtMongo;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.bson.Document;
+import org.cactoos.Scalar;
+import org.cactoos.scalar.IoCheckedScalar;
+
+/**
+ * Daily rollup of the footprint.
+ *
+ * <p>Claims are grouped by project, type, author login and day. Every
+ * row of the {@code daily} collection keeps the amount of claims in the
+ * group ({@code count}) and the sum of their {@code points}; its
+ * {@code created} is the beginning of the day. Reports read these rows
+ * instead of scanning the entire footprint.</p>
+ *
+ * <p>The rollup is incremental. It remembers the moment it was
+ * refreshed last time (the watermark) and on the next refresh only
+ * re-counts the days since the day before the watermark. The previous
+ * day is included to catch claims which got to the footprint late.
+ * Rows of these days are replaced completely, that's why refreshing
+ * twice does no harm.</p>
+ *
+ * @since 1.0
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ * @checkstyle ClassFanOutComplexityCheck (500 lines)
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+public final class FootprintRollup {
+
+    /**
+     * Only one refresh at a time.
+     */
+    private static final Lock LOCK = new ReentrantLock();
+
+    /**
+     * Watermark ID.
+     */
+    private static final String MARK = "daily";
+
+    /**
+     * Database.
+     */
+    private final IoCheckedScalar<MongoDatabase> database;
+
+    /**
+     * Ctor.
+     * @param farm Farm
+     */
+    public FootprintRollup(final Farm farm) {
+        this(() -> new ExtMongo(farm).shared().getDatabase("footprint"));
+    }
+
+    /**
+     * Ctor.
+     * @param dbs Database
+     */
+    public FootprintRollup(final Scalar<MongoDatabase> dbs) {
+        this.database = new IoCheckedScalar<>(dbs);
+    }
+
+    /**
+     * Collection of daily rows.
+     * @return Collection
+     * @throws IOException If fails
+     */
+    public MongoCollection<Document> collection() throws IOException {
+        return this.database.value().getCollection("daily");
+    }
+
+    /**
+     * Refresh the rollup, if it's older than the age given.
+     *
+     * <p>If another thread is refreshing it right now, this one doesn't
+     * wait and uses rows as they are.</p>
+     * @param age Max age of the rollup
+     * @throws IOException If fails
+     */
+    public void refresh(final Duration age) throws IOException {
+        if (FootprintRollup.LOCK.tryLock()) {
+            try {
+                final Date mark = this.watermark();
+                if (mark.getTime() + age.toMillis()
+                    <= System.currentTimeMillis()) {
+                    this.refresh(mark, new Date());
+                }
+            } finally {
+                FootprintRollup.LOCK.unlock();
+            }
+        }
+    }
+
+    /**
+     * The moment rollup was refreshed last time.
+     * @return Watermark, or zero date if never refreshed
+     * @throws IOException If fails
+     */
+    public Date watermark() throws IOException {
+        final Document mark = this.database.value()
+            .getCollection("watermarks")
+            .find(Filters.eq("_id", FootprintRollup.MARK))
+            .first();
+        final Date date;
+        if (mark == null) {
+            date = new Date(0L);
+        } else {
+            date = mark.getDate("until");
+        }
+        return date;
+    }
+
+    /**
+     * Re-count days since the day before the watermark.
+     * @param mark Watermark
+     * @param now Time now, the new watermark
+     * @throws IOException If fails
+     */
+    private void refresh(final Date mark, final Date now) throws IOException {
+        final Date from = Date.from(
+            mark.toInstant().atZone(ZoneOffset.UTC).toLocalDate()
+                .minusDays(1L).atStartOfDay(ZoneOffset.UTC).toInstant()
+        );
+        final List<WriteModel<Document>> rows = new ArrayList<>(0);
+        final Iterable<Document> groups = this.database.value()
+            .getCollection("claims")
+            .aggregate(
+                Arrays.asList(
+                    Aggregates.match(
+                        Filters.and(
+                            Filters.gte("created", from),
+                            Filters.lt("created", now)
+                        )
+                    ),
+                    Aggregates.group(
+                        new Document("project", "$project")
+                            .append("type", "$type")
+                            .append("login", "$login")
+                            .append("year", new Document("$year", "$created"))
+                            .append(
+                                "day", new Document("$dayOfYear", "$created")
+                            ),
+                        Accumulators.sum("count", 1),
+                        Accumulators.sum("points", "$points")
+                    )
+                )
+            )
+            .allowDiskUse(true);
+        for (final Document group : groups) {
+            final Document key = group.get("_id", Document.class);
+            final Document row = new Document("project", key.get("project"))
+                .append("type", key.get("type"))
+                .append("login", key.get("login"))
+                .append(
+                    "created",
+                    Date.from(
+                        LocalDate.ofYearDay(
+                            key.getInteger("year"), key.getInteger("day")
+                        ).atStartOfDay(ZoneOffset.UTC).toInstant()
+                    )
+                )
+                .append("count", group.get("count"))
+                .append("points", group.get("points"));
+            rows.add(
+                new ReplaceOneModel<>(
+                    Filters.and(
+                        Filters.eq("project", row.get("project")),
+                        Filters.eq("type", row.get("type")),
+                        Filters.eq("login", row.get("login")),
+                        Filters.eq("created", row.get("created"))
+                    ),
+                    row,
+                    new ReplaceOptions().upsert(true)
+                )
+            );
+        }
+        if (!rows.isEmpty()) {
+            this.collection().bulkWrite(
+                rows, new BulkWriteOptions().ordered(false)
+            );
+        }
+        this.database.value().getCollection("watermarks").updateOne(
+            Filters.eq("_id", FootprintRollup.MARK),
+            Updates.set("until", now),
+            new UpdateOptions().upsert(true)
+        );
+        Logger.info(
+            this, "Footprint rollup refreshed since %s, %d rows",
+            from, rows.size()
+        );
+    }
+}
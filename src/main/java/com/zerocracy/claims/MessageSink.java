@@ -20,16 +20,18 @@ import com.amazonaws.services.sqs.model.Message;
 import com.jcabi.aspects.Tv;
 import com.jcabi.log.Logger;
 import com.zerocracy.Farm;
+import com.zerocracy.Latencies;
 import com.zerocracy.Project;
+import com.zerocracy.claims.proc.AsyncFootprintProc;
 import com.zerocracy.claims.proc.AsyncSink;
 import com.zerocracy.claims.proc.BrigadeProc;
 import com.zerocracy.claims.proc.CountingProc;
 import com.zerocracy.claims.proc.ExpiryProc;
-import com.zerocracy.claims.proc.FootprintProc;
 import com.zerocracy.claims.proc.MessageMonitorProc;
 import com.zerocracy.claims.proc.ProcGuts;
 import com.zerocracy.claims.proc.SentryProc;
 import com.zerocracy.farm.guts.Guts;
+import com.zerocracy.farm.sync.Contention;
 import com.zerocracy.shutdown.ShutdownHook;
 import java.io.IOException;
 import java.util.concurrent.BlockingQueue;
@@ -56,6 +58,11 @@ public final class MessageSink implements Farm {
      */
     private final AsyncSink asynk;
 
+    /**
+     * Footprint.
+     */
+    private final AsyncFootprint footprint;
+
     /**
      * Origin farm.
      */
@@ -73,9 +80,10 @@ public final class MessageSink implements Farm {
      */
     @SuppressWarnings("PMD.ConstructorOnlyInitializesOrCallOtherConstructors")
     public MessageSink(final Farm farm, final ShutdownHook shutdown) {
+        final AsyncFootprint fpt = new AsyncFootprint(farm);
         final ProcGuts proc = new ProcGuts(
-            new FootprintProc(
-                farm,
+            new AsyncFootprintProc(
+                farm, fpt,
                 new CountingProc(
                     new BrigadeProc(this),
                     new AtomicInteger()
@@ -93,6 +101,7 @@ public final class MessageSink implements Farm {
             farm
         );
         this.pguts = proc;
+        this.footprint = fpt;
         this.farm = farm;
     }
 
@@ -155,11 +164,15 @@ public final class MessageSink implements Farm {
                 .attr("id", this.getClass().getSimpleName())
                 .append(this.asynk.guts())
                 .append(this.pguts)
+                .append(this.footprint)
+                .append(Latencies.INSTANCE)
+                .append(Contention.INSTANCE)
         ).apply(xpath);
     }
 
     @Override
     public void close() throws IOException {
+        this.footprint.close();
         this.farm.close();
     }
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.claims.proc;
+
+import com.amazonaws.services.sqs.model.Message;
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import com.zerocracy.Farm;
+import com.zerocracy.claims.AsyncFootprint;
+import com.zerocracy.farm.props.Props;
+import org.cactoos.Proc;
+
+/**
+ * Proc to add claim to footprint in background.
+ *
+ * <p>Unlike {@link FootprintProc} it doesn't talk to Mongo, it only
+ * puts updates into {@link AsyncFootprint}.</p>
+ *
+ * @since 1.0
+ */
+public final class AsyncFootprintProc implements Proc<Message> {
+
+    /**
+     * Farm.
+     */
+    private final Farm farm;
+
+    /**
+     * Footprint.
+     */
+    private final AsyncFootprint footprint;
+
+    /**
+     * Origin proc.
+     */
+    private final Proc<Message> origin;
+
+    /**
+     * Ctor.
+     *
+     * @param farm Farm
+     * @param footprint Footprint
+     * @param origin Origin
+     */
+    public AsyncFootprintProc(final Farm farm, final AsyncFootprint footprint,
+        final Proc<Message> origin) {
+        this.farm = farm;
+        this.footprint = footprint;
+        this.origin = origin;
+    }
+
+    @Override
+    public void exec(final Message input) throws Exception {
+        final String pid = new SqsProject(this.farm, input).pid();
+        final XML xml = new XMLDocument(input.getBody())
+            .nodes("/claim").get(0);
+        this.footprint.open(
+            pid, xml,
+            input.getMessageAttributes().get("signature").getStringValue(),
+            new Props(this.farm).get("//build/version", "")
+        );
+        this.origin.exec(input);
+        this.footprint.close(pid, xml);
+    }
+}
@@ -23,11 +23,15 @@ import com.jcabi.log.Logger;
 import com.zerocracy.Farm;
 import com.zerocracy.claims.ClaimsQueueUrl;
 import com.zerocracy.claims.MsgPriority;
+import com.zerocracy.entry.ExtDatums;
 import com.zerocracy.entry.ExtSqs;
+import com.zerocracy.kpi.Datums;
 import com.zerocracy.shutdown.ShutdownHook;
 import java.io.IOException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import org.cactoos.Proc;
 import org.cactoos.scalar.IoCheckedScalar;
 import org.cactoos.scalar.Reduced;
@@ -50,6 +54,11 @@ import org.xembly.Directives;
 @SuppressWarnings("PMD.ConstructorOnlyInitializesOrCallOtherConstructors")
 public final class AsyncSink {
 
+    /**
+     * How often queue stats are sent to metrics, in milliseconds.
+     */
+    private static final long PUBLISH = TimeUnit.MINUTES.toMillis(1L);
+
     /**
      * Origin proc.
      */
@@ -70,6 +79,16 @@ public final class AsyncSink {
      */
     private final Farm farm;
 
+    /**
+     * Threads shared by all queues.
+     */
+    private final ProjectPool pool;
+
+    /**
+     * When queue stats were sent to metrics last time, in milliseconds.
+     */
+    private final AtomicLong published;
+
     /**
      * Ctor.
      *
@@ -80,10 +99,35 @@ public final class AsyncSink {
      */
     public AsyncSink(final Proc<Message> origin,
         final ShutdownHook shutdown, final Farm farm) {
+        this(
+            origin, shutdown, farm,
+            new ProjectPool(
+                Math.max(
+                    Tv.EIGHT,
+                    Runtime.getRuntime().availableProcessors() << 1
+                )
+            )
+        );
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param origin Origin proc
+     * @param shutdown Shutdown hook
+     * @param farm Farm
+     * @param pool Threads for all project queues
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    public AsyncSink(final Proc<Message> origin,
+        final ShutdownHook shutdown, final Farm farm,
+        final ProjectPool pool) {
         this.origin = origin;
         this.shutdown = shutdown;
         this.farm = farm;
+        this.pool = pool;
         this.queues = new ConcurrentHashMap<>(Tv.FIFTY);
+        this.published = new AtomicLong(System.currentTimeMillis());
     }
 
     /**
@@ -97,6 +141,7 @@ public final class AsyncSink {
             Logger.info(this, "Shutdown requested, stopping all queues");
             this.queues.values().forEach(ProjectQueue::stop);
             this.queues.clear();
+            this.pool.close();
             throw new IOException("Shutting down");
         }
         final String pid = msg.getMessageAttributes().get("project")
@@ -104,6 +149,7 @@ public final class AsyncSink {
         final ProjectQueue queue = this.queues.computeIfAbsent(
             pid, this::startedQueue
         );
+        this.publish();
         final ProjectQueue repaired = queue.repair();
         final boolean process = repaired.size() < Tv.EIGHT
             || MsgPriority.from(msg).value() > MsgPriority.LOW.value();
@@ -137,6 +183,7 @@ public final class AsyncSink {
      */
     public Iterable<Directive> guts() throws IOException {
         return new Directives()
+            .append(this.pool)
             .add("queues")
             .append(
                 new IoCheckedScalar<>(
@@ -146,7 +193,25 @@ public final class AsyncSink {
                         this.queues.values()
                     )
                 ).value()
-            ).up();
+            ).up()
+            .append(new QueueStats.Types());
+    }
+
+    /**
+     * Send queue stats to metrics, once in a while.
+     * @throws IOException If fails
+     */
+    private void publish() throws IOException {
+        final long last = this.published.get();
+        final long now = System.currentTimeMillis();
+        if (now - last >= AsyncSink.PUBLISH
+            && this.published.compareAndSet(last, now)) {
+            final Datums datums = new ExtDatums(this.farm).value();
+            for (final String pid : this.queues.keySet()) {
+                new QueueStats.Ext(pid).value().publish(datums);
+            }
+            new QueueStats.Types().publish(datums);
+        }
     }
 
     /**
@@ -155,7 +220,9 @@ public final class AsyncSink {
      * @return Queue
      */
     private ProjectQueue startedQueue(final String pid) {
-        final ProjectQueue queue = new ProjectQueue(pid, this.origin);
+        final ProjectQueue queue = new ProjectQueue(
+            pid, this.origin, this.pool
+        );
         queue.start();
         return queue;
     }
@@ -21,14 +21,22 @@ import com.jcabi.log.Logger;
 import com.jcabi.xml.XML;
 import com.jcabi.xml.XMLDocument;
 import com.zerocracy.Farm;
+import com.zerocracy.Measured;
 import com.zerocracy.Project;
+import com.zerocracy.Txn;
+import com.zerocracy.claims.BatchClaims;
 import com.zerocracy.claims.ClaimIn;
+import com.zerocracy.farm.CachedFarm;
+import com.zerocracy.farm.StkBatched;
 import com.zerocracy.farm.StkSafe;
 import com.zerocracy.farm.StkTimed;
 import com.zerocracy.farm.StkVerbose;
 import com.zerocracy.farm.reactive.Brigade;
 import com.zerocracy.farm.reactive.StkRuntime;
+import com.zerocracy.farm.sync.Contention;
+import com.zerocracy.sentry.SafeSentry;
 import groovy.lang.Script;
+import java.io.IOException;
 import java.time.Duration;
 import java.util.Map;
 import org.cactoos.Proc;
@@ -41,8 +49,18 @@ import org.reflections.scanners.SubTypesScanner;
 /**
  * Process message in stakeholders brigade.
  *
+ * <p>Items of the project are modified in a {@link Txn}, which is
+ * committed only if no stakeholder failed, see {@link StkSafe}. PMO
+ * claims are not wrapped, since stakeholders modify PMO items through
+ * {@link com.zerocracy.pmo.Pmo} too, and wouldn't see changes of the
+ * transaction. Items modified in the cache are uploaded after the
+ * commit, and claims posted by stakeholders are sent after the upload,
+ * before the message is deleted. If the claim fails, neither happens:
+ * changes are dropped and the message is processed again.</p>
+ *
  * @since 1.0
  * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ * @checkstyle ClassFanOutComplexityCheck (500 lines)
  */
 public final class BrigadeProc implements Proc<Message> {
 
@@ -69,10 +87,14 @@ public final class BrigadeProc implements Proc<Message> {
                         cls.getSimpleName(),
                         farm,
                         new StkVerbose(
-                            new StkTimed(
-                                new StkRuntime(cls, farm),
-                                cls.getSimpleName(),
-                                Duration.ofMinutes(1L)
+                            new Measured(
+                                farm,
+                                new StkTimed(
+                                    new StkBatched(new StkRuntime(cls, farm)),
+                                    cls.getSimpleName(),
+                                    Duration.ofMinutes(1L)
+                                ),
+                                cls.getSimpleName()
                             ),
                             cls.getName()
                         )
@@ -112,7 +134,31 @@ public final class BrigadeProc implements Proc<Message> {
             input.getMessageId(), claim.type(),
             claim.cid(), project.pid()
         );
-        final int total = this.brigade.apply(project, xml);
+        final int total;
+        final boolean batched = BatchClaims.start();
+        final boolean tracked = CachedFarm.start();
+        Contention.INSTANCE.claim(claim.cid());
+        boolean done = false;
+        try {
+            total = this.applied(project, xml);
+            if (tracked) {
+                CachedFarm.finish();
+            }
+            done = true;
+        } finally {
+            Contention.INSTANCE.claim("");
+            if (!done) {
+                if (tracked) {
+                    CachedFarm.cancel();
+                }
+                if (batched) {
+                    BatchClaims.cancel();
+                }
+            }
+        }
+        if (batched) {
+            this.send();
+        }
         if (total == 0 && claim.hasToken()) {
             throw new IllegalStateException(
                 String.format(
@@ -143,4 +189,56 @@ public final class BrigadeProc implements Proc<Message> {
             claim.hasAuthor() ? String.format(", by @%s", claim.author()) : ""
         );
     }
+
+    /**
+     * Apply the brigade to the claim in a transaction.
+     *
+     * <p>The commit is made by {@link StkSafe}, so that its failures,
+     * e.g. rules violations, are reported the same way as failures of
+     * stakeholders. Changes of items made in a failed transaction,
+     * including PMO items and items committed before the failure, are
+     * dropped from the cache.</p>
+     * @param project Project
+     * @param xml Claim
+     * @return Amount of stakeholders, which processed the claim
+     * @throws Exception If fails
+     */
+    private int applied(final Project project, final XML xml)
+        throws Exception {
+        final int total;
+        if ("PMO".equals(project.pid())) {
+            total = this.brigade.apply(project, xml);
+        } else {
+            try (final Txn txn = new Txn(project)) {
+                total = this.brigade.apply(txn, xml);
+                new StkSafe(
+                    "commit", this.farm, (pkt, clm) -> txn.commit()
+                ).process(txn, xml);
+                if (txn.failed()) {
+                    CachedFarm.cancel();
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Send claims posted by stakeholders.
+     *
+     * <p>The changes of the claim are already uploaded, the message will
+     * be deleted; if it failed, it would be processed again and applied
+     * twice. That's why claims, which were not sent, are only
+     * reported.</p>
+     */
+    private void send() {
+        try {
+            BatchClaims.finish();
+        } catch (final IOException ex) {
+            Logger.error(
+                this, "Claims posted by stakeholders were lost: %[exception]s",
+                ex
+            );
+            new SafeSentry(this.farm).capture(ex);
+        }
+    }
 }
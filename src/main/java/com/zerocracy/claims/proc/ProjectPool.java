@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.claims.proc;
+
+import com.jcabi.log.Logger;
+import com.jcabi.log.VerboseThreads;
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.xembly.Directive;
+import org.xembly.Directives;
+
+/**
+ * Bounded pool of threads shared by all project queues.
+ * <p>
+ * Project queues with messages are waiting for a thread in FIFO
+ * order. A thread takes one message from a queue and then puts
+ * the queue back to the end of the line, if it still has messages,
+ * so all projects are served round-robin. A queue is never in
+ * the line twice, that's why messages of one project are processed
+ * one by one, see {@link ProjectQueue}.
+ * </p>
+ *
+ * @since 1.0
+ */
+public final class ProjectPool implements Closeable, Iterable<Directive> {
+
+    /**
+     * Queues ready to be processed.
+     */
+    private final BlockingQueue<ProjectQueue> ready;
+
+    /**
+     * Amount of threads.
+     */
+    private final int threads;
+
+    /**
+     * Threads.
+     */
+    private final ExecutorService service;
+
+    /**
+     * Were threads started.
+     */
+    private final AtomicBoolean started;
+
+    /**
+     * Is pool closed.
+     */
+    private final AtomicBoolean closed;
+
+    /**
+     * Threads busy right now.
+     */
+    private final AtomicInteger busy;
+
+    /**
+     * Messages processed.
+     */
+    private final AtomicLong done;
+
+    /**
+     * Ctor.
+     * @param threads Amount of threads
+     */
+    public ProjectPool(final int threads) {
+        this.threads = threads;
+        this.ready = new LinkedBlockingQueue<>();
+        this.service = Executors.newFixedThreadPool(
+            threads, new VerboseThreads("PQ", false, Thread.NORM_PRIORITY)
+        );
+        this.started = new AtomicBoolean();
+        this.closed = new AtomicBoolean();
+        this.busy = new AtomicInteger();
+        this.done = new AtomicLong();
+    }
+
+    /**
+     * Put queue to the end of the line.
+     * @param queue Queue with messages
+     */
+    public void submit(final ProjectQueue queue) {
+        if (this.closed.get()) {
+            throw new IllegalStateException(
+                String.format("Pool is closed, can't run %s", queue)
+            );
+        }
+        if (this.started.compareAndSet(false, true)) {
+            for (int idx = 0; idx < this.threads; ++idx) {
+                this.service.execute(this::work);
+            }
+            Logger.info(this, "%d threads started", this.threads);
+        }
+        this.ready.add(queue);
+    }
+
+    @Override
+    public void close() {
+        this.closed.set(true);
+        this.service.shutdownNow();
+    }
+
+    @Override
+    public Iterator<Directive> iterator() {
+        return new Directives()
+            .add("pool")
+            .add("threads").set(this.threads).up()
+            .add("busy").set(this.busy.get()).up()
+            .add("ready").set(this.ready.size()).up()
+            .add("done").set(this.done.get()).up()
+            .up()
+            .iterator();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%d/%d threads busy, %d queues ready, %d messages done",
+            this.busy.get(), this.threads, this.ready.size(), this.done.get()
+        );
+    }
+
+    /**
+     * Serve queues until the pool is closed.
+     */
+    @SuppressWarnings("PMD.AvoidCatchingThrowable")
+    private void work() {
+        while (!this.closed.get()) {
+            final ProjectQueue queue;
+            try {
+                queue = this.ready.take();
+            } catch (final InterruptedException err) {
+                if (!this.closed.get()) {
+                    Logger.warn(
+                        this, "Pool thread was interrupted: %[exception]s",
+                        err
+                    );
+                }
+                continue;
+            }
+            this.busy.incrementAndGet();
+            try {
+                if (queue.step()) {
+                    this.done.incrementAndGet();
+                }
+                // @checkstyle IllegalCatch (1 line)
+            } catch (final Throwable err) {
+                Logger.error(
+                    this, "Queue %s failed: %[exception]s", queue, err
+                );
+            } finally {
+                this.busy.decrementAndGet();
+            }
+        }
+    }
+}
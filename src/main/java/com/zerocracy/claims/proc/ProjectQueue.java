@@ -25,6 +25,10 @@ import java.util.Comparator;
 import java.util.Objects;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import lombok.EqualsAndHashCode;
 import org.cactoos.Proc;
 import org.cactoos.scalar.IoCheckedScalar;
@@ -34,10 +38,15 @@ import org.xembly.Directives;
 
 /**
  * Project queue of claim messages ordered by priority.
+ * <p>
+ * The queue doesn't have its own thread, messages are processed
+ * by threads of {@link ProjectPool}, one message at a time.
+ * </p>
  *
  * @since 1.0
  */
-@EqualsAndHashCode
+@EqualsAndHashCode(of = "pid")
+@SuppressWarnings("PMD.AvoidUsingVolatile")
 public final class ProjectQueue {
 
     /**
@@ -57,24 +66,51 @@ public final class ProjectQueue {
     private final String pid;
 
     /**
-     * Queue thread.
+     * Message proc.
      */
-    private final Thread thread;
+    private final Proc<Message> proc;
 
     /**
-     * Message proc.
+     * Pool of threads.
      */
-    private final Proc<Message> proc;
+    private final ProjectPool pool;
+
+    /**
+     * Is queue in the line of the pool.
+     */
+    private final AtomicBoolean scheduled;
+
+    /**
+     * Thread, which processes a message right now.
+     */
+    private final AtomicReference<Thread> worker;
+
+    /**
+     * Held while a message is processed.
+     */
+    private final Lock busy;
+
+    /**
+     * Was it started.
+     */
+    private volatile boolean started;
+
+    /**
+     * Was it stopped.
+     */
+    private volatile boolean stopped;
 
     /**
      * Ctor.
      * @param pid Project id
      * @param proc Stakeholders
+     * @param pool Pool of threads
      */
-    public ProjectQueue(final String pid, final Proc<Message> proc) {
+    public ProjectQueue(final String pid, final Proc<Message> proc,
+        final ProjectPool pool) {
         this(
             new PriorityBlockingQueue<>(Tv.HUNDRED, ProjectQueue.CMP),
-            pid, proc
+            pid, proc, pool
         );
     }
 
@@ -83,13 +119,18 @@ public final class ProjectQueue {
      * @param msgs Message queue
      * @param pid Project id
      * @param proc Message proc
+     * @param pool Pool of threads
+     * @checkstyle ParameterNumberCheck (3 lines)
      */
     ProjectQueue(final BlockingQueue<Message> msgs, final String pid,
-        final Proc<Message> proc) {
+        final Proc<Message> proc, final ProjectPool pool) {
         this.msgs = msgs;
         this.pid = pid;
-        this.thread = ProjectQueue.newThread(pid, this::run);
         this.proc = proc;
+        this.pool = pool;
+        this.scheduled = new AtomicBoolean();
+        this.worker = new AtomicReference<>();
+        this.busy = new ReentrantLock();
     }
 
     /**
@@ -97,59 +138,40 @@ public final class ProjectQueue {
      * @param msg Message to push
      */
     public void push(final Message msg) {
-        if (this.thread.isInterrupted()) {
+        if (this.stopped) {
             throw new IllegalStateException(
-                String.format(
-                    "Thread %s was interrupted, state=%s",
-                    this.thread.getName(), this.thread.getState()
-                )
+                String.format("Queue %s was stopped", this.pid)
             );
         }
         this.msgs.removeIf(
             next -> Objects.equals(next.getMessageId(), msg.getMessageId())
         );
-        try {
-            new QueueStats.Ext(this.pid).value().add(msg);
-            this.msgs.put(msg);
-            Logger.info(
-                this, "Pushed message (queue_size=%d, pri=%s): %s",
-                this.msgs.size(), MsgPriority.from(msg), msg.getMessageId()
-            );
-        } catch (final InterruptedException err) {
-            Thread.currentThread().interrupt();
-            Logger.warn(
-                this, "push for %s interrupted: %[exception]s",
-                this.pid, err
-            );
-        }
+        new QueueStats.Ext(this.pid).value().add(msg);
+        this.msgs.add(msg);
+        Logger.info(
+            this, "Pushed message (queue_size=%d, pri=%s): %s",
+            this.msgs.size(), MsgPriority.from(msg), msg.getMessageId()
+        );
+        this.schedule();
     }
 
     /**
-     * Start thread queue.
+     * Start processing messages.
      */
     public void start() {
         Logger.info(this, "Starting queue: %s", this.pid);
-        this.thread.start();
-        Logger.info(
-            this, "Queue %s started: %s", this.pid, this.thread.getState()
-        );
+        this.started = true;
+        this.schedule();
     }
 
     /**
-     * Stop queue thread.
+     * Stop processing messages, waiting for current one to complete.
      */
     public void stop() {
         Logger.info(this, "Stopping queue %s", this.pid);
-        this.thread.interrupt();
-        try {
-            this.thread.join();
-        } catch (final InterruptedException err) {
-            Logger.info(
-                this,
-                "Queue thread %s was interrupted: %[exception]s",
-                this.thread.getName(), err
-            );
-        }
+        this.stopped = true;
+        this.busy.lock();
+        this.busy.unlock();
         Logger.info(this, "Queue stopped %s", this.pid);
     }
 
@@ -167,14 +189,21 @@ public final class ProjectQueue {
      * @throws IOException If fails
      */
     public Iterable<Directive> stats() throws IOException {
+        final Thread thread = this.worker.get();
+        final String name;
+        if (thread == null) {
+            name = "";
+        } else {
+            name = thread.getName();
+        }
         return new Directives()
             .add("queue").attr("pid", this.pid)
             .add("thread")
-            .add("name").set(this.thread.getName()).up()
-            .add("state").set(this.thread.getState()).up()
+            .add("name").set(name).up()
+            .add("state").set(this.state()).up()
             .up()
             .add("size").set(this.size()).up()
-            .add("stats").set(new QueueStats.Ext(this.pid).value()).up()
+            .append(new QueueStats.Ext(this.pid).value())
             .add("items")
             .append(
                 new IoCheckedScalar<>(
@@ -192,25 +221,21 @@ public final class ProjectQueue {
 
     /**
      * Repair current queue if broken.
-     * @return New queue if broken or current of OK
-     * @todo #2165:30min Some threads are getting terminated by someone
-     *  from outside. More often PQ-PMO thread is interrupted.
-     *  Most probably `Terminator` is the problem here. Let's fix this
-     *  issue and remove this dirty hack from this object.
+     * <p>
+     * A queue with messages, which is not in the line of the pool,
+     * is put there again.
+     * </p>
+     * @return This queue
      */
     public ProjectQueue repair() {
-        final ProjectQueue res;
-        if (this.thread.getState() == Thread.State.TERMINATED) {
+        if (this.started && !this.stopped && !this.msgs.isEmpty()
+            && this.scheduled.compareAndSet(false, true)) {
             Logger.warn(
-                this,
-                "Thread terminated, repairing queue: %s", this.pid
+                this, "Queue was lost by the pool, repairing: %s", this.pid
             );
-            res = new ProjectQueue(this.msgs, this.pid, this.proc);
-            res.start();
-        } else {
-            res = this;
+            this.pool.submit(this);
         }
-        return res;
+        return this;
     }
 
     @Override
@@ -219,63 +244,96 @@ public final class ProjectQueue {
     }
 
     /**
-     * Runnable job.
+     * Process one message, if there is any.
+     * <p>
+     * It's called by a thread of the pool, when this queue
+     * has its turn. If there are more messages the queue goes
+     * to the end of the line again.
+     * </p>
+     * @return TRUE if a message was processed
+     */
+    boolean step() {
+        boolean done = false;
+        this.busy.lock();
+        try {
+            if (!this.stopped) {
+                final Message msg = this.msgs.poll();
+                if (msg != null) {
+                    this.process(msg);
+                    done = true;
+                }
+            }
+        } finally {
+            this.busy.unlock();
+            this.scheduled.set(false);
+        }
+        if (!this.msgs.isEmpty()) {
+            this.schedule();
+        }
+        return done;
+    }
+
+    /**
+     * Put the queue in the line of the pool, unless it's there already.
+     */
+    private void schedule() {
+        if (this.started && !this.stopped
+            && this.scheduled.compareAndSet(false, true)) {
+            this.pool.submit(this);
+        }
+    }
+
+    /**
+     * Process a message by current thread.
+     * @param msg Message
      */
     @SuppressWarnings({"PMD.AvoidCatchingThrowable", "OverlyBroadCatchBlock"})
-    private void run() {
+    private void process(final Message msg) {
         final Thread thr = Thread.currentThread();
-        final QueueStats stats = new QueueStats.Ext(this.pid).value();
-        while (!thr.isInterrupted()) {
-            final Message msg;
-            try {
-                msg = this.msgs.take();
-            } catch (final InterruptedException err) {
-                thr.interrupt();
-                Logger.info(
-                    this,
-                    "Project queue was interrupted: %[exception]s", err
-                );
-                break;
-            }
-            Logger.info(
+        final String name = thr.getName();
+        thr.setName(String.format("PQ-%s", this.pid));
+        this.worker.set(thr);
+        Logger.info(
+            this,
+            "Polled message (queue_size=%d, pri=%s): %s",
+            this.msgs.size(), MsgPriority.from(msg), msg.getMessageId()
+        );
+        try {
+            new QueueStats.Ext(this.pid).value().runBrigade(this.proc, msg);
+        } catch (final InterruptedException iex) {
+            thr.interrupt();
+            Logger.warn(
                 this,
-                "Polled message (queue_size=%d, pri=%s): %s",
-                this.msgs.size(), MsgPriority.from(msg), msg.getMessageId()
+                "Proc interrupted: %[exception]s", iex
             );
-            try {
-                stats.runBrigade(this.proc, msg);
-                Thread.sleep(0L);
-            } catch (final InterruptedException iex) {
-                thr.interrupt();
-                Logger.warn(
-                    this,
-                    "Proc interrupted: %[exception]s", iex
-                );
-                break;
-                // @checkstyle IllegalCatch (1 line)
-            } catch (final Throwable err) {
-                Logger.error(
-                    this,
-                    "Proc failed for message %s: %[exception]s",
-                    msg, err
-                );
-            }
+            // @checkstyle IllegalCatch (1 line)
+        } catch (final Throwable err) {
+            Logger.error(
+                this,
+                "Proc failed for message %s: %[exception]s",
+                msg, err
+            );
+        } finally {
+            this.worker.set(null);
+            thr.setName(name);
         }
-        Logger.warn(
-            this, "Queue exited: interrupted?=%b state=%s",
-            thr.isInterrupted(), thr.getState()
-        );
     }
 
     /**
-     * New thread for project.
-     * @param pid Project id
-     * @param worker Thread worker runnable
-     * @return Thread instance
+     * State of the queue.
+     * @return State
      */
-    private static Thread newThread(final String pid, final Runnable worker) {
-        final Thread thr = new Thread(worker, String.format("PQ-%s", pid));
-        thr.setDaemon(false);
-        return thr;
+    private String state() {
+        final String state;
+        if (this.stopped) {
+            state = "TERMINATED";
+        } else if (this.worker.get() == null && this.scheduled.get()) {
+            state = "READY";
+        } else if (this.worker.get() == null) {
+            state = "WAITING";
+        } else {
+            state = "RUNNABLE";
+        }
+        return state;
     }
 }
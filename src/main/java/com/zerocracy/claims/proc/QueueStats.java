@@ -16,82 +16,101 @@
  */
 package com.zerocracy.claims.proc;
 
+import com.amazonaws.services.cloudwatch.model.Dimension;
+import com.amazonaws.services.cloudwatch.model.StandardUnit;
 import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.MessageAttributeValue;
 import com.jcabi.aspects.Tv;
-import java.text.DecimalFormat;
+import com.zerocracy.kpi.Datums;
 import java.time.Duration;
-import java.time.Instant;
-import java.util.HashMap;
-import java.util.List;
+import java.util.Iterator;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
 import org.cactoos.Func;
 import org.cactoos.Proc;
 import org.cactoos.Scalar;
 import org.cactoos.func.SolidFunc;
 import org.cactoos.func.UncheckedFunc;
+import org.xembly.Directive;
+import org.xembly.Directives;
 
 /**
  * Queue performance stats.
  *
+ * <p>Two times are measured for every claim message: how long it was
+ * waiting in the project queue before a brigade took it, and how long
+ * the brigade was processing it. Times are recorded by HdrHistogram
+ * recorders, which are wait-free for writers, so nothing is locked
+ * and nothing is scanned in the claim path. Readers see rolling
+ * windows of the last five to ten minutes, with percentiles.</p>
+ *
+ * <p>Times are broken down per project (an instance per project, see
+ * {@link QueueStats.Ext}) and per claim type, for all projects together
+ * (see {@link QueueStats.Types}). The type of a claim is taken from
+ * the "type" attribute of its message.</p>
+ *
+ * <p>The class is thread-safe.</p>
+ *
  * @since 1.0
  */
-public final class QueueStats {
+public final class QueueStats implements Iterable<Directive> {
 
     /**
-     * Format.
+     * Instance pool.
      */
-    private static final DecimalFormat FMT = new DecimalFormat();
+    private static final Func<String, QueueStats> POOL = new SolidFunc<>(
+        QueueStats::new
+    );
 
     /**
-     * Amount of seconds in one hour.
+     * Times by claim types, for all projects.
      */
-    private static final double SECOND_PER_HOUR = 3600.0;
+    private static final Map<String, QueueStats.Times> TYPES =
+        new ConcurrentHashMap<>(Tv.HUNDRED);
 
     /**
-     * Instance pool.
+     * Metrics namespace.
      */
-    private static final Func<String, QueueStats> POOL = new SolidFunc<>(
-        pid -> new QueueStats(
-            new HashMap<>(Tv.HUNDRED),
-            new HashMap<>(Tv.HUNDRED),
-            new HashMap<>(Tv.HUNDRED)
-        )
-    );
+    private static final String NAMESPACE = "0crat/farm";
 
-    static {
-        QueueStats.FMT.setMinimumFractionDigits(0);
-        QueueStats.FMT.setMaximumFractionDigits(2);
-        QueueStats.FMT.setGroupingUsed(false);
-    }
+    /**
+     * Max amount of messages waiting in the queue to track.
+     */
+    private static final int MAX_WAITING = Tv.TEN * Tv.THOUSAND;
+
+    /**
+     * Project id.
+     */
+    private final String pid;
 
     /**
-     * Messages by timestamp.
+     * Arrival times of waiting messages, by message ids, in nanoseconds.
      */
-    private final Map<String, Instant> msgs;
+    private final Map<String, Long> arrivals;
 
     /**
-     * Message delays.
+     * Times of the project.
      */
-    private final Map<String, Duration> delays;
+    private final QueueStats.Times times;
 
     /**
-     * Brigade times.
+     * Messages which were not tracked since too many were waiting.
      */
-    private final Map<String, Duration> brigades;
+    private final AtomicLong untracked;
 
     /**
      * Ctor.
-     * @param msgs Messages
-     * @param delays Delays
-     * @param brigades Brigades
-     */
-    private QueueStats(final Map<String, Instant> msgs,
-        final Map<String, Duration> delays,
-        final Map<String, Duration> brigades) {
-        this.msgs = msgs;
-        this.delays = delays;
-        this.brigades = brigades;
+     * @param pid Project id
+     */
+    private QueueStats(final String pid) {
+        this.pid = pid;
+        this.arrivals = new ConcurrentHashMap<>(Tv.HUNDRED);
+        this.times = new QueueStats.Times();
+        this.untracked = new AtomicLong();
     }
 
     /**
@@ -99,9 +118,10 @@ public final class QueueStats {
      * @param msg Message
      */
     public void add(final Message msg) {
-        synchronized (this.msgs) {
-            this.cleanup();
-            this.msgs.put(msg.getMessageId(), Instant.now());
+        if (this.arrivals.size() < QueueStats.MAX_WAITING) {
+            this.arrivals.put(msg.getMessageId(), System.nanoTime());
+        } else {
+            this.untracked.incrementAndGet();
         }
     }
 
@@ -113,62 +133,67 @@ public final class QueueStats {
      */
     public void runBrigade(final Proc<Message> proc, final Message msg)
         throws Exception {
-        final String mid = msg.getMessageId();
-        final Instant before = Instant.now();
-        synchronized (this.msgs) {
-            this.cleanup();
-            this.delays.put(mid, Duration.between(this.msgs.get(mid), before));
-        }
-        proc.exec(msg);
-        final Instant after = Instant.now();
-        synchronized (this.msgs) {
-            this.brigades.put(mid, Duration.between(before, after));
-            this.cleanup();
+        final long before = System.nanoTime();
+        final QueueStats.Times type = QueueStats.TYPES.computeIfAbsent(
+            QueueStats.type(msg), any -> new QueueStats.Times()
+        );
+        final Long arrived = this.arrivals.remove(msg.getMessageId());
+        if (arrived != null) {
+            this.times.waits.record(before - arrived);
+            type.waits.record(before - arrived);
         }
+        try {
+            proc.exec(msg);
+        } finally {
+            final long spent = System.nanoTime() - before;
+            this.times.brigades.record(spent);
+            type.brigades.record(spent);
+        }
+    }
+
+    /**
+     * Send percentiles of the project to metrics.
+     * @param datums Metric datums
+     */
+    public void publish(final Datums datums) {
+        this.times.publish(
+            datums, new Dimension().withName("project").withValue(this.pid)
+        );
+    }
+
+    @Override
+    public Iterator<Directive> iterator() {
+        return new Directives()
+            .add("stats")
+            .add("waiting").set(this.arrivals.size()).up()
+            .add("untracked").set(this.untracked.get()).up()
+            .append(this.times)
+            .up()
+            .iterator();
     }
 
     @Override
     public String toString() {
-        // @checkstyle LineLengthCheck (20 lines)
-        synchronized (this.msgs) {
-            this.cleanup();
-            return String.format(
-                "S/D/BS/BL: %d/%s/%s/%s",
-                this.msgs.keySet().size(),
-                QueueStats.FMT.format(
-                    (double) this.delays.values().stream().reduce(Duration.ZERO, Duration::plus).getSeconds()
-                        / (double) this.delays.size()
-                ),
-                QueueStats.FMT.format(
-                    (double) this.brigades.values().stream().reduce(Duration.ZERO, Duration::plus).getSeconds()
-                        / (double) this.brigades.size()
-                ),
-                QueueStats.FMT.format(
-                    (double) this.brigades.values().stream().reduce(Duration.ZERO, Duration::plus).getSeconds()
-                        / QueueStats.SECOND_PER_HOUR
-                )
-            );
-        }
+        return String.format(
+            "%d waiting, %s", this.arrivals.size(), this.times
+        );
     }
 
     /**
-     * Cleanup stats.
-     */
-    private void cleanup() {
-        synchronized (this.msgs) {
-            final Instant start = Instant.now().minus(Duration.ofHours(1L));
-            final List<String> keys = this.msgs.entrySet().stream()
-                .filter(kv -> kv.getValue().isBefore(start))
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
-            keys.forEach(
-                expired -> {
-                    this.msgs.remove(expired);
-                    this.delays.remove(expired);
-                    this.brigades.remove(expired);
-                }
-            );
+     * Claim type of the message.
+     * @param msg Message
+     * @return Type or "unknown"
+     */
+    private static String type(final Message msg) {
+        final MessageAttributeValue attr =
+            msg.getMessageAttributes().get("type");
+        final String type;
+        if (attr == null) {
+            type = "unknown";
+        } else {
+            type = attr.getStringValue();
         }
+        return type;
     }
 
     /**
@@ -194,4 +219,213 @@ public final class QueueStats {
             return new UncheckedFunc<>(QueueStats.POOL).apply(this.pid);
         }
     }
+
+    /**
+     * Stats of all projects by claim types.
+     */
+    public static final class Types implements Iterable<Directive> {
+
+        /**
+         * Send percentiles of all claim types to metrics.
+         * @param datums Metric datums
+         */
+        public void publish(final Datums datums) {
+            for (final Map.Entry<String, QueueStats.Times> ent
+                : QueueStats.TYPES.entrySet()) {
+                ent.getValue().publish(
+                    datums,
+                    new Dimension().withName("type").withValue(ent.getKey())
+                );
+            }
+        }
+
+        @Override
+        public Iterator<Directive> iterator() {
+            final Directives dirs = new Directives().add("claim-types");
+            for (final Map.Entry<String, QueueStats.Times> ent
+                : QueueStats.TYPES.entrySet()) {
+                dirs.add("type").attr("name", ent.getKey())
+                    .append(ent.getValue())
+                    .up();
+            }
+            return dirs.up().iterator();
+        }
+    }
+
+    /**
+     * Waiting and processing times.
+     */
+    private static final class Times implements Iterable<Directive> {
+
+        /**
+         * Waiting in the queue.
+         */
+        private final QueueStats.Rolling waits = new QueueStats.Rolling();
+
+        /**
+         * Processing by brigade.
+         */
+        private final QueueStats.Rolling brigades = new QueueStats.Rolling();
+
+        /**
+         * Send percentiles to metrics.
+         * @param datums Metric datums
+         * @param dim Dimension
+         */
+        public void publish(final Datums datums, final Dimension dim) {
+            QueueStats.Times.publish(
+                datums, "queue-wait", this.waits.snapshot(), dim
+            );
+            QueueStats.Times.publish(
+                datums, "queue-brigade", this.brigades.snapshot(), dim
+            );
+        }
+
+        @Override
+        public Iterator<Directive> iterator() {
+            return new Directives()
+                .add("wait")
+                .append(QueueStats.Times.dirs(this.waits.snapshot()))
+                .up()
+                .add("brigade")
+                .append(QueueStats.Times.dirs(this.brigades.snapshot()))
+                .up()
+                .iterator();
+        }
+
+        @Override
+        public String toString() {
+            final Histogram waited = this.waits.snapshot();
+            final Histogram processed = this.brigades.snapshot();
+            return String.format(
+                "wait p50/p99/max: %d/%d/%dms, brigade p50/p99/max: %d/%d/%dms",
+                // @checkstyle MagicNumber (2 lines)
+                waited.getValueAtPercentile(50.0),
+                waited.getValueAtPercentile(99.0),
+                waited.getMaxValue(),
+                // @checkstyle MagicNumber (2 lines)
+                processed.getValueAtPercentile(50.0),
+                processed.getValueAtPercentile(99.0),
+                processed.getMaxValue()
+            );
+        }
+
+        /**
+         * Percentiles in Xembly.
+         * @param hist Histogram
+         * @return Directives
+         */
+        private static Iterable<Directive> dirs(final Histogram hist) {
+            return new Directives()
+                .add("count").set(hist.getTotalCount()).up()
+                // @checkstyle MagicNumber (3 lines)
+                .add("p50").set(hist.getValueAtPercentile(50.0)).up()
+                .add("p95").set(hist.getValueAtPercentile(95.0)).up()
+                .add("p99").set(hist.getValueAtPercentile(99.0)).up()
+                .add("max").set(hist.getMaxValue()).up();
+        }
+
+        /**
+         * Send percentiles of one histogram to metrics.
+         * @param datums Metric datums
+         * @param name Metric name prefix
+         * @param hist Histogram
+         * @param dim Dimension
+         * @checkstyle ParameterNumberCheck (3 lines)
+         */
+        private static void publish(final Datums datums, final String name,
+            final Histogram hist, final Dimension dim) {
+            if (hist.getTotalCount() > 0L) {
+                // @checkstyle MagicNumber (3 lines)
+                final double[] pcts = {50.0, 95.0, 99.0};
+                for (final double pct : pcts) {
+                    datums.add(
+                        QueueStats.NAMESPACE,
+                        String.format("%s-p%d", name, (int) pct),
+                        StandardUnit.Milliseconds,
+                        (double) hist.getValueAtPercentile(pct),
+                        dim
+                    );
+                }
+            }
+        }
+    }
+
+    /**
+     * Rolling window of times, in milliseconds.
+     *
+     * <p>Writers record into a recorder without locks. Readers move
+     * recorded values into the current window, which becomes the
+     * previous one after {@link #WINDOW}; a snapshot is the previous
+     * and the current windows together.</p>
+     */
+    private static final class Rolling {
+
+        /**
+         * Length of a window, in milliseconds.
+         */
+        private static final long WINDOW = Duration.ofMinutes(5L).toMillis();
+
+        /**
+         * Significant decimal digits of values.
+         */
+        private static final int DIGITS = 2;
+
+        /**
+         * Recorder.
+         */
+        private final Recorder recorder;
+
+        /**
+         * Current window.
+         */
+        private Histogram current;
+
+        /**
+         * Previous window.
+         */
+        private Histogram previous;
+
+        /**
+         * When current window was started, in milliseconds.
+         */
+        private long since;
+
+        /**
+         * Ctor.
+         */
+        Rolling() {
+            this.recorder = new Recorder(QueueStats.Rolling.DIGITS);
+            this.current = new Histogram(QueueStats.Rolling.DIGITS);
+            this.previous = new Histogram(QueueStats.Rolling.DIGITS);
+            this.since = System.currentTimeMillis();
+        }
+
+        /**
+         * Record time.
+         * @param nano Time, in nanoseconds
+         */
+        public void record(final long nano) {
+            this.recorder.recordValue(
+                Math.max(0L, TimeUnit.NANOSECONDS.toMillis(nano))
+            );
+        }
+
+        /**
+         * Times of the last one or two windows.
+         * @return Histogram
+         */
+        public synchronized Histogram snapshot() {
+            this.current.add(this.recorder.getIntervalHistogram());
+            final long now = System.currentTimeMillis();
+            if (now - this.since >= QueueStats.Rolling.WINDOW) {
+                this.previous = this.current;
+                this.current = new Histogram(QueueStats.Rolling.DIGITS);
+                this.since = now;
+            }
+            final Histogram total = this.previous.copy();
+            total.add(this.current);
+            return total;
+        }
+    }
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.entry;
+
+import com.amazonaws.services.cloudwatch.AmazonCloudWatch;
+import com.zerocracy.Farm;
+import com.zerocracy.farm.props.Props;
+import com.zerocracy.kpi.Datums;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.cactoos.Scalar;
+
+/**
+ * Metric datums of the farm, published to CloudWatch.
+ *
+ * <p>There is one instance per CloudWatch account in the process, no
+ * matter how the farm is decorated, and one per client passed to
+ * {@link #of(AmazonCloudWatch)}. In testing mode datums are only
+ * kept in memory. All instances are flushed and stopped by
+ * {@link #release()}.</p>
+ *
+ * @since 1.0
+ */
+public final class ExtDatums implements Scalar<Datums> {
+
+    /**
+     * Instances by CloudWatch keys.
+     */
+    private static final Map<String, Datums> SHARED =
+        new ConcurrentHashMap<>(1);
+
+    /**
+     * Instances by CloudWatch clients.
+     */
+    private static final Map<AmazonCloudWatch, Datums> CLIENTS =
+        new ConcurrentHashMap<>(1);
+
+    /**
+     * Farm.
+     */
+    private final Farm farm;
+
+    /**
+     * Ctor.
+     *
+     * @param farm Farm
+     */
+    public ExtDatums(final Farm farm) {
+        this.farm = farm;
+    }
+
+    @Override
+    public Datums value() throws IOException {
+        final Props props = new Props(this.farm);
+        final String key;
+        if (props.testing()) {
+            key = "";
+        } else {
+            key = props.get("//cloudwatch/key");
+        }
+        synchronized (ExtDatums.SHARED) {
+            Datums datums = ExtDatums.SHARED.get(key);
+            if (datums == null) {
+                if (key.isEmpty()) {
+                    datums = new Datums(new Datums.Fake());
+                } else {
+                    final AmazonCloudWatch cloudwatch =
+                        new ExtCloudWatch(this.farm).value();
+                    datums = new Datums(cloudwatch::putMetricData);
+                }
+                ExtDatums.SHARED.put(key, datums);
+            }
+            return datums;
+        }
+    }
+
+    /**
+     * Datums of the client, shared in the process.
+     * @param cloudwatch CloudWatch client
+     * @return Datums
+     */
+    @SuppressWarnings("PMD.ProhibitPublicStaticMethods")
+    public static Datums of(final AmazonCloudWatch cloudwatch) {
+        synchronized (ExtDatums.SHARED) {
+            return ExtDatums.CLIENTS.computeIfAbsent(
+                cloudwatch, client -> new Datums(client::putMetricData)
+            );
+        }
+    }
+
+    /**
+     * Flush and stop all instances.
+     */
+    @SuppressWarnings("PMD.ProhibitPublicStaticMethods")
+    public static void release() {
+        synchronized (ExtDatums.SHARED) {
+            for (final Datums datums : ExtDatums.SHARED.values()) {
+                datums.close();
+            }
+            ExtDatums.SHARED.clear();
+            for (final Datums datums : ExtDatums.CLIENTS.values()) {
+                datums.close();
+            }
+            ExtDatums.CLIENTS.clear();
+        }
+    }
+}
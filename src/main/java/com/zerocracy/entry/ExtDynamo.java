@@ -44,7 +44,7 @@ public final class ExtDynamo implements Scalar<Region> {
                 frm -> {
                     final Props props = new Props(frm);
                     final Region region;
-                    if (props.has("//testing")) {
+                    if (props.testing()) {
                         final String port = System.getProperty(
                             "dynamo.port", ""
                         );
@@ -55,6 +55,7 @@ public final class ExtFarm implements Farm {
                 .add("farm")
                 .attr("id", this.getClass().getSimpleName())
                 .add("quota").set(new Quota(this.origin).toString()).up()
+                .append(new ExtDatums(this.origin).value())
                 .up()
         ).apply(query);
     }
@@ -34,6 +34,8 @@ import de.flapdoodle.embed.process.runtime.Network;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.ServerSocket;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import org.cactoos.Scalar;
 import org.cactoos.func.SolidFunc;
@@ -102,6 +104,17 @@ public final class ExtMongo implements Scalar<MongoClient> {
     private static final int DEFAULT_TIMEOUT =
         (int) TimeUnit.SECONDS.toMillis(25L);
 
+    /**
+     * Max amount of connections in the pool of a client.
+     */
+    private static final int POOL = 32;
+
+    /**
+     * Shared clients by instance identifiers.
+     */
+    private static final Map<String, MongoClient> SHARED =
+        new ConcurrentHashMap<>(1);
+
     /**
      * Thread with Mongodb.
      * @checkstyle ConstantUsageCheck (1 lines)
@@ -184,15 +197,54 @@ public final class ExtMongo implements Scalar<MongoClient> {
         this.id = ident;
     }
 
+    /**
+     * Process-wide client, which must not be closed by users.
+     *
+     * <p>The client has a bounded pool of connections, all threads
+     * share it. It is closed by {@link #release()}, when the farm
+     * is stopped. It is kept here, like clients of {@link ExtSqs} and
+     * {@link ExtCloudWatch}, and not created in {@link Main} and passed
+     * to users, since groovy stakeholders and reports get only the farm
+     * and build {@link com.zerocracy.claims.Footprint} from it.</p>
+     * @return Client
+     * @throws IOException If fails
+     */
+    public MongoClient shared() throws IOException {
+        synchronized (ExtMongo.SHARED) {
+            MongoClient client = ExtMongo.SHARED.get(this.id);
+            if (client == null) {
+                client = this.value();
+                ExtMongo.SHARED.put(this.id, client);
+            }
+            return client;
+        }
+    }
+
+    /**
+     * Close all shared clients.
+     */
+    @SuppressWarnings("PMD.ProhibitPublicStaticMethods")
+    public static void release() {
+        synchronized (ExtMongo.SHARED) {
+            for (final MongoClient client : ExtMongo.SHARED.values()) {
+                client.close();
+            }
+            ExtMongo.SHARED.clear();
+        }
+    }
+
     @Override
     public MongoClient value() throws IOException {
         final Props props = new Props(this.farm);
         final MongoClient client;
-        if (props.has("//testing")) {
+        if (props.testing()) {
             if (System.getProperty(ExtMongo.TEST_USER_PROPERTY) == null) {
                 client = new MongoClient(
-                    ServerAddress.defaultHost(),
-                    ExtMongo.FAKE.apply(this.id)
+                    new ServerAddress(
+                        ServerAddress.defaultHost(),
+                        ExtMongo.FAKE.apply(this.id)
+                    ),
+                    ExtMongo.options()
                 );
             } else {
                 client = realMongoClient(
@@ -240,15 +292,24 @@ public final class ExtMongo implements Scalar<MongoClient> {
                 database,
                 password.toCharArray()
             ),
-            MongoClientOptions.builder()
-                .maxWaitTime(ExtMongo.DEFAULT_TIMEOUT)
-                .socketTimeout(ExtMongo.DEFAULT_TIMEOUT)
-                .connectTimeout(ExtMongo.DEFAULT_TIMEOUT)
-                .serverSelectionTimeout(ExtMongo.DEFAULT_TIMEOUT)
-                .build()
+            ExtMongo.options()
         );
     }
 
+    /**
+     * Options of a client.
+     * @return Options
+     */
+    private static MongoClientOptions options() {
+        return MongoClientOptions.builder()
+            .connectionsPerHost(ExtMongo.POOL)
+            .maxWaitTime(ExtMongo.DEFAULT_TIMEOUT)
+            .socketTimeout(ExtMongo.DEFAULT_TIMEOUT)
+            .connectTimeout(ExtMongo.DEFAULT_TIMEOUT)
+            .serverSelectionTimeout(ExtMongo.DEFAULT_TIMEOUT)
+            .build();
+    }
+
     /**
      * Obtains the test Mongo host name.
      * @return The test Mongo host name
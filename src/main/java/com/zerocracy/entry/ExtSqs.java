@@ -21,6 +21,8 @@ import com.amazonaws.regions.Regions;
 import com.amazonaws.services.sqs.AmazonSQS;
 import com.amazonaws.services.sqs.AmazonSQSClient;
 import com.zerocracy.Farm;
+import com.zerocracy.farm.fake.FkSqs;
+import com.zerocracy.farm.props.Props;
 import org.cactoos.Scalar;
 import org.cactoos.func.IoCheckedFunc;
 import org.cactoos.func.SolidFunc;
@@ -28,6 +30,10 @@ import org.cactoos.func.SolidFunc;
 /**
  * SQS client.
  *
+ * <p>When there is {@code /props/sqs/fake} in properties, the client
+ * is an in-memory {@link FkSqs}, the same for all farms in the process,
+ * which is what load tests use.</p>
+ *
  * @since 1.0
  */
 public final class ExtSqs implements Scalar<AmazonSQS> {
@@ -48,6 +54,11 @@ public final class ExtSqs implements Scalar<AmazonSQS> {
             )
         );
 
+    /**
+     * Fake SQS, shared by all farms.
+     */
+    private static final FkSqs FAKE = new FkSqs();
+
     /**
      * Farm.
      */
@@ -64,6 +75,12 @@ public final class ExtSqs implements Scalar<AmazonSQS> {
 
     @Override
     public AmazonSQS value() throws Exception {
-        return ExtSqs.INSTANCES.apply(this.farm);
+        final AmazonSQS sqs;
+        if (new Props(this.farm).has("//sqs/fake")) {
+            sqs = ExtSqs.FAKE;
+        } else {
+            sqs = ExtSqs.INSTANCES.apply(this.farm);
+        }
+        return sqs;
     }
 }
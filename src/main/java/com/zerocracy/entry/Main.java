@@ -18,11 +18,13 @@ package com.zerocracy.entry;
 
 import com.jcabi.aspects.Loggable;
 import com.jcabi.log.Logger;
+import com.zerocracy.Datum;
 import com.zerocracy.TempFiles;
 import com.zerocracy.claims.ClaimGuts;
 import com.zerocracy.claims.ClaimsFarm;
 import com.zerocracy.claims.ClaimsRoutine;
 import com.zerocracy.claims.MessageSink;
+import com.zerocracy.farm.CachedFarm;
 import com.zerocracy.farm.S3Farm;
 import com.zerocracy.farm.SmartFarm;
 import com.zerocracy.farm.props.PropsFarm;
@@ -102,6 +104,11 @@ public final class Main {
      */
     @SuppressWarnings("unchecked")
     public void exec() throws IOException {
+        try {
+            Datum.INSTANCE.warm();
+        } catch (final IOException ex) {
+            Logger.warn(this, "Datum is not warmed up: %[exception]s", ex);
+        }
         Logger.info(this, "Farm is ready to start");
         final ShutdownHook shutdown = new ShutdownHook();
         final ClaimGuts cgts = new ClaimGuts();
@@ -111,7 +118,9 @@ public final class Main {
                 new ClaimsFarm(
                     new TempFiles.Farm(
                         new SmartFarm(
-                            new S3Farm(new ExtBucket().value(), locks),
+                            new CachedFarm(
+                                new S3Farm(new ExtBucket().value(), locks)
+                            ),
                             locks
                         )
                     ),
@@ -125,6 +134,7 @@ public final class Main {
             new ExtMongobee(farm).apply();
             farm.start(claims.messages());
             cgts.add(claims.messages());
+            cgts.append(claims);
             claims.start(shutdown);
             new AsyncFunc<>(
                 input -> {
@@ -166,6 +176,9 @@ public final class Main {
                 ),
                 this.arguments
             ).start(Exit.NEVER);
+        } finally {
+            ExtDatums.release();
+            ExtMongo.release();
         }
     }
 }
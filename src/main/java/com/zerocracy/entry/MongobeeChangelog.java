@@ -60,4 +60,69 @@ public final class MongobeeChangelog {
             false
         );
     }
+
+    @ChangeSet(order = "003", id = "keyset-index", author = "zerocracy")
+    public static void keysetIndex(final DB mongo) {
+        mongo.getCollection(MongobeeChangelog.TABLE).createIndex(
+            new BasicDBObjectBuilder()
+                .add("project", 1)
+                .add("created", -1)
+                .add("_id", -1)
+                .get(),
+            "by-project-created-id",
+            false
+        );
+    }
+
+    @ChangeSet(order = "004", id = "claim-index", author = "zerocracy")
+    public static void claimIndex(final DB mongo) {
+        mongo.getCollection(MongobeeChangelog.TABLE).createIndex(
+            new BasicDBObjectBuilder()
+                .add("project", 1)
+                .add("cid", 1)
+                .add("type", 1)
+                .add("created", 1)
+                .get(),
+            "by-claim",
+            false
+        );
+    }
+
+    @ChangeSet(order = "005", id = "type-created-index", author = "zerocracy")
+    public static void typeCreatedIndex(final DB mongo) {
+        mongo.getCollection(MongobeeChangelog.TABLE).createIndex(
+            new BasicDBObjectBuilder()
+                .add("type", 1)
+                .add("created", 1)
+                .get(),
+            "by-type-created",
+            false
+        );
+    }
+
+    @ChangeSet(order = "006", id = "daily-indexes", author = "zerocracy")
+    public static void dailyIndexes(final DB mongo) {
+        mongo.getCollection(MongobeeChangelog.TABLE).createIndex(
+            new BasicDBObjectBuilder()
+                .add("created", 1)
+                .get(),
+            "by-created",
+            false
+        );
+        mongo.getCollection("daily").createIndex(
+            new BasicDBObjectBuilder()
+                .add("project", 1)
+                .add("type", 1)
+                .add("login", 1)
+                .add("created", 1)
+                .get(),
+            "by-row",
+            true
+        );
+    }
+
+    @ChangeSet(order = "007", id = "drop-project-index", author = "zerocracy")
+    public static void dropProjectIndex(final DB mongo) {
+        mongo.getCollection(MongobeeChangelog.TABLE).dropIndex("by-project");
+    }
 }
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm;
+
+import com.zerocracy.Farm;
+import com.zerocracy.Project;
+import com.zerocracy.farm.guts.Guts;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import lombok.EqualsAndHashCode;
+import org.cactoos.iterable.Mapped;
+import org.xembly.Directives;
+
+/**
+ * Farm with local write-back cache of S3 objects.
+ *
+ * <p>It has to decorate {@link S3Farm}: items of its projects are
+ * read from local copies and updated locally, while S3 receives
+ * the changes of every item on {@link #finish()} in the thread,
+ * which called {@link #start()}, once in a few seconds and on
+ * {@link #close()}. Changes of a failed claim are dropped by
+ * {@link #cancel()}. See {@link S3Cache}.</p>
+ *
+ * @since 1.0
+ */
+@EqualsAndHashCode(of = "origin")
+public final class CachedFarm implements Farm {
+
+    /**
+     * Original farm.
+     */
+    private final Farm origin;
+
+    /**
+     * Cache.
+     */
+    private final S3Cache cache;
+
+    /**
+     * Ctor.
+     * @param farm Original farm
+     * @throws IOException If fails
+     */
+    public CachedFarm(final Farm farm) throws IOException {
+        this(
+            farm,
+            new S3Cache(
+                Files.createTempDirectory("s3cache"),
+                // @checkstyle MagicNumber (1 line)
+                1024, Duration.ofMinutes(1L), Duration.ofSeconds(2L)
+            )
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param farm Original farm
+     * @param cache Cache
+     */
+    CachedFarm(final Farm farm, final S3Cache cache) {
+        this.origin = farm;
+        this.cache = cache;
+    }
+
+    @Override
+    public Iterable<Project> find(final String xpath) throws IOException {
+        return new Guts(
+            this.origin,
+            () -> new Mapped<>(
+                pkt -> new CachedProject(pkt, this.cache),
+                this.origin.find(xpath)
+            ),
+            () -> new Directives()
+                .xpath("/guts")
+                .add("farm")
+                .attr("id", "CachedFarm")
+                .append(this.cache)
+        ).apply(xpath);
+    }
+
+    /**
+     * Start tracking items updated in current thread.
+     * @return TRUE if started, FALSE if tracking was already on
+     */
+    @SuppressWarnings("PMD.ProhibitPublicStaticMethods")
+    public static boolean start() {
+        return S3Cache.start();
+    }
+
+    /**
+     * Upload items updated in current thread to S3 and stop tracking.
+     *
+     * <p>If it fails, changes of the items, which were not uploaded,
+     * are dropped, so that the claim can be processed again.</p>
+     * @throws IOException If fails
+     */
+    @SuppressWarnings("PMD.ProhibitPublicStaticMethods")
+    public static void finish() throws IOException {
+        S3Cache.finish();
+    }
+
+    /**
+     * Drop changes of items updated in current thread, since its claim
+     * failed, and stop tracking.
+     */
+    @SuppressWarnings("PMD.ProhibitPublicStaticMethods")
+    public static void cancel() {
+        S3Cache.cancel();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            this.cache.close();
+        } finally {
+            this.origin.close();
+        }
+    }
+}
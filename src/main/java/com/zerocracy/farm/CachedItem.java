@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm;
+
+import com.jcabi.s3.Ocket;
+import com.zerocracy.Item;
+import java.io.IOException;
+import java.nio.file.Path;
+import lombok.EqualsAndHashCode;
+import org.cactoos.Func;
+import org.cactoos.Proc;
+
+/**
+ * Item in S3, cached locally.
+ *
+ * @since 1.0
+ */
+@EqualsAndHashCode(of = "ocket")
+final class CachedItem implements Item {
+
+    /**
+     * S3 ocket.
+     */
+    private final Ocket ocket;
+
+    /**
+     * Cache.
+     */
+    private final S3Cache cache;
+
+    /**
+     * Ctor.
+     * @param okt Ocket
+     * @param cache Cache
+     */
+    CachedItem(final Ocket okt, final S3Cache cache) {
+        this.ocket = okt;
+        this.cache = cache;
+    }
+
+    @Override
+    public String toString() {
+        return this.ocket.toString();
+    }
+
+    @Override
+    public <T> T read(final Func<Path, T> reader) throws IOException {
+        return this.cache.read(this.ocket, reader);
+    }
+
+    @Override
+    public void update(final Proc<Path> writer) throws IOException {
+        this.cache.update(this.ocket, writer);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm;
+
+import com.zerocracy.Item;
+import com.zerocracy.Project;
+import java.io.IOException;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Project with cached items.
+ *
+ * <p>Only items in S3 are cached. The catalog of PMO is not, since
+ * {@link S3Farm} reads and modifies it directly.</p>
+ *
+ * @since 1.0
+ */
+@EqualsAndHashCode(of = "origin")
+final class CachedProject implements Project {
+
+    /**
+     * Origin project.
+     */
+    private final Project origin;
+
+    /**
+     * Cache.
+     */
+    private final S3Cache cache;
+
+    /**
+     * Ctor.
+     * @param pkt Project
+     * @param cache Cache
+     */
+    CachedProject(final Project pkt, final S3Cache cache) {
+        this.origin = pkt;
+        this.cache = cache;
+    }
+
+    @Override
+    public String pid() throws IOException {
+        return this.origin.pid();
+    }
+
+    @Override
+    public Item acq(final String file) throws IOException {
+        final Item item = this.origin.acq(file);
+        final Item acq;
+        if (item instanceof S3Item
+            && !("PMO".equals(this.pid()) && "catalog.xml".equals(file))) {
+            acq = new CachedItem(((S3Item) item).ocket(), this.cache);
+        } else {
+            acq = item;
+        }
+        return acq;
+    }
+}
@@ -30,12 +30,44 @@ public final class MismatchException extends IOException {
      */
     private static final long serialVersionUID = -6427949021762997442L;
 
+    /**
+     * Is it about the type of the claim.
+     */
+    private final boolean tpe;
+
     /**
      * Ctor.
      * @param cause Cause of it
      */
     public MismatchException(final String cause) {
+        this(cause, false);
+    }
+
+    /**
+     * Ctor.
+     * @param cause Cause of it
+     * @param type TRUE if the type of the claim is not the right one
+     */
+    public MismatchException(final String cause, final boolean type) {
         super(cause);
+        this.tpe = type;
     }
 
+    /**
+     * Is it about the type of the claim.
+     * <p>
+     * The stakeholder which threw it will never accept claims
+     * of this type, no matter what project and params are.
+     * </p>
+     * @return TRUE if the type of the claim is not the right one
+     */
+    public boolean type() {
+        return this.tpe;
+    }
+
+    @Override
+    @SuppressWarnings("PMD.AvoidSynchronizedAtMethodLevel")
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
 }
@@ -0,0 +1,871 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm;
+
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.jcabi.log.Logger;
+import com.jcabi.log.VerboseRunnable;
+import com.jcabi.log.VerboseThreads;
+import com.jcabi.s3.Ocket;
+import com.zerocracy.TempFiles;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import org.cactoos.Func;
+import org.cactoos.Proc;
+import org.cactoos.func.IoCheckedFunc;
+import org.cactoos.func.IoCheckedProc;
+import org.xembly.Directive;
+import org.xembly.Directives;
+
+/**
+ * Local write-back cache of S3 objects.
+ *
+ * <p>Every object is kept in a local file together with its ETag and
+ * MD5 checksum. Reads are served from the local file; when it's older
+ * than "fresh" period, the ETag is checked in S3 and the object is
+ * downloaded again only if it was changed. Before an update the ETag
+ * is always checked, since the caller holds the write lock and
+ * must see the latest version. Downloaded content is verified
+ * against the ETag.</p>
+ *
+ * <p>Updates are applied to the local file only and the object is
+ * marked as dirty. Dirty objects are uploaded by {@link #finish()}
+ * in the thread, which called {@link #start()}, by a timer, or by
+ * {@link #flush()}, so a few updates of the same object are sent
+ * to S3 once. Objects updated by a thread, which is between
+ * {@link #start()} and {@link #finish()}, are not uploaded by
+ * the timer and {@link #flush()}, since the claim may still fail.
+ * Every upload has Content-MD5, which S3 verifies.</p>
+ *
+ * <p>If {@link #finish()} fails to upload an object, or the claim fails
+ * and {@link #cancel()} is called, the local changes of the objects
+ * updated by the thread are dropped and they are downloaded again on
+ * next access, since the claim, which made them, will be processed
+ * again. Other threads, which changed the same object and didn't
+ * upload it yet, fail in their {@link #finish()} too.</p>
+ *
+ * <p>The amount of objects is bounded, least recently used clean
+ * objects are evicted.</p>
+ *
+ * @since 1.0
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ * @checkstyle ClassFanOutComplexityCheck (500 lines)
+ */
+@SuppressWarnings(
+    {
+        "PMD.TooManyMethods",
+        "PMD.ExcessiveImports",
+        "PMD.AvoidDuplicateLiterals"
+    }
+)
+final class S3Cache implements Closeable, Iterable<Directive> {
+
+    /**
+     * Objects updated in current thread, with their caches and
+     * generations, NULL if not tracked.
+     */
+    private static final ThreadLocal<Map<S3Cache.Entry, S3Cache.Touch>>
+        TOUCHED = new ThreadLocal<>();
+
+    /**
+     * Directory with local copies.
+     */
+    private final Path dir;
+
+    /**
+     * Max amount of objects.
+     */
+    private final int max;
+
+    /**
+     * How long local copy is used without checking S3.
+     */
+    private final Duration fresh;
+
+    /**
+     * How often dirty objects are uploaded.
+     */
+    private final Duration period;
+
+    /**
+     * Objects by key, in access order.
+     */
+    private final Map<String, S3Cache.Entry> entries;
+
+    /**
+     * Uploading timer.
+     */
+    private final ScheduledExecutorService timer;
+
+    /**
+     * Was timer started.
+     */
+    private final AtomicBoolean started;
+
+    /**
+     * Names of local copies.
+     */
+    private final AtomicLong names;
+
+    /**
+     * Reads served without S3.
+     */
+    private final AtomicLong hits;
+
+    /**
+     * ETag checks, which found no changes.
+     */
+    private final AtomicLong checks;
+
+    /**
+     * Downloads.
+     */
+    private final AtomicLong downloads;
+
+    /**
+     * Updates of local copies.
+     */
+    private final AtomicLong writes;
+
+    /**
+     * Uploads.
+     */
+    private final AtomicLong uploads;
+
+    /**
+     * Failed uploads.
+     */
+    private final AtomicLong failures;
+
+    /**
+     * Objects evicted.
+     */
+    private final AtomicLong evictions;
+
+    /**
+     * Objects, which local changes were dropped.
+     */
+    private final AtomicLong rollbacks;
+
+    /**
+     * Ctor.
+     * @param dir Directory for local copies
+     * @param max Max amount of objects
+     * @param fresh How long local copy is used without checking S3
+     * @param period How often dirty objects are uploaded
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    S3Cache(final Path dir, final int max, final Duration fresh,
+        final Duration period) {
+        this.dir = dir;
+        this.max = max;
+        this.fresh = fresh;
+        this.period = period;
+        // @checkstyle MagicNumber (1 line)
+        this.entries = new LinkedHashMap<>(max, 0.75f, true);
+        this.timer = Executors.newSingleThreadScheduledExecutor(
+            new VerboseThreads(S3Cache.class)
+        );
+        this.started = new AtomicBoolean();
+        this.names = new AtomicLong();
+        this.hits = new AtomicLong();
+        this.checks = new AtomicLong();
+        this.downloads = new AtomicLong();
+        this.writes = new AtomicLong();
+        this.uploads = new AtomicLong();
+        this.failures = new AtomicLong();
+        this.evictions = new AtomicLong();
+        this.rollbacks = new AtomicLong();
+    }
+
+    /**
+     * Read the object.
+     * @param ocket Object
+     * @param reader Reader of a copy of the object
+     * @param <T> Result type
+     * @return Result of the reader
+     * @throws IOException If fails
+     */
+    public <T> T read(final Ocket ocket, final Func<Path, T> reader)
+        throws IOException {
+        final Path tmp = TempFiles.INSTANCE.newFile(S3Cache.class);
+        try {
+            final S3Cache.Entry entry = this.locked(ocket);
+            try {
+                this.validate(entry, false);
+                if (entry.exists) {
+                    Files.copy(
+                        entry.file, tmp, StandardCopyOption.REPLACE_EXISTING
+                    );
+                }
+            } finally {
+                entry.lock.unlock();
+            }
+            return new IoCheckedFunc<>(reader).apply(tmp);
+        } finally {
+            TempFiles.INSTANCE.dispose(tmp);
+        }
+    }
+
+    /**
+     * Update the object.
+     * @param ocket Object
+     * @param writer Writer of a copy of the object
+     * @throws IOException If fails
+     */
+    public void update(final Ocket ocket, final Proc<Path> writer)
+        throws IOException {
+        final Path tmp = TempFiles.INSTANCE.newFile(S3Cache.class);
+        try {
+            final S3Cache.Entry entry = this.locked(ocket);
+            try {
+                this.validate(entry, true);
+                if (entry.exists) {
+                    Files.copy(
+                        entry.file, tmp, StandardCopyOption.REPLACE_EXISTING
+                    );
+                }
+                new IoCheckedProc<>(writer).exec(tmp);
+                final String md5 = S3Cache.md5(tmp);
+                if (!md5.equals(entry.md5)
+                    && !Thread.currentThread().isInterrupted()) {
+                    Files.move(
+                        tmp, entry.file, StandardCopyOption.REPLACE_EXISTING
+                    );
+                    entry.md5 = md5;
+                    entry.exists = true;
+                    entry.dirty = true;
+                    this.writes.incrementAndGet();
+                    final Map<S3Cache.Entry, S3Cache.Touch> touched =
+                        S3Cache.TOUCHED.get();
+                    if (touched != null && !touched.containsKey(entry)) {
+                        touched.put(
+                            entry, new S3Cache.Touch(this, entry.generation)
+                        );
+                        entry.holders += 1;
+                    }
+                    this.schedule();
+                }
+            } finally {
+                entry.lock.unlock();
+            }
+        } finally {
+            TempFiles.INSTANCE.dispose(tmp);
+        }
+    }
+
+    /**
+     * Upload all dirty objects.
+     * @throws IOException If some of them failed
+     */
+    public void flush() throws IOException {
+        final Collection<S3Cache.Entry> all;
+        synchronized (this.entries) {
+            all = new ArrayList<>(this.entries.values());
+        }
+        int failed = 0;
+        for (final S3Cache.Entry entry : all) {
+            if (!this.flush(entry)) {
+                ++failed;
+            }
+        }
+        S3Cache.failed(failed);
+    }
+
+    /**
+     * Start tracking objects updated in current thread.
+     * @return TRUE if started, FALSE if tracking was already on
+     */
+    static boolean start() {
+        final boolean start = S3Cache.TOUCHED.get() == null;
+        if (start) {
+            S3Cache.TOUCHED.set(new LinkedHashMap<>(1));
+        }
+        return start;
+    }
+
+    /**
+     * Upload objects updated in current thread and stop tracking.
+     *
+     * <p>If some of them fail, local changes of those, which are still
+     * not uploaded, are dropped.</p>
+     * @throws IOException If some of them failed
+     */
+    static void finish() throws IOException {
+        final Map<S3Cache.Entry, S3Cache.Touch> touched =
+            S3Cache.TOUCHED.get();
+        S3Cache.TOUCHED.remove();
+        if (touched != null) {
+            int failed = 0;
+            for (final Map.Entry<S3Cache.Entry, S3Cache.Touch> ent
+                : touched.entrySet()) {
+                if (!ent.getValue().cache.flush(
+                    ent.getKey(), ent.getValue().generation
+                )) {
+                    ++failed;
+                }
+            }
+            for (final Map.Entry<S3Cache.Entry, S3Cache.Touch> ent
+                : touched.entrySet()) {
+                ent.getValue().cache.release(ent.getKey(), failed > 0);
+            }
+            S3Cache.failed(failed);
+        }
+    }
+
+    /**
+     * Drop local changes of objects updated in current thread and
+     * stop tracking.
+     */
+    static void cancel() {
+        final Map<S3Cache.Entry, S3Cache.Touch> touched =
+            S3Cache.TOUCHED.get();
+        S3Cache.TOUCHED.remove();
+        if (touched != null) {
+            for (final Map.Entry<S3Cache.Entry, S3Cache.Touch> ent
+                : touched.entrySet()) {
+                ent.getValue().cache.release(ent.getKey(), true);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.timer.shutdown();
+        this.flush();
+    }
+
+    @Override
+    public Iterator<Directive> iterator() {
+        final int size;
+        int dirty = 0;
+        synchronized (this.entries) {
+            size = this.entries.size();
+            for (final S3Cache.Entry entry : this.entries.values()) {
+                if (entry.dirty) {
+                    ++dirty;
+                }
+            }
+        }
+        return new Directives()
+            .add("cache")
+            .add("size").attr("max", this.max).set(size).up()
+            .add("dirty").set(dirty).up()
+            .add("hits").set(this.hits.get()).up()
+            .add("checks").set(this.checks.get()).up()
+            .add("downloads").set(this.downloads.get()).up()
+            .add("writes").set(this.writes.get()).up()
+            .add("uploads").set(this.uploads.get()).up()
+            .add("failures").set(this.failures.get()).up()
+            .add("evictions").set(this.evictions.get()).up()
+            .add("rollbacks").set(this.rollbacks.get()).up()
+            .up()
+            .iterator();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%d hits, %d checks, %d downloads, %d writes, %d uploads",
+            this.hits.get(), this.checks.get(), this.downloads.get(),
+            this.writes.get(), this.uploads.get()
+        );
+    }
+
+    /**
+     * Entry of the object, locked.
+     * @param ocket Object
+     * @return Entry, which has to be unlocked by caller
+     */
+    private S3Cache.Entry locked(final Ocket ocket) {
+        S3Cache.Entry entry;
+        while (true) {
+            synchronized (this.entries) {
+                entry = this.entries.get(ocket.key());
+                if (entry == null) {
+                    entry = new S3Cache.Entry(
+                        ocket,
+                        this.dir.resolve(
+                            String.format(
+                                "%d.s3", this.names.incrementAndGet()
+                            )
+                        )
+                    );
+                    this.evict();
+                    this.entries.put(ocket.key(), entry);
+                }
+            }
+            entry.lock.lock();
+            if (!entry.evicted) {
+                break;
+            }
+            entry.lock.unlock();
+        }
+        return entry;
+    }
+
+    /**
+     * Upload the object, if it's dirty and no thread, which updated
+     * it, is still processing its claim.
+     * @param entry Entry
+     * @return FALSE if upload failed
+     */
+    private boolean flush(final S3Cache.Entry entry) {
+        boolean done = true;
+        if (entry.dirty) {
+            entry.lock.lock();
+            try {
+                if (entry.holders == 0) {
+                    done = this.uploaded(entry);
+                }
+            } finally {
+                entry.lock.unlock();
+            }
+        }
+        return done;
+    }
+
+    /**
+     * Upload the object, if it's dirty, unless its local changes
+     * were dropped since the generation.
+     * @param entry Entry
+     * @param generation Generation of the entry, when it was updated
+     * @return FALSE if upload failed or changes were dropped
+     */
+    private boolean flush(final S3Cache.Entry entry, final long generation) {
+        final boolean done;
+        entry.lock.lock();
+        try {
+            if (entry.generation == generation) {
+                done = this.uploaded(entry);
+            } else {
+                done = false;
+                Logger.warn(
+                    this, "Changes of %s were dropped by another thread",
+                    entry.ocket
+                );
+            }
+        } finally {
+            entry.lock.unlock();
+        }
+        return done;
+    }
+
+    /**
+     * Upload the object, if it's dirty.
+     * @param entry Entry, locked
+     * @return FALSE if upload failed
+     */
+    private boolean uploaded(final S3Cache.Entry entry) {
+        boolean done = true;
+        try {
+            this.upload(entry);
+        } catch (final IOException ex) {
+            done = false;
+            this.failures.incrementAndGet();
+            Logger.error(
+                this, "Failed to upload %s: %[exception]s",
+                entry.ocket, ex
+            );
+        }
+        return done;
+    }
+
+    /**
+     * Thread is done with the object.
+     * @param entry Entry
+     * @param rollback Drop local changes of the object
+     */
+    private void release(final S3Cache.Entry entry, final boolean rollback) {
+        entry.lock.lock();
+        try {
+            entry.holders -= 1;
+            if (rollback) {
+                this.rollback(entry);
+            }
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    /**
+     * Drop local changes of the object, if it's dirty, so that it's
+     * downloaded from S3 on next access.
+     * @param entry Entry, locked
+     */
+    private void rollback(final S3Cache.Entry entry) {
+        try {
+            if (entry.dirty) {
+                Files.deleteIfExists(entry.file);
+                entry.exists = false;
+                entry.etag = null;
+                entry.md5 = "";
+                entry.checked = 0L;
+                entry.generation += 1L;
+                entry.dirty = false;
+                this.rollbacks.incrementAndGet();
+                Logger.warn(
+                    this, "Local changes of %s were dropped", entry.ocket
+                );
+            }
+        } catch (final IOException ex) {
+            Logger.error(
+                this, "Failed to drop changes of %s: %[exception]s",
+                entry.ocket, ex
+            );
+        }
+    }
+
+    /**
+     * Make sure local copy is the same as the object in S3.
+     * @param entry Entry, locked
+     * @param force Check S3 even if local copy is fresh
+     * @throws IOException If fails
+     */
+    private void validate(final S3Cache.Entry entry, final boolean force)
+        throws IOException {
+        final long now = System.currentTimeMillis();
+        if (entry.dirty
+            || !force && now - entry.checked < this.fresh.toMillis()) {
+            this.hits.incrementAndGet();
+        } else if (entry.ocket.exists()) {
+            final String etag = entry.ocket.meta().getETag();
+            if (etag != null && etag.equals(entry.etag)) {
+                this.checks.incrementAndGet();
+            } else {
+                this.download(entry, etag);
+            }
+            entry.checked = now;
+        } else {
+            Files.deleteIfExists(entry.file);
+            entry.exists = false;
+            entry.etag = null;
+            entry.md5 = "";
+            entry.checked = now;
+        }
+    }
+
+    /**
+     * Download the object and verify its checksum.
+     * @param entry Entry, locked
+     * @param etag ETag of the object in S3
+     * @throws IOException If fails
+     */
+    private void download(final S3Cache.Entry entry, final String etag)
+        throws IOException {
+        final MessageDigest digest = S3Cache.digest();
+        try (
+            final OutputStream out = new DigestOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(entry.file)),
+                digest
+            )
+        ) {
+            entry.ocket.read(out);
+        }
+        final String md5 = S3Cache.hex(digest.digest());
+        if (etag != null && etag.matches("[0-9a-f]{32}")
+            && !etag.equals(md5)) {
+            Files.deleteIfExists(entry.file);
+            entry.exists = false;
+            entry.etag = null;
+            throw new IOException(
+                String.format(
+                    "Checksum of %s is %s, while ETag is %s",
+                    entry.ocket, md5, etag
+                )
+            );
+        }
+        entry.md5 = md5;
+        entry.etag = etag;
+        entry.exists = true;
+        this.downloads.incrementAndGet();
+    }
+
+    /**
+     * Upload the object, if it's dirty.
+     * @param entry Entry, locked
+     * @throws IOException If fails
+     */
+    private void upload(final S3Cache.Entry entry) throws IOException {
+        if (entry.dirty) {
+            final ObjectMetadata meta = new ObjectMetadata();
+            meta.setContentLength(Files.size(entry.file));
+            meta.setContentMD5(
+                Base64.getEncoder().encodeToString(
+                    S3Cache.bytes(entry.md5)
+                )
+            );
+            try (
+                final InputStream src = new BufferedInputStream(
+                    Files.newInputStream(entry.file)
+                )
+            ) {
+                entry.ocket.write(src, meta);
+            }
+            entry.etag = entry.md5;
+            entry.dirty = false;
+            entry.checked = System.currentTimeMillis();
+            this.uploads.incrementAndGet();
+        }
+    }
+
+    /**
+     * Evict least recently used clean entries, to make a room for
+     * a new one.
+     */
+    private void evict() {
+        synchronized (this.entries) {
+            final Iterator<S3Cache.Entry> iter =
+                this.entries.values().iterator();
+            while (this.entries.size() >= this.max && iter.hasNext()) {
+                final S3Cache.Entry entry = iter.next();
+                if (!entry.dirty && !entry.lock.isHeldByCurrentThread()
+                    && entry.lock.tryLock()) {
+                    try {
+                        entry.evicted = true;
+                        iter.remove();
+                        Files.deleteIfExists(entry.file);
+                        this.evictions.incrementAndGet();
+                    } catch (final IOException ex) {
+                        Logger.warn(
+                            this, "Failed to delete %s: %[exception]s",
+                            entry.file, ex
+                        );
+                    } finally {
+                        entry.lock.unlock();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Start uploading timer, if not yet.
+     */
+    private void schedule() {
+        if (this.started.compareAndSet(false, true)) {
+            this.timer.scheduleWithFixedDelay(
+                new VerboseRunnable(
+                    () -> {
+                        this.flush();
+                        return null;
+                    },
+                    true, false
+                ),
+                this.period.toMillis(), this.period.toMillis(),
+                TimeUnit.MILLISECONDS
+            );
+        }
+    }
+
+    /**
+     * Fail if some uploads failed.
+     * @param failed Amount of failed uploads
+     * @throws IOException If there are any
+     */
+    private static void failed(final int failed) throws IOException {
+        if (failed > 0) {
+            throw new IOException(
+                String.format("Failed to upload %d objects to S3", failed)
+            );
+        }
+    }
+
+    /**
+     * MD5 of the file.
+     * @param file File
+     * @return Hex of MD5
+     * @throws IOException If fails
+     */
+    private static String md5(final Path file) throws IOException {
+        final MessageDigest digest = S3Cache.digest();
+        try (final InputStream src = Files.newInputStream(file)) {
+            // @checkstyle MagicNumber (1 line)
+            final byte[] buf = new byte[8192];
+            while (true) {
+                final int len = src.read(buf);
+                if (len < 0) {
+                    break;
+                }
+                digest.update(buf, 0, len);
+            }
+        }
+        return S3Cache.hex(digest.digest());
+    }
+
+    /**
+     * New MD5 digest.
+     * @return Digest
+     */
+    private static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Bytes as hex.
+     * @param bytes Bytes
+     * @return Hex, lower case
+     */
+    private static String hex(final byte[] bytes) {
+        final StringBuilder hex = new StringBuilder(bytes.length << 1);
+        for (final byte part : bytes) {
+            hex.append(String.format("%02x", part));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Hex as bytes.
+     * @param hex Hex
+     * @return Bytes
+     */
+    private static byte[] bytes(final String hex) {
+        final byte[] bytes = new byte[hex.length() >> 1];
+        for (int idx = 0; idx < bytes.length; ++idx) {
+            bytes[idx] = (byte) Integer.parseInt(
+                hex.substring(idx << 1, (idx << 1) + 2), 16
+            );
+        }
+        return bytes;
+    }
+
+    /**
+     * Cached object.
+     */
+    private static final class Entry {
+
+        /**
+         * Object.
+         */
+        private final Ocket ocket;
+
+        /**
+         * Local copy.
+         */
+        private final Path file;
+
+        /**
+         * Lock.
+         */
+        private final ReentrantLock lock;
+
+        /**
+         * ETag of the object in S3, NULL if unknown.
+         */
+        private String etag;
+
+        /**
+         * MD5 of local copy, hex.
+         */
+        private String md5;
+
+        /**
+         * Does the object exist.
+         */
+        private boolean exists;
+
+        /**
+         * Local copy is changed and not uploaded yet.
+         */
+        private volatile boolean dirty;
+
+        /**
+         * Entry was evicted.
+         */
+        private boolean evicted;
+
+        /**
+         * When it was checked in S3, msec.
+         */
+        private long checked;
+
+        /**
+         * How many times local changes were dropped.
+         */
+        private long generation;
+
+        /**
+         * Threads, which updated it and didn't finish yet.
+         */
+        private int holders;
+
+        /**
+         * Ctor.
+         * @param ocket Object
+         * @param file Local copy
+         */
+        Entry(final Ocket ocket, final Path file) {
+            this.ocket = ocket;
+            this.file = file;
+            this.lock = new ReentrantLock();
+            this.md5 = "";
+        }
+    }
+
+    /**
+     * Object updated by a thread.
+     */
+    private static final class Touch {
+
+        /**
+         * Cache of the object.
+         */
+        private final S3Cache cache;
+
+        /**
+         * Generation of the object, when it was updated.
+         */
+        private final long generation;
+
+        /**
+         * Ctor.
+         * @param cache Cache
+         * @param generation Generation
+         */
+        Touch(final S3Cache cache, final long generation) {
+            this.cache = cache;
+            this.generation = generation;
+        }
+    }
+}
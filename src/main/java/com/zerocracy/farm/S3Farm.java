@@ -21,6 +21,7 @@ import com.jcabi.s3.Bucket;
 import com.zerocracy.Farm;
 import com.zerocracy.Project;
 import com.zerocracy.farm.sync.Locks;
+import com.zerocracy.farm.sync.SyncFarm;
 import com.zerocracy.pmo.Catalog;
 import com.zerocracy.pmo.Pmo;
 import java.io.IOException;
@@ -72,33 +73,12 @@ public final class S3Farm implements Farm {
                 new S3Project(this.bucket, "PMO/")
             );
         } else {
-            final ReadWriteLock rwl = this.locks.lock(
-                new Pmo(this), "catalog.xml"
-            );
-            final Lock lock = rwl.writeLock();
-            try {
-                // @checkstyle MagicNumberCheck (1 line)
-                if (!lock.tryLock(15L, TimeUnit.SECONDS)) {
-                    throw new IOException("Failed to lock in 15 seconds");
-                }
-            } catch (final InterruptedException err) {
-                throw new IllegalStateException("interrupted", err);
-            }
-            Logger.debug(this, "#find(): catalog.xml locked");
-            try {
-                final Catalog catalog = new Catalog(this).bootstrap();
-                found = new Mapped<>(
-                    prefix -> new S3Project(this.bucket, prefix),
-                    catalog.findByXPath(xpath)
-                );
-                final boolean empty = !found.iterator().hasNext();
-                Logger.debug(this, "#find(): empty?=%b", empty);
-                if (empty) {
-                    found = this.force(catalog, xpath);
-                }
-            } finally {
-                lock.unlock();
-                Logger.debug(this, "#find(): unlock");
+            final Catalog catalog = new Catalog(
+                new SyncFarm(this, this.locks)
+            ).bootstrap();
+            found = this.found(catalog, xpath);
+            if (!found.iterator().hasNext()) {
+                found = this.locked(catalog, xpath);
             }
         }
         return found;
@@ -120,6 +100,60 @@ public final class S3Farm implements Farm {
         }
     }
 
+    /**
+     * Find it again under the write lock of the catalog and add it,
+     * if it's still absent.
+     * @param catalog The catalog
+     * @param xpath The XPath
+     * @return List of found projects
+     * @throws IOException If fails
+     */
+    private Iterable<Project> locked(final Catalog catalog,
+        final String xpath) throws IOException {
+        final ReadWriteLock rwl = this.locks.lock(
+            new Pmo(this), "catalog.xml"
+        );
+        final Lock lock = rwl.writeLock();
+        try {
+            // @checkstyle MagicNumberCheck (1 line)
+            if (!lock.tryLock(15L, TimeUnit.SECONDS)) {
+                throw new IOException("Failed to lock in 15 seconds");
+            }
+        } catch (final InterruptedException err) {
+            throw new IllegalStateException("interrupted", err);
+        }
+        Logger.debug(this, "#find(): catalog.xml locked");
+        try {
+            Iterable<Project> found = this.found(catalog, xpath);
+            final boolean empty = !found.iterator().hasNext();
+            Logger.debug(this, "#find(): empty?=%b", empty);
+            if (empty) {
+                found = this.force(catalog, xpath);
+            }
+            return found;
+        } finally {
+            lock.unlock();
+            Logger.debug(this, "#find(): unlock");
+        }
+    }
+
+    /**
+     * Projects found in the catalog.
+     * @param catalog The catalog
+     * @param xpath The XPath
+     * @return List of found projects
+     * @throws IOException If fails
+     */
+    private Iterable<Project> found(final Catalog catalog,
+        final String xpath) throws IOException {
+        return new SolidList<>(
+            new Mapped<>(
+                prefix -> new S3Project(this.bucket, prefix),
+                catalog.findByXPath(xpath)
+            )
+        );
+    }
+
     /**
      * Make sure it exists and return it.
      * @param catalog The catalog
@@ -67,6 +67,14 @@ final class S3Item implements Item {
         return this.ocket.toString();
     }
 
+    /**
+     * S3 ocket of the item.
+     * @return Ocket
+     */
+    Ocket ocket() {
+        return this.ocket;
+    }
+
     @Override
     public <T> T read(final Func<Path, T> reader) throws IOException {
         final Path tmp = S3Item.tempFiles();
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm;
+
+import com.jcabi.xml.XML;
+import com.zerocracy.Project;
+import com.zerocracy.Stakeholder;
+import com.zerocracy.claims.BatchClaims;
+import java.io.IOException;
+
+/**
+ * Stakeholder which sends claims it posts to SQS in batches.
+ *
+ * <p>All claims posted during one run of the stakeholder are
+ * collected by {@link BatchClaims} and sent when the run is
+ * over, even if it failed. A failure to send them doesn't hide
+ * the failure of the stakeholder, it's attached to it as
+ * suppressed.</p>
+ *
+ * @since 1.0
+ */
+public final class StkBatched implements Stakeholder {
+
+    /**
+     * Origin stakeholder.
+     */
+    private final Stakeholder origin;
+
+    /**
+     * Ctor.
+     * @param origin Origin stakeholder
+     */
+    public StkBatched(final Stakeholder origin) {
+        this.origin = origin;
+    }
+
+    @Override
+    @SuppressWarnings(
+        {"PMD.AvoidCatchingThrowable", "PMD.AvoidRethrowingException"}
+    )
+    public void process(final Project project, final XML claim)
+        throws IOException {
+        final boolean started = BatchClaims.start();
+        try {
+            this.origin.process(project, claim);
+            // @checkstyle IllegalCatchCheck (1 line)
+        } catch (final Throwable ex) {
+            if (started) {
+                try {
+                    BatchClaims.finish();
+                } catch (final IOException err) {
+                    ex.addSuppressed(err);
+                }
+            }
+            throw ex;
+        }
+        if (started) {
+            BatchClaims.finish();
+        }
+    }
+}
@@ -18,19 +18,20 @@
 package com.zerocracy.farm;
 
 import com.amazonaws.services.cloudwatch.model.Dimension;
-import com.amazonaws.services.cloudwatch.model.MetricDatum;
-import com.amazonaws.services.cloudwatch.model.PutMetricDataRequest;
 import com.amazonaws.services.cloudwatch.model.StandardUnit;
 import com.jcabi.xml.XML;
 import com.zerocracy.Farm;
 import com.zerocracy.Project;
 import com.zerocracy.Stakeholder;
 import com.zerocracy.claims.ClaimIn;
-import com.zerocracy.entry.ExtCloudWatch;
+import com.zerocracy.entry.ExtDatums;
+import com.zerocracy.kpi.Datums;
 import java.io.IOException;
 
 /**
  * Stakeholder decorator which reports execution time with tags to cloudwatch.
+ * <p>
+ * Times are aggregated by {@link Datums} and sent in background.
  * @since 1.0
  * @checkstyle LineLengthCheck (500 lines)
  */
@@ -73,35 +74,24 @@ public final class StkCloudwatch implements Stakeholder {
         this.origin.process(project, xml);
         final long end = System.currentTimeMillis();
         final double value = end - start;
-        new ExtCloudWatch(this.farm).value().putMetricData(
-            new PutMetricDataRequest()
-                .withNamespace("0crat/farm")
-                .withMetricData(
-                    new MetricDatum()
-                        .withMetricName(String.format("stk:%s", this.name))
-                        .withUnit(StandardUnit.Milliseconds)
-                        .withDimensions(
-                            new Dimension().withName("scope").withValue("performance"),
-                            new Dimension().withName("performance").withValue("stk")
-                        )
-                        .withValue(value),
-                    new MetricDatum()
-                        .withMetricName(String.format("pkt:%s", project.pid()))
-                        .withUnit(StandardUnit.Milliseconds)
-                        .withDimensions(
-                            new Dimension().withName("scope").withValue("performance"),
-                            new Dimension().withName("performance").withValue("project")
-                        )
-                        .withValue(value),
-                    new MetricDatum()
-                        .withMetricName(String.format("claim:%s", claim.type()))
-                        .withUnit(StandardUnit.Milliseconds)
-                        .withDimensions(
-                            new Dimension().withName("scope").withValue("performance"),
-                            new Dimension().withName("performance").withValue("claim")
-                        )
-                        .withValue(value)
-                )
+        final Datums datums = new ExtDatums(this.farm).value();
+        datums.add(
+            "0crat/farm", String.format("stk:%s", this.name),
+            StandardUnit.Milliseconds, value,
+            new Dimension().withName("scope").withValue("performance"),
+            new Dimension().withName("performance").withValue("stk")
+        );
+        datums.add(
+            "0crat/farm", String.format("pkt:%s", project.pid()),
+            StandardUnit.Milliseconds, value,
+            new Dimension().withName("scope").withValue("performance"),
+            new Dimension().withName("performance").withValue("project")
+        );
+        datums.add(
+            "0crat/farm", String.format("claim:%s", claim.type()),
+            StandardUnit.Milliseconds, value,
+            new Dimension().withName("scope").withValue("performance"),
+            new Dimension().withName("performance").withValue("claim")
         );
     }
 
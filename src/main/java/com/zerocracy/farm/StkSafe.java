@@ -22,6 +22,8 @@ import com.zerocracy.Farm;
 import com.zerocracy.Project;
 import com.zerocracy.SoftException;
 import com.zerocracy.Stakeholder;
+import com.zerocracy.Txn;
+import com.zerocracy.claims.BatchClaims;
 import com.zerocracy.claims.ClaimIn;
 import com.zerocracy.entry.ClaimsOf;
 import com.zerocracy.farm.props.Props;
@@ -34,6 +36,14 @@ import org.cactoos.text.TextOf;
 /**
  * Stakeholder that reports about failures and doesn't fail ever.
  *
+ * <p>When a stakeholder fails in a {@link Txn}, the transaction is
+ * marked as failed and claims posted so far are dropped by
+ * {@link BatchClaims#cancel()}, so that the claim leaves the project
+ * untouched; only the error and the reply are posted. The rest of the
+ * brigade doesn't process the claim in this transaction anymore.
+ * Soft errors are replies to the user, they don't fail
+ * the transaction.</p>
+ *
  * @since 1.0
  * @checkstyle CyclomaticComplexityCheck (500 lines)
  */
@@ -83,6 +93,24 @@ public final class StkSafe implements Stakeholder {
     //  a notification and does not breaks it. We should create a way to
     //  avoid this exception swallowing.
     @Override
+    public void process(final Project project,
+        final XML xml) throws IOException {
+        if (StkSafe.failed(project)) {
+            Logger.info(
+                this, "Claim #%s in %s already failed, %s skipped it",
+                new ClaimIn(xml).cid(), project.pid(), this.identifier
+            );
+        } else {
+            this.safe(project, xml);
+        }
+    }
+
+    /**
+     * Process the claim and report failures.
+     * @param project Project
+     * @param xml Claim
+     * @throws IOException If fails
+     */
     @SuppressWarnings(
         {
             "PMD.AvoidCatchingThrowable",
@@ -91,10 +119,10 @@ public final class StkSafe implements Stakeholder {
             "PMD.PrematureDeclaration"
         }
     )
-    public void process(final Project project,
+    private void safe(final Project project,
         final XML xml) throws IOException {
         final ClaimIn claim = new ClaimIn(xml);
-        final boolean testing = new Props(this.farm).has("//testing");
+        final boolean testing = new Props(this.farm).testing();
         try {
             this.origin.process(project, xml);
         } catch (final MismatchException ex) {
@@ -141,6 +169,7 @@ public final class StkSafe implements Stakeholder {
             if (testing) {
                 throw new IllegalStateException(ex);
             }
+            StkSafe.fail(project);
             if (!claim.isError()) {
                 claim.copy()
                     .type("Error")
@@ -167,6 +196,27 @@ public final class StkSafe implements Stakeholder {
         }
     }
 
+    /**
+     * Did the claim already fail in this project.
+     * @param project Project
+     * @return TRUE if it's a failed transaction
+     */
+    private static boolean failed(final Project project) {
+        return project instanceof Txn && ((Txn) project).failed();
+    }
+
+    /**
+     * The claim failed in this project: fail the transaction, if it's
+     * a transaction, and drop claims posted so far.
+     * @param project Project
+     */
+    private static void fail(final Project project) {
+        if (project instanceof Txn) {
+            ((Txn) project).fail();
+            BatchClaims.cancel();
+        }
+    }
+
     /**
      * Stacktrace for error.
      * @param exception Error
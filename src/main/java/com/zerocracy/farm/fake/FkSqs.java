@@ -0,0 +1,518 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.fake;
+
+import com.amazonaws.services.sqs.AbstractAmazonSQS;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequest;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequestEntry;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchResult;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchResultEntry;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityRequest;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityResult;
+import com.amazonaws.services.sqs.model.CreateQueueRequest;
+import com.amazonaws.services.sqs.model.CreateQueueResult;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResult;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResultEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageResult;
+import com.amazonaws.services.sqs.model.GetQueueAttributesRequest;
+import com.amazonaws.services.sqs.model.GetQueueAttributesResult;
+import com.amazonaws.services.sqs.model.GetQueueUrlRequest;
+import com.amazonaws.services.sqs.model.GetQueueUrlResult;
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.MessageAttributeValue;
+import com.amazonaws.services.sqs.model.MessageSystemAttributeName;
+import com.amazonaws.services.sqs.model.QueueAttributeName;
+import com.amazonaws.services.sqs.model.ReceiptHandleIsInvalidException;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import com.amazonaws.services.sqs.model.ReceiveMessageResult;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequest;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.SendMessageBatchResult;
+import com.amazonaws.services.sqs.model.SendMessageBatchResultEntry;
+import com.amazonaws.services.sqs.model.SendMessageRequest;
+import com.amazonaws.services.sqs.model.SendMessageResult;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Fake SQS, which keeps all queues in memory.
+ *
+ * <p>It supports only what the farm uses: sending one by one and in
+ * batches with deduplication, long-polling receive with visibility
+ * timeouts, deleting and changing visibility by receipt handles.
+ * Message groups of FIFO queues are not respected, messages are
+ * delivered in the order they were sent. It also measures how long
+ * messages stay in queues, from sending till deleting, which is how
+ * load tests see end to end latency of claims.</p>
+ *
+ * <p>The class is thread-safe.</p>
+ *
+ * @since 1.0
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ * @checkstyle ClassFanOutComplexityCheck (500 lines)
+ */
+@SuppressWarnings({"PMD.TooManyMethods", "PMD.ExcessiveImports"})
+public final class FkSqs extends AbstractAmazonSQS {
+
+    /**
+     * Default visibility timeout, in seconds.
+     */
+    private static final int VISIBILITY = 30;
+
+    /**
+     * Deduplication interval, in milliseconds.
+     */
+    private static final long DEDUPLICATION =
+        Duration.ofMinutes(5L).toMillis();
+
+    /**
+     * Messages by queue URLs.
+     */
+    private final Map<String, List<FkSqs.Entry>> queues;
+
+    /**
+     * Deduplication ids with time they were seen, in milliseconds.
+     */
+    private final Map<String, Long> seen;
+
+    /**
+     * Time from sending till deleting, in milliseconds.
+     */
+    private final Recorder recorder;
+
+    /**
+     * Messages deleted.
+     */
+    private final AtomicLong removed;
+
+    /**
+     * Batches sent.
+     */
+    private final AtomicLong batched;
+
+    /**
+     * Ctor.
+     */
+    public FkSqs() {
+        this.queues = new HashMap<>(1);
+        this.seen = new HashMap<>(0);
+        this.recorder = new Recorder(2);
+        this.removed = new AtomicLong();
+        this.batched = new AtomicLong();
+    }
+
+    @Override
+    public synchronized GetQueueUrlResult getQueueUrl(
+        final GetQueueUrlRequest request) {
+        final String url = FkSqs.url(request.getQueueName());
+        this.queues.computeIfAbsent(url, key -> new LinkedList<>());
+        return new GetQueueUrlResult().withQueueUrl(url);
+    }
+
+    @Override
+    public GetQueueUrlResult getQueueUrl(final String name) {
+        return this.getQueueUrl(new GetQueueUrlRequest(name));
+    }
+
+    @Override
+    public synchronized CreateQueueResult createQueue(
+        final CreateQueueRequest request) {
+        final String url = FkSqs.url(request.getQueueName());
+        this.queues.computeIfAbsent(url, key -> new LinkedList<>());
+        return new CreateQueueResult().withQueueUrl(url);
+    }
+
+    @Override
+    public synchronized GetQueueAttributesResult getQueueAttributes(
+        final GetQueueAttributesRequest request) {
+        return new GetQueueAttributesResult().addAttributesEntry(
+            QueueAttributeName.ApproximateNumberOfMessages.toString(),
+            Integer.toString(this.queue(request.getQueueUrl()).size())
+        );
+    }
+
+    @Override
+    public synchronized SendMessageResult sendMessage(
+        final SendMessageRequest request) {
+        final String mid = this.push(
+            request.getQueueUrl(), request.getMessageBody(),
+            request.getMessageDeduplicationId(),
+            request.getMessageAttributes()
+        );
+        this.notifyAll();
+        return new SendMessageResult().withMessageId(mid);
+    }
+
+    @Override
+    public synchronized SendMessageBatchResult sendMessageBatch(
+        final SendMessageBatchRequest request) {
+        this.batched.incrementAndGet();
+        final SendMessageBatchResult result = new SendMessageBatchResult();
+        for (final SendMessageBatchRequestEntry entry : request.getEntries()) {
+            result.withSuccessful(
+                new SendMessageBatchResultEntry()
+                    .withId(entry.getId())
+                    .withMessageId(
+                        this.push(
+                            request.getQueueUrl(), entry.getMessageBody(),
+                            entry.getMessageDeduplicationId(),
+                            entry.getMessageAttributes()
+                        )
+                    )
+            );
+        }
+        this.notifyAll();
+        return result;
+    }
+
+    @Override
+    public synchronized ReceiveMessageResult receiveMessage(
+        final ReceiveMessageRequest request) {
+        final List<FkSqs.Entry> queue = this.queue(request.getQueueUrl());
+        int max = 1;
+        if (request.getMaxNumberOfMessages() != null) {
+            max = request.getMaxNumberOfMessages();
+        }
+        int visibility = FkSqs.VISIBILITY;
+        if (request.getVisibilityTimeout() != null) {
+            visibility = request.getVisibilityTimeout();
+        }
+        long wait = 0L;
+        if (request.getWaitTimeSeconds() != null) {
+            wait = TimeUnit.SECONDS.toMillis(
+                (long) request.getWaitTimeSeconds()
+            );
+        }
+        final long deadline = System.currentTimeMillis() + wait;
+        final List<Message> messages = new ArrayList<>(max);
+        while (true) {
+            final long now = System.currentTimeMillis();
+            for (final FkSqs.Entry entry : queue) {
+                if (messages.size() >= max) {
+                    break;
+                }
+                if (entry.visible <= now) {
+                    entry.visible = now + TimeUnit.SECONDS.toMillis(
+                        (long) visibility
+                    );
+                    messages.add(entry.receive());
+                }
+            }
+            if (!messages.isEmpty() || now >= deadline) {
+                break;
+            }
+            try {
+                this.wait(deadline - now);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return new ReceiveMessageResult().withMessages(messages);
+    }
+
+    @Override
+    public synchronized DeleteMessageResult deleteMessage(
+        final DeleteMessageRequest request) {
+        if (!this.delete(request.getQueueUrl(), request.getReceiptHandle())) {
+            throw new ReceiptHandleIsInvalidException(
+                request.getReceiptHandle()
+            );
+        }
+        return new DeleteMessageResult();
+    }
+
+    @Override
+    public synchronized DeleteMessageBatchResult deleteMessageBatch(
+        final DeleteMessageBatchRequest request) {
+        final DeleteMessageBatchResult result = new DeleteMessageBatchResult();
+        for (final DeleteMessageBatchRequestEntry entry
+            : request.getEntries()) {
+            if (this.delete(request.getQueueUrl(), entry.getReceiptHandle())) {
+                result.withSuccessful(
+                    new DeleteMessageBatchResultEntry().withId(entry.getId())
+                );
+            } else {
+                result.withFailed(FkSqs.failure(entry.getId()));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized ChangeMessageVisibilityResult changeMessageVisibility(
+        final ChangeMessageVisibilityRequest request) {
+        if (!this.change(
+            request.getQueueUrl(), request.getReceiptHandle(),
+            request.getVisibilityTimeout()
+        )) {
+            throw new ReceiptHandleIsInvalidException(
+                request.getReceiptHandle()
+            );
+        }
+        this.notifyAll();
+        return new ChangeMessageVisibilityResult();
+    }
+
+    @Override
+    public synchronized ChangeMessageVisibilityBatchResult
+        changeMessageVisibilityBatch(
+        final ChangeMessageVisibilityBatchRequest request) {
+        final ChangeMessageVisibilityBatchResult result =
+            new ChangeMessageVisibilityBatchResult();
+        for (final ChangeMessageVisibilityBatchRequestEntry entry
+            : request.getEntries()) {
+            if (this.change(
+                request.getQueueUrl(), entry.getReceiptHandle(),
+                entry.getVisibilityTimeout()
+            )) {
+                result.withSuccessful(
+                    new ChangeMessageVisibilityBatchResultEntry()
+                        .withId(entry.getId())
+                );
+            } else {
+                result.withFailed(FkSqs.failure(entry.getId()));
+            }
+        }
+        this.notifyAll();
+        return result;
+    }
+
+    @Override
+    public ChangeMessageVisibilityBatchResult changeMessageVisibilityBatch(
+        final String url,
+        final List<ChangeMessageVisibilityBatchRequestEntry> entries) {
+        return this.changeMessageVisibilityBatch(
+            new ChangeMessageVisibilityBatchRequest(url, entries)
+        );
+    }
+
+    /**
+     * Amount of messages in all queues, including invisible ones.
+     * @return Amount of messages
+     */
+    public synchronized int size() {
+        int size = 0;
+        for (final List<FkSqs.Entry> queue : this.queues.values()) {
+            size += queue.size();
+        }
+        return size;
+    }
+
+    /**
+     * Amount of messages deleted so far.
+     * @return Amount of messages
+     */
+    public long deleted() {
+        return this.removed.get();
+    }
+
+    /**
+     * Amount of batches sent so far.
+     * @return Amount of batches
+     */
+    public long batches() {
+        return this.batched.get();
+    }
+
+    /**
+     * Time messages stayed in queues, from sending till deleting,
+     * since the previous call of this method.
+     * @return Histogram of milliseconds
+     */
+    public Histogram latencies() {
+        return this.recorder.getIntervalHistogram();
+    }
+
+    /**
+     * Add message to the queue.
+     * @param url Queue URL
+     * @param body Body
+     * @param dedup Deduplication id or NULL
+     * @param attrs Message attributes
+     * @return Message id
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    private String push(final String url, final String body,
+        final String dedup, final Map<String, MessageAttributeValue> attrs) {
+        final long now = System.currentTimeMillis();
+        final Iterator<Long> times = this.seen.values().iterator();
+        while (times.hasNext()) {
+            if (now - times.next() > FkSqs.DEDUPLICATION) {
+                times.remove();
+            }
+        }
+        final String mid = UUID.randomUUID().toString();
+        if (dedup == null || this.seen.putIfAbsent(dedup, now) == null) {
+            this.queue(url).add(
+                new FkSqs.Entry(
+                    new Message()
+                        .withMessageId(mid)
+                        .withBody(body)
+                        .withMessageAttributes(attrs)
+                        .addAttributesEntry(
+                            MessageSystemAttributeName.SentTimestamp
+                                .toString(),
+                            Long.toString(now)
+                        )
+                )
+            );
+        }
+        return mid;
+    }
+
+    /**
+     * Delete message by receipt handle.
+     * @param url Queue URL
+     * @param handle Receipt handle
+     * @return TRUE if deleted
+     */
+    private boolean delete(final String url, final String handle) {
+        final Iterator<FkSqs.Entry> entries = this.queue(url).iterator();
+        boolean found = false;
+        while (entries.hasNext()) {
+            final FkSqs.Entry entry = entries.next();
+            if (handle.equals(entry.handle)) {
+                entries.remove();
+                this.removed.incrementAndGet();
+                this.recorder.recordValue(
+                    TimeUnit.NANOSECONDS.toMillis(
+                        System.nanoTime() - entry.sent
+                    )
+                );
+                found = true;
+                break;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Change visibility of message by receipt handle.
+     * @param url Queue URL
+     * @param handle Receipt handle
+     * @param timeout Visibility timeout, in seconds
+     * @return TRUE if changed
+     */
+    private boolean change(final String url, final String handle,
+        final int timeout) {
+        boolean found = false;
+        for (final FkSqs.Entry entry : this.queue(url)) {
+            if (handle.equals(entry.handle)) {
+                entry.visible = System.currentTimeMillis()
+                    + TimeUnit.SECONDS.toMillis((long) timeout);
+                found = true;
+                break;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Queue by URL.
+     * @param url Queue URL
+     * @return Messages
+     */
+    private List<FkSqs.Entry> queue(final String url) {
+        return this.queues.computeIfAbsent(url, key -> new LinkedList<>());
+    }
+
+    /**
+     * URL of the queue.
+     * @param name Queue name
+     * @return URL
+     */
+    private static String url(final String name) {
+        return String.format("https://sqs.fake/%s", name);
+    }
+
+    /**
+     * Failed batch entry.
+     * @param eid Entry id
+     * @return Error entry
+     */
+    private static BatchResultErrorEntry failure(final String eid) {
+        return new BatchResultErrorEntry()
+            .withId(eid)
+            .withCode("ReceiptHandleIsInvalid")
+            .withSenderFault(true)
+            .withMessage("Receipt handle is not valid");
+    }
+
+    /**
+     * Message in the queue.
+     */
+    private static final class Entry {
+
+        /**
+         * The message.
+         */
+        private final Message message;
+
+        /**
+         * When it was sent, in nanoseconds.
+         */
+        private final long sent;
+
+        /**
+         * When it becomes visible, in milliseconds.
+         */
+        private long visible;
+
+        /**
+         * Receipt handle of the last receive.
+         */
+        private String handle;
+
+        /**
+         * Ctor.
+         * @param msg The message
+         */
+        Entry(final Message msg) {
+            this.message = msg;
+            this.sent = System.nanoTime();
+        }
+
+        /**
+         * Receive it with new receipt handle.
+         * @return A copy of the message
+         */
+        public Message receive() {
+            this.handle = UUID.randomUUID().toString();
+            return this.message.clone()
+                .withReceiptHandle(this.handle)
+                .withMessageAttributes(
+                    new LinkedHashMap<>(this.message.getMessageAttributes())
+                );
+        }
+    }
+}
@@ -16,7 +16,6 @@
  */
 package com.zerocracy.farm.props;
 
-import com.jcabi.xml.XMLDocument;
 import com.zerocracy.Farm;
 import com.zerocracy.Item;
 import com.zerocracy.Project;
@@ -32,6 +31,8 @@ import java.util.List;
  * which specifies properties such as S3 credentials, Paypal or Stripe secrets
  * etc.</p>
  *
+ * <p>The file is parsed and indexed only once, see {@link PropsIndex}.</p>
+ *
  * @since 1.0
  */
 public final class Props {
@@ -105,6 +106,15 @@ public final class Props {
         return !this.values(xpath).isEmpty();
     }
 
+    /**
+     * Is it a testing mode.
+     * @return TRUE if it's testing
+     * @throws IOException If fails
+     */
+    public boolean testing() throws IOException {
+        return this.has("//testing");
+    }
+
     /**
      * Get one property, all values.
      * @param xpath Xpath to use
@@ -112,9 +122,7 @@ public final class Props {
      * @throws IOException If fails
      */
     private List<String> values(final String xpath) throws IOException {
-        return this.item().read(XMLDocument::new).xpath(
-            String.format("%s/text()", xpath)
-        );
+        return this.item().read(PropsIndex::of).values(xpath);
     }
 
     /**
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.props;
+
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+import org.w3c.dom.Node;
+
+/**
+ * Parsed and indexed properties.
+ *
+ * <p>The document is parsed once and all texts of its elements are
+ * indexed by element paths, both absolute ("/props/a/b") and relative
+ * ("//a/b", "//b"). Simple XPath queries are answered by the index,
+ * all others are evaluated once and remembered, since the document
+ * never changes. The index is parsed again only if the file is
+ * modified.</p>
+ *
+ * @since 1.0
+ */
+final class PropsIndex {
+
+    /**
+     * Indexes by files.
+     */
+    private static final ConcurrentMap<Path, PropsIndex> CACHE =
+        new ConcurrentHashMap<>(0);
+
+    /**
+     * Simple XPath, which is answered by the index.
+     */
+    private static final Pattern SIMPLE = Pattern.compile(
+        "//?[\\w.\\-]+(/[\\w.\\-]+)*"
+    );
+
+    /**
+     * Stamp of the file.
+     */
+    private final String stamp;
+
+    /**
+     * The document.
+     */
+    private final XML xml;
+
+    /**
+     * Texts by element paths.
+     */
+    private final Map<String, List<String>> index;
+
+    /**
+     * Results of other queries.
+     */
+    private final ConcurrentMap<String, List<String>> queries;
+
+    /**
+     * Ctor.
+     * @param stmp Stamp of the file
+     * @param doc The document
+     */
+    private PropsIndex(final String stmp, final XML doc) {
+        this.stamp = stmp;
+        this.xml = doc;
+        this.index = PropsIndex.index(doc.node());
+        this.queries = new ConcurrentHashMap<>(0);
+    }
+
+    /**
+     * Index of the file.
+     * @param file The file
+     * @return Index
+     * @throws IOException If fails
+     */
+    public static PropsIndex of(final Path file) throws IOException {
+        final BasicFileAttributes attrs = Files.readAttributes(
+            file, BasicFileAttributes.class
+        );
+        final String stamp = String.format(
+            "%s %d", attrs.lastModifiedTime(), attrs.size()
+        );
+        PropsIndex idx = PropsIndex.CACHE.get(file);
+        if (idx == null || !idx.stamp.equals(stamp)) {
+            idx = new PropsIndex(stamp, new XMLDocument(file.toFile()));
+            PropsIndex.CACHE.put(file, idx);
+        }
+        return idx;
+    }
+
+    /**
+     * Texts of elements found by XPath.
+     * @param xpath XPath of elements
+     * @return Texts
+     */
+    public List<String> values(final String xpath) {
+        final List<String> values;
+        if (PropsIndex.SIMPLE.matcher(xpath).matches()) {
+            values = this.index.getOrDefault(xpath, Collections.emptyList());
+        } else {
+            values = this.queries.computeIfAbsent(
+                xpath,
+                query -> Collections.unmodifiableList(
+                    new ArrayList<>(
+                        this.xml.xpath(String.format("%s/text()", query))
+                    )
+                )
+            );
+        }
+        return values;
+    }
+
+    /**
+     * Index all elements of the document.
+     * @param root Document node
+     * @return Texts by element paths
+     */
+    private static Map<String, List<String>> index(final Node root) {
+        final Map<String, List<String>> map = new HashMap<>(0);
+        PropsIndex.walk(root, new LinkedList<>(), map);
+        final Map<String, List<String>> index = new HashMap<>(map.size());
+        for (final Map.Entry<String, List<String>> ent : map.entrySet()) {
+            index.put(
+                ent.getKey(), Collections.unmodifiableList(ent.getValue())
+            );
+        }
+        return Collections.unmodifiableMap(index);
+    }
+
+    /**
+     * Index the node and its children, in document order.
+     * @param node The node
+     * @param path Names of elements above the node, including it
+     * @param map Texts by element paths
+     */
+    private static void walk(final Node node, final LinkedList<String> path,
+        final Map<String, List<String>> map) {
+        for (Node kid = node.getFirstChild(); kid != null;
+            kid = kid.getNextSibling()) {
+            if (kid.getNodeType() == Node.ELEMENT_NODE) {
+                path.addLast(kid.getNodeName());
+                final List<String> texts = PropsIndex.texts(kid);
+                for (final String key : PropsIndex.keys(path)) {
+                    map.computeIfAbsent(key, k -> new LinkedList<>())
+                        .addAll(texts);
+                }
+                PropsIndex.walk(kid, path, map);
+                path.removeLast();
+            }
+        }
+    }
+
+    /**
+     * Texts of the element, the same as "text()" XPath would return.
+     * @param element The element
+     * @return Texts
+     */
+    private static List<String> texts(final Node element) {
+        final List<String> texts = new LinkedList<>();
+        for (Node kid = element.getFirstChild(); kid != null;
+            kid = kid.getNextSibling()) {
+            if (kid.getNodeType() == Node.TEXT_NODE
+                || kid.getNodeType() == Node.CDATA_SECTION_NODE) {
+                texts.add(kid.getNodeValue());
+            }
+        }
+        return texts;
+    }
+
+    /**
+     * All paths, which select the element.
+     * @param path Names of elements from the root to the element
+     * @return Absolute path and relative ones
+     */
+    private static List<String> keys(final List<String> path) {
+        final List<String> keys = new LinkedList<>();
+        keys.add(String.format("/%s", String.join("/", path)));
+        for (int idx = 0; idx < path.size(); ++idx) {
+            keys.add(
+                String.format(
+                    "//%s", String.join("/", path.subList(idx, path.size()))
+                )
+            );
+        }
+        return keys;
+    }
+}
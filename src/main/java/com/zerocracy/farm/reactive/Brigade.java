@@ -16,20 +16,33 @@
  */
 package com.zerocracy.farm.reactive;
 
+import com.jcabi.aspects.Tv;
 import com.jcabi.xml.XML;
 import com.zerocracy.Project;
 import com.zerocracy.Stakeholder;
+import com.zerocracy.claims.ClaimIn;
 import com.zerocracy.farm.MismatchException;
 import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import org.cactoos.BiFunc;
-import org.cactoos.iterable.Filtered;
 import org.cactoos.iterable.IterableOf;
-import org.cactoos.iterable.LengthOf;
 import org.cactoos.iterable.Mapped;
 import org.cactoos.list.SolidList;
 
 /**
  * Brigade of stakeholders.
+ *
+ * <p>Stakeholders are dispatched by claim type. When a stakeholder
+ * rejects a claim type (see {@link MismatchException#type()}), it is
+ * removed from the team of this type and never gets claims of this
+ * type again. Stakeholders, which didn't reject the type yet, stay in
+ * the team, so new claim types are tried by everybody once.</p>
+ *
  * @since 1.0
  */
 public final class Brigade implements BiFunc<Project, XML, Integer> {
@@ -37,7 +50,12 @@ public final class Brigade implements BiFunc<Project, XML, Integer> {
     /**
      * Stakeholders.
      */
-    private final Iterable<Stakeholder> pool;
+    private final List<Stakeholder> pool;
+
+    /**
+     * Teams of stakeholders by claim type.
+     */
+    private final ConcurrentMap<String, Collection<Stakeholder>> teams;
 
     /**
      * Ctor.
@@ -53,16 +71,31 @@ public final class Brigade implements BiFunc<Project, XML, Integer> {
      */
     public Brigade(final Iterable<Stakeholder> list) {
         this.pool = new SolidList<>(new Mapped<>(StkSmart::new, list));
+        this.teams = new ConcurrentHashMap<>(Tv.HUNDRED);
+    }
+
+    @Override
+    public Integer apply(final Project project, final XML xml)
+        throws IOException, InterruptedException {
+        final Collection<Stakeholder> team = this.teams.computeIfAbsent(
+            new ClaimIn(xml).type().toLowerCase(Locale.ENGLISH),
+            type -> new CopyOnWriteArrayList<>(this.pool)
+        );
+        int total = 0;
+        for (final Stakeholder stk : team) {
+            if (Brigade.process(stk, project, xml, team)) {
+                ++total;
+            }
+        }
+        return total;
     }
 
     @Override
-    public Integer apply(final Project project, final XML xml) {
-        return new LengthOf(
-            new Filtered<>(
-                stk -> Brigade.process(stk, project, xml),
-                this.pool
-            )
-        ).intValue();
+    public String toString() {
+        return String.format(
+            "%d stakeholders, %d claim types",
+            this.pool.size(), this.teams.size()
+        );
     }
 
     /**
@@ -70,18 +103,24 @@ public final class Brigade implements BiFunc<Project, XML, Integer> {
      * @param stk Stakeholder
      * @param project Project
      * @param xml XML to process
+     * @param team Team of this claim type
      * @return TRUE if this one was interested
      * @throws IOException If fails
      * @throws InterruptedException If interrupted
+     * @checkstyle ParameterNumberCheck (3 lines)
      */
     private static boolean process(final Stakeholder stk, final Project project,
-        final XML xml) throws IOException, InterruptedException {
+        final XML xml, final Collection<Stakeholder> team)
+        throws IOException, InterruptedException {
         boolean done;
         try {
             stk.process(project, xml);
             Thread.sleep(0L);
             done = true;
         } catch (final MismatchException ex) {
+            if (ex.type()) {
+                team.remove(stk);
+            }
             done = false;
         }
         return done;
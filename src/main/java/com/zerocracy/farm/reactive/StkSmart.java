@@ -29,6 +29,9 @@ import java.util.Set;
  * A stakeholder that doesn't hit the same
  * {@link MismatchException} exception twice.
  *
+ * <p>Mismatches of claim type are thrown further, since
+ * {@link Brigade} remembers them for all projects at once.</p>
+ *
  * @since 1.0
  */
 final class StkSmart implements Stakeholder {
@@ -63,6 +66,9 @@ final class StkSmart implements Stakeholder {
                 try {
                     this.origin.process(project, xml);
                 } catch (final MismatchException ex) {
+                    if (ex.type()) {
+                        throw ex;
+                    }
                     this.places.add(place);
                 }
             }
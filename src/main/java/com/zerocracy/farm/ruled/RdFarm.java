@@ -18,9 +18,11 @@ package com.zerocracy.farm.ruled;
 
 import com.zerocracy.Farm;
 import com.zerocracy.Project;
+import com.zerocracy.farm.guts.Guts;
 import java.io.IOException;
 import lombok.EqualsAndHashCode;
 import org.cactoos.iterable.Mapped;
+import org.xembly.Directives;
 
 /**
  * Ruled farm (auto-updates XMLs and checks for their consistency).
@@ -45,10 +47,18 @@ public final class RdFarm implements Farm {
 
     @Override
     public Iterable<Project> find(final String query) throws IOException {
-        return new Mapped<>(
-            RdProject::new,
-            this.origin.find(query)
-        );
+        return new Guts(
+            this.origin,
+            () -> new Mapped<>(
+                RdProject::new,
+                this.origin.find(query)
+            ),
+            () -> new Directives()
+                .xpath("/guts")
+                .add("farm")
+                .attr("id", "RdFarm")
+                .append(RdTemplates.INSTANCE)
+        ).apply(query);
     }
 
     @Override
@@ -16,17 +16,14 @@
  */
 package com.zerocracy.farm.ruled;
 
+import com.jcabi.log.Logger;
+import com.jcabi.xml.XML;
 import com.jcabi.xml.XMLDocument;
+import com.zerocracy.Datum;
 import java.io.IOException;
 import java.net.URI;
-import org.cactoos.Input;
-import org.cactoos.cache.SoftFunc;
-import org.cactoos.func.SyncFunc;
-import org.cactoos.func.UncheckedFunc;
-import org.cactoos.io.InputOf;
-import org.cactoos.io.InputWithFallback;
-import org.cactoos.io.StickyInput;
-import org.cactoos.io.SyncInput;
+import org.cactoos.func.IoCheckedFunc;
+import org.cactoos.func.SolidFunc;
 import org.cactoos.text.TextOf;
 
 /**
@@ -38,14 +35,12 @@ import org.cactoos.text.TextOf;
 final class RdIndex {
 
     /**
-     * Cache of documents.
+     * Cache of indexes, only successfully loaded ones.
      */
-    private static final UncheckedFunc<URI, Input> CACHE = new UncheckedFunc<>(
-        new SyncFunc<>(
-            new SoftFunc<>(
-                path -> new SyncInput(
-                    new StickyInput(new InputOf(path))
-                )
+    private static final IoCheckedFunc<URI, XML> CACHE = new IoCheckedFunc<>(
+        new SolidFunc<>(
+            uri -> new XMLDocument(
+                new TextOf(Datum.INSTANCE.input(uri.toURL())).asString()
             )
         )
     );
@@ -69,20 +64,21 @@ final class RdIndex {
      * @throws IOException If fails
      */
     public Iterable<String> iterate() throws IOException {
-        return new XMLDocument(
-            new TextOf(
-                new InputWithFallback(
-                    RdIndex.CACHE.apply(
-                        URI.create(
-                            String.format(
-                                "http://datum.zerocracy.com%s/index.xml",
-                                this.uri
-                            )
-                        )
-                    ),
-                    new InputOf("<index/>")
-                )
-            ).asString()
-        ).xpath("/index/entry[@dir='false']/@uri");
+        final URI addr = URI.create(
+            String.format(
+                "http://datum.zerocracy.com%s/index.xml",
+                this.uri
+            )
+        );
+        XML index;
+        try {
+            index = RdIndex.CACHE.apply(addr);
+        } catch (final IOException ex) {
+            Logger.warn(
+                this, "Failed to load index %s: %[exception]s", addr, ex
+            );
+            index = new XMLDocument("<index/>");
+        }
+        return index.xpath("/index/entry[@dir='false']/@uri");
     }
 }
@@ -18,21 +18,12 @@ package com.zerocracy.farm.ruled;
 
 import com.jcabi.log.Logger;
 import com.jcabi.xml.XMLDocument;
-import com.jcabi.xml.XSLDocument;
 import com.zerocracy.Project;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.file.Path;
 import java.util.Collection;
 import org.apache.commons.lang3.StringUtils;
-import org.cactoos.Func;
-import org.cactoos.Input;
-import org.cactoos.cache.SoftFunc;
-import org.cactoos.func.SyncFunc;
-import org.cactoos.func.UncheckedFunc;
-import org.cactoos.io.InputOf;
-import org.cactoos.io.StickyInput;
-import org.cactoos.io.SyncInput;
 import org.cactoos.iterable.LengthOf;
 import org.cactoos.scalar.And;
 import org.cactoos.scalar.UncheckedScalar;
@@ -46,19 +37,6 @@ import org.cactoos.text.JoinedText;
  */
 final class RdRules {
 
-    /**
-     * Cache of documents.
-     */
-    private static final UncheckedFunc<URI, Input> CACHE = new UncheckedFunc<>(
-        new SyncFunc<>(
-            new SoftFunc<>(
-                (Func<URI, Input>) uri -> new SyncInput(
-                    new StickyInput(new InputOf(uri))
-                )
-            )
-        )
-    );
-
     /**
      * Original project.
      */
@@ -120,11 +98,10 @@ final class RdRules {
      * @throws IOException If fails
      */
     private void check(final String xsl) throws IOException {
-        final Collection<String> errors =
-            XSLDocument.make(RdRules.CACHE.apply(URI.create(xsl)).stream())
-                .with(new RdSources(this.project))
-                .transform(new XMLDocument("<i/>"))
-                .xpath("/errors/error/text()");
+        final Collection<String> errors = RdTemplates.INSTANCE.transform(
+            URI.create(xsl), new XMLDocument("<i/>"),
+            new RdSources(this.project)
+        ).xpath("/errors/error/text()");
         if (!errors.isEmpty()) {
             throw new IllegalStateException(
                 String.format(
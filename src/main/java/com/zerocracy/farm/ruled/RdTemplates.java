@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.ruled;
+
+import com.jcabi.xml.Sources;
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import com.zerocracy.Datum;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.xml.transform.Templates;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMResult;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamSource;
+import org.xembly.Directive;
+import org.xembly.Directives;
+
+/**
+ * Compiled XSL stylesheets of rules.
+ *
+ * <p>Every stylesheet is compiled once and then used by all threads,
+ * since {@link Templates} are thread-safe. Documents of the project
+ * are resolved by {@link Sources} of a particular transformation.
+ * The least recently used stylesheets are evicted when there are too
+ * many of them.</p>
+ *
+ * @since 1.0
+ */
+final class RdTemplates implements Iterable<Directive> {
+
+    /**
+     * Singleton.
+     */
+    public static final RdTemplates INSTANCE = new RdTemplates(
+        // @checkstyle MagicNumber (1 line)
+        512
+    );
+
+    /**
+     * Max amount of stylesheets.
+     */
+    private final int max;
+
+    /**
+     * Stylesheets by URI, in access order.
+     */
+    private final Map<URI, Templates> cache;
+
+    /**
+     * Hits.
+     */
+    private final AtomicLong hits;
+
+    /**
+     * Misses.
+     */
+    private final AtomicLong misses;
+
+    /**
+     * Ctor.
+     * @param max Max amount of stylesheets
+     */
+    RdTemplates(final int max) {
+        this.max = max;
+        // @checkstyle MagicNumber (1 line)
+        this.cache = new LinkedHashMap<>(max, 0.75f, true);
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+    }
+
+    /**
+     * Transform the document.
+     * @param xsl URI of XSL stylesheet
+     * @param xml The document
+     * @param sources Sources of other documents
+     * @return Transformed document
+     * @throws IOException If fails
+     */
+    public XML transform(final URI xsl, final XML xml, final Sources sources)
+        throws IOException {
+        final DOMResult result = new DOMResult();
+        try {
+            final Transformer trans = this.templates(xsl).newTransformer();
+            trans.setURIResolver(sources);
+            trans.transform(new DOMSource(xml.node()), result);
+        } catch (final TransformerException ex) {
+            throw new IOException(
+                String.format("Failed to transform by %s", xsl), ex
+            );
+        }
+        return new XMLDocument(result.getNode());
+    }
+
+    @Override
+    public Iterator<Directive> iterator() {
+        final int size;
+        synchronized (this.cache) {
+            size = this.cache.size();
+        }
+        return new Directives()
+            .add("templates")
+            .add("size").attr("max", this.max).set(size).up()
+            .add("hits").set(this.hits.get()).up()
+            .add("misses").set(this.misses.get()).up()
+            .up()
+            .iterator();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%d hits, %d misses", this.hits.get(), this.misses.get()
+        );
+    }
+
+    /**
+     * Compiled stylesheet.
+     * @param xsl URI of it
+     * @return Templates
+     * @throws IOException If fails
+     */
+    private Templates templates(final URI xsl) throws IOException {
+        Templates tpl;
+        synchronized (this.cache) {
+            tpl = this.cache.get(xsl);
+        }
+        if (tpl == null) {
+            this.misses.incrementAndGet();
+            tpl = RdTemplates.compile(xsl);
+            synchronized (this.cache) {
+                this.cache.put(xsl, tpl);
+                final Iterator<URI> iter = this.cache.keySet().iterator();
+                while (this.cache.size() > this.max) {
+                    iter.next();
+                    iter.remove();
+                }
+            }
+        } else {
+            this.hits.incrementAndGet();
+        }
+        return tpl;
+    }
+
+    /**
+     * Compile the stylesheet.
+     * @param xsl URI of it
+     * @return Templates
+     * @throws IOException If fails
+     */
+    private static Templates compile(final URI xsl) throws IOException {
+        try (
+            final InputStream src = Datum.INSTANCE.input(xsl.toURL()).stream()
+        ) {
+            return TransformerFactory.newInstance().newTemplates(
+                new StreamSource(src, xsl.toString())
+            );
+        } catch (final TransformerConfigurationException ex) {
+            throw new IOException(
+                String.format("Failed to compile %s", xsl), ex
+            );
+        }
+    }
+}
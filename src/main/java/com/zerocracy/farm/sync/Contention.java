@@ -0,0 +1,488 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.sync;
+
+import com.jcabi.aspects.Tv;
+import com.jcabi.log.Logger;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.xembly.Directive;
+import org.xembly.Directives;
+
+/**
+ * Lock contention of items.
+ *
+ * <p>Every lock made by {@link Locks} reports here, through
+ * {@link TracedLock}: how long threads waited for it, how long they
+ * held it, how many times they failed to get it in time, who holds
+ * it now and for which claim, see {@link #claim(String)}.</p>
+ *
+ * <p>It also remembers the order in which every thread acquires
+ * locks. When one thread takes A and then B, while another one (or
+ * the same one, later) takes B and then A, they may deadlock one day.
+ * Such an inversion is logged once, with the stacks of both
+ * acquisitions. Stacks are captured only for pairs of locks never
+ * seen before, so it's cheap once the set of pairs is known.</p>
+ *
+ * <p>The class is thread-safe.</p>
+ *
+ * @since 1.0
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class Contention implements Iterable<Directive> {
+
+    /**
+     * Instance for the entire process.
+     */
+    public static final Contention INSTANCE = new Contention();
+
+    /**
+     * Max pairs of locks to remember.
+     */
+    private static final int MAX_PAIRS = Tv.TEN * Tv.THOUSAND;
+
+    /**
+     * Max inversions to show.
+     */
+    private static final int MAX_INVERSIONS = 50;
+
+    /**
+     * Max stack frames to keep.
+     */
+    private static final int FRAMES = 40;
+
+    /**
+     * Stats by item.
+     */
+    private final Map<String, Contention.Stat> stats;
+
+    /**
+     * Stacks of first acquisitions, by pairs "first -> second".
+     */
+    private final Map<String, String> pairs;
+
+    /**
+     * Inversions found, by pairs.
+     */
+    private final Map<String, String> inversions;
+
+    /**
+     * Locks held by current thread, in order of acquisition.
+     */
+    private final ThreadLocal<Deque<Contention.Hold>> held;
+
+    /**
+     * Claim processed by current thread.
+     */
+    private final ThreadLocal<String> claims;
+
+    /**
+     * Ctor.
+     */
+    public Contention() {
+        this.stats = new ConcurrentHashMap<>(0);
+        this.pairs = new ConcurrentHashMap<>(0);
+        this.inversions = new ConcurrentHashMap<>(0);
+        this.held = ThreadLocal.withInitial(LinkedList::new);
+        this.claims = ThreadLocal.withInitial(() -> "");
+    }
+
+    /**
+     * Current thread is processing this claim, until the next call.
+     * @param cid Claim ID, empty if none
+     */
+    public void claim(final String cid) {
+        this.claims.set(cid);
+    }
+
+    /**
+     * Lock was acquired by current thread.
+     * @param item Item
+     * @param nano Time waited, in nanoseconds
+     */
+    public void acquired(final String item, final long nano) {
+        final Contention.Stat stat = this.stat(item);
+        stat.waited(nano);
+        final Deque<Contention.Hold> holds = this.held.get();
+        Contention.Hold hold = null;
+        for (final Contention.Hold before : holds) {
+            if (before.item.equals(item)) {
+                hold = before;
+            }
+        }
+        if (hold == null) {
+            for (final Contention.Hold before : holds) {
+                this.order(before.item, item);
+            }
+            hold = new Contention.Hold(item);
+            holds.addLast(hold);
+            stat.taken(Thread.currentThread().getName(), this.claims.get());
+        }
+        hold.depth += 1;
+    }
+
+    /**
+     * Lock was not acquired in time by current thread.
+     * @param item Item
+     * @param nano Time waited, in nanoseconds
+     */
+    public void timeout(final String item, final long nano) {
+        final Contention.Stat stat = this.stat(item);
+        stat.waited(nano);
+        stat.timeouts.incrementAndGet();
+        Logger.warn(
+            this, "Lock of %s not acquired by %s in %[nano]s, %s",
+            item, Thread.currentThread().getName(), nano, stat.holder()
+        );
+    }
+
+    /**
+     * Lock is about to be released by current thread.
+     * @param item Item
+     */
+    public void released(final String item) {
+        final Iterator<Contention.Hold> holds =
+            this.held.get().descendingIterator();
+        while (holds.hasNext()) {
+            final Contention.Hold hold = holds.next();
+            if (hold.item.equals(item)) {
+                hold.depth -= 1;
+                if (hold.depth == 0) {
+                    holds.remove();
+                    this.stat(item).released(System.nanoTime() - hold.start);
+                }
+                break;
+            }
+        }
+    }
+
+    /**
+     * Who holds the lock of the item now.
+     * @param item Item
+     * @return Text
+     */
+    public String holder(final String item) {
+        final Contention.Stat stat = this.stats.get(item);
+        final String text;
+        if (stat == null) {
+            text = "never locked";
+        } else {
+            text = stat.holder();
+        }
+        return text;
+    }
+
+    /**
+     * Amount of inversions found.
+     * @return Inversions
+     */
+    public int inversions() {
+        return this.inversions.size();
+    }
+
+    /**
+     * Most contended items, by total wait time.
+     * @param max Max amount of items
+     * @return Directives of items
+     */
+    public Iterable<Directive> top(final int max) {
+        final List<Map.Entry<String, Contention.Stat>> all =
+            new ArrayList<>(this.stats.entrySet());
+        all.sort(
+            Comparator.comparingLong(
+                (Map.Entry<String, Contention.Stat> ent) ->
+                    ent.getValue().wait.get()
+            ).reversed()
+        );
+        final Directives dirs = new Directives();
+        for (final Map.Entry<String, Contention.Stat> ent
+            : all.subList(0, Math.min(max, all.size()))) {
+            dirs.append(ent.getValue().directives(ent.getKey()));
+        }
+        return dirs;
+    }
+
+    @Override
+    public Iterator<Directive> iterator() {
+        final Directives dirs = new Directives()
+            .add("locks")
+            .add("items").append(this.top(Tv.TWENTY)).up()
+            .add("inversions");
+        for (final Map.Entry<String, String> ent
+            : this.inversions.entrySet()) {
+            dirs.add("inversion")
+                .attr("pair", ent.getKey())
+                .set(ent.getValue())
+                .up();
+        }
+        return dirs.up().up().iterator();
+    }
+
+    /**
+     * Stats of the item.
+     * @param item Item
+     * @return Stat
+     */
+    private Contention.Stat stat(final String item) {
+        return this.stats.computeIfAbsent(item, key -> new Contention.Stat());
+    }
+
+    /**
+     * Current thread acquires the second lock while holding the first.
+     * @param first Held item
+     * @param second Item being acquired
+     */
+    private void order(final String first, final String second) {
+        final String pair = String.format("%s -> %s", first, second);
+        if (!this.pairs.containsKey(pair)
+            && this.pairs.size() < Contention.MAX_PAIRS) {
+            final String stack = Contention.stack();
+            if (this.pairs.putIfAbsent(pair, stack) == null) {
+                final String reverse = String.format(
+                    "%s -> %s", second, first
+                );
+                final String other = this.pairs.get(reverse);
+                if (other != null
+                    && this.inversions.size() < Contention.MAX_INVERSIONS) {
+                    final String text = String.format(
+                        "%s by %s:%n%s%nwhile %s was taken:%n%s",
+                        pair, Thread.currentThread().getName(),
+                        stack, reverse, other
+                    );
+                    this.inversions.put(pair, text);
+                    Logger.warn(this, "Lock order inversion: %s", text);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stack of current thread.
+     * @return Text
+     */
+    private static String stack() {
+        final StackTraceElement[] frames =
+            Thread.currentThread().getStackTrace();
+        final StringBuilder text = new StringBuilder(0);
+        for (int idx = 2; idx < Math.min(frames.length, Contention.FRAMES);
+            ++idx) {
+            text.append("  at ").append(frames[idx]).append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Lock held by a thread.
+     */
+    private static final class Hold {
+
+        /**
+         * Item.
+         */
+        private final String item;
+
+        /**
+         * When it was acquired, in nanoseconds.
+         */
+        private final long start;
+
+        /**
+         * Reentrant holds.
+         */
+        private int depth;
+
+        /**
+         * Ctor.
+         * @param item Item
+         */
+        Hold(final String item) {
+            this.item = item;
+            this.start = System.nanoTime();
+        }
+    }
+
+    /**
+     * Thread, which took the lock.
+     */
+    private static final class Owner {
+
+        /**
+         * Thread name.
+         */
+        private final String thread;
+
+        /**
+         * Claim ID.
+         */
+        private final String cid;
+
+        /**
+         * When it was taken, in nanoseconds.
+         */
+        private final long since;
+
+        /**
+         * Ctor.
+         * @param thread Thread name
+         * @param cid Claim ID
+         */
+        Owner(final String thread, final String cid) {
+            this.thread = thread;
+            this.cid = cid;
+            this.since = System.nanoTime();
+        }
+
+        @Override
+        public String toString() {
+            return Logger.format(
+                "held by %s for claim \"%s\" for %[nano]s",
+                this.thread, this.cid, System.nanoTime() - this.since
+            );
+        }
+    }
+
+    /**
+     * Stats of one item.
+     */
+    private static final class Stat {
+
+        /**
+         * Acquisitions.
+         */
+        private final AtomicLong waits = new AtomicLong();
+
+        /**
+         * Total wait, in nanoseconds.
+         */
+        private final AtomicLong wait = new AtomicLong();
+
+        /**
+         * Max wait, in nanoseconds.
+         */
+        private final AtomicLong mwait = new AtomicLong();
+
+        /**
+         * Releases.
+         */
+        private final AtomicLong holds = new AtomicLong();
+
+        /**
+         * Total hold, in nanoseconds.
+         */
+        private final AtomicLong hold = new AtomicLong();
+
+        /**
+         * Max hold, in nanoseconds.
+         */
+        private final AtomicLong mhold = new AtomicLong();
+
+        /**
+         * Timeouts.
+         */
+        private final AtomicLong timeouts = new AtomicLong();
+
+        /**
+         * Last holder, NULL if it's free.
+         */
+        private final AtomicReference<Contention.Owner> last =
+            new AtomicReference<>();
+
+        /**
+         * Lock acquired after the wait.
+         * @param nano Time waited
+         */
+        public void waited(final long nano) {
+            this.waits.incrementAndGet();
+            this.wait.addAndGet(nano);
+            this.mwait.accumulateAndGet(nano, Math::max);
+        }
+
+        /**
+         * Lock taken by thread, the last one for shared locks.
+         * @param thread Thread name
+         * @param cid Claim ID
+         */
+        public void taken(final String thread, final String cid) {
+            this.last.set(new Contention.Owner(thread, cid));
+        }
+
+        /**
+         * Lock released.
+         * @param nano Time held
+         */
+        public void released(final long nano) {
+            this.holds.incrementAndGet();
+            this.hold.addAndGet(nano);
+            this.mhold.accumulateAndGet(nano, Math::max);
+            this.last.set(null);
+        }
+
+        /**
+         * Who holds it.
+         * @return Text
+         */
+        public String holder() {
+            final Contention.Owner owner = this.last.get();
+            final String text;
+            if (owner == null) {
+                text = "free";
+            } else {
+                text = owner.toString();
+            }
+            return text;
+        }
+
+        /**
+         * Directives, times in milliseconds.
+         * @param item Item name
+         * @return Directives
+         */
+        public Iterable<Directive> directives(final String item) {
+            return new Directives()
+                .add("item")
+                .attr("id", item)
+                .add("waits").set(this.waits.get()).up()
+                .add("wait").set(Contention.Stat.msec(this.wait)).up()
+                .add("max_wait").set(Contention.Stat.msec(this.mwait)).up()
+                .add("holds").set(this.holds.get()).up()
+                .add("hold").set(Contention.Stat.msec(this.hold)).up()
+                .add("max_hold").set(Contention.Stat.msec(this.mhold)).up()
+                .add("timeouts").set(this.timeouts.get()).up()
+                .add("holder").set(this.holder()).up()
+                .up();
+        }
+
+        /**
+         * Nanoseconds to milliseconds.
+         * @param nano Nanoseconds
+         * @return Milliseconds
+         */
+        private static long msec(final AtomicLong nano) {
+            return TimeUnit.NANOSECONDS.toMillis(nano.get());
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.sync;
+
+import com.zerocracy.Item;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.EqualsAndHashCode;
+import org.cactoos.Func;
+import org.cactoos.Proc;
+import org.cactoos.func.IoCheckedFunc;
+import org.cactoos.func.IoCheckedProc;
+
+/**
+ * Multi-version item.
+ *
+ * <p>Readers get an immutable snapshot of the latest version of
+ * the item and don't lock anything. Only when the version is not
+ * known yet, the reader takes the read lock, reads the original item
+ * and offers its content as a snapshot to others. Writers are
+ * synchronized by the write lock, as in {@link SyncItem}, and publish
+ * the new version when the original item is successfully
+ * updated.</p>
+ *
+ * @since 1.0
+ */
+@EqualsAndHashCode(of = "origin")
+final class MvccItem implements Item {
+
+    /**
+     * Original item, synchronized.
+     */
+    private final Item origin;
+
+    /**
+     * Lock.
+     */
+    private final VersionedLock lock;
+
+    /**
+     * Ctor.
+     * @param item Original item
+     * @param lck Lock
+     */
+    MvccItem(final Item item, final VersionedLock lck) {
+        this.origin = new SyncItem(new MvccItem.Versions(item, lck), lck);
+        this.lock = lck;
+    }
+
+    @Override
+    public String toString() {
+        return this.origin.toString();
+    }
+
+    @Override
+    public <T> T read(final Func<Path, T> reader) throws IOException {
+        final VersionedLock.Snapshot snap = this.lock.snapshot();
+        final T result;
+        if (snap == null) {
+            result = this.origin.read(reader);
+        } else {
+            result = snap.read(reader);
+        }
+        return result;
+    }
+
+    @Override
+    public void update(final Proc<Path> writer) throws IOException {
+        this.origin.update(writer);
+    }
+
+    /**
+     * Content of the file.
+     * @param path File
+     * @return Bytes or NULL if file is absent
+     * @throws IOException If fails
+     */
+    private static byte[] content(final Path path) throws IOException {
+        final byte[] bytes;
+        if (Files.exists(path)) {
+            bytes = Files.readAllBytes(path);
+        } else {
+            bytes = null;
+        }
+        return bytes;
+    }
+
+    /**
+     * Item, which passes its content to the lock.
+     *
+     * <p>It has to be used under the lock only. Nothing is published
+     * by an interrupted thread, since the original item may skip
+     * the update in this case. Content is offered after the reader,
+     * so the snapshot keeps what the reader made of the file, e.g.
+     * the XML upgraded by its XSD, and readers of the snapshot don't
+     * have to modify it.</p>
+     */
+    private static final class Versions implements Item {
+
+        /**
+         * Original item.
+         */
+        private final Item origin;
+
+        /**
+         * Lock.
+         */
+        private final VersionedLock lock;
+
+        /**
+         * Ctor.
+         * @param item Original item
+         * @param lck Lock
+         */
+        Versions(final Item item, final VersionedLock lck) {
+            this.origin = item;
+            this.lock = lck;
+        }
+
+        @Override
+        public String toString() {
+            return this.origin.toString();
+        }
+
+        @Override
+        public <T> T read(final Func<Path, T> reader) throws IOException {
+            return this.origin.read(
+                path -> {
+                    final T result = new IoCheckedFunc<>(reader).apply(path);
+                    this.lock.offer(MvccItem.content(path));
+                    return result;
+                }
+            );
+        }
+
+        @Override
+        public void update(final Proc<Path> writer) throws IOException {
+            final AtomicReference<byte[]> fresh = new AtomicReference<>();
+            this.origin.update(
+                path -> {
+                    new IoCheckedProc<>(writer).exec(path);
+                    fresh.set(MvccItem.content(path));
+                }
+            );
+            if (!Thread.currentThread().isInterrupted()) {
+                this.lock.publish(fresh.get());
+            }
+        }
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.sync;
+
+import com.jcabi.jdbc.JdbcSession;
+import com.jcabi.jdbc.Outcome;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.cactoos.Scalar;
+import org.cactoos.scalar.IoCheckedScalar;
+import org.cactoos.scalar.SolidScalar;
+
+/**
+ * Leases of resources in {@code farm_locks} table.
+ *
+ * <p>Every row is a lease of one resource of one project, taken by
+ * the owner, which is one instance of this class. The lease expires
+ * unless the owner renews it, see {@link #renew()}. An expired lease
+ * is removed by the first owner who wants the resource, that's how
+ * locks of crashed instances are recovered. Only leases which are held
+ * now are renewed: the lease is forgotten before its row is deleted, so
+ * if the delete fails the row just expires. Times are taken from
+ * the local clock, so the lease time has to be much longer than
+ * the possible clock drift between instances.</p>
+ *
+ * <p>When the database is PostgreSQL, every release is announced
+ * by {@code NOTIFY} in {@link #CHANNEL} channel, with
+ * {@code project:resource} as a payload, see {@link PgWakeup}.</p>
+ *
+ * @since 1.0
+ */
+final class PgLeases {
+
+    /**
+     * Notification channel.
+     */
+    public static final String CHANNEL = "farm_locks";
+
+    /**
+     * SQL state of unique constraint violation.
+     */
+    private static final String DUPLICATE = "23505";
+
+    /**
+     * Data source.
+     */
+    private final DataSource data;
+
+    /**
+     * Lease owner.
+     */
+    private final String owner;
+
+    /**
+     * Lease time, in milliseconds.
+     */
+    private final long lease;
+
+    /**
+     * Leases held now, as project and resource.
+     */
+    private final Set<List<String>> held;
+
+    /**
+     * Is it PostgreSQL.
+     */
+    private final IoCheckedScalar<Boolean> postgres;
+
+    /**
+     * Ctor.
+     * @param data Data source
+     */
+    PgLeases(final DataSource data) {
+        this(data, TimeUnit.MINUTES.toMillis(1L));
+    }
+
+    /**
+     * Ctor.
+     * @param data Data source
+     * @param msec Lease time, in milliseconds
+     */
+    PgLeases(final DataSource data, final long msec) {
+        this.data = data;
+        this.owner = UUID.randomUUID().toString();
+        this.lease = msec;
+        this.held = ConcurrentHashMap.newKeySet();
+        this.postgres = new IoCheckedScalar<>(
+            new SolidScalar<>(new PgLeases.IsPostgres(data))
+        );
+    }
+
+    @Override
+    public String toString() {
+        return this.owner;
+    }
+
+    /**
+     * Lease time.
+     * @return Milliseconds
+     */
+    public long time() {
+        return this.lease;
+    }
+
+    /**
+     * Try to take the lease.
+     * @param pid Project ID
+     * @param res Resource
+     * @return TRUE if taken
+     * @throws SQLException If fails
+     */
+    public boolean acquire(final String pid, final String res)
+        throws SQLException {
+        boolean taken = this.insert(pid, res);
+        if (!taken) {
+            final long now = System.currentTimeMillis();
+            new JdbcSession(this.data)
+                // @checkstyle LineLength (1 line)
+                .sql("DELETE FROM farm_locks WHERE project = ? AND resource = ? AND (expires IS NULL OR expires < ?)")
+                .prepare(
+                    stmt -> {
+                        stmt.setString(1, pid);
+                        stmt.setString(2, res);
+                        // @checkstyle MagicNumber (1 line)
+                        stmt.setTimestamp(3, new Timestamp(now));
+                    }
+                )
+                .execute();
+            taken = this.insert(pid, res);
+        }
+        if (taken) {
+            this.held.add(Arrays.asList(pid, res));
+        }
+        return taken;
+    }
+
+    /**
+     * Give the lease back.
+     * @param pid Project ID
+     * @param res Resource
+     * @throws SQLException If fails
+     */
+    public void release(final String pid, final String res)
+        throws SQLException {
+        this.held.remove(Arrays.asList(pid, res));
+        new JdbcSession(this.data)
+            // @checkstyle LineLength (1 line)
+            .sql("DELETE FROM farm_locks WHERE project = ? AND resource = ? AND owner = ?")
+            .set(pid)
+            .set(res)
+            .set(this.owner)
+            .execute();
+        if (this.isPostgres()) {
+            new JdbcSession(this.data)
+                .sql("SELECT pg_notify(?, ?)")
+                .set(PgLeases.CHANNEL)
+                .set(String.format("%s:%s", pid, res))
+                .select(Outcome.VOID);
+        }
+    }
+
+    /**
+     * Extend leases of this owner, which are held now.
+     * @throws SQLException If fails
+     */
+    public void renew() throws SQLException {
+        final long expires = System.currentTimeMillis() + this.lease;
+        for (final List<String> taken : this.held) {
+            new JdbcSession(this.data)
+                // @checkstyle LineLength (1 line)
+                .sql("UPDATE farm_locks SET expires = ? WHERE project = ? AND resource = ? AND owner = ?")
+                .prepare(
+                    stmt -> {
+                        stmt.setTimestamp(1, new Timestamp(expires));
+                        stmt.setString(2, taken.get(0));
+                        // @checkstyle MagicNumber (2 lines)
+                        stmt.setString(3, taken.get(1));
+                        stmt.setString(4, this.owner);
+                    }
+                )
+                .execute();
+        }
+    }
+
+    /**
+     * Is the database PostgreSQL.
+     * @return TRUE if it is
+     * @throws SQLException If fails
+     */
+    public boolean isPostgres() throws SQLException {
+        try {
+            return this.postgres.value();
+        } catch (final IOException ex) {
+            throw new SQLException(ex);
+        }
+    }
+
+    /**
+     * Insert a new lease.
+     * @param pid Project ID
+     * @param res Resource
+     * @return TRUE if inserted, FALSE if it's taken already
+     * @throws SQLException If fails
+     */
+    private boolean insert(final String pid, final String res)
+        throws SQLException {
+        final long expires = System.currentTimeMillis() + this.lease;
+        boolean done;
+        try {
+            new JdbcSession(this.data)
+                // @checkstyle LineLength (1 line)
+                .sql("INSERT INTO farm_locks (project, resource, owner, expires) VALUES (?, ?, ?, ?)")
+                .prepare(
+                    stmt -> {
+                        stmt.setString(1, pid);
+                        stmt.setString(2, res);
+                        // @checkstyle MagicNumber (2 lines)
+                        stmt.setString(3, this.owner);
+                        stmt.setTimestamp(4, new Timestamp(expires));
+                    }
+                )
+                .execute();
+            done = true;
+        } catch (final SQLException ex) {
+            if (!PgLeases.DUPLICATE.equals(ex.getSQLState())) {
+                throw ex;
+            }
+            done = false;
+        }
+        return done;
+    }
+
+    /**
+     * Check whether the database is PostgreSQL.
+     */
+    private static final class IsPostgres implements Scalar<Boolean> {
+
+        /**
+         * Data source.
+         */
+        private final DataSource data;
+
+        /**
+         * Ctor.
+         * @param data Data source
+         */
+        IsPostgres(final DataSource data) {
+            this.data = data;
+        }
+
+        @Override
+        public Boolean value() throws SQLException {
+            try (final Connection conn = this.data.getConnection()) {
+                return "PostgreSQL".equals(
+                    conn.getMetaData().getDatabaseProductName()
+                );
+            }
+        }
+    }
+}
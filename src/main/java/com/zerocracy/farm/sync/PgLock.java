@@ -16,15 +16,13 @@
  */
 package com.zerocracy.farm.sync;
 
-import com.jcabi.jdbc.JdbcSession;
-import com.jcabi.jdbc.Outcome;
 import com.jcabi.log.Logger;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
-import javax.sql.DataSource;
 import org.cactoos.Proc;
 import org.cactoos.Scalar;
 import org.cactoos.func.UncheckedProc;
@@ -33,6 +31,12 @@ import org.cactoos.scalar.UncheckedScalar;
 /**
  * {@link Lock} using postgres table.
  *
+ * <p>The lock is a lease of the resource, see {@link PgLeases}. It's
+ * reentrant for the thread holding it. Threads waiting for the lock
+ * back off exponentially between attempts and are woken up earlier
+ * when the lock is released by this instance or, with the help of
+ * {@link PgWakeup}, by another one.</p>
+ *
  * @since 1.0
  */
 @SuppressWarnings("PMD.TooManyMethods")
@@ -44,9 +48,19 @@ final class PgLock implements Lock {
     private static final long DEFAULT_WAIT_SEC = 500L;
 
     /**
-     * Data source.
+     * First delay between attempts, in milliseconds.
      */
-    private final DataSource data;
+    private static final long MIN_DELAY = 2L;
+
+    /**
+     * Max delay between attempts, in milliseconds.
+     */
+    private static final long MAX_DELAY = 250L;
+
+    /**
+     * Leases.
+     */
+    private final PgLeases leases;
 
     /**
      * Project id.
@@ -66,15 +80,15 @@ final class PgLock implements Lock {
     /**
      * Ctor.
      *
-     * @param data Data Database
+     * @param leases Leases
      * @param pid Project id
      * @param res Resource to be locked
      * @param holder Thread holder
      * @checkstyle ParameterNumberCheck (3 lines)
      */
-    PgLock(final DataSource data, final String pid, final String res,
+    PgLock(final PgLeases leases, final String pid, final String res,
         final PgLock.Holder holder) {
-        this.data = data;
+        this.leases = leases;
         this.pid = pid;
         this.res = res;
         this.holder = holder;
@@ -100,25 +114,27 @@ final class PgLock implements Lock {
 
     @Override
     public boolean tryLock() {
-        boolean locked = false;
-        try {
-            locked = this.tryLock(PgLock.DEFAULT_WAIT_SEC, TimeUnit.SECONDS);
-        } catch (final InterruptedException ignored) {
-            Thread.currentThread().interrupt();
-        }
-        return locked;
+        return this.acq();
     }
 
     @Override
     public boolean tryLock(final long time, final TimeUnit unit)
         throws InterruptedException {
         final long deadline = System.nanoTime() + unit.toNanos(time);
+        long delay = PgLock.MIN_DELAY;
         boolean locked = false;
-        final JdbcSession session = new JdbcSession(this.data);
-        while (!locked && System.nanoTime() < deadline) {
-            locked = this.acq(session);
-            if (!locked) {
-                TimeUnit.MILLISECONDS.sleep(1L);
+        boolean expired = false;
+        while (!locked && !expired) {
+            final long epoch = this.holder.epoch();
+            locked = this.acq();
+            final long left = TimeUnit.NANOSECONDS.toMillis(
+                deadline - System.nanoTime()
+            );
+            if (!locked && left > 0L) {
+                this.holder.await(epoch, Math.min(delay, left));
+                delay = Math.min(delay * 2L, PgLock.MAX_DELAY);
+            } else {
+                expired = true;
             }
         }
         return locked;
@@ -127,12 +143,7 @@ final class PgLock implements Lock {
     @Override
     public void unlock() {
         this.holder.free(
-            none -> new JdbcSession(this.data)
-                // @checkstyle LineLength (1 line)
-                .sql("DELETE FROM farm_locks WHERE project = ? AND resource = ?")
-                .set(this.pid)
-                .set(this.res)
-                .update(Outcome.VOID)
+            none -> this.leases.release(this.pid, this.res)
         );
     }
 
@@ -153,17 +164,11 @@ final class PgLock implements Lock {
     /**
      * Acquire a lock.
      *
-     * @param session Database session
      * @return True if success
      */
-    private boolean acq(final JdbcSession session) {
+    private boolean acq() {
         return this.holder.lock(
-            () -> session
-                // @checkstyle LineLength (1 line)
-                .sql("INSERT INTO farm_locks (project, resource) VALUES (?, ?) ON CONFLICT DO NOTHING RETURNING 1")
-                .set(this.pid)
-                .set(this.res)
-                .select(Outcome.NOT_EMPTY)
+            () -> this.leases.acquire(this.pid, this.res)
         );
     }
 
@@ -188,6 +193,11 @@ final class PgLock implements Lock {
          */
         private final Object sync = new Object();
 
+        /**
+         * Releases so far, waiting threads are notified on it.
+         */
+        private final AtomicLong releases = new AtomicLong();
+
         /**
          * Acquire a lock.
          *
@@ -218,22 +228,59 @@ final class PgLock implements Lock {
          * @param func Function to release
          */
         public void free(final Proc<Void> func) {
-            if (this.ref.get() == null) {
-                final Thread thread = Thread.currentThread();
-                if (this.ref.get() != thread) {
-                    throw new IllegalStateException(
-                        "Should be locked by same thread"
-                    );
-                }
-                if (this.cnt.decrementAndGet() == 0) {
+            if (this.ref.get() != Thread.currentThread()) {
+                throw new IllegalStateException(
+                    "Should be locked by same thread"
+                );
+            }
+            if (this.cnt.decrementAndGet() == 0) {
+                try {
                     synchronized (this.sync) {
                         this.ref.set(null);
                         new UncheckedProc<>(func).exec(null);
                     }
+                } finally {
+                    this.wake();
                 }
             }
         }
 
+        /**
+         * Current epoch, which changes on every release.
+         * @return Epoch
+         */
+        public long epoch() {
+            return this.releases.get();
+        }
+
+        /**
+         * Wait until the epoch changes.
+         * @param epoch Epoch seen before the last attempt to lock
+         * @param msec Max time to wait, in milliseconds
+         * @throws InterruptedException If interrupted
+         */
+        public void await(final long epoch, final long msec)
+            throws InterruptedException {
+            final long deadline = System.currentTimeMillis() + msec;
+            synchronized (this.releases) {
+                long left = msec;
+                while (this.releases.get() == epoch && left > 0L) {
+                    this.releases.wait(left);
+                    left = deadline - System.currentTimeMillis();
+                }
+            }
+        }
+
+        /**
+         * Wake up waiting threads, since the resource was released.
+         */
+        public void wake() {
+            synchronized (this.releases) {
+                this.releases.incrementAndGet();
+                this.releases.notifyAll();
+            }
+        }
+
         @Override
         public String toString() {
             final Thread thread = this.ref.get();
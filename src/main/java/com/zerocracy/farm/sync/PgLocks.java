@@ -16,34 +16,62 @@
  */
 package com.zerocracy.farm.sync;
 
+import com.jcabi.log.VerboseRunnable;
+import com.jcabi.log.VerboseThreads;
 import com.zerocracy.Project;
+import java.io.Closeable;
 import java.io.IOException;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
 import javax.sql.DataSource;
 
 /**
  * Postgres locks.
  *
+ * <p>Every resource of every project has its own lock, PMO files
+ * included. The lock is exclusive, there is no shared mode for
+ * readers. Leases of this instance are renewed in background, so
+ * that locks of crashed instances expire, see {@link PgLeases}.
+ * Releases made by other instances are received by
+ * {@link PgWakeup}. Locks report to {@link Contention}.</p>
+ *
+ * <p>Main still runs with {@link TestLocks}, which are local to
+ * this instance; wiring these locks into it is a follow-up.</p>
+ *
  * @since 1.0
  */
-public final class PgLocks {
+public final class PgLocks implements Locks, Closeable {
 
     /**
-     * Resource name.
+     * Leases.
      */
-    private static final String RES = "ANY";
+    private final PgLeases leases;
 
     /**
-     * Data source.
+     * Thread holders for locks.
      */
-    private final DataSource data;
+    private final Map<String, PgLock.Holder> holders;
 
     /**
-     * Thread holders for locks.
+     * Background threads: lease renewal and wake up.
      */
-    private final Map<String, PgLock.Holder> holders;
+    private final ScheduledExecutorService service;
+
+    /**
+     * Were background threads started.
+     */
+    private final AtomicBoolean started;
+
+    /**
+     * Listener of releases by other instances.
+     */
+    private final Runnable wakeup;
 
     /**
      * Ctor.
@@ -51,21 +79,107 @@ public final class PgLocks {
      * @param data Data source
      */
     public PgLocks(final DataSource data) {
-        this.data = data;
+        this(new PgLeases(data), data);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param leases Leases
+     * @param data Data source
+     */
+    PgLocks(final PgLeases leases, final DataSource data) {
+        this.leases = leases;
         this.holders = new ConcurrentHashMap<>();
+        this.service = Executors.newScheduledThreadPool(
+            2, new VerboseThreads(PgLocks.class)
+        );
+        this.started = new AtomicBoolean();
+        this.wakeup = new PgWakeup(data, this::wake);
+    }
+
+    @Override
+    public ReadWriteLock lock(final Project pkt, final String res)
+        throws IOException {
+        this.start();
+        final String pid = pkt.pid();
+        final String lid = String.format("%s:%s", pid, res);
+        final PgLock.Holder holder = this.holders.computeIfAbsent(
+            lid, key -> new PgLock.Holder()
+        );
+        return new TracedLock(
+            lid,
+            new PgLocks.Exclusive(new PgLock(this.leases, pid, res, holder))
+        );
+    }
+
+    @Override
+    public void close() {
+        this.service.shutdownNow();
+    }
+
+    /**
+     * Wake up threads waiting for the resource.
+     * @param key Project and resource, as {@code project:resource}
+     */
+    private void wake(final String key) {
+        final PgLock.Holder holder = this.holders.get(key);
+        if (holder != null) {
+            holder.wake();
+        }
     }
 
     /**
-     * Lock.
-     * @param pkt Project
-     * @param res Resource
-     * @return Lock
-     * @throws IOException If fails
+     * Start background threads, if not started yet.
      */
-    public Lock lock(final Project pkt, final String res) throws IOException {
-        final String lid = String.format("%s:%s", pkt.pid(), PgLocks.RES);
-        final PgLock.Holder holder = this.holders
-            .computeIfAbsent(lid, key -> new PgLock.Holder());
-        return new PgLock(this.data, pkt.pid(), PgLocks.RES, holder);
+    private void start() {
+        if (this.started.compareAndSet(false, true)) {
+            final long period = this.leases.time() / 3L;
+            this.service.scheduleWithFixedDelay(
+                new VerboseRunnable(
+                    () -> {
+                        this.leases.renew();
+                        return null;
+                    },
+                    true, false
+                ),
+                period, period, TimeUnit.MILLISECONDS
+            );
+            this.service.submit(new VerboseRunnable(this.wakeup, true, false));
+        }
+    }
+
+    /**
+     * Read-write lock with the same exclusive lock for reads and writes.
+     */
+    private static final class Exclusive implements ReadWriteLock {
+
+        /**
+         * The lock.
+         */
+        private final Lock lock;
+
+        /**
+         * Ctor.
+         * @param lock The lock
+         */
+        Exclusive(final Lock lock) {
+            this.lock = lock;
+        }
+
+        @Override
+        public Lock readLock() {
+            return this.lock;
+        }
+
+        @Override
+        public Lock writeLock() {
+            return this.lock;
+        }
+
+        @Override
+        public String toString() {
+            return this.lock.toString();
+        }
     }
 }
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.sync;
+
+import com.jcabi.log.Logger;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.cactoos.Proc;
+import org.cactoos.func.UncheckedProc;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+/**
+ * Listener of lock releases, announced by {@link PgLeases}.
+ *
+ * <p>It keeps one connection in {@code LISTEN} mode and passes
+ * the payload of every notification to the waker, so that waiting
+ * threads of this instance try to acquire the released lock without
+ * waiting for the end of their back-off delay. Does nothing if the
+ * database is not PostgreSQL. The connection is polled with a cheap
+ * query, since this is how the JDBC driver receives notifications;
+ * it's one connection per instance, instead of every waiting thread
+ * polling the table.</p>
+ *
+ * @since 1.0
+ */
+final class PgWakeup implements Runnable {
+
+    /**
+     * Poll delay, in milliseconds.
+     */
+    private static final long POLL = 50L;
+
+    /**
+     * Data source.
+     */
+    private final DataSource data;
+
+    /**
+     * Waker of threads, waiting for the resource.
+     */
+    private final Proc<String> waker;
+
+    /**
+     * Ctor.
+     * @param data Data source
+     * @param waker Waker, accepting {@code project:resource}
+     */
+    PgWakeup(final DataSource data, final Proc<String> waker) {
+        this.data = data;
+        this.waker = waker;
+    }
+
+    @Override
+    public void run() {
+        boolean alive = true;
+        while (alive && !Thread.currentThread().isInterrupted()) {
+            try {
+                alive = this.listen();
+            } catch (final SQLException ex) {
+                Logger.warn(
+                    this, "Lock notifications failed: %[exception]s", ex
+                );
+                alive = PgWakeup.sleep(TimeUnit.SECONDS.toMillis(1L));
+            }
+        }
+    }
+
+    /**
+     * Listen to notifications until interrupted.
+     * @return FALSE if listening is not possible
+     * @throws SQLException If fails
+     */
+    private boolean listen() throws SQLException {
+        try (final Connection conn = this.data.getConnection()) {
+            final boolean supported = conn.isWrapperFor(PGConnection.class);
+            if (supported) {
+                final PGConnection pgc = conn.unwrap(PGConnection.class);
+                try (final Statement stmt = conn.createStatement()) {
+                    stmt.execute(
+                        String.format("LISTEN %s", PgLeases.CHANNEL)
+                    );
+                }
+                Logger.info(this, "Listening to lock releases");
+                boolean alive = true;
+                while (alive) {
+                    try (final Statement stmt = conn.createStatement()) {
+                        stmt.execute("SELECT 1");
+                    }
+                    this.wake(pgc.getNotifications());
+                    alive = PgWakeup.sleep(PgWakeup.POLL);
+                }
+            } else {
+                Logger.info(
+                    this, "Not a PostgreSQL connection, no notifications"
+                );
+            }
+            return supported;
+        }
+    }
+
+    /**
+     * Wake up waiting threads.
+     * @param ntfs Notifications received, may be NULL
+     */
+    private void wake(final PGNotification[] ntfs) {
+        if (ntfs != null) {
+            for (final PGNotification ntf : ntfs) {
+                new UncheckedProc<>(this.waker).exec(ntf.getParameter());
+            }
+        }
+    }
+
+    /**
+     * Sleep.
+     * @param msec Milliseconds
+     * @return FALSE if interrupted
+     */
+    private static boolean sleep(final long msec) {
+        boolean alive = true;
+        try {
+            TimeUnit.MILLISECONDS.sleep(msec);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            alive = false;
+        }
+        return alive;
+    }
+}
@@ -20,6 +20,9 @@ import com.zerocracy.Item;
 import com.zerocracy.Project;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -41,6 +44,13 @@ final class SyncProject implements Project {
      */
     private static final boolean STRICT_ENABLED = false;
 
+    /**
+     * PMO items, which are read much more often than modified.
+     */
+    private static final Set<String> MVCC = new HashSet<>(
+        Arrays.asList("catalog.xml", "people.xml", "bots.xml")
+    );
+
     /**
      * Origin project.
      */
@@ -86,12 +96,32 @@ final class SyncProject implements Project {
         } else {
             item = new WarnItem(
                 String.format("%s/%s", this.pid(), file),
-                new SyncItem(this.origin.acq(file), lock)
+                this.synced(this.origin.acq(file), file, lock)
             );
         }
         return item;
     }
 
+    /**
+     * Synchronize the item.
+     * @param item Original item
+     * @param file File name
+     * @param lock Its lock
+     * @return Synchronized item
+     * @throws IOException If fails
+     */
+    private Item synced(final Item item, final String file,
+        final ReadWriteLock lock) throws IOException {
+        final Item synced;
+        if (lock instanceof VersionedLock && SyncProject.MVCC.contains(file)
+            && "PMO".equals(this.pid())) {
+            synced = new MvccItem(item, (VersionedLock) lock);
+        } else {
+            synced = new SyncItem(item, lock);
+        }
+        return synced;
+    }
+
     /**
      * Strict project.
      */
@@ -26,6 +26,11 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 /**
  * Locks for unit-testing.
  *
+ * <p>Locks are local to the process. Each of them is a
+ * {@link VersionedLock}, so that {@link SyncFarm} may read
+ * frequently used items without locking, and reports to
+ * {@link Contention}.</p>
+ *
  * @since 1.0
  */
 public final class TestLocks implements Locks {
@@ -56,7 +61,10 @@ public final class TestLocks implements Locks {
         throws IOException {
         final String lid = String.format("%s:%s", pkt.pid(), res);
         return this.locks.computeIfAbsent(
-            lid, key -> new ReentrantReadWriteLock(true)
+            lid,
+            key -> new VersionedLock(
+                new TracedLock(key, new ReentrantReadWriteLock(true))
+            )
         );
     }
 }
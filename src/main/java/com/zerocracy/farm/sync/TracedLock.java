@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.sync;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Read-write lock, which reports to {@link Contention}.
+ *
+ * @since 1.0
+ */
+final class TracedLock implements ReadWriteLock {
+
+    /**
+     * Item name.
+     */
+    private final String item;
+
+    /**
+     * Original lock.
+     */
+    private final ReadWriteLock origin;
+
+    /**
+     * Contention.
+     */
+    private final Contention stats;
+
+    /**
+     * Read lock.
+     */
+    private final Lock reader;
+
+    /**
+     * Write lock.
+     */
+    private final Lock writer;
+
+    /**
+     * Ctor.
+     * @param item Item name
+     * @param lock Original lock
+     */
+    TracedLock(final String item, final ReadWriteLock lock) {
+        this(item, lock, Contention.INSTANCE);
+    }
+
+    /**
+     * Ctor.
+     * @param item Item name
+     * @param lock Original lock
+     * @param stats Contention
+     */
+    TracedLock(final String item, final ReadWriteLock lock,
+        final Contention stats) {
+        this.item = item;
+        this.origin = lock;
+        this.stats = stats;
+        this.reader = new TracedLock.Traced(lock.readLock());
+        this.writer = new TracedLock.Traced(lock.writeLock());
+    }
+
+    @Override
+    public Lock readLock() {
+        return this.reader;
+    }
+
+    @Override
+    public Lock writeLock() {
+        return this.writer;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%s %s (%s)", this.item, this.origin,
+            this.stats.holder(this.item)
+        );
+    }
+
+    /**
+     * Lock, which reports to {@link Contention}.
+     */
+    private final class Traced implements Lock {
+
+        /**
+         * Original lock.
+         */
+        private final Lock lock;
+
+        /**
+         * Ctor.
+         * @param lock Original lock
+         */
+        Traced(final Lock lock) {
+            this.lock = lock;
+        }
+
+        @Override
+        public void lock() {
+            final long start = System.nanoTime();
+            this.lock.lock();
+            this.acquired(start);
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            final long start = System.nanoTime();
+            this.lock.lockInterruptibly();
+            this.acquired(start);
+        }
+
+        @Override
+        public boolean tryLock() {
+            final long start = System.nanoTime();
+            final boolean done = this.lock.tryLock();
+            if (done) {
+                this.acquired(start);
+            }
+            return done;
+        }
+
+        @Override
+        public boolean tryLock(final long time, final TimeUnit unit)
+            throws InterruptedException {
+            final long start = System.nanoTime();
+            final boolean done = this.lock.tryLock(time, unit);
+            if (done) {
+                this.acquired(start);
+            } else {
+                TracedLock.this.stats.timeout(
+                    TracedLock.this.item, System.nanoTime() - start
+                );
+            }
+            return done;
+        }
+
+        @Override
+        public void unlock() {
+            TracedLock.this.stats.released(TracedLock.this.item);
+            this.lock.unlock();
+        }
+
+        @Override
+        public Condition newCondition() {
+            return this.lock.newCondition();
+        }
+
+        @Override
+        public String toString() {
+            return this.lock.toString();
+        }
+
+        /**
+         * Lock was acquired.
+         * @param start When the wait started, in nanoseconds
+         */
+        private void acquired(final long start) {
+            TracedLock.this.stats.acquired(
+                TracedLock.this.item, System.nanoTime() - start
+            );
+        }
+    }
+}
@@ -0,0 +1,409 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.sync;
+
+import com.jcabi.log.Logger;
+import com.zerocracy.TempFiles;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import org.cactoos.Func;
+import org.cactoos.func.IoCheckedFunc;
+
+/**
+ * Read-write lock, which keeps the latest version of its resource.
+ *
+ * <p>Every release of the write lock by its last hold makes a new
+ * version of the resource. The writer may publish the content of
+ * the new version before releasing the lock, see
+ * {@link #publish(byte[])}; otherwise the version has no content
+ * until some reader offers it under the read lock, see
+ * {@link #offer(byte[])}. Published content is an immutable
+ * {@link Snapshot}, which can be read without any locking.</p>
+ *
+ * <p>Since the version changes on every release of the write lock and
+ * every acquisition of it forgets the content published so far,
+ * content can't get stale, no matter who modified the resource under
+ * this lock, even if it was not done by {@link MvccItem}.</p>
+ *
+ * @since 1.0
+ */
+@SuppressWarnings(
+    {
+        "PMD.AvoidUsingVolatile",
+        "PMD.ArrayIsStoredDirectly"
+    }
+)
+final class VersionedLock implements ReadWriteLock {
+
+    /**
+     * Original lock.
+     */
+    private final ReadWriteLock origin;
+
+    /**
+     * Write lock.
+     */
+    private final Lock writer;
+
+    /**
+     * Latest snapshot, NULL if unknown.
+     */
+    private final AtomicReference<VersionedLock.Snapshot> latest;
+
+    /**
+     * Current version.
+     */
+    private volatile long version;
+
+    /**
+     * Thread holding the write lock.
+     */
+    private volatile Thread owner;
+
+    /**
+     * Write lock holds of the owner.
+     */
+    private int holds;
+
+    /**
+     * Content published by the owner.
+     */
+    private byte[] pending;
+
+    /**
+     * Ctor.
+     * @param lock Original lock
+     */
+    VersionedLock(final ReadWriteLock lock) {
+        this.origin = lock;
+        this.writer = new VersionedLock.Writer();
+        this.latest = new AtomicReference<>();
+    }
+
+    @Override
+    public Lock readLock() {
+        return this.origin.readLock();
+    }
+
+    @Override
+    public Lock writeLock() {
+        return this.writer;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s v%d", this.origin, this.version);
+    }
+
+    /**
+     * Current version of the resource.
+     * @return Version
+     */
+    public long version() {
+        return this.version;
+    }
+
+    /**
+     * Snapshot of the current version, which is safe to read without
+     * locking.
+     *
+     * <p>The owner of the write lock never gets a snapshot, it has
+     * to see its own modifications.</p>
+     * @return Snapshot or NULL if it's not available
+     */
+    public VersionedLock.Snapshot snapshot() {
+        final VersionedLock.Snapshot snap;
+        if (this.owner == Thread.currentThread()) {
+            snap = null;
+        } else {
+            snap = this.latest.get();
+        }
+        return snap;
+    }
+
+    /**
+     * Offer content of the current version, read under the read lock.
+     * @param content Content, NULL if the resource is absent
+     */
+    public void offer(final byte[] content) {
+        if (this.owner != Thread.currentThread()) {
+            this.latest.compareAndSet(
+                null, new VersionedLock.Snapshot(this.version, content)
+            );
+        }
+    }
+
+    /**
+     * Publish content of the next version, which will be made by
+     * the last write unlock.
+     * @param content Content, NULL to publish nothing
+     */
+    public void publish(final byte[] content) {
+        if (this.owner != Thread.currentThread()) {
+            throw new IllegalStateException(
+                String.format(
+                    "Write lock %s is not held by %s",
+                    this, Thread.currentThread().getName()
+                )
+            );
+        }
+        this.pending = content;
+    }
+
+    /**
+     * Immutable content of one version.
+     *
+     * <p>The content is written to one read-only file, which is shared
+     * by all readers of the version, so caches keyed by the file path
+     * and modification time work. The file is deleted when the version
+     * is replaced and the last reader is done.</p>
+     */
+    @SuppressWarnings("PMD.ArrayIsStoredDirectly")
+    static final class Snapshot {
+
+        /**
+         * Version.
+         */
+        private final long ver;
+
+        /**
+         * Content, NULL if the resource is absent.
+         */
+        private final byte[] content;
+
+        /**
+         * File with the content, NULL if not written yet.
+         */
+        private Path file;
+
+        /**
+         * Readers of the file.
+         */
+        private int readers;
+
+        /**
+         * Is this version replaced by a newer one.
+         */
+        private boolean retired;
+
+        /**
+         * Ctor.
+         * @param ver Version
+         * @param content Content or NULL
+         */
+        Snapshot(final long ver, final byte[] content) {
+            this.ver = ver;
+            this.content = content;
+        }
+
+        /**
+         * Version.
+         * @return Version number
+         */
+        public long version() {
+            return this.ver;
+        }
+
+        /**
+         * Read the content.
+         *
+         * <p>Reader must not modify the file. When the resource is
+         * absent, reader gets a private path, where it may create
+         * the file.</p>
+         * @param reader Reader
+         * @param <T> Result type
+         * @return Result of the reader
+         * @throws IOException If fails
+         */
+        public <T> T read(final Func<Path, T> reader) throws IOException {
+            final T result;
+            if (this.content == null) {
+                final Path tmp = TempFiles.INSTANCE.newFile(this);
+                try {
+                    Files.delete(tmp);
+                    result = new IoCheckedFunc<>(reader).apply(tmp);
+                } finally {
+                    TempFiles.INSTANCE.dispose(tmp);
+                }
+            } else {
+                final Path path = this.acquire();
+                try {
+                    result = new IoCheckedFunc<>(reader).apply(path);
+                } finally {
+                    this.release();
+                }
+            }
+            return result;
+        }
+
+        /**
+         * This version is replaced by a newer one.
+         */
+        void retire() {
+            synchronized (this) {
+                this.retired = true;
+                this.clean();
+            }
+        }
+
+        /**
+         * Take the file for reading, write it if it's not there yet.
+         * @return File
+         * @throws IOException If fails
+         */
+        private Path acquire() throws IOException {
+            synchronized (this) {
+                if (this.file == null) {
+                    final Path tmp = TempFiles.INSTANCE.newFile(this);
+                    Files.write(tmp, this.content);
+                    if (!tmp.toFile().setReadOnly()) {
+                        throw new IOException(
+                            String.format("Can't make %s read-only", tmp)
+                        );
+                    }
+                    this.file = tmp;
+                }
+                this.readers += 1;
+                return this.file;
+            }
+        }
+
+        /**
+         * Reader is done with the file.
+         */
+        private void release() {
+            synchronized (this) {
+                this.readers -= 1;
+                this.clean();
+            }
+        }
+
+        /**
+         * Delete the file, if nobody needs it anymore.
+         */
+        private void clean() {
+            if (this.retired && this.readers == 0 && this.file != null) {
+                try {
+                    TempFiles.INSTANCE.dispose(this.file);
+                } catch (final IOException ex) {
+                    Logger.warn(
+                        this, "Can't delete %s: %[exception]s",
+                        this.file, ex
+                    );
+                }
+                this.file = null;
+            }
+        }
+    }
+
+    /**
+     * Write lock, which makes a new version on every last unlock.
+     */
+    private final class Writer implements Lock {
+
+        @Override
+        public void lock() {
+            VersionedLock.this.origin.writeLock().lock();
+            this.acquired();
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            VersionedLock.this.origin.writeLock().lockInterruptibly();
+            this.acquired();
+        }
+
+        @Override
+        public boolean tryLock() {
+            final boolean done = VersionedLock.this.origin.writeLock()
+                .tryLock();
+            if (done) {
+                this.acquired();
+            }
+            return done;
+        }
+
+        @Override
+        public boolean tryLock(final long time, final TimeUnit unit)
+            throws InterruptedException {
+            final boolean done = VersionedLock.this.origin.writeLock()
+                .tryLock(time, unit);
+            if (done) {
+                this.acquired();
+            }
+            return done;
+        }
+
+        @Override
+        public void unlock() {
+            final VersionedLock lck = VersionedLock.this;
+            if (lck.owner != Thread.currentThread()) {
+                throw new IllegalMonitorStateException(
+                    String.format("Write lock %s is not held", lck)
+                );
+            }
+            lck.holds -= 1;
+            if (lck.holds == 0) {
+                final long next = lck.version + 1L;
+                final VersionedLock.Snapshot snap;
+                if (lck.pending == null) {
+                    snap = null;
+                } else {
+                    snap = new VersionedLock.Snapshot(next, lck.pending);
+                }
+                lck.pending = null;
+                final VersionedLock.Snapshot before = lck.latest.getAndSet(
+                    snap
+                );
+                if (before != null) {
+                    before.retire();
+                }
+                lck.version = next;
+                lck.owner = null;
+            }
+            lck.origin.writeLock().unlock();
+        }
+
+        @Override
+        public Condition newCondition() {
+            return VersionedLock.this.origin.writeLock().newCondition();
+        }
+
+        @Override
+        public String toString() {
+            return VersionedLock.this.origin.writeLock().toString();
+        }
+
+        /**
+         * Write lock was just acquired by current thread.
+         *
+         * <p>Content published so far is forgotten, since the new
+         * holder may modify the resource without publishing.</p>
+         */
+        private void acquired() {
+            VersionedLock.this.owner = Thread.currentThread();
+            VersionedLock.this.holds += 1;
+            VersionedLock.this.pending = null;
+        }
+    }
+}
@@ -0,0 +1,433 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.kpi;
+
+import com.amazonaws.services.cloudwatch.model.Dimension;
+import com.amazonaws.services.cloudwatch.model.MetricDatum;
+import com.amazonaws.services.cloudwatch.model.PutMetricDataRequest;
+import com.amazonaws.services.cloudwatch.model.StandardUnit;
+import com.amazonaws.services.cloudwatch.model.StatisticSet;
+import com.jcabi.aspects.Tv;
+import com.jcabi.log.Logger;
+import com.jcabi.log.VerboseRunnable;
+import com.jcabi.log.VerboseThreads;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.cactoos.Proc;
+import org.xembly.Directive;
+import org.xembly.Directives;
+
+/**
+ * Metric datums, aggregated locally and published in background.
+ *
+ * <p>Values are not sent one by one. Every value is added to a statistic
+ * set (sample count, sum, min and max) of its metric, unit, dimensions
+ * and minute, or second for high-resolution metrics. Once in a period
+ * all statistic sets collected so far are sent by
+ * {@link PutMetricDataRequest}s of up to 20 datums each, which is the
+ * limit of CloudWatch. Amount of statistic sets waiting to be sent is
+ * limited, new metrics are dropped and counted when the limit is
+ * reached.</p>
+ *
+ * <p>The class is thread-safe.</p>
+ *
+ * @since 1.0
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ * @checkstyle ClassFanOutComplexityCheck (500 lines)
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class Datums implements Closeable, Iterable<Directive> {
+
+    /**
+     * Max datums in one request.
+     */
+    private static final int BATCH = 20;
+
+    /**
+     * Publisher of requests.
+     */
+    private final Proc<PutMetricDataRequest> publisher;
+
+    /**
+     * Max amount of statistic sets to keep.
+     */
+    private final int capacity;
+
+    /**
+     * Flush period, in milliseconds.
+     */
+    private final long period;
+
+    /**
+     * Statistic sets by their keys.
+     */
+    private final Map<String, Datums.Stat> stats;
+
+    /**
+     * Flushing timer.
+     */
+    private final ScheduledExecutorService timer;
+
+    /**
+     * Was timer started.
+     */
+    private final AtomicBoolean started;
+
+    /**
+     * Values added.
+     */
+    private final AtomicLong values;
+
+    /**
+     * Datums sent.
+     */
+    private final AtomicLong sent;
+
+    /**
+     * Requests made.
+     */
+    private final AtomicLong requests;
+
+    /**
+     * Values dropped.
+     */
+    private final AtomicLong dropped;
+
+    /**
+     * Failed requests.
+     */
+    private final AtomicLong failures;
+
+    /**
+     * Ctor.
+     * @param pub Publisher of requests
+     */
+    public Datums(final Proc<PutMetricDataRequest> pub) {
+        // @checkstyle MagicNumber (1 line)
+        this(pub, Tv.TEN * Tv.THOUSAND, TimeUnit.SECONDS.toMillis(15L));
+    }
+
+    /**
+     * Ctor.
+     * @param pub Publisher of requests
+     * @param max Max amount of statistic sets waiting to be sent
+     * @param msec Flush period, in milliseconds
+     */
+    public Datums(final Proc<PutMetricDataRequest> pub, final int max,
+        final long msec) {
+        this.publisher = pub;
+        this.capacity = max;
+        this.period = msec;
+        this.stats = new ConcurrentHashMap<>(0);
+        this.timer = Executors.newSingleThreadScheduledExecutor(
+            new VerboseThreads(Datums.class)
+        );
+        this.started = new AtomicBoolean();
+        this.values = new AtomicLong();
+        this.sent = new AtomicLong();
+        this.requests = new AtomicLong();
+        this.dropped = new AtomicLong();
+        this.failures = new AtomicLong();
+    }
+
+    /**
+     * Add a value of standard resolution.
+     * @param namespace Namespace
+     * @param name Metric name
+     * @param unit Unit
+     * @param value The value
+     * @param dims Dimensions
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    public void add(final String namespace, final String name,
+        final StandardUnit unit, final double value, final Dimension... dims) {
+        this.add(namespace, name, unit, value, Tv.SIXTY, dims);
+    }
+
+    /**
+     * Add a value.
+     * @param namespace Namespace
+     * @param name Metric name
+     * @param unit Unit
+     * @param value The value
+     * @param resolution Storage resolution in seconds, 1 or 60
+     * @param dims Dimensions
+     * @checkstyle ParameterNumberCheck (4 lines)
+     */
+    public void add(final String namespace, final String name,
+        final StandardUnit unit, final double value, final int resolution,
+        final Dimension... dims) {
+        this.start();
+        this.values.incrementAndGet();
+        final long period = TimeUnit.SECONDS.toMillis((long) resolution);
+        final long slot = System.currentTimeMillis() / period;
+        final String key = String.join(
+            " ", namespace, name, unit.toString(),
+            Arrays.toString(dims), Integer.toString(resolution),
+            Long.toString(slot)
+        );
+        boolean done = false;
+        while (!done) {
+            final Datums.Stat stat;
+            if (this.stats.size() < this.capacity) {
+                stat = this.stats.computeIfAbsent(
+                    key,
+                    any -> new Datums.Stat(
+                        namespace,
+                        new MetricDatum()
+                            .withMetricName(name)
+                            .withUnit(unit)
+                            .withDimensions(dims)
+                            .withStorageResolution(resolution)
+                            .withTimestamp(new Date(slot * period))
+                    )
+                );
+            } else {
+                stat = this.stats.get(key);
+            }
+            if (stat == null) {
+                final long drops = this.dropped.incrementAndGet();
+                if (drops % (long) Tv.THOUSAND == 1L) {
+                    Logger.warn(this, "Metric %s dropped, %s", name, this);
+                }
+                done = true;
+            } else {
+                done = stat.add(value);
+            }
+        }
+    }
+
+    /**
+     * Send everything collected so far.
+     */
+    public void flush() {
+        final Map<String, List<MetricDatum>> spaces =
+            new ConcurrentHashMap<>(1);
+        for (final String key : this.stats.keySet()) {
+            final Datums.Stat stat = this.stats.remove(key);
+            if (stat != null) {
+                spaces.computeIfAbsent(
+                    stat.namespace, any -> new LinkedList<>()
+                ).add(stat.datum());
+            }
+        }
+        for (final Map.Entry<String, List<MetricDatum>> ent
+            : spaces.entrySet()) {
+            final List<MetricDatum> datums = ent.getValue();
+            for (int idx = 0; idx < datums.size(); idx += Datums.BATCH) {
+                this.publish(
+                    ent.getKey(),
+                    datums.subList(
+                        idx, Math.min(idx + Datums.BATCH, datums.size())
+                    )
+                );
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        this.timer.shutdown();
+        this.flush();
+    }
+
+    @Override
+    public Iterator<Directive> iterator() {
+        return new Directives()
+            .add("datums")
+            .add("waiting").set(this.stats.size()).up()
+            .add("capacity").set(this.capacity).up()
+            .add("values").set(this.values.get()).up()
+            .add("sent").set(this.sent.get()).up()
+            .add("requests").set(this.requests.get()).up()
+            .add("dropped").set(this.dropped.get()).up()
+            .add("failures").set(this.failures.get()).up()
+            .up()
+            .iterator();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%d/%d waiting, %d values, %d datums in %d requests, %d dropped",
+            this.stats.size(), this.capacity, this.values.get(),
+            this.sent.get(), this.requests.get(), this.dropped.get()
+        );
+    }
+
+    /**
+     * Send one request.
+     * @param namespace Namespace
+     * @param datums Datums, not more than 20
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private void publish(final String namespace,
+        final Collection<MetricDatum> datums) {
+        try {
+            this.publisher.exec(
+                new PutMetricDataRequest()
+                    .withNamespace(namespace)
+                    .withMetricData(new ArrayList<>(datums))
+            );
+            this.requests.incrementAndGet();
+            this.sent.addAndGet((long) datums.size());
+            // @checkstyle IllegalCatchCheck (1 line)
+        } catch (final Exception ex) {
+            this.failures.incrementAndGet();
+            this.dropped.addAndGet((long) datums.size());
+            Logger.warn(
+                this, "Failed to send %d datums to %s: %s",
+                datums.size(), namespace, ex.getLocalizedMessage()
+            );
+        }
+    }
+
+    /**
+     * Start flushing timer, if not started yet.
+     */
+    private void start() {
+        if (this.started.compareAndSet(false, true)) {
+            this.timer.scheduleWithFixedDelay(
+                new VerboseRunnable(this::flush, true, false),
+                this.period, this.period, TimeUnit.MILLISECONDS
+            );
+        }
+    }
+
+    /**
+     * Fake publisher, which keeps requests in memory.
+     */
+    public static final class Fake implements Proc<PutMetricDataRequest> {
+
+        /**
+         * Requests.
+         */
+        private final List<PutMetricDataRequest> list =
+            new CopyOnWriteArrayList<>();
+
+        @Override
+        public void exec(final PutMetricDataRequest request) {
+            this.list.add(request);
+        }
+
+        /**
+         * Requests published so far.
+         * @return Requests
+         */
+        public List<PutMetricDataRequest> requests() {
+            return Collections.unmodifiableList(this.list);
+        }
+    }
+
+    /**
+     * Statistic set of one metric.
+     */
+    private static final class Stat {
+
+        /**
+         * Namespace.
+         */
+        private final String namespace;
+
+        /**
+         * Datum without values.
+         */
+        private final MetricDatum origin;
+
+        /**
+         * Sample count.
+         */
+        private long count;
+
+        /**
+         * Sum.
+         */
+        private double sum;
+
+        /**
+         * Min.
+         */
+        private double min;
+
+        /**
+         * Max.
+         */
+        private double max;
+
+        /**
+         * Was it taken for sending.
+         */
+        private boolean taken;
+
+        /**
+         * Ctor.
+         * @param space Namespace
+         * @param datum Datum without values
+         */
+        Stat(final String space, final MetricDatum datum) {
+            this.namespace = space;
+            this.origin = datum;
+            this.min = Double.MAX_VALUE;
+            this.max = -Double.MAX_VALUE;
+        }
+
+        /**
+         * Add a value.
+         * @param value The value
+         * @return FALSE if this set is already taken for sending
+         */
+        public synchronized boolean add(final double value) {
+            if (!this.taken) {
+                this.count += 1L;
+                this.sum += value;
+                this.min = Math.min(this.min, value);
+                this.max = Math.max(this.max, value);
+            }
+            return !this.taken;
+        }
+
+        /**
+         * Take datum with statistic values, for sending.
+         * @return Datum
+         */
+        public synchronized MetricDatum datum() {
+            this.taken = true;
+            return this.origin.clone().withStatisticValues(
+                new StatisticSet()
+                    .withSampleCount((double) this.count)
+                    .withSum(this.sum)
+                    .withMinimum(this.min)
+                    .withMaximum(this.max)
+            );
+        }
+    }
+}
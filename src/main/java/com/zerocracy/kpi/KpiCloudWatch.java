@@ -24,10 +24,9 @@ import com.amazonaws.services.cloudwatch.model.GetMetricStatisticsRequest;
 import com.amazonaws.services.cloudwatch.model.ListMetricsRequest;
 import com.amazonaws.services.cloudwatch.model.ListMetricsResult;
 import com.amazonaws.services.cloudwatch.model.Metric;
-import com.amazonaws.services.cloudwatch.model.MetricDatum;
-import com.amazonaws.services.cloudwatch.model.PutMetricDataRequest;
 import com.amazonaws.services.cloudwatch.model.StandardUnit;
 import com.amazonaws.services.cloudwatch.model.Statistic;
+import com.zerocracy.entry.ExtDatums;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
@@ -62,31 +61,38 @@ public final class KpiCloudWatch implements KpiMetrics {
      */
     private final AmazonCloudWatch cloudwatch;
 
+    /**
+     * Datums to send.
+     */
+    private final Datums datums;
+
     /**
      * Ctor.
      *
      * @param cloudwatch AWS CloudWatch
      */
     public KpiCloudWatch(final AmazonCloudWatch cloudwatch) {
+        this(cloudwatch, ExtDatums.of(cloudwatch));
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param cloudwatch AWS CloudWatch
+     * @param datums Datums to send metrics through
+     */
+    public KpiCloudWatch(final AmazonCloudWatch cloudwatch,
+        final Datums datums) {
         this.cloudwatch = cloudwatch;
+        this.datums = datums;
     }
 
     @Override
     public void send(final String name, final double value) {
-        this.cloudwatch.putMetricData(
-            new PutMetricDataRequest()
-                .withNamespace(KpiCloudWatch.NAMESPACE)
-                .withMetricData(
-                    new MetricDatum()
-                        .withDimensions(
-                            new Dimension().withName(KpiCloudWatch.DIM_NAME)
-                                .withValue(KpiCloudWatch.DIM_VAL)
-                        )
-                        .withMetricName(name)
-                        .withUnit(StandardUnit.None)
-                        .withValue(value)
-                        .withStorageResolution(1)
-                )
+        this.datums.add(
+            KpiCloudWatch.NAMESPACE, name, StandardUnit.None, value, 1,
+            new Dimension().withName(KpiCloudWatch.DIM_NAME)
+                .withValue(KpiCloudWatch.DIM_VAL)
         );
     }
 
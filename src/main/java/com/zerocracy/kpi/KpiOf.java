@@ -18,6 +18,7 @@ package com.zerocracy.kpi;
 
 import com.zerocracy.Farm;
 import com.zerocracy.entry.ExtCloudWatch;
+import com.zerocracy.entry.ExtDatums;
 import com.zerocracy.farm.props.Props;
 import java.io.IOException;
 import java.time.Duration;
@@ -40,11 +41,12 @@ public final class KpiOf implements KpiMetrics {
             new SolidFunc<>(
                 frm -> {
                     final KpiMetrics kpi;
-                    if (new Props(frm).has("//testing")) {
+                    if (new Props(frm).testing()) {
                         kpi = new KpiMetrics.Fake();
                     } else {
                         kpi = new KpiCloudWatch(
-                            new ExtCloudWatch(frm).value()
+                            new ExtCloudWatch(frm).value(),
+                            new ExtDatums(frm).value()
                         );
                     }
                     return kpi;
@@ -118,7 +118,7 @@ public final class Orders {
             );
         }
         try (final Txn txn = new Txn(this.project)) {
-            this.item().update(
+            new ItemXml(Orders.item(txn), "pm/in/orders").update(
                 new Directives()
                     .xpath(
                         String.format(
@@ -136,12 +136,12 @@ public final class Orders {
                     .add("reason")
                     .set(reason)
             );
-            final String role = new Wbs(this.project).bootstrap().role(job);
+            final String role = new Wbs(txn).bootstrap().role(job);
             int factor = 2;
             if ("REV".equals(role)) {
                 factor = 1;
             }
-            new Boosts(this.farm, this.project).bootstrap().boost(job, factor);
+            new Boosts(this.farm, txn).bootstrap().boost(job, factor);
             txn.commit();
         }
     }
@@ -16,7 +16,6 @@
  */
 package com.zerocracy.pmo;
 
-import com.jcabi.xml.XML;
 import com.zerocracy.Farm;
 import com.zerocracy.ItemXml;
 import com.zerocracy.Par;
@@ -27,12 +26,12 @@ import com.zerocracy.cash.Cash;
 import com.zerocracy.farm.props.Props;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
-import java.util.Iterator;
-import java.util.List;
+import java.util.LinkedList;
 import java.util.Set;
-import org.cactoos.collection.CollectionOf;
-import org.cactoos.iterable.Mapped;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import org.cactoos.list.ListOf;
 import org.cactoos.scalar.IoCheckedScalar;
 import org.cactoos.scalar.Reduced;
@@ -42,6 +41,10 @@ import org.xembly.Directives;
 /**
  * Catalog of all projects.
  *
+ * <p>Queries are answered by {@link CatalogIndex}, an in-memory snapshot
+ * of the catalog, which is built again when the content of
+ * {@code catalog.xml} changes. Modifications go to the XML.</p>
+ *
  * @since 1.0
  * @todo #1305:30min Continue replacing old Date classes with Instant.
  *  Remember also to remove instances of `DateAsText` (Instant.toString should
@@ -63,6 +66,20 @@ public final class Catalog {
      */
     private static final String PRJ_TITLE = "title";
 
+    /**
+     * Query of one project by ID.
+     */
+    private static final Pattern BY_ID = Pattern.compile(
+        "\\s*@id\\s*=\\s*'([^']+)'\\s*"
+    );
+
+    /**
+     * Snapshots of the catalog.
+     */
+    private static final Snapshots<CatalogIndex> INDEXES = new Snapshots<>(
+        "pmo/catalog", xoc -> new CatalogIndex(xoc.nodes("/catalog/project"))
+    );
+
     /**
      * PMO.
      */
@@ -143,14 +160,17 @@ public final class Catalog {
      * @throws IOException If fails
      */
     public String architect(final String pid) throws IOException {
-        return this.item().read(
-            xoc -> Catalog.require(xoc, pid).xpath(
-                String.format(
-                    "/catalog/project[@id = '%s']/architect/text()",
-                    pid
-                )
-            )
-        ).get(0);
+        return this.index().text(pid, "architect");
+    }
+
+    /**
+     * Projects of the architect.
+     * @param login Architect login
+     * @return Set of project IDs
+     * @throws IOException If fails
+     */
+    public Set<String> architected(final String login) throws IOException {
+        return this.index().architected(login);
     }
 
     /**
@@ -179,16 +199,7 @@ public final class Catalog {
      * @throws IOException If fails
      */
     public int jobs(final String pid) throws IOException {
-        return Integer.parseInt(
-            this.item().read(
-                xoc -> Catalog.require(xoc, pid).xpath(
-                    String.format(
-                        "/catalog/project[@id = '%s']/jobs/text()",
-                        pid
-                    )
-                )
-            ).get(0)
-        );
+        return Integer.parseInt(this.index().text(pid, "jobs"));
     }
 
     /**
@@ -217,16 +228,7 @@ public final class Catalog {
      * @throws IOException If fails
      */
     public int orders(final String pid) throws IOException {
-        return Integer.parseInt(
-            this.item().read(
-                xoc -> Catalog.require(xoc, pid).xpath(
-                    String.format(
-                        "/catalog/project[@id = '%s']/orders/text()",
-                        pid
-                    )
-                )
-            ).get(0)
-        );
+        return Integer.parseInt(this.index().text(pid, "orders"));
     }
 
     /**
@@ -408,7 +410,7 @@ public final class Catalog {
      * @throws IOException If fails
      */
     public boolean exists(final String pid) throws IOException {
-        return this.item().read(xoc -> Catalog.exists(xoc, pid));
+        return this.index().exists(pid);
     }
 
     /**
@@ -419,13 +421,26 @@ public final class Catalog {
      */
     public Collection<String> findByXPath(final String xpath)
         throws IOException {
-        String term = xpath;
-        if (!term.isEmpty()) {
-            term = String.format("[%s]", term);
+        final Matcher matcher = Catalog.BY_ID.matcher(xpath);
+        final Collection<String> found;
+        if (matcher.matches()) {
+            final CatalogIndex index = this.index();
+            final String pid = matcher.group(1);
+            if (index.exists(pid)) {
+                found = Collections.singletonList(index.text(pid, "prefix"));
+            } else {
+                found = Collections.emptyList();
+            }
+        } else {
+            String term = xpath;
+            if (!term.isEmpty()) {
+                term = String.format("[%s]", term);
+            }
+            found = this.item().xpath(
+                String.format("//project%s/prefix/text()", term)
+            );
         }
-        return this.item().xpath(
-            String.format("//project%s/prefix/text()", term)
-        );
+        return found;
     }
 
     /**
@@ -435,16 +450,7 @@ public final class Catalog {
      * @throws IOException If fails
      */
     public boolean pause(final String pid) throws IOException {
-        return !Boolean.parseBoolean(
-            this.item().read(
-                xoc -> Catalog.require(xoc, pid).xpath(
-                    String.format(
-                        "/catalog/project[@id='%s']/alive/text()",
-                        pid
-                    )
-                )
-            ).get(0)
-        );
+        return !Boolean.parseBoolean(this.index().text(pid, "alive"));
     }
 
     /**
@@ -471,21 +477,14 @@ public final class Catalog {
      * @throws IOException If fails
      */
     public Cash fee(final String pid) throws IOException {
-        return this.item().read(
-            xoc -> {
-                Catalog.require(xoc, pid);
-                final Iterator<String> fees = xoc.xpath(
-                    String.format("/catalog/project[@id='%s']/fee/text()", pid)
-                ).iterator();
-                final Cash fee;
-                if (fees.hasNext()) {
-                    fee = new Cash.S(fees.next());
-                } else {
-                    fee = Cash.ZERO;
-                }
-                return fee;
-            }
-        );
+        final String text = this.index().text(pid, "fee");
+        final Cash fee;
+        if (text == null || text.isEmpty()) {
+            fee = Cash.ZERO;
+        } else {
+            fee = new Cash.S(text);
+        }
+        return fee;
     }
 
     /**
@@ -539,16 +538,7 @@ public final class Catalog {
      * @throws IOException If fails
      */
     public boolean published(final String pid) throws IOException {
-        return Boolean.parseBoolean(
-            this.item().read(
-                xoc -> Catalog.require(xoc, pid).xpath(
-                    String.format(
-                        "/catalog/project[@id='%s']/publish/text()",
-                        pid
-                    )
-                )
-            ).get(0)
-        );
+        return Boolean.parseBoolean(this.index().text(pid, "publish"));
     }
 
     /**
@@ -623,23 +613,7 @@ public final class Catalog {
      * @throws IOException If fails
      */
     public Collection<String> links(final String pid) throws IOException {
-        return new CollectionOf<>(
-            new Mapped<>(
-                (XML xml) -> String.format(
-                    "%s:%s",
-                    xml.xpath("@rel").get(0),
-                    xml.xpath("@href").get(0)
-                ),
-                this.item().<List<XML>>read(
-                    xoc -> Catalog.require(xoc, pid).nodes(
-                        String.format(
-                            "/catalog/project[@id='%s']/links/link",
-                            pid
-                        )
-                    )
-                )
-            )
-        );
+        return this.index().links(pid);
     }
 
     /**
@@ -651,14 +625,14 @@ public final class Catalog {
      */
     public Collection<String> links(final String pid, final String rel)
         throws IOException {
-        return this.item().read(
-            xoc -> Catalog.require(xoc, pid).xpath(
-                String.format(
-                    "/catalog/project[@id='%s']/links/link[@rel='%s']/@href",
-                    pid, rel
-                )
-            )
-        );
+        final String prefix = String.format("%s:", rel);
+        final Collection<String> hrefs = new LinkedList<>();
+        for (final String link : this.index().links(pid)) {
+            if (link.startsWith(prefix)) {
+                hrefs.add(link.substring(prefix.length()));
+            }
+        }
+        return hrefs;
     }
 
     /**
@@ -671,10 +645,8 @@ public final class Catalog {
      */
     public boolean hasLink(final String pid, final String rel,
         final String href) throws IOException {
-        return this.item().read(
-            xoc -> Catalog.hasLink(
-                Catalog.require(xoc, pid), pid, rel, href
-            )
+        return this.index().links(pid).contains(
+            String.format("%s:%s", rel, href)
         );
     }
 
@@ -687,7 +659,7 @@ public final class Catalog {
      */
     public boolean linkExists(final String rel, final String href)
         throws IOException {
-        return this.item().read(xoc -> Catalog.linkexists(xoc, rel, href));
+        return this.index().linked(rel, href) != null;
     }
 
     /**
@@ -716,15 +688,14 @@ public final class Catalog {
      * @throws IOException If fails
      */
     public String title(final String pid) throws IOException {
-        return this.item().read(
-            xoc -> Catalog.require(xoc, pid).xpath(
-                String.format(
-                    "/catalog/project[@id = '%s']/title/text()",
-                    pid
-                ),
-                pid
-            )
-        );
+        final String title = this.index().text(pid, Catalog.PRJ_TITLE);
+        final String text;
+        if (title == null || title.isEmpty()) {
+            text = pid;
+        } else {
+            text = title;
+        }
+        return text;
     }
 
     /**
@@ -735,15 +706,9 @@ public final class Catalog {
      * @throws IOException If fails
      */
     public boolean hasAdviser(final String pid) throws IOException {
-        final List<String> nodes = this.item().read(
-            xoc -> Catalog.require(xoc, pid).xpath(
-                String.format(
-                    "/catalog/project[@id = '%s']/adviser/text()",
-                    pid
-                )
-            )
-        );
-        return !nodes.isEmpty() && !"0crat".equals(nodes.get(0));
+        final String adviser = this.index().text(pid, "adviser");
+        return adviser != null && !adviser.isEmpty()
+            && !"0crat".equals(adviser);
     }
 
     /**
@@ -753,14 +718,7 @@ public final class Catalog {
      * @throws IOException If fails
      */
     public String adviser(final String pid) throws IOException {
-        return this.item().read(
-            xoc -> Catalog.require(xoc, pid).xpath(
-                String.format(
-                    "/catalog/project[@id = '%s']/adviser/text()",
-                    pid
-                )
-            )
-        ).get(0);
+        return this.index().text(pid, "adviser");
     }
 
     /**
@@ -790,13 +748,7 @@ public final class Catalog {
      * @throws IOException If fails
      */
     public boolean sandbox(final String pid) throws IOException {
-        return !this.item().read(
-            xoc -> Catalog.require(xoc, pid).nodes(
-                String.format(
-                    "/catalog/project[@id='%s' and sandbox='true']", pid
-                )
-            )
-        ).isEmpty();
+        return "true".equals(this.index().text(pid, "sandbox"));
     }
 
     /**
@@ -823,9 +775,7 @@ public final class Catalog {
      * @throws IOException If fails
      */
     public Set<String> active() throws IOException {
-        return new HashSet<>(
-            this.item().xpath("/catalog/project[alive = 'true']/@id")
-        );
+        return new HashSet<>(this.index().alive());
     }
 
     /**
@@ -836,7 +786,7 @@ public final class Catalog {
      */
     public boolean verbose(final String pid) throws IOException {
         return "C3NDPUA8L".equals(pid)
-            || new Props(this.pmo).has("//testing");
+            || new Props(this.pmo).testing();
     }
 
     /**
@@ -928,6 +878,15 @@ public final class Catalog {
         ).isEmpty();
     }
 
+    /**
+     * Index of the current version of the catalog.
+     * @return Index
+     * @throws IOException If fails
+     */
+    private CatalogIndex index() throws IOException {
+        return this.pmo.acq("catalog.xml").read(Catalog.INDEXES::of);
+    }
+
     /**
      * The item.
      * @return Item
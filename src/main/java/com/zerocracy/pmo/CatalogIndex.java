@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.pmo;
+
+import com.jcabi.xml.XML;
+import com.zerocracy.Par;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory index of {@code catalog.xml}.
+ *
+ * <p>It is an immutable snapshot of one version of the catalog, with
+ * projects by their IDs and secondary indexes by links, architects,
+ * alive and published flags, so lookups don't depend on the size
+ * of the catalog. Snapshots are kept by {@link Snapshots}.</p>
+ *
+ * <p>The class is immutable and thread-safe.</p>
+ *
+ * @since 1.0
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+final class CatalogIndex {
+
+    /**
+     * Projects by IDs.
+     */
+    private final Map<String, Record> projects;
+
+    /**
+     * Project IDs by links, as {@code rel:href}.
+     */
+    private final Map<String, String> links;
+
+    /**
+     * Project IDs by architects.
+     */
+    private final Map<String, Set<String>> architects;
+
+    /**
+     * IDs of alive projects.
+     */
+    private final Set<String> alive;
+
+    /**
+     * IDs of published projects.
+     */
+    private final Set<String> published;
+
+    /**
+     * Ctor.
+     * @param nodes Project nodes of the catalog
+     */
+    CatalogIndex(final Iterable<XML> nodes) {
+        this.projects = new HashMap<>(0);
+        this.links = new HashMap<>(0);
+        this.architects = new HashMap<>(0);
+        this.alive = new HashSet<>(0);
+        this.published = new HashSet<>(0);
+        for (final XML node : nodes) {
+            final Record entry = new Record(node);
+            final String pid = entry.id();
+            this.projects.put(pid, entry);
+            for (final String link : entry.links()) {
+                this.links.put(link, pid);
+            }
+            this.architects.computeIfAbsent(
+                entry.text("architect"), key -> new HashSet<>(1)
+            ).add(pid);
+            if (Boolean.parseBoolean(entry.text("alive"))) {
+                this.alive.add(pid);
+            }
+            if (Boolean.parseBoolean(entry.text("publish"))) {
+                this.published.add(pid);
+            }
+        }
+    }
+
+    /**
+     * Project exists?
+     * @param pid Project ID
+     * @return TRUE if it exists
+     */
+    public boolean exists(final String pid) {
+        return this.projects.containsKey(pid);
+    }
+
+    /**
+     * Text of a project property.
+     * @param pid Project ID
+     * @param name Name of the property element
+     * @return Text or NULL if absent
+     */
+    public String text(final String pid, final String name) {
+        return this.entry(pid).text(name);
+    }
+
+    /**
+     * Links of the project, as {@code rel:href}.
+     * @param pid Project ID
+     * @return Links
+     */
+    public List<String> links(final String pid) {
+        return this.entry(pid).links();
+    }
+
+    /**
+     * Project which has this link.
+     * @param rel REL
+     * @param href HREF
+     * @return Project ID or NULL if no project has it
+     */
+    public String linked(final String rel, final String href) {
+        return this.links.get(String.format("%s:%s", rel, href));
+    }
+
+    /**
+     * Projects of the architect.
+     * @param login Architect login
+     * @return Project IDs
+     */
+    public Set<String> architected(final String login) {
+        return Collections.unmodifiableSet(
+            this.architects.getOrDefault(login, Collections.emptySet())
+        );
+    }
+
+    /**
+     * IDs of alive projects.
+     * @return Project IDs
+     */
+    public Set<String> alive() {
+        return Collections.unmodifiableSet(this.alive);
+    }
+
+    /**
+     * IDs of published projects.
+     * @return Project IDs
+     */
+    public Set<String> published() {
+        return Collections.unmodifiableSet(this.published);
+    }
+
+    /**
+     * Project entry, or exception if it's absent.
+     * @param pid Project ID
+     * @return Entry
+     */
+    private Record entry(final String pid) {
+        final Record entry = this.projects.get(pid);
+        if (entry == null) {
+            throw new IllegalArgumentException(
+                new Par(
+                    "Project %s doesn't exist"
+                ).say(pid)
+            );
+        }
+        return entry;
+    }
+}
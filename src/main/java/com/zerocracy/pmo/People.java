@@ -16,7 +16,6 @@
  */
 package com.zerocracy.pmo;
 
-import com.jcabi.xml.XML;
 import com.zerocracy.Farm;
 import com.zerocracy.ItemXml;
 import com.zerocracy.Par;
@@ -26,18 +25,22 @@ import com.zerocracy.Xocument;
 import com.zerocracy.cash.Cash;
 import java.io.IOException;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.Set;
-import org.cactoos.iterable.ItemAt;
 import org.cactoos.iterable.Joined;
 import org.cactoos.iterable.Mapped;
-import org.cactoos.scalar.NumberOf;
-import org.cactoos.scalar.UncheckedScalar;
 import org.xembly.Directives;
 
 /**
  * Data about people.
+ *
+ * <p>Queries are answered by {@link PeopleIndex}, an in-memory snapshot
+ * of people, which is built again when the content of
+ * {@code people.xml} changes. Modifications go to the XML.</p>
+ *
  * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
  * @checkstyle LineLengthCheck (5000 lines)
  * @since 1.0
@@ -51,6 +54,13 @@ import org.xembly.Directives;
     )
 public final class People {
 
+    /**
+     * Snapshots of people.
+     */
+    private static final Snapshots<PeopleIndex> INDEXES = new Snapshots<>(
+        "pmo/people", xoc -> new PeopleIndex(xoc.nodes("/people/person"))
+    );
+
     /**
      * Farm.
      */
@@ -78,7 +88,7 @@ public final class People {
      * @throws IOException If fails
      */
     public Iterable<String> iterate() throws IOException {
-        return this.item().read(xoc -> xoc.xpath("/people/person/@id"));
+        return this.index().logins();
     }
 
     /**
@@ -154,23 +164,7 @@ public final class People {
      * @throws IOException If fails
      */
     public String details(final String uid) throws IOException {
-        return this.item().read(
-            xoc -> {
-                final Iterator<String> items = xoc.xpath(
-                    String.format(
-                        "/people/person[@id='%s']/details/text()",
-                        uid
-                    )
-                ).iterator();
-                final String text;
-                if (items.hasNext()) {
-                    text = items.next();
-                } else {
-                    text = "";
-                }
-                return text;
-            }
-        );
+        return this.index().person(uid).details();
     }
 
     /**
@@ -240,7 +234,7 @@ public final class People {
      * @throws IOException If fails
      */
     public boolean hasMentor(final String uid) throws IOException {
-        return this.item().read(xoc -> People.hasMentor(xoc, uid));
+        return this.index().person(uid).mentor() != null;
     }
 
     /**
@@ -250,14 +244,13 @@ public final class People {
      * @throws IOException If fails
      */
     public String mentor(final String uid) throws IOException {
-        return this.item().read(
-            xoc -> xoc.xpath(
-                String.format(
-                    "/people/person[@id='%s']/mentor/text()",
-                    uid
-                )
-            ).get(0)
-        );
+        final String mentor = this.index().person(uid).mentor();
+        if (mentor == null || mentor.isEmpty()) {
+            throw new IllegalArgumentException(
+                new Par("Person @%s doesn't have a mentor").say(uid)
+            );
+        }
+        return mentor;
     }
 
     /**
@@ -317,23 +310,14 @@ public final class People {
      * @throws IOException If fails
      */
     public Cash rate(final String uid) throws IOException {
-        return this.item().read(
-            xoc -> {
-                final Iterator<XML> rates = xoc.nodes(
-                    String.format(
-                        "/people/person[@id='%s']/rate",
-                        uid
-                    )
-                ).iterator();
-                final String rate;
-                if (rates.hasNext()) {
-                    rate = rates.next().xpath("text()").get(0);
-                } else {
-                    rate = Cash.ZERO.toString();
-                }
-                return new Cash.S(rate);
-            }
-        );
+        final String rate = this.index().person(uid).rate();
+        final Cash cash;
+        if (rate == null) {
+            cash = Cash.ZERO;
+        } else {
+            cash = new Cash.S(rate);
+        }
+        return cash;
     }
 
     /**
@@ -394,14 +378,7 @@ public final class People {
      */
     public Iterable<String> find(final String rel,
         final String alias) throws IOException {
-        return this.item().read(
-            xoc -> xoc.xpath(
-                String.format(
-                    "/people/person[links/link[@rel='%s' and @href='%s']]/@id",
-                    rel, alias
-                )
-            )
-        );
+        return this.index().find(rel, alias);
     }
 
     /**
@@ -411,21 +388,7 @@ public final class People {
      * @throws IOException If fails
      */
     public Iterable<String> links(final String uid) throws IOException {
-        return this.item().read(
-            xoc -> new Mapped<>(
-                xml -> String.format(
-                    "%s:%s",
-                    xml.xpath("@rel").get(0),
-                    xml.xpath("@href").get(0)
-                ),
-                xoc.nodes(
-                    String.format(
-                        "/people/person[@id='%s']/links/link",
-                        uid
-                    )
-                )
-            )
-        );
+        return this.index().person(uid).links();
     }
 
     /**
@@ -437,14 +400,14 @@ public final class People {
      */
     public Iterable<String> links(final String uid, final String rel)
         throws IOException {
-        return this.item().read(
-            xoc -> xoc.xpath(
-                String.format(
-                    "/people/person[@id='%s']/links/link[@rel='%s']/@href",
-                    uid, rel
-                )
-            )
-        );
+        final String prefix = String.format("%s:", rel);
+        final Collection<String> hrefs = new LinkedList<>();
+        for (final String link : this.index().person(uid).links()) {
+            if (link.startsWith(prefix)) {
+                hrefs.add(link.substring(prefix.length()));
+            }
+        }
+        return hrefs;
     }
 
     /**
@@ -494,22 +457,7 @@ public final class People {
      * @throws IOException If fails
      */
     public boolean vacation(final String uid) throws IOException {
-        return this.item().read(
-            xoc -> new UncheckedScalar<>(
-                new ItemAt<>(
-                    false,
-                    new Mapped<>(
-                        Boolean::parseBoolean,
-                        xoc.xpath(
-                            String.format(
-                                "/people/person[@id='%s']/vacation/text()",
-                                uid
-                            )
-                        )
-                    )
-                )
-            ).value()
-        );
+        return this.index().person(uid).vacation();
     }
 
     /**
@@ -519,14 +467,7 @@ public final class People {
      * @throws IOException If fails
      */
     public Iterable<String> students(final String uid) throws IOException {
-        return this.item().read(
-            xoc -> xoc.xpath(
-                String.format(
-                    "/people/person[mentor/text()='%s']/@id",
-                    uid
-                )
-            )
-        );
+        return this.index().students(uid);
     }
 
     /**
@@ -556,18 +497,7 @@ public final class People {
      * @throws IOException If fails
      */
     public int reputation(final String uid) throws IOException {
-        return this.item().read(
-            xoc -> new NumberOf(
-                People.checkExisting(xoc, uid)
-                    .xpath(
-                        String.format(
-                            "/people/person[@id='%s']/reputation/text()",
-                            uid
-                        ),
-                        "0"
-                    )
-            )
-        ).intValue();
+        return this.index().existing(uid).reputation();
     }
 
     /**
@@ -597,17 +527,7 @@ public final class People {
      * @throws IOException If fails
      */
     public int jobs(final String uid) throws IOException {
-        return this.item().read(
-            xoc -> new NumberOf(
-                People.checkExisting(xoc, uid).xpath(
-                    String.format(
-                        "/people/person[@id='%s']/jobs/text()",
-                        uid
-                    ),
-                    "0"
-                )
-            )
-        ).intValue();
+        return this.index().existing(uid).jobs();
     }
 
     /**
@@ -637,17 +557,7 @@ public final class People {
      * @throws IOException If fails
      */
     public double speed(final String uid) throws IOException {
-        return this.item().read(
-            xoc -> new NumberOf(
-                People.checkExisting(xoc, uid).xpath(
-                    String.format(
-                        "/people/person[@id='%s']/speed/text()",
-                        uid
-                    ),
-                    "0.0"
-                )
-            )
-        ).doubleValue();
+        return this.index().existing(uid).speed();
     }
 
     /**
@@ -657,7 +567,7 @@ public final class People {
      * @throws IOException If fails
      */
     public boolean exists(final String uid) throws IOException {
-        return this.item().read(xoc -> People.exists(xoc, uid));
+        return this.index().exists(uid);
     }
 
     /**
@@ -683,11 +593,7 @@ public final class People {
      * @throws IOException If fails
      */
     public boolean applied(final String uid) throws IOException {
-        return this.item().read(
-            xoc -> !People.checkExisting(xoc, uid).nodes(
-                String.format("//people/person[@id  ='%s']/applied", uid)
-            ).isEmpty()
-        );
+        return this.index().existing(uid).applied() != null;
     }
 
     /**
@@ -697,28 +603,13 @@ public final class People {
      * @throws IOException If fails
      */
     public Instant appliedTime(final String uid) throws IOException {
-        return Instant.parse(
-            this.item().read(
-                xoc -> {
-                    People.checkExisting(xoc, uid);
-                    final boolean empty = xoc.nodes(
-                        String.format("//people/person[@id  ='%s']/applied", uid)
-                    ).isEmpty();
-                    if (empty) {
-                        throw new IllegalArgumentException(
-                            new Par("Person @%s doesn't have apply-time")
-                                .say(uid)
-                        );
-                    }
-                    return xoc.xpath(
-                        String.format(
-                            "//people/person[@id  ='%s']/applied/text()",
-                            uid
-                        )
-                    ).get(0);
-                }
-            )
-        );
+        final String applied = this.index().existing(uid).applied();
+        if (applied == null) {
+            throw new IllegalArgumentException(
+                new Par("Person @%s doesn't have apply-time").say(uid)
+            );
+        }
+        return Instant.parse(applied);
     }
 
     /**
@@ -728,17 +619,7 @@ public final class People {
      * @throws IOException If fails
      */
     public Iterable<String> skills(final String user) throws IOException {
-        return this.item().read(
-            xoc -> new Mapped<>(
-                xml -> xml.node().getTextContent(),
-                xoc.nodes(
-                    String.format(
-                        "/people/person[@id = '%s']/skills/skill",
-                        user
-                    )
-                )
-            )
-        );
+        return this.index().person(user).skills();
     }
 
     /**
@@ -779,13 +660,7 @@ public final class People {
      * @throws IOException If fails
      */
     public Set<String> hirep() throws IOException {
-        return new HashSet<>(
-            this.item().read(
-                xoc -> xoc.xpath(
-                    "/people/person[reputation > 256]/@id"
-                )
-            )
-        );
+        return new HashSet<>(this.index().hirep());
     }
 
     /**
@@ -812,16 +687,7 @@ public final class People {
      * @throws IOException If fails
      */
     public boolean active(final String login) throws IOException {
-        return Boolean.parseBoolean(
-            this.item().read(
-                xoc -> xoc.xpath(
-                    String.format(
-                        "/people/person[@id='%s']/active/text()", login
-                    ),
-                    Boolean.toString(false)
-                )
-            )
-        );
+        return this.index().person(login).active();
     }
 
     /**
@@ -830,13 +696,7 @@ public final class People {
      * @throws IOException If fails
      */
     public Set<String> visible() throws IOException {
-        return new HashSet<>(
-            this.item().read(
-                xoc -> xoc.xpath(
-                    "/people/person[mentor and reputation > 0]/@id"
-                )
-            )
-        );
+        return new HashSet<>(this.index().visible());
     }
 
     /**
@@ -845,14 +705,7 @@ public final class People {
      * @throws IOException If fails
      */
     public int totalReputation() throws IOException {
-        return this.item().read(
-            xoc -> new NumberOf(
-                xoc.xpath(
-                    "sum(/people/person[mentor and reputation >0]/reputation)",
-                    "0"
-                )
-            )
-        ).intValue();
+        return this.index().totalReputation();
     }
 
     /**
@@ -874,13 +727,22 @@ public final class People {
      * @throws IOException If fails
      */
     public int projects(final String uid) throws IOException {
-        return Integer.parseInt(
-            this.item().xpath(
-                String.format(
-                    "/people/person[@id='%s']/projects/text()", uid
-                )
-            ).get(0)
-        );
+        final String count = this.index().person(uid).projects();
+        if (count == null) {
+            throw new IllegalArgumentException(
+                new Par("Person @%s doesn't have projects count").say(uid)
+            );
+        }
+        return Integer.parseInt(count);
+    }
+
+    /**
+     * Index of the current version of people.
+     * @return Index
+     * @throws IOException If fails
+     */
+    private PeopleIndex index() throws IOException {
+        return new Pmo(this.farm).acq("people.xml").read(People.INDEXES::of);
     }
 
     /**
@@ -0,0 +1,420 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.pmo;
+
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import com.zerocracy.Par;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory index of {@code people.xml}.
+ *
+ * <p>It is an immutable snapshot of one version of the people, with
+ * typed records by logins, logins by link aliases and by mentors,
+ * and aggregates: high reputation users, visible users and their
+ * total reputation. Snapshots are kept by {@link Snapshots}.</p>
+ *
+ * <p>The class is immutable and thread-safe.</p>
+ *
+ * @since 1.0
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+final class PeopleIndex {
+
+    /**
+     * Reputation of high reputation users must be higher than this.
+     */
+    private static final int HIREP = 256;
+
+    /**
+     * Person who is absent.
+     */
+    private static final PeopleIndex.Person ABSENT = new PeopleIndex.Person(
+        new Record(new XMLDocument("<person/>"))
+    );
+
+    /**
+     * Logins in order of the document.
+     */
+    private final List<String> logins;
+
+    /**
+     * Persons by logins.
+     */
+    private final Map<String, PeopleIndex.Person> persons;
+
+    /**
+     * Logins by links, as {@code rel:href}.
+     */
+    private final Map<String, List<String>> aliases;
+
+    /**
+     * Logins of students by mentors.
+     */
+    private final Map<String, List<String>> mentors;
+
+    /**
+     * Logins of users with high reputation.
+     */
+    private final Set<String> hirep;
+
+    /**
+     * Logins of visible users.
+     */
+    private final Set<String> visible;
+
+    /**
+     * Total reputation of visible users.
+     */
+    private final int total;
+
+    /**
+     * Ctor.
+     * @param nodes Person nodes
+     */
+    PeopleIndex(final Iterable<XML> nodes) {
+        this.logins = new LinkedList<>();
+        this.persons = new HashMap<>(0);
+        this.aliases = new HashMap<>(0);
+        this.mentors = new HashMap<>(0);
+        this.hirep = new HashSet<>(0);
+        this.visible = new HashSet<>(0);
+        int sum = 0;
+        for (final XML node : nodes) {
+            final PeopleIndex.Person person =
+                new PeopleIndex.Person(new Record(node));
+            final String login = person.login();
+            this.logins.add(login);
+            this.persons.put(login, person);
+            for (final String link : person.links()) {
+                this.aliases.computeIfAbsent(
+                    link, key -> new LinkedList<>()
+                ).add(login);
+            }
+            if (person.mentor() != null) {
+                this.mentors.computeIfAbsent(
+                    person.mentor(), key -> new LinkedList<>()
+                ).add(login);
+                if (person.reputation() > 0) {
+                    this.visible.add(login);
+                    sum += person.reputation();
+                }
+            }
+            if (person.reputation() > PeopleIndex.HIREP) {
+                this.hirep.add(login);
+            }
+        }
+        this.total = sum;
+    }
+
+    /**
+     * All logins.
+     * @return Logins in order of the document
+     */
+    public List<String> logins() {
+        return Collections.unmodifiableList(this.logins);
+    }
+
+    /**
+     * Person exists?
+     * @param login Login
+     * @return TRUE if exists
+     */
+    public boolean exists(final String login) {
+        return this.persons.containsKey(login);
+    }
+
+    /**
+     * Person, which must exist.
+     * @param login Login
+     * @return Person
+     */
+    public PeopleIndex.Person existing(final String login) {
+        final PeopleIndex.Person person = this.persons.get(login);
+        if (person == null) {
+            throw new IllegalArgumentException(
+                new Par("Person @%s doesn't exist").say(login)
+            );
+        }
+        return person;
+    }
+
+    /**
+     * Person, or an empty one if absent.
+     * @param login Login
+     * @return Person
+     */
+    public PeopleIndex.Person person(final String login) {
+        return this.persons.getOrDefault(login, PeopleIndex.ABSENT);
+    }
+
+    /**
+     * Logins of persons with this link.
+     * @param rel REL
+     * @param href HREF
+     * @return Logins
+     */
+    public List<String> find(final String rel, final String href) {
+        return Collections.unmodifiableList(
+            this.aliases.getOrDefault(
+                String.format("%s:%s", rel, href), Collections.emptyList()
+            )
+        );
+    }
+
+    /**
+     * Students of the mentor.
+     * @param login Login of the mentor
+     * @return Logins of students
+     */
+    public List<String> students(final String login) {
+        return Collections.unmodifiableList(
+            this.mentors.getOrDefault(login, Collections.emptyList())
+        );
+    }
+
+    /**
+     * Users with reputation higher than 256.
+     * @return Logins
+     */
+    public Set<String> hirep() {
+        return Collections.unmodifiableSet(this.hirep);
+    }
+
+    /**
+     * Users with mentor and positive reputation.
+     * @return Logins
+     */
+    public Set<String> visible() {
+        return Collections.unmodifiableSet(this.visible);
+    }
+
+    /**
+     * Total reputation of visible users.
+     * @return Reputation
+     */
+    public int totalReputation() {
+        return this.total;
+    }
+
+    /**
+     * Person in the index.
+     */
+    @SuppressWarnings("PMD.TooManyFields")
+    static final class Person {
+
+        /**
+         * Login.
+         */
+        private final String login;
+
+        /**
+         * Mentor or NULL if there is no mentor.
+         */
+        private final String mentor;
+
+        /**
+         * Details or empty string.
+         */
+        private final String details;
+
+        /**
+         * Rate or NULL if not set.
+         */
+        private final String rate;
+
+        /**
+         * Reputation.
+         */
+        private final int reputation;
+
+        /**
+         * Jobs in agenda.
+         */
+        private final int jobs;
+
+        /**
+         * Speed.
+         */
+        private final double speed;
+
+        /**
+         * Projects count or NULL if not set.
+         */
+        private final String projects;
+
+        /**
+         * Is on vacation.
+         */
+        private final boolean vacation;
+
+        /**
+         * Is active.
+         */
+        private final boolean active;
+
+        /**
+         * When applied or NULL if didn't apply.
+         */
+        private final String applied;
+
+        /**
+         * Skills.
+         */
+        private final List<String> skills;
+
+        /**
+         * Links, as {@code rel:href}.
+         */
+        private final List<String> links;
+
+        /**
+         * Ctor.
+         * @param rec Record of the person
+         */
+        Person(final Record rec) {
+            this.login = rec.id();
+            if (rec.has("mentor")) {
+                this.mentor = rec.text("mentor");
+            } else {
+                this.mentor = null;
+            }
+            this.details = rec.text("details", "");
+            this.rate = rec.text("rate");
+            this.reputation = Integer.parseInt(rec.text("reputation", "0"));
+            this.jobs = Integer.parseInt(rec.text("jobs", "0"));
+            this.speed = Double.parseDouble(rec.text("speed", "0.0"));
+            this.projects = rec.text("projects");
+            this.vacation = Boolean.parseBoolean(rec.text("vacation"));
+            this.active = Boolean.parseBoolean(rec.text("active"));
+            this.applied = rec.text("applied");
+            this.skills = rec.list("skills");
+            this.links = rec.links();
+        }
+
+        /**
+         * Login.
+         * @return Login
+         */
+        public String login() {
+            return this.login;
+        }
+
+        /**
+         * Mentor or NULL if there is no mentor.
+         * @return Mentor or NULL if there is no mentor
+         */
+        public String mentor() {
+            return this.mentor;
+        }
+
+        /**
+         * Details or empty string.
+         * @return Details or empty string
+         */
+        public String details() {
+            return this.details;
+        }
+
+        /**
+         * Rate or NULL if not set.
+         * @return Rate or NULL if not set
+         */
+        public String rate() {
+            return this.rate;
+        }
+
+        /**
+         * Reputation.
+         * @return Reputation
+         */
+        public int reputation() {
+            return this.reputation;
+        }
+
+        /**
+         * Jobs in agenda.
+         * @return Jobs in agenda
+         */
+        public int jobs() {
+            return this.jobs;
+        }
+
+        /**
+         * Speed.
+         * @return Speed
+         */
+        public double speed() {
+            return this.speed;
+        }
+
+        /**
+         * Projects count or NULL if not set.
+         * @return Projects count or NULL if not set
+         */
+        public String projects() {
+            return this.projects;
+        }
+
+        /**
+         * Is on vacation.
+         * @return TRUE if on vacation
+         */
+        public boolean vacation() {
+            return this.vacation;
+        }
+
+        /**
+         * Is active.
+         * @return TRUE if active
+         */
+        public boolean active() {
+            return this.active;
+        }
+
+        /**
+         * When applied or NULL if didn't apply.
+         * @return When applied or NULL if didn't apply
+         */
+        public String applied() {
+            return this.applied;
+        }
+
+        /**
+         * Skills.
+         * @return Skills
+         */
+        public List<String> skills() {
+            return this.skills;
+        }
+
+        /**
+         * Links, as {@code rel:href}.
+         * @return Links, as {@code rel:href}
+         */
+        public List<String> links() {
+            return this.links;
+        }
+    }
+}
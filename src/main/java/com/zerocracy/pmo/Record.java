@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.pmo;
+
+import com.jcabi.xml.XML;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * Record of an XML element with ID, like a project in
+ * {@code catalog.xml} or a person in {@code people.xml}, detached from DOM.
+ *
+ * <p>Texts of child elements are kept by their names, texts of elements
+ * inside child elements by names of the containers, and
+ * {@code links/link} elements as {@code rel:href}.</p>
+ *
+ * <p>The class is immutable and thread-safe.</p>
+ *
+ * @since 1.0
+ */
+final class Record {
+
+    /**
+     * ID.
+     */
+    private final String uid;
+
+    /**
+     * Texts of child elements by their names.
+     */
+    private final Map<String, String> texts;
+
+    /**
+     * Texts of elements inside child elements by names of containers.
+     */
+    private final Map<String, List<String>> lists;
+
+    /**
+     * Links, as {@code rel:href}.
+     */
+    private final List<String> hrefs;
+
+    /**
+     * Ctor.
+     * @param xml Element, maybe inside its own document
+     */
+    Record(final XML xml) {
+        final Node dom = xml.node();
+        final Element node;
+        if (dom instanceof Document) {
+            node = ((Document) dom).getDocumentElement();
+        } else {
+            node = (Element) dom;
+        }
+        this.uid = node.getAttribute("id");
+        this.texts = new HashMap<>(0);
+        this.lists = new HashMap<>(0);
+        this.hrefs = new LinkedList<>();
+        for (final Element child : Record.children(node)) {
+            final String name = child.getNodeName();
+            final List<Element> items = Record.children(child);
+            this.texts.put(name, child.getTextContent());
+            if ("links".equals(name)) {
+                for (final Element link : items) {
+                    this.hrefs.add(
+                        String.format(
+                            "%s:%s",
+                            link.getAttribute("rel"),
+                            link.getAttribute("href")
+                        )
+                    );
+                }
+            } else if (!items.isEmpty()) {
+                final List<String> list = new LinkedList<>();
+                for (final Element item : items) {
+                    list.add(item.getTextContent());
+                }
+                this.lists.put(name, list);
+            }
+        }
+    }
+
+    /**
+     * ID.
+     * @return ID
+     */
+    public String id() {
+        return this.uid;
+    }
+
+    /**
+     * Child element exists?
+     * @param name Element name
+     * @return TRUE if it exists
+     */
+    public boolean has(final String name) {
+        return this.texts.containsKey(name);
+    }
+
+    /**
+     * Text of a child element.
+     * @param name Element name
+     * @return Text or NULL if absent
+     */
+    public String text(final String name) {
+        return this.texts.get(name);
+    }
+
+    /**
+     * Text of a child element, or default.
+     * @param name Element name
+     * @param def Default if element is absent or empty
+     * @return Text
+     */
+    public String text(final String name, final String def) {
+        final String text = this.texts.get(name);
+        final String result;
+        if (text == null || text.isEmpty()) {
+            result = def;
+        } else {
+            result = text;
+        }
+        return result;
+    }
+
+    /**
+     * Texts of elements inside a child element.
+     * @param name Name of child element
+     * @return Texts
+     */
+    public List<String> list(final String name) {
+        return Collections.unmodifiableList(
+            this.lists.getOrDefault(name, Collections.emptyList())
+        );
+    }
+
+    /**
+     * Links.
+     * @return Links as {@code rel:href}
+     */
+    public List<String> links() {
+        return Collections.unmodifiableList(this.hrefs);
+    }
+
+    /**
+     * Child elements.
+     * @param node Parent
+     * @return Elements
+     */
+    private static List<Element> children(final Node node) {
+        final NodeList nodes = node.getChildNodes();
+        final List<Element> list = new LinkedList<>();
+        for (int idx = 0; idx < nodes.getLength(); ++idx) {
+            final Node child = nodes.item(idx);
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                list.add((Element) child);
+            }
+        }
+        return list;
+    }
+}
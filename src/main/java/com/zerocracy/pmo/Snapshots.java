@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.pmo;
+
+import com.zerocracy.Xocument;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.cactoos.Func;
+import org.cactoos.func.IoCheckedFunc;
+
+/**
+ * Immutable in-memory snapshots of an XML item, one per its version.
+ *
+ * <p>Snapshots are cached by the digest of file content, that's why
+ * any change of the item, made by its own class or anyone else, leads
+ * to a new snapshot on the next read, no matter which temporary file
+ * the content comes from. Digests of files are remembered by their
+ * path, modification time, size and file key, in order not to read
+ * the same file twice. The least recently used snapshots are evicted
+ * when the cache is full.</p>
+ *
+ * <p>The class is thread-safe.</p>
+ *
+ * @param <T> Type of snapshot
+ * @since 1.0
+ */
+final class Snapshots<T> {
+
+    /**
+     * Max amount of snapshots and digests to keep.
+     */
+    private static final int MAX = 16;
+
+    /**
+     * XSD to bootstrap files with.
+     */
+    private final String xsd;
+
+    /**
+     * Builder of a snapshot.
+     */
+    private final Func<Xocument, T> builder;
+
+    /**
+     * Snapshots by content digests, in access order.
+     */
+    private final Map<String, T> snapshots;
+
+    /**
+     * Content digests by file stamps, in access order.
+     */
+    private final Map<String, String> digests;
+
+    /**
+     * Ctor.
+     * @param xsd XSD to bootstrap files with
+     * @param builder Builder of a snapshot
+     */
+    Snapshots(final String xsd, final Func<Xocument, T> builder) {
+        this.xsd = xsd;
+        this.builder = builder;
+        // @checkstyle MagicNumber (2 lines)
+        this.snapshots = new LinkedHashMap<>(Snapshots.MAX, 0.75f, true);
+        this.digests = new LinkedHashMap<>(Snapshots.MAX, 0.75f, true);
+    }
+
+    /**
+     * Snapshot of the current version of the file.
+     * @param file The file
+     * @return Snapshot
+     * @throws IOException If fails
+     */
+    public T of(final Path file) throws IOException {
+        final Xocument xoc = new Xocument(file).bootstrap(this.xsd);
+        final String digest = this.digest(file);
+        T snapshot;
+        synchronized (this.snapshots) {
+            snapshot = this.snapshots.get(digest);
+        }
+        if (snapshot == null) {
+            snapshot = new IoCheckedFunc<>(this.builder).apply(xoc);
+            synchronized (this.snapshots) {
+                this.snapshots.put(digest, snapshot);
+                Snapshots.trim(this.snapshots);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Digest of the file content.
+     * @param file The file
+     * @return Hex digest
+     * @throws IOException If fails
+     */
+    private String digest(final Path file) throws IOException {
+        final BasicFileAttributes attrs = Files.readAttributes(
+            file, BasicFileAttributes.class
+        );
+        final String stamp = String.format(
+            "%s %s %d %s", file.toAbsolutePath(),
+            attrs.lastModifiedTime(), attrs.size(), attrs.fileKey()
+        );
+        String digest;
+        synchronized (this.digests) {
+            digest = this.digests.get(stamp);
+        }
+        if (digest == null) {
+            try {
+                digest = new BigInteger(
+                    1,
+                    MessageDigest.getInstance("SHA-1").digest(
+                        Files.readAllBytes(file)
+                    )
+                ).toString(16);
+            } catch (final NoSuchAlgorithmException ex) {
+                throw new IllegalStateException(ex);
+            }
+            synchronized (this.digests) {
+                this.digests.put(stamp, digest);
+                Snapshots.trim(this.digests);
+            }
+        }
+        return digest;
+    }
+
+    /**
+     * Remove the least recently used entries.
+     * @param map Map in access order
+     */
+    private static void trim(final Map<String, ?> map) {
+        final Iterator<String> iter = map.keySet().iterator();
+        while (map.size() > Snapshots.MAX) {
+            iter.next();
+            iter.remove();
+        }
+    }
+}
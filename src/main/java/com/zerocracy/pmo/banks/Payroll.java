@@ -113,7 +113,7 @@ public final class Payroll {
             );
         }
         final Bank bank;
-        if (new Props(this.farm).has("//testing")) {
+        if (new Props(this.farm).testing()) {
             bank = new FkBank();
         } else {
             bank = this.banks.get(method);
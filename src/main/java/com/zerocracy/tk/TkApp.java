@@ -366,6 +366,10 @@ public final class TkApp extends TkWrap {
                                                                         "/health",
                                                                         new TkHealth(farm)
                                                                     ),
+                                                                    new FkRegex(
+                                                                        "/latencies",
+                                                                        new TkLatencies(farm)
+                                                                    ),
                                                                     new FkRegex(
                                                                         "/logs",
                                                                         new TkLog(farm)
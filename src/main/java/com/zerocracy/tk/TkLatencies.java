@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.tk;
+
+import com.zerocracy.Farm;
+import com.zerocracy.Latencies;
+import com.zerocracy.pm.staff.Roles;
+import com.zerocracy.pmo.Pmo;
+import java.io.IOException;
+import java.util.logging.Level;
+import org.takes.Request;
+import org.takes.Response;
+import org.takes.Take;
+import org.takes.facets.forward.RsForward;
+import org.takes.rq.RqHref;
+import org.takes.rs.xe.XeAppend;
+import org.takes.rs.xe.XeChain;
+import org.takes.rs.xe.XeDirectives;
+import org.takes.rs.xe.XeTransform;
+
+/**
+ * Latencies of stakeholders.
+ *
+ * @since 1.0
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+public final class TkLatencies implements Take {
+
+    /**
+     * Farm.
+     */
+    private final Farm farm;
+
+    /**
+     * Ctor.
+     * @param frm Farm
+     */
+    public TkLatencies(final Farm frm) {
+        this.farm = frm;
+    }
+
+    @Override
+    public Response act(final Request req) throws IOException {
+        final String user = new RqUser(this.farm, req).value();
+        if (!new Roles(new Pmo(this.farm)).bootstrap().hasAnyRole(user)) {
+            throw new RsForward(
+                new RsParFlash(
+                    "You are not allowed to see this page, sorry",
+                    Level.WARNING
+                )
+            );
+        }
+        final String sort = new RqHref.Smart(req).single("sort", "total");
+        return new RsPage(
+            this.farm, "/xsl/latencies.xsl", req,
+            () -> new XeChain(
+                new XeAppend("sort", sort),
+                new XeAppend(
+                    "rows",
+                    new XeTransform<>(
+                        Latencies.INSTANCE.rows(sort),
+                        row -> new XeDirectives(row.directives())
+                    )
+                )
+            )
+        );
+    }
+}
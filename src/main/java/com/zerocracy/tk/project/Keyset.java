@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.tk.project;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.takes.HttpException;
+
+/**
+ * Page of claims from footprint, found by a cursor.
+ *
+ * <p>Claims are ordered by creation date and ID, newest first. The cursor
+ * is the position of a claim in this order, like
+ * {@code 1546304461000-5c2abb4d7d0f6b0001a7e0b1}. Instead of skipping
+ * N documents we ask Mongo for the documents right after (or before)
+ * the cursor, which is an index range scan, no matter how deep the
+ * page is. The cursor comes from the request, so it has to be checked
+ * by {@link #valid()} first.</p>
+ *
+ * @since 1.0
+ */
+final class Keyset {
+
+    /**
+     * Date field.
+     */
+    private static final String CREATED = "created";
+
+    /**
+     * ID field.
+     */
+    private static final String ID = "_id";
+
+    /**
+     * Format of the cursor.
+     */
+    private static final Pattern FORMAT =
+        Pattern.compile("[0-9]{1,18}-[0-9a-f]{24}");
+
+    /**
+     * Cursor, empty if it's the first page.
+     */
+    private final String cursor;
+
+    /**
+     * Ctor.
+     * @param crs Cursor, maybe empty
+     */
+    Keyset(final String crs) {
+        this.cursor = crs;
+    }
+
+    /**
+     * This keyset, if its cursor is empty or well-formed.
+     * @return This keyset
+     * @throws HttpException If the cursor is malformed
+     */
+    public Keyset valid() throws HttpException {
+        if (!this.cursor.isEmpty()
+            && !Keyset.FORMAT.matcher(this.cursor).matches()) {
+            throw new HttpException(
+                HttpURLConnection.HTTP_BAD_REQUEST,
+                String.format("Invalid cursor \"%s\"", this.cursor)
+            );
+        }
+        return this;
+    }
+
+    /**
+     * Claims older than the cursor, newest first.
+     * @param col Collection
+     * @param filter Filter
+     * @param slice Max amount of claims
+     * @return Claims
+     */
+    public List<Document> older(final MongoCollection<Document> col,
+        final Bson filter, final int slice) {
+        final Bson query;
+        if (this.cursor.isEmpty()) {
+            query = filter;
+        } else {
+            query = Filters.and(
+                filter,
+                Filters.or(
+                    Filters.lt(Keyset.CREATED, this.date()),
+                    Filters.and(
+                        Filters.eq(Keyset.CREATED, this.date()),
+                        Filters.lt(Keyset.ID, this.oid())
+                    )
+                )
+            );
+        }
+        return col.find(query)
+            .sort(Sorts.descending(Keyset.CREATED, Keyset.ID))
+            .limit(slice)
+            .into(new ArrayList<>(slice));
+    }
+
+    /**
+     * Claims newer than the cursor, newest first.
+     * @param col Collection
+     * @param filter Filter
+     * @param slice Max amount of claims
+     * @return Claims
+     */
+    public List<Document> newer(final MongoCollection<Document> col,
+        final Bson filter, final int slice) {
+        final List<Document> docs = col.find(
+            Filters.and(
+                filter,
+                Filters.or(
+                    Filters.gt(Keyset.CREATED, this.date()),
+                    Filters.and(
+                        Filters.eq(Keyset.CREATED, this.date()),
+                        Filters.gt(Keyset.ID, this.oid())
+                    )
+                )
+            )
+        )
+            .sort(Sorts.ascending(Keyset.CREATED, Keyset.ID))
+            .limit(slice)
+            .into(new ArrayList<>(slice));
+        Collections.reverse(docs);
+        return docs;
+    }
+
+    /**
+     * Cursor of the claim.
+     * @param doc The claim
+     * @return Cursor
+     */
+    public static String cursor(final Document doc) {
+        return String.format(
+            "%d-%s",
+            doc.getDate(Keyset.CREATED).getTime(),
+            doc.getObjectId(Keyset.ID).toHexString()
+        );
+    }
+
+    /**
+     * Date of the cursor.
+     * @return Date
+     */
+    private Date date() {
+        return new Date(
+            Long.parseLong(this.cursor.substring(0, this.cursor.indexOf('-')))
+        );
+    }
+
+    /**
+     * ID of the cursor.
+     * @return ID
+     */
+    private ObjectId oid() {
+        return new ObjectId(
+            this.cursor.substring(this.cursor.indexOf('-') + 1)
+        );
+    }
+}
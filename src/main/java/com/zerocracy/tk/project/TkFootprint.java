@@ -22,7 +22,6 @@ import com.jcabi.xml.XMLDocument;
 import com.jcabi.xml.XSLDocument;
 import com.mongodb.BasicDBObject;
 import com.mongodb.client.model.Filters;
-import com.mongodb.client.model.Sorts;
 import com.zerocracy.Farm;
 import com.zerocracy.Project;
 import com.zerocracy.claims.Footprint;
@@ -30,12 +29,12 @@ import com.zerocracy.pmo.Catalog;
 import com.zerocracy.tk.RsPage;
 import java.io.IOException;
 import java.net.URLEncoder;
-import java.util.Collection;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.cactoos.Scalar;
-import org.cactoos.list.SolidList;
 import org.cactoos.map.MapEntry;
 import org.cactoos.map.MapOf;
 import org.cactoos.scalar.IoCheckedScalar;
@@ -92,9 +91,14 @@ public final class TkFootprint implements TkRegex {
             // @checkstyle MagicNumber (1 line)
             200
         );
-        final int skip = Integer.parseInt(
-            new RqHref.Smart(req).single("skip", "0")
-        );
+        final String after = new RqHref.Smart(req).single("after", "");
+        final String before = new RqHref.Smart(req).single("before", "");
+        final Keyset keyset;
+        if (before.isEmpty()) {
+            keyset = new Keyset(after).valid();
+        } else {
+            keyset = new Keyset(before).valid();
+        }
         final BasicDBObject json;
         if (query.isEmpty()) {
             json = new BasicDBObject();
@@ -103,54 +107,71 @@ public final class TkFootprint implements TkRegex {
         }
         final Scalar<XeSource> source = () -> {
             final Project project = new RqProject(this.farm, req, "PO");
-            final Collection<Document> docs;
+            final List<Document> docs;
             try (final Footprint footprint =
                 new Footprint(this.farm, project)) {
-                docs = new SolidList<>(
-                    footprint.collection()
-                        .find(
-                            Filters.and(
-                                Filters.eq("project", project.pid()),
-                                json
-                            )
-                        )
-                        .sort(Sorts.descending("created"))
-                        .limit(slice)
-                        .skip(skip)
+                final Bson filter = Filters.and(
+                    Filters.eq("project", project.pid()),
+                    json
                 );
-                docs.size();
+                if (before.isEmpty()) {
+                    docs = keyset.older(
+                        footprint.collection(), filter, slice
+                    );
+                } else {
+                    docs = keyset.newer(
+                        footprint.collection(), filter, slice
+                    );
+                }
             }
             final Catalog catalog = new Catalog(this.farm).bootstrap();
             final String url = String.format(
-                "?q=%s&slice=%d&skip=",
+                "?q=%s&slice=%d",
                 URLEncoder.encode(query, "UTF-8"),
                 slice
             );
+            final String here;
+            if (before.isEmpty()) {
+                here = String.format("%s&after=%s", url, after);
+            } else {
+                here = String.format("%s&before=%s", url, before);
+            }
+            final String first;
+            final String last;
+            if (docs.isEmpty()) {
+                first = "";
+                last = "";
+            } else {
+                first = Keyset.cursor(docs.get(0));
+                last = Keyset.cursor(docs.get(docs.size() - 1));
+            }
             return new XeChain(
                 new XeAppend("project", project.pid()),
                 new XeAppend("title", catalog.title(project.pid())),
                 new XeAppend("query", query),
-                new XeAppend("skip", Integer.toString(skip)),
+                new XeAppend("after", after),
                 new XeLink(
                     "plain",
-                    String.format("%s%d&format=plain", url, skip)
+                    String.format("%s&format=plain", here)
                 ),
                 new XeLink(
                     "json",
-                    String.format("%s%d&format=json", url, skip)
+                    String.format("%s&format=json", here)
                 ),
                 new XeWhen(
-                    skip >= slice,
+                    !after.isEmpty() && !docs.isEmpty()
+                        || !before.isEmpty() && docs.size() == slice,
                     new XeLink(
                         "back",
-                        String.format("%s%d", url, skip - slice)
+                        String.format("%s&before=%s", url, first)
                     )
                 ),
                 new XeWhen(
-                    !docs.isEmpty(),
+                    docs.size() == slice
+                        || !before.isEmpty() && !docs.isEmpty(),
                     new XeLink(
                         "next",
-                        String.format("%s%d", url, skip + slice)
+                        String.format("%s&after=%s", url, last)
                     )
                 ),
                 new XeAppend(
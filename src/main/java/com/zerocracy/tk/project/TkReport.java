@@ -18,13 +18,15 @@ package com.zerocracy.tk.project;
 
 import com.zerocracy.Farm;
 import com.zerocracy.Project;
-import com.zerocracy.claims.Footprint;
+import com.zerocracy.claims.FootprintRollup;
+import com.zerocracy.farm.props.Props;
 import com.zerocracy.tk.RsPage;
 import com.zerocracy.tk.project.reports.AwardChampions;
 import com.zerocracy.tk.project.reports.FtReport;
 import com.zerocracy.tk.project.reports.OrderChampions;
 import com.zerocracy.tk.project.reports.OrdersGivenByWeek;
 import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
@@ -110,25 +112,22 @@ public final class TkReport implements TkRegex {
             req,
             () -> {
                 final Project project = new RqProject(this.farm, req, "PO");
-                final Collection<Document> docs;
-                try (final Footprint footprint =
-                    new Footprint(this.farm, project)) {
-                    docs = new SolidList<>(
-                        footprint.collection().aggregate(
-                            TkReport.REPORTS.get(report).bson(
-                                project,
-                                start.atStartOfDay().atZone(
-                                    ZoneOffset.UTC
-                                ).toInstant(),
-                                // @checkstyle MagicNumber (1 line)
-                                end.atTime(23, 59).atZone(
-                                    ZoneOffset.UTC
-                                ).toInstant()
-                            )
+                final FootprintRollup rollup = new FootprintRollup(this.farm);
+                rollup.refresh(this.age());
+                final Collection<Document> docs = new SolidList<>(
+                    rollup.collection().aggregate(
+                        TkReport.REPORTS.get(report).bson(
+                            project,
+                            start.atStartOfDay().atZone(
+                                ZoneOffset.UTC
+                            ).toInstant(),
+                            // @checkstyle MagicNumber (1 line)
+                            end.atTime(23, 59).atZone(
+                                ZoneOffset.UTC
+                            ).toInstant()
                         )
-                    );
-                    docs.size();
-                }
+                    )
+                );
                 return new XeChain(
                     new XeAppend("project", project.pid()),
                     new XeAppend("report", report),
@@ -170,4 +169,18 @@ public final class TkReport implements TkRegex {
         );
     }
 
+    /**
+     * Max age of the rollup to show.
+     * @return Age
+     * @throws IOException If fails
+     */
+    private Duration age() throws IOException {
+        final Duration age;
+        if (new Props(this.farm).testing()) {
+            age = Duration.ZERO;
+        } else {
+            age = Duration.ofMinutes(1L);
+        }
+        return age;
+    }
 }
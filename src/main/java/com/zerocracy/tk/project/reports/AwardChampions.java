@@ -52,7 +52,7 @@ public final class AwardChampions implements FtReport {
             Aggregates.group(
                 "$login",
                 Accumulators.sum("total", "$points"),
-                Accumulators.sum("jobs", 1)
+                Accumulators.sum("jobs", new Count().bson())
             ),
             Aggregates.sort(Sorts.descending("jobs")),
             Aggregates.project(
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.tk.project.reports;
+
+import java.util.Arrays;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+
+/**
+ * Amount of claims a row stands for.
+ *
+ * <p>A claim from footprint stands for itself, while a row from
+ * {@link com.zerocracy.claims.FootprintRollup} stands for as many
+ * claims as it has in its {@code count} field. Reports sum this
+ * expression instead of {@code 1}, that's why they work with both.</p>
+ *
+ * @since 1.0
+ */
+final class Count {
+
+    /**
+     * Expression to sum.
+     * @return BSON expression
+     */
+    public BsonDocument bson() {
+        return new BsonDocument(
+            "$ifNull",
+            new BsonArray(
+                Arrays.asList(new BsonString("$count"), new BsonInt32(1))
+            )
+        );
+    }
+}
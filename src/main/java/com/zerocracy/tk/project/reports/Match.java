@@ -94,7 +94,7 @@ final class Match implements Bson {
                     new Joined<Bson>(
                         new SolidList<>(
                             Filters.eq("project", this.project.pid()),
-                            Filters.gt("created", this.start),
+                            Filters.gte("created", this.start),
                             Filters.lt("created", this.end)
                         ),
                         this.terms
@@ -49,7 +49,10 @@ public final class OrderChampions implements FtReport {
                 project, start, end,
                 Filters.eq("type", "Order was given")
             ),
-            Aggregates.group("$login", Accumulators.sum("orders", 1)),
+            Aggregates.group(
+                "$login",
+                Accumulators.sum("orders", new Count().bson())
+            ),
             Aggregates.sort(Sorts.descending("orders")),
             Aggregates.project(
                 Projections.fields(
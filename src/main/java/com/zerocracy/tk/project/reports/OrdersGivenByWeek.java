@@ -52,7 +52,7 @@ public final class OrdersGivenByWeek implements FtReport {
             ),
             Aggregates.group(
                 new BsonDocument("$week", new BsonString("$created")),
-                Accumulators.sum("total", 1)
+                Accumulators.sum("total", new Count().bson())
             ),
             Aggregates.sort(Sorts.descending("_id")),
             Aggregates.project(
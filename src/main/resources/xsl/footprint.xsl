@@ -62,10 +62,12 @@ SOFTWARE.
         <xsl:text>You can submit a claim to the queue for current project.</xsl:text>
       </label>
     </form>
-    <xsl:if test="skip &gt; 0">
+    <xsl:if test="after != ''">
       <p>
-        <xsl:text>Starts at claim #</xsl:text>
-        <xsl:value-of select="skip + 1"/>
+        <xsl:text>Older claims, </xsl:text>
+        <a href="?q={encode-for-uri(query)}">
+          <xsl:text>start over</xsl:text>
+        </a>
         <xsl:text>.</xsl:text>
       </p>
     </xsl:if>
@@ -91,8 +91,116 @@ SOFTWARE.
       <xsl:value-of select="quota"/>
       <xsl:text>.</xsl:text>
     </p>
+    <p>
+      <xsl:text>Metrics: </xsl:text>
+      <xsl:value-of select="datums/waiting"/>
+      <xsl:text>/</xsl:text>
+      <xsl:value-of select="datums/capacity"/>
+      <xsl:text> waiting, </xsl:text>
+      <xsl:value-of select="datums/values"/>
+      <xsl:text> values, </xsl:text>
+      <xsl:value-of select="datums/sent"/>
+      <xsl:text> datums in </xsl:text>
+      <xsl:value-of select="datums/requests"/>
+      <xsl:text> requests, </xsl:text>
+      <xsl:value-of select="datums/dropped"/>
+      <xsl:text> dropped, </xsl:text>
+      <xsl:value-of select="datums/failures"/>
+      <xsl:text> failures.</xsl:text>
+    </p>
   </xsl:template>
   <xsl:template match="farm[@id='MessageSink']">
+    <p>
+      <xsl:text>Pool: </xsl:text>
+      <xsl:value-of select="pool/busy"/>
+      <xsl:text>/</xsl:text>
+      <xsl:value-of select="pool/threads"/>
+      <xsl:text> threads busy, </xsl:text>
+      <xsl:value-of select="pool/ready"/>
+      <xsl:text> queues ready, </xsl:text>
+      <xsl:value-of select="pool/done"/>
+      <xsl:text> messages done.</xsl:text>
+    </p>
+    <p>
+      <xsl:text>Footprint: </xsl:text>
+      <xsl:value-of select="footprint/queued"/>
+      <xsl:text>/</xsl:text>
+      <xsl:value-of select="footprint/capacity"/>
+      <xsl:text> queued, </xsl:text>
+      <xsl:value-of select="footprint/written"/>
+      <xsl:text> written in </xsl:text>
+      <xsl:value-of select="footprint/bulks"/>
+      <xsl:text> bulks, </xsl:text>
+      <xsl:value-of select="footprint/dropped"/>
+      <xsl:text> dropped, </xsl:text>
+      <xsl:value-of select="footprint/failures"/>
+      <xsl:text> failures.</xsl:text>
+    </p>
+    <p>
+      <xsl:text>Slowest stakeholders (ms), </xsl:text>
+      <a href="/latencies">
+        <xsl:text>see all</xsl:text>
+      </a>
+      <xsl:text>:</xsl:text>
+      <ul>
+        <xsl:for-each select="latencies/row">
+          <li>
+            <xsl:value-of select="@stakeholder"/>
+            <xsl:text> / </xsl:text>
+            <xsl:value-of select="@type"/>
+            <xsl:text>: </xsl:text>
+            <xsl:value-of select="count"/>
+            <xsl:text> runs, </xsl:text>
+            <xsl:value-of select="errors"/>
+            <xsl:text> errors, p50=</xsl:text>
+            <xsl:value-of select="p50"/>
+            <xsl:text>, p95=</xsl:text>
+            <xsl:value-of select="p95"/>
+            <xsl:text>, p99=</xsl:text>
+            <xsl:value-of select="p99"/>
+            <xsl:text>, max=</xsl:text>
+            <xsl:value-of select="max"/>
+            <xsl:text>, total=</xsl:text>
+            <xsl:value-of select="total"/>
+          </li>
+        </xsl:for-each>
+      </ul>
+    </p>
+    <p>
+      <xsl:text>Top contended items (ms):</xsl:text>
+      <ul>
+        <xsl:for-each select="locks/items/item">
+          <li>
+            <xsl:value-of select="@id"/>
+            <xsl:text>: </xsl:text>
+            <xsl:value-of select="waits"/>
+            <xsl:text> locks, wait=</xsl:text>
+            <xsl:value-of select="wait"/>
+            <xsl:text>, max wait=</xsl:text>
+            <xsl:value-of select="max_wait"/>
+            <xsl:text>, hold=</xsl:text>
+            <xsl:value-of select="hold"/>
+            <xsl:text>, max hold=</xsl:text>
+            <xsl:value-of select="max_hold"/>
+            <xsl:text>, </xsl:text>
+            <xsl:value-of select="timeouts"/>
+            <xsl:text> timeouts, </xsl:text>
+            <xsl:value-of select="holder"/>
+          </li>
+        </xsl:for-each>
+      </ul>
+      <xsl:text>Lock order inversions: </xsl:text>
+      <xsl:value-of select="count(locks/inversions/inversion)"/>
+      <ul>
+        <xsl:for-each select="locks/inversions/inversion">
+          <li>
+            <pre>
+              <xsl:value-of select="."/>
+            </pre>
+          </li>
+        </xsl:for-each>
+      </ul>
+    </p>
     <p>
       <xsl:text>Project queues:</xsl:text>
       <ul>
@@ -109,7 +217,14 @@ SOFTWARE.
             <xsl:text> state=</xsl:text>
             <xsl:value-of select="thread/state"/>
             <br/>
-            <xsl:value-of select="stats"/>
+            <xsl:text>Waiting </xsl:text>
+            <xsl:value-of select="stats/waiting"/>
+            <xsl:text> (</xsl:text>
+            <xsl:value-of select="stats/untracked"/>
+            <xsl:text> untracked), wait: </xsl:text>
+            <xsl:apply-templates select="stats/wait" mode="pcts"/>
+            <xsl:text>, brigade: </xsl:text>
+            <xsl:apply-templates select="stats/brigade" mode="pcts"/>
             <br/>
             <xsl:text>Messages:</xsl:text>
             <ul>
@@ -125,6 +240,21 @@ SOFTWARE.
         </xsl:for-each>
       </ul>
     </p>
+    <p>
+      <xsl:text>Claim types:</xsl:text>
+      <ul>
+        <xsl:for-each select="claim-types/type">
+          <xsl:sort select="brigade/p99" data-type="number" order="descending"/>
+          <li>
+            <xsl:value-of select="@name"/>
+            <xsl:text>, wait: </xsl:text>
+            <xsl:apply-templates select="wait" mode="pcts"/>
+            <xsl:text>, brigade: </xsl:text>
+            <xsl:apply-templates select="brigade" mode="pcts"/>
+          </li>
+        </xsl:for-each>
+      </ul>
+    </p>
     <p>
       <xsl:text>Proc messages:</xsl:text>
       <ul>
@@ -138,6 +268,18 @@ SOFTWARE.
       </ul>
     </p>
   </xsl:template>
+  <xsl:template match="*" mode="pcts">
+    <xsl:value-of select="count"/>
+    <xsl:text> times, p50=</xsl:text>
+    <xsl:value-of select="p50"/>
+    <xsl:text>ms, p95=</xsl:text>
+    <xsl:value-of select="p95"/>
+    <xsl:text>ms, p99=</xsl:text>
+    <xsl:value-of select="p99"/>
+    <xsl:text>ms, max=</xsl:text>
+    <xsl:value-of select="max"/>
+    <xsl:text>ms</xsl:text>
+  </xsl:template>
   <xsl:template match="farm[@id='TempFiles']">
     <p>
       <xsl:text>Temporary files:</xsl:text>
@@ -152,6 +294,44 @@ SOFTWARE.
       </ui>
     </p>
   </xsl:template>
+  <xsl:template match="farm[@id='RdFarm']">
+    <p>
+      <xsl:text>Compiled XSL rules: </xsl:text>
+      <xsl:value-of select="templates/size"/>
+      <xsl:text>/</xsl:text>
+      <xsl:value-of select="templates/size/@max"/>
+      <xsl:text>, </xsl:text>
+      <xsl:value-of select="templates/hits"/>
+      <xsl:text> hits, </xsl:text>
+      <xsl:value-of select="templates/misses"/>
+      <xsl:text> misses.</xsl:text>
+    </p>
+  </xsl:template>
+  <xsl:template match="farm[@id='CachedFarm']">
+    <p>
+      <xsl:text>S3 cache: </xsl:text>
+      <xsl:value-of select="cache/size"/>
+      <xsl:text>/</xsl:text>
+      <xsl:value-of select="cache/size/@max"/>
+      <xsl:text> objects, </xsl:text>
+      <xsl:value-of select="cache/dirty"/>
+      <xsl:text> dirty, </xsl:text>
+      <xsl:value-of select="cache/hits"/>
+      <xsl:text> hits, </xsl:text>
+      <xsl:value-of select="cache/checks"/>
+      <xsl:text> checks, </xsl:text>
+      <xsl:value-of select="cache/downloads"/>
+      <xsl:text> downloads, </xsl:text>
+      <xsl:value-of select="cache/writes"/>
+      <xsl:text> writes, </xsl:text>
+      <xsl:value-of select="cache/uploads"/>
+      <xsl:text> uploads, </xsl:text>
+      <xsl:value-of select="cache/failures"/>
+      <xsl:text> failures, </xsl:text>
+      <xsl:value-of select="cache/evictions"/>
+      <xsl:text> evictions.</xsl:text>
+    </p>
+  </xsl:template>
   <xsl:template match="farm[@id='ClaimsFarm']">
     <p>
       <xsl:text>Claim queues: </xsl:text>
@@ -0,0 +1,105 @@
+<?xml version="1.0"?>
+<!--
+Copyright (c) 2016-2019 Zerocracy
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to read
+the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+merge, publish, distribute, sublicense, and/or sell copies of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+-->
+<xsl:stylesheet xmlns:xsl="http://www.w3.org/1999/XSL/Transform" xmlns="http://www.w3.org/1999/xhtml" version="2.0">
+  <xsl:output method="html" doctype-system="about:legacy-compat" encoding="UTF-8" indent="yes"/>
+  <xsl:strip-space elements="*"/>
+  <xsl:include href="/xsl/inner-layout.xsl"/>
+  <xsl:template match="page" mode="head">
+    <title>
+      <xsl:text>Latencies</xsl:text>
+    </title>
+  </xsl:template>
+  <xsl:template match="page" mode="inner">
+    <h1>
+      <xsl:text>Latencies</xsl:text>
+    </h1>
+    <p>
+      <xsl:text>Time taken by stakeholders per claim type since the start, in milliseconds.</xsl:text>
+      <xsl:text> Click a column to sort by it.</xsl:text>
+    </p>
+    <xsl:variable name="sort" select="sort"/>
+    <table>
+      <thead>
+        <tr>
+          <xsl:call-template name="column">
+            <xsl:with-param name="name" select="'stakeholder'"/>
+            <xsl:with-param name="sort" select="$sort"/>
+          </xsl:call-template>
+          <th>
+            <xsl:text>claim</xsl:text>
+          </th>
+          <xsl:for-each select="('count', 'errors', 'p50', 'p95', 'p99', 'max', 'total')">
+            <xsl:call-template name="column">
+              <xsl:with-param name="name" select="."/>
+              <xsl:with-param name="sort" select="$sort"/>
+            </xsl:call-template>
+          </xsl:for-each>
+        </tr>
+      </thead>
+      <tbody>
+        <xsl:for-each select="rows/row">
+          <tr>
+            <td>
+              <xsl:value-of select="@stakeholder"/>
+            </td>
+            <td>
+              <xsl:value-of select="@type"/>
+            </td>
+            <td style="text-align:right">
+              <xsl:value-of select="count"/>
+            </td>
+            <td style="text-align:right">
+              <xsl:value-of select="errors"/>
+            </td>
+            <td style="text-align:right">
+              <xsl:value-of select="p50"/>
+            </td>
+            <td style="text-align:right">
+              <xsl:value-of select="p95"/>
+            </td>
+            <td style="text-align:right">
+              <xsl:value-of select="p99"/>
+            </td>
+            <td style="text-align:right">
+              <xsl:value-of select="max"/>
+            </td>
+            <td style="text-align:right">
+              <xsl:value-of select="total"/>
+            </td>
+          </tr>
+        </xsl:for-each>
+      </tbody>
+    </table>
+  </xsl:template>
+  <xsl:template name="column">
+    <xsl:param name="name"/>
+    <xsl:param name="sort"/>
+    <th>
+      <xsl:choose>
+        <xsl:when test="$sort = $name">
+          <xsl:value-of select="$name"/>
+        </xsl:when>
+        <xsl:otherwise>
+          <a href="?sort={$name}">
+            <xsl:value-of select="$name"/>
+          </a>
+        </xsl:otherwise>
+      </xsl:choose>
+    </th>
+  </xsl:template>
+</xsl:stylesheet>
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy;
+
+import com.jcabi.xml.XMLDocument;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.cactoos.text.TextOf;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link Datum}.
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+public final class DatumTest {
+
+    /**
+     * XSD for tests.
+     */
+    private static final String XSD = String.join(
+        "",
+        "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema'>",
+        "<xs:element name='a' type='xs:integer'/></xs:schema>"
+    );
+
+    @Test
+    public void readsDocumentFromMirror() throws Exception {
+        final Path dir = Files.createTempDirectory("datum");
+        Files.createDirectories(dir.resolve("x"));
+        Files.write(
+            dir.resolve("x/index.xml"),
+            "<index/>".getBytes(StandardCharsets.UTF_8)
+        );
+        final Datum datum = new Datum(dir);
+        MatcherAssert.assertThat(
+            new TextOf(
+                datum.input(new URL("http://datum.zerocracy.com/x/index.xml"))
+            ).asString(),
+            Matchers.equalTo("<index/>")
+        );
+        MatcherAssert.assertThat(
+            datum.toString(), Matchers.startsWith("1 local, 0 downloaded")
+        );
+    }
+
+    @Test
+    public void validatesWithMirroredSchema() throws Exception {
+        final Datum datum = DatumTest.datum();
+        MatcherAssert.assertThat(
+            datum.validated(
+                new XMLDocument(DatumTest.xml("42"))
+            ).xpath("/a/text()").get(0),
+            Matchers.equalTo("42")
+        );
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidDocument() throws Exception {
+        DatumTest.datum().validated(
+            new XMLDocument(DatumTest.xml("not a number"))
+        );
+    }
+
+    /**
+     * Datum with one XSD in the mirror.
+     * @return Datum
+     * @throws Exception If fails
+     */
+    private static Datum datum() throws Exception {
+        final Path dir = Files.createTempDirectory("datum-xsd");
+        Files.createDirectories(dir.resolve("test/xsd"));
+        Files.write(
+            dir.resolve("test/xsd/a.xsd"),
+            DatumTest.XSD.getBytes(StandardCharsets.UTF_8)
+        );
+        return new Datum(dir);
+    }
+
+    /**
+     * Document, which refers to the XSD.
+     * @param text Text of the root element
+     * @return XML
+     */
+    private static String xml(final String text) {
+        return String.join(
+            "",
+            "<a xmlns:xsi='http://www.w3.org/2001/XMLSchema-instance' ",
+            "xsi:noNamespaceSchemaLocation=",
+            "'http://datum.zerocracy.com/test/xsd/a.xsd'>",
+            text, "</a>"
+        );
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy;
+
+import com.jcabi.aspects.Tv;
+import com.jcabi.matchers.XhtmlMatchers;
+import com.mongodb.MongoClient;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.zerocracy.entry.ExtMongo;
+import com.zerocracy.farm.props.PropsFarm;
+import java.util.concurrent.TimeUnit;
+import org.bson.Document;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.xembly.Directives;
+import org.xembly.Xembler;
+
+/**
+ * Test case for {@link Latencies}.
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+public final class LatenciesTest {
+
+    @Test
+    public void calculatesPercentiles() throws Exception {
+        final Latencies latencies = new Latencies();
+        for (int idx = 1; idx <= Tv.HUNDRED; ++idx) {
+            latencies.add(
+                "stk", "Hello", TimeUnit.MILLISECONDS.toNanos((long) idx),
+                false
+            );
+        }
+        MatcherAssert.assertThat(
+            XhtmlMatchers.xhtml(
+                new Xembler(
+                    new Directives().add("guts").append(latencies)
+                ).xml()
+            ),
+            XhtmlMatchers.hasXPaths(
+                "/guts/latencies/row[@stakeholder='stk' and count='100']",
+                "/guts/latencies/row[p50 >= 50 and p50 < 60]",
+                "/guts/latencies/row[p99 >= 99 and p99 <= 100]",
+                "/guts/latencies/row[max = 100]"
+            )
+        );
+    }
+
+    @Test
+    public void savesToMongo() throws Exception {
+        final Latencies latencies = new Latencies();
+        latencies.add("saved", "Ping", TimeUnit.SECONDS.toNanos(1L), true);
+        try (final MongoClient mongo =
+            new ExtMongo(new PropsFarm(new FkFarm()), "latencies").value()) {
+            final MongoCollection<Document> col = mongo
+                .getDatabase(Measured.COLLECTION)
+                .getCollection(Measured.TIME_TAKEN);
+            latencies.save(col);
+            latencies.save(col);
+            MatcherAssert.assertThat(
+                col.find(Filters.eq("stakeholder", "saved")),
+                Matchers.iterableWithSize(1)
+            );
+            MatcherAssert.assertThat(
+                col.find(Filters.eq("stakeholder", "saved")).first()
+                    .getLong("errors"),
+                Matchers.equalTo(1L)
+            );
+        }
+    }
+}
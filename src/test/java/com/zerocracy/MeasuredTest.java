@@ -16,11 +16,13 @@
  */
 package com.zerocracy;
 
-import com.mongodb.MongoClient;
-import com.zerocracy.entry.ExtMongo;
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import com.zerocracy.farm.MismatchException;
 import com.zerocracy.farm.fake.FkStakeholder;
 import com.zerocracy.pmo.Pmo;
 import java.io.IOException;
+import java.util.Collections;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.core.IsEqual;
 import org.junit.Test;
@@ -33,20 +35,75 @@ import org.junit.Test;
  */
 public final class MeasuredTest {
 
-    @Test(expected = IllegalStateException.class)
+    @Test
     public void collectTimeTakenToExceute() throws IOException {
         final Farm farm = FkFarm.props();
-        final MongoClient client = new ExtMongo(farm).value();
-        final long previous = client.getDatabase(
-            Measured.COLLECTION
-        ).getCollection(Measured.TIME_TAKEN).countDocuments();
-        new Measured(new FkStakeholder()).process(new Pmo(farm), null);
+        final Latencies latencies = new Latencies();
+        new Measured(farm, new FkStakeholder(), "fake", latencies)
+            .process(new Pmo(farm), MeasuredTest.claim());
+        final Latencies.Row row = latencies.rows("stakeholder").get(0);
         MatcherAssert.assertThat(
-            "time_taken metric not saved",
-            client.getDatabase(Measured.COLLECTION).getCollection(
-                Measured.TIME_TAKEN
-            ).countDocuments(),
-            new IsEqual<>(previous)
+            "time_taken metric not collected",
+            row.count(),
+            new IsEqual<>(1L)
         );
+        MatcherAssert.assertThat(row.errors(), new IsEqual<>(0L));
+    }
+
+    @Test
+    public void countsFailures() throws IOException {
+        final Farm farm = FkFarm.props();
+        final Latencies latencies = new Latencies();
+        try {
+            new Measured(
+                farm,
+                (pkt, xml) -> {
+                    throw new IllegalStateException("failed");
+                },
+                "broken", latencies
+            ).process(new Pmo(farm), MeasuredTest.claim());
+        } catch (final IllegalStateException ex) {
+            MatcherAssert.assertThat(ex.getMessage(), new IsEqual<>("failed"));
+        }
+        MatcherAssert.assertThat(
+            latencies.rows("errors").get(0).errors(),
+            new IsEqual<>(1L)
+        );
+    }
+
+    @Test
+    public void skipsMismatches() throws IOException {
+        final Farm farm = FkFarm.props();
+        final Latencies latencies = new Latencies();
+        try {
+            new Measured(
+                farm,
+                (pkt, xml) -> {
+                    throw new MismatchException("not mine");
+                },
+                "picky", latencies
+            ).process(new Pmo(farm), MeasuredTest.claim());
+        } catch (final MismatchException ex) {
+            MatcherAssert.assertThat(
+                ex.getMessage(), new IsEqual<>("not mine")
+            );
+        }
+        MatcherAssert.assertThat(
+            latencies.rows("errors"), new IsEqual<>(Collections.emptyList())
+        );
+    }
+
+    /**
+     * Make a claim.
+     * @return XML
+     */
+    private static XML claim() {
+        return new XMLDocument(
+            String.join(
+                "",
+                "<claim id='1'><created>2019-01-01T01:01:01Z</created>",
+                "<type>Measure me</type></claim>"
+            )
+        ).nodes("/claim").get(0);
     }
 }
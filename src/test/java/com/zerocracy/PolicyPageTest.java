@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link PolicyPage}.
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+public final class PolicyPageTest {
+
+    @Test
+    public void findsParagraphById() throws Exception {
+        final PolicyPage page = new PolicyPage(
+            PolicyPageTest.page().toUri().toString()
+        );
+        MatcherAssert.assertThat(
+            page.value("1.min-rep", Duration.ofMinutes(1L)),
+            Matchers.equalTo("-256")
+        );
+        MatcherAssert.assertThat(
+            page.value("2.rate", Duration.ofMinutes(1L)),
+            Matchers.equalTo("$50")
+        );
+        MatcherAssert.assertThat(
+            page.toString(), Matchers.startsWith("1 downloads")
+        );
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void failsOnAbsentParagraph() throws Exception {
+        new PolicyPage(
+            PolicyPageTest.page().toUri().toString()
+        ).value("9.unknown", Duration.ofMinutes(1L));
+    }
+
+    /**
+     * Policy page in a file.
+     * @return Path
+     * @throws Exception If fails
+     */
+    private static Path page() throws Exception {
+        final Path file = Files.createTempFile("policy", ".html");
+        Files.write(
+            file,
+            String.join(
+                "",
+                "<html><body><p>Min reputation is ",
+                "<span id='1.min-rep'>-256</span>.</p>",
+                "<p>Rate is <em id='2.rate'>$50</em></p></body></html>"
+            ).getBytes(StandardCharsets.UTF_8)
+        );
+        return file;
+    }
+}
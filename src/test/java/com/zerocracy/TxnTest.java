@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy;
+
+import com.jcabi.aspects.Tv;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.cactoos.Func;
+import org.cactoos.Proc;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link Txn}.
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+public final class TxnTest {
+
+    @Test
+    public void appliesChangesOnCommit() throws Exception {
+        final Project pkt = new FkProject();
+        new TextItem(pkt.acq("a.txt")).write("origin");
+        try (final Txn txn = new Txn(pkt)) {
+            new TextItem(txn.acq("a.txt")).write("first");
+            MatcherAssert.assertThat(
+                new TextItem(txn.acq("a.txt")).readAll(),
+                Matchers.equalTo("first")
+            );
+            MatcherAssert.assertThat(
+                new TextItem(pkt.acq("a.txt")).readAll(),
+                Matchers.equalTo("origin")
+            );
+            txn.commit();
+        }
+        MatcherAssert.assertThat(
+            new TextItem(pkt.acq("a.txt")).readAll(),
+            Matchers.equalTo("first")
+        );
+    }
+
+    @Test
+    public void discardsChangesWithoutCommit() throws Exception {
+        final Project pkt = new FkProject();
+        new TextItem(pkt.acq("b.txt")).write("before");
+        try (final Txn txn = new Txn(pkt)) {
+            new TextItem(txn.acq("b.txt")).write("after");
+        }
+        MatcherAssert.assertThat(
+            new TextItem(pkt.acq("b.txt")).readAll(),
+            Matchers.equalTo("before")
+        );
+    }
+
+    @Test
+    public void skipsCommitOfFailedTxn() throws Exception {
+        final Project pkt = new FkProject();
+        new TextItem(pkt.acq("f.txt")).write("kept");
+        try (final Txn txn = new Txn(pkt)) {
+            new TextItem(txn.acq("f.txt")).write("partial");
+            txn.fail();
+            txn.commit();
+        }
+        MatcherAssert.assertThat(
+            new TextItem(pkt.acq("f.txt")).readAll(),
+            Matchers.equalTo("kept")
+        );
+    }
+
+    @Test
+    public void updatesOriginItemOnce() throws Exception {
+        final Project pkt = new FkProject();
+        final AtomicInteger updates = new AtomicInteger();
+        final Project counted = new Project() {
+            @Override
+            public String pid() {
+                return "TXNTEST01";
+            }
+
+            @Override
+            public Item acq(final String file) throws IOException {
+                final Item item = pkt.acq(file);
+                return new Item() {
+                    @Override
+                    public <T> T read(final Func<Path, T> reader)
+                        throws IOException {
+                        return item.read(reader);
+                    }
+
+                    @Override
+                    public void update(final Proc<Path> writer)
+                        throws IOException {
+                        updates.incrementAndGet();
+                        item.update(writer);
+                    }
+                };
+            }
+        };
+        try (final Txn txn = new Txn(counted)) {
+            for (int idx = 0; idx < Tv.FIVE; ++idx) {
+                new TextItem(txn.acq("c.txt")).write(
+                    String.format("line %d", idx)
+                );
+            }
+            txn.commit();
+        }
+        MatcherAssert.assertThat(updates.get(), Matchers.equalTo(1));
+        MatcherAssert.assertThat(
+            new TextItem(pkt.acq("c.txt")).readAll(),
+            Matchers.equalTo("line 4")
+        );
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy;
+
+import com.jcabi.aspects.Tv;
+import com.jcabi.xml.XMLDocument;
+import java.io.FileNotFoundException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link XmlCache}.
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+public final class XmlCacheTest {
+
+    @Test
+    public void parsesFileOnlyOnce() throws Exception {
+        final Path file = Files.createTempFile("cache", ".xml");
+        Files.write(file, "<a><b>1</b></a>".getBytes(StandardCharsets.UTF_8));
+        final AtomicInteger parsed = new AtomicInteger();
+        final XmlCache cache = new XmlCache(
+            Tv.TEN,
+            path -> {
+                parsed.incrementAndGet();
+                return new XMLDocument(path.toFile());
+            }
+        );
+        for (int idx = 0; idx < Tv.FIVE; ++idx) {
+            MatcherAssert.assertThat(
+                cache.query(file, xml -> xml.xpath("/a/b/text()").get(0)),
+                Matchers.equalTo("1")
+            );
+        }
+        MatcherAssert.assertThat(parsed.get(), Matchers.equalTo(1));
+    }
+
+    @Test
+    public void parsesFileAgainWhenChanged() throws Exception {
+        final Path file = Files.createTempFile("cache", "changed.xml");
+        Files.write(file, "<a><b>1</b></a>".getBytes(StandardCharsets.UTF_8));
+        final XmlCache cache = new XmlCache(
+            Tv.TEN, path -> new XMLDocument(path.toFile())
+        );
+        cache.query(file, xml -> xml.xpath("/a/b/text()"));
+        Files.write(
+            file, "<a><b>22</b></a>".getBytes(StandardCharsets.UTF_8)
+        );
+        MatcherAssert.assertThat(
+            cache.query(file, xml -> xml.xpath("/a/b/text()").get(0)),
+            Matchers.equalTo("22")
+        );
+    }
+
+    @Test
+    public void parsesFileAgainAfterSameSizeRewrite() throws Exception {
+        final Path file = Files.createTempFile("cache", "same.xml");
+        Files.write(file, "<a><b>1</b></a>".getBytes(StandardCharsets.UTF_8));
+        final FileTime time = Files.getLastModifiedTime(file);
+        final XmlCache cache = new XmlCache(
+            Tv.TEN, path -> new XMLDocument(path.toFile())
+        );
+        cache.query(file, xml -> xml.xpath("/a/b/text()"));
+        Files.write(file, "<a><b>2</b></a>".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(file, time);
+        MatcherAssert.assertThat(
+            cache.query(file, xml -> xml.xpath("/a/b/text()").get(0)),
+            Matchers.equalTo("2")
+        );
+    }
+
+    @Test
+    public void sharesDocumentOfSameContent() throws Exception {
+        final AtomicInteger parsed = new AtomicInteger();
+        final XmlCache cache = new XmlCache(
+            Tv.TEN,
+            path -> {
+                parsed.incrementAndGet();
+                return new XMLDocument(path.toFile());
+            }
+        );
+        for (int idx = 0; idx < Tv.THREE; ++idx) {
+            final Path file = Files.createTempFile("cache", "copy.xml");
+            Files.write(file, "<c/>".getBytes(StandardCharsets.UTF_8));
+            cache.query(file, xml -> xml.xpath("/c"));
+        }
+        MatcherAssert.assertThat(parsed.get(), Matchers.equalTo(1));
+    }
+
+    @Test
+    public void remembersBootstrappedVersion() throws Exception {
+        final Path file = Files.createTempFile("cache", "boot.xml");
+        Files.write(file, "<x/>".getBytes(StandardCharsets.UTF_8));
+        final XmlCache cache = new XmlCache(
+            Tv.TEN, path -> new XMLDocument(path.toFile())
+        );
+        cache.boot(file, "pm/x");
+        MatcherAssert.assertThat(
+            cache.booted(file, "pm/x"),
+            Matchers.is(true)
+        );
+        Files.write(file, "<x>y</x>".getBytes(StandardCharsets.UTF_8));
+        MatcherAssert.assertThat(
+            cache.booted(file, "pm/x"),
+            Matchers.is(false)
+        );
+    }
+
+    @Test
+    public void evictsOldEntries() throws Exception {
+        final AtomicInteger parsed = new AtomicInteger();
+        final XmlCache cache = new XmlCache(
+            1,
+            path -> {
+                parsed.incrementAndGet();
+                return new XMLDocument(path.toFile());
+            }
+        );
+        final Path first = Files.createTempFile("cache", "first.xml");
+        Files.write(first, "<f/>".getBytes(StandardCharsets.UTF_8));
+        final Path second = Files.createTempFile("cache", "second.xml");
+        Files.write(second, "<s/>".getBytes(StandardCharsets.UTF_8));
+        cache.query(first, xml -> xml.xpath("/f"));
+        cache.query(second, xml -> xml.xpath("/s"));
+        cache.query(first, xml -> xml.xpath("/f"));
+        MatcherAssert.assertThat(parsed.get(), Matchers.equalTo(Tv.THREE));
+    }
+
+    @Test(expected = FileNotFoundException.class)
+    public void failsOnAbsentFile() throws Exception {
+        new XmlCache(
+            Tv.TEN, path -> new XMLDocument(path.toFile())
+        ).query(
+            Files.createTempDirectory("cache").resolve("absent.xml"),
+            xml -> xml.xpath("/a")
+        );
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.claims;
+
+import com.jcabi.aspects.Tv;
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import com.mongodb.MongoClient;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.zerocracy.Farm;
+import com.zerocracy.FkFarm;
+import com.zerocracy.entry.ExtMongo;
+import com.zerocracy.farm.props.PropsFarm;
+import java.io.IOException;
+import org.bson.Document;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link AsyncFootprint}.
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+public final class AsyncFootprintTest {
+
+    @Test
+    public void writesUpdatesInOrder() throws Exception {
+        final Farm farm = new PropsFarm(new FkFarm());
+        try (final MongoClient mongo = new ExtMongo(farm, "async").value()) {
+            final MongoCollection<Document> col = mongo
+                .getDatabase("footprint").getCollection("claims");
+            final String pid = "ASYNC0001";
+            try (
+                final AsyncFootprint footprint = new AsyncFootprint(
+                    () -> col, Tv.HUNDRED, Tv.TEN, (long) Tv.HUNDRED
+                )
+            ) {
+                for (int idx = 0; idx < Tv.FIFTY; ++idx) {
+                    final XML xml = AsyncFootprintTest.claim(idx);
+                    footprint.open(pid, xml, "sig", "1.0");
+                    footprint.close(pid, xml);
+                }
+                MatcherAssert.assertThat(
+                    footprint.flush((long) Tv.THOUSAND * Tv.TEN),
+                    Matchers.is(true)
+                );
+            }
+            MatcherAssert.assertThat(
+                col.find(
+                    Filters.and(
+                        Filters.eq("project", pid),
+                        Filters.exists("closed")
+                    )
+                ),
+                Matchers.iterableWithSize(Tv.FIFTY)
+            );
+        }
+    }
+
+    @Test
+    public void writesPingDuplicatesOnlyOnce() throws Exception {
+        final Farm farm = new PropsFarm(new FkFarm());
+        try (final MongoClient mongo = new ExtMongo(farm, "dups").value()) {
+            final MongoCollection<Document> col = mongo
+                .getDatabase("footprint").getCollection("claims");
+            final String pid = "ASYNC0002";
+            final XML xml = AsyncFootprintTest.claim(1, "Ping");
+            try (
+                final AsyncFootprint footprint = new AsyncFootprint(
+                    () -> col, Tv.TEN, Tv.FIVE, (long) Tv.TEN
+                )
+            ) {
+                for (int idx = 0; idx < Tv.THREE; ++idx) {
+                    footprint.open(pid, xml, "again", "1.0");
+                }
+                footprint.close(pid, xml);
+                footprint.flush((long) Tv.THOUSAND * Tv.TEN);
+            }
+            MatcherAssert.assertThat(
+                col.find(Filters.eq("project", pid)),
+                Matchers.iterableWithSize(1)
+            );
+        }
+    }
+
+    @Test
+    public void rejectsDuplicateClaims() throws Exception {
+        final Farm farm = new PropsFarm(new FkFarm());
+        try (final MongoClient mongo = new ExtMongo(farm, "twice").value()) {
+            final MongoCollection<Document> col = mongo
+                .getDatabase("footprint").getCollection("claims");
+            final String pid = "ASYNC0004";
+            final XML xml = AsyncFootprintTest.claim(2);
+            try (
+                final AsyncFootprint footprint = new AsyncFootprint(
+                    () -> col, Tv.TEN, Tv.FIVE, (long) Tv.TEN
+                )
+            ) {
+                footprint.open(pid, xml, "first", "1.0");
+                MatcherAssert.assertThat(
+                    AsyncFootprintTest.rejected(footprint, pid, xml),
+                    Matchers.is(true)
+                );
+                footprint.flush((long) Tv.THOUSAND * Tv.TEN);
+            }
+            try (
+                final AsyncFootprint footprint = new AsyncFootprint(
+                    () -> col, Tv.TEN, Tv.FIVE, (long) Tv.TEN
+                )
+            ) {
+                footprint.open(pid, xml, "later", "1.0");
+                footprint.flush((long) Tv.THOUSAND * Tv.TEN);
+                MatcherAssert.assertThat(
+                    footprint.toString(),
+                    Matchers.containsString(" 1 duplicates")
+                );
+            }
+            MatcherAssert.assertThat(
+                col.find(Filters.eq("project", pid)),
+                Matchers.iterableWithSize(1)
+            );
+        }
+    }
+
+    @Test
+    public void dropsUpdatesWhenFull() throws Exception {
+        final AsyncFootprint footprint = new AsyncFootprint(
+            () -> {
+                throw new IOException("Mongo is down");
+            },
+            1, 1, (long) Tv.THOUSAND
+        );
+        for (int idx = 0; idx < Tv.TEN; ++idx) {
+            footprint.open(
+                "ASYNC0003", AsyncFootprintTest.claim(idx, "Ping"), "", ""
+            );
+        }
+        MatcherAssert.assertThat(
+            footprint.toString(),
+            Matchers.not(Matchers.containsString(" 0 dropped"))
+        );
+    }
+
+    /**
+     * Was the claim rejected as a duplicate.
+     * @param footprint Footprint
+     * @param pid Project ID
+     * @param xml The claim
+     * @return TRUE if rejected
+     * @throws IOException If fails
+     */
+    private static boolean rejected(final AsyncFootprint footprint,
+        final String pid, final XML xml) throws IOException {
+        boolean rejected = false;
+        try {
+            footprint.open(pid, xml, "again", "1.0");
+        } catch (final IllegalArgumentException ex) {
+            rejected = true;
+        }
+        return rejected;
+    }
+
+    /**
+     * Make a claim.
+     * @param cid Claim ID
+     * @return XML
+     */
+    private static XML claim(final int cid) {
+        return AsyncFootprintTest.claim(cid, "Async");
+    }
+
+    /**
+     * Make a claim of the type.
+     * @param cid Claim ID
+     * @param type Claim type
+     * @return XML
+     */
+    private static XML claim(final int cid, final String type) {
+        return new XMLDocument(
+            String.join(
+                "",
+                String.format("<claim id='%d'>", cid),
+                "<created>2019-01-01T01:01:01Z</created>",
+                String.format("<type>%s</type></claim>", type)
+            )
+        ).nodes("/claim").get(0);
+    }
+}
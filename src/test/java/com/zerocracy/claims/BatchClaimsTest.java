@@ -16,18 +16,26 @@
  */
 package com.zerocracy.claims;
 
+import com.amazonaws.services.sqs.AbstractAmazonSQS;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequest;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.SendMessageBatchResult;
+import com.amazonaws.services.sqs.model.SendMessageBatchResultEntry;
+import com.amazonaws.services.sqs.model.SendMessageRequest;
+import com.amazonaws.services.sqs.model.SendMessageResult;
 import com.jcabi.aspects.Tv;
-import com.jcabi.xml.XML;
-import com.jcabi.xml.XMLDocument;
-import java.io.Closeable;
+import com.zerocracy.FkFarm;
+import com.zerocracy.FkProject;
 import java.io.IOException;
-import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import org.apache.commons.lang3.StringUtils;
 import org.hamcrest.MatcherAssert;
-import org.hamcrest.core.IsEqual;
+import org.hamcrest.Matchers;
 import org.junit.Test;
-import org.xembly.Xembler;
 
 /**
  * Tests for {@link BatchClaims}.
@@ -38,80 +46,271 @@ import org.xembly.Xembler;
 @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
 public final class BatchClaimsTest {
 
-    @Test(expected = UnsupportedOperationException.class)
+    @Test
+    public void sendsClaimsInBatchesOfTen() throws IOException {
+        final FkSqs sqs = new FkSqs();
+        try (final BatchClaims batch = new BatchClaims(
+            BatchClaimsTest.sqs(sqs)
+        )) {
+            for (int idx = 0; idx < Tv.TWENTY + Tv.FIVE; ++idx) {
+                new ClaimOut().type("Hello").postTo(batch);
+            }
+            MatcherAssert.assertThat(
+                sqs.batches(),
+                Matchers.contains(Tv.TEN, Tv.TEN)
+            );
+        }
+        MatcherAssert.assertThat(
+            sqs.batches(),
+            Matchers.contains(Tv.TEN, Tv.TEN, Tv.FIVE)
+        );
+    }
+
+    @Test
     public void obeyClaimBatchMaxSize() throws IOException {
-        final List<ClaimOut> claims = new LinkedList<>();
-        final int count = Tv.FIVE;
-        final ClaimOut claim = new ClaimOut();
-        final int size = new XMLDocument(
-            new Xembler(
-                claim
-            ).xmlQuietly()
-        ).toString().length();
-        for (int idx = 0; idx < count; ++idx) {
-            claims.add(new ClaimOut());
+        final FkSqs sqs = new FkSqs();
+        try (final BatchClaims batch = new BatchClaims(
+            BatchClaimsTest.sqs(sqs), 1
+        )) {
+            for (int idx = 0; idx < Tv.FIVE; ++idx) {
+                new ClaimOut()
+                    .type("Big")
+                    .param("text", StringUtils.repeat('x', Tv.THOUSAND / 2))
+                    .postTo(batch);
+            }
+        }
+        MatcherAssert.assertThat(
+            sqs.batches(),
+            Matchers.contains(1, 1, 1, 1, 1)
+        );
+    }
+
+    @Test
+    public void keepsGroupAndDeduplicationIds() throws IOException {
+        final FkSqs sqs = new FkSqs();
+        try (final BatchClaims batch = new BatchClaims(
+            BatchClaimsTest.sqs(sqs)
+        )) {
+            new ClaimOut().type("Ping").cid("1").postTo(batch);
+            new ClaimOut().type("Hey").cid("2").postTo(batch);
+        }
+        MatcherAssert.assertThat(
+            sqs.entries(),
+            Matchers.contains(
+                Matchers.allOf(
+                    Matchers.hasProperty(
+                        "messageGroupId", Matchers.equalTo("pings:FAKEPRJCT")
+                    ),
+                    Matchers.hasProperty(
+                        "messageDeduplicationId",
+                        Matchers.startsWith("FAKEPRJCT:")
+                    )
+                ),
+                Matchers.hasProperty(
+                    "messageGroupId", Matchers.equalTo("claim:2")
+                )
+            )
+        );
+    }
+
+    @Test
+    public void batchesClaimsOnlyWhenStarted() throws IOException {
+        final FkSqs sqs = new FkSqs();
+        final ClaimsSqs claims = BatchClaimsTest.sqs(sqs);
+        new ClaimOut().type("Single").postTo(claims);
+        MatcherAssert.assertThat(BatchClaims.start(), Matchers.is(true));
+        try {
+            MatcherAssert.assertThat(BatchClaims.start(), Matchers.is(false));
+            new ClaimOut().type("First").postTo(claims);
+            new ClaimOut().type("Second").postTo(claims);
+        } finally {
+            BatchClaims.finish();
+        }
+        MatcherAssert.assertThat(sqs.singles(), Matchers.equalTo(1));
+        MatcherAssert.assertThat(sqs.batches(), Matchers.contains(2));
+    }
+
+    @Test
+    public void sendsThreadBatchesOnlyOnFinish() throws IOException {
+        final FkSqs sqs = new FkSqs();
+        final ClaimsSqs claims = BatchClaimsTest.sqs(sqs);
+        BatchClaims.start();
+        try {
+            for (int idx = 0; idx < Tv.TWENTY + Tv.FIVE; ++idx) {
+                new ClaimOut().type("Later").postTo(claims);
+            }
+            MatcherAssert.assertThat(sqs.batches(), Matchers.empty());
+        } finally {
+            BatchClaims.finish();
+        }
+        MatcherAssert.assertThat(
+            sqs.batches(),
+            Matchers.contains(Tv.TEN, Tv.TEN, Tv.FIVE)
+        );
+    }
+
+    @Test
+    public void dropsThreadBatchesOnCancel() throws IOException {
+        final FkSqs sqs = new FkSqs();
+        final ClaimsSqs claims = BatchClaimsTest.sqs(sqs);
+        BatchClaims.start();
+        for (int idx = 0; idx < Tv.FIFTEEN; ++idx) {
+            new ClaimOut().type("Dropped").postTo(claims);
         }
-        final FkBatchClaims batch = new FkBatchClaims(new BatchClaims());
-        final int perbatch = (int) Math.ceil((double) size / batch.maximum());
-        for (final ClaimOut item : claims) {
-            item.postTo(batch);
+        BatchClaims.cancel();
+        BatchClaims.finish();
+        MatcherAssert.assertThat(sqs.batches(), Matchers.empty());
+    }
+
+    @Test
+    public void resendsOnlyFailedEntries() throws IOException {
+        final FkSqs sqs = new FkSqs();
+        sqs.fail(1);
+        try (final BatchClaims batch = new BatchClaims(
+            BatchClaimsTest.sqs(sqs)
+        )) {
+            for (int idx = 0; idx < Tv.THREE; ++idx) {
+                new ClaimOut().type("Flaky").postTo(batch);
+            }
         }
         MatcherAssert.assertThat(
-            "Called close() wrong number of times",
-            batch.closes(),
-            new IsEqual<>((int) Math.ceil((double) count / perbatch))
+            sqs.batches(),
+            Matchers.contains(Tv.THREE, 1)
+        );
+    }
+
+    @Test
+    public void sendsAllBatchesWhenOneFails() throws IOException {
+        final FkSqs sqs = new FkSqs();
+        BatchClaims.start();
+        new ClaimOut().type("Lost").postTo(
+            new ClaimsSqs(FkFarm.props(), sqs, "broken", new FkProject())
         );
+        new ClaimOut().type("Sent").postTo(BatchClaimsTest.sqs(sqs));
+        final List<Throwable> failures = new LinkedList<>();
+        try {
+            BatchClaims.finish();
+        } catch (final IOException ex) {
+            failures.addAll(Arrays.asList(ex.getSuppressed()));
+        }
+        MatcherAssert.assertThat(failures, Matchers.hasSize(1));
+        MatcherAssert.assertThat(
+            sqs.batches(),
+            Matchers.containsInAnyOrder(1, 1)
+        );
+    }
+
+    /**
+     * Claims on fake SQS.
+     * @param sqs Fake SQS
+     * @return Claims
+     * @throws IOException If fails
+     */
+    private static ClaimsSqs sqs(final FkSqs sqs) throws IOException {
+        return new ClaimsSqs(FkFarm.props(), sqs, "queue", new FkProject());
     }
 
     /**
-     * Decorator for {@link BatchClaims} testing.
+     * Fake SQS, which remembers messages sent.
      */
-    private final class FkBatchClaims implements Claims, Closeable {
+    private static final class FkSqs extends AbstractAmazonSQS {
 
         /**
-         * Origin.
+         * Entries sent in batches.
          */
-        private final BatchClaims origin;
+        private final List<List<SendMessageBatchRequestEntry>> sent =
+            new LinkedList<>();
 
         /**
-         * Count of {@link BatchClaims#close()} invocations.
+         * Messages sent one by one.
          */
-        private int count;
+        private int single;
 
         /**
-         * Constructor.
-         * @param origin The {@link BatchClaims} to be tested.
+         * Entries to fail by server fault.
          */
-        FkBatchClaims(final BatchClaims origin) {
-            this.origin = origin;
-        }
+        private int failing;
 
         @Override
-        public void submit(final XML claim, final Instant expires)
-            throws IOException {
-            this.origin.submit(claim, expires);
+        public SendMessageResult sendMessage(final SendMessageRequest req) {
+            this.single += 1;
+            return new SendMessageResult().withMessageId("single");
         }
 
         @Override
-        public void close() throws IOException {
-            this.count = this.count + 1;
-            this.origin.close();
+        public SendMessageBatchResult sendMessageBatch(
+            final SendMessageBatchRequest req) {
+            this.sent.add(req.getEntries());
+            final List<SendMessageBatchResultEntry> done =
+                new ArrayList<>(req.getEntries().size());
+            final List<BatchResultErrorEntry> failed = new LinkedList<>();
+            for (final SendMessageBatchRequestEntry entry : req.getEntries()) {
+                if ("broken".equals(req.getQueueUrl())) {
+                    failed.add(
+                        new BatchResultErrorEntry()
+                            .withId(entry.getId())
+                            .withCode("InvalidMessageContents")
+                            .withSenderFault(true)
+                    );
+                } else if (this.failing > 0) {
+                    this.failing -= 1;
+                    failed.add(
+                        new BatchResultErrorEntry()
+                            .withId(entry.getId())
+                            .withCode("InternalError")
+                            .withSenderFault(false)
+                    );
+                } else {
+                    done.add(
+                        new SendMessageBatchResultEntry()
+                            .withId(entry.getId())
+                            .withMessageId(entry.getId())
+                    );
+                }
+            }
+            return new SendMessageBatchResult()
+                .withSuccessful(done)
+                .withFailed(failed);
+        }
+
+        /**
+         * Fail next entries by server fault.
+         * @param count How many entries to fail
+         */
+        public void fail(final int count) {
+            this.failing = count;
+        }
+
+        /**
+         * Sizes of batches sent.
+         * @return Sizes
+         */
+        public List<Integer> batches() {
+            final List<Integer> sizes = new ArrayList<>(this.sent.size());
+            for (final List<SendMessageBatchRequestEntry> batch : this.sent) {
+                sizes.add(batch.size());
+            }
+            return sizes;
         }
 
         /**
-         * Return the maximum batch size (in KB) allowed.
-         * @return Maximum batch size (in KB)
+         * All entries sent in batches.
+         * @return Entries
          */
-        public int maximum() {
-            return this.origin.maximum();
+        public List<SendMessageBatchRequestEntry> entries() {
+            final List<SendMessageBatchRequestEntry> all = new LinkedList<>();
+            for (final List<SendMessageBatchRequestEntry> batch : this.sent) {
+                all.addAll(batch);
+            }
+            return all;
         }
 
         /**
-         * Returns the times that the count method was invoked.
-         * @return The times that the count method was invoked
+         * Amount of messages sent one by one.
+         * @return Amount
          */
-        public int closes() {
-            return this.count;
+        public int singles() {
+            return this.single;
         }
     }
 }
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.claims;
+
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.MessageSystemAttributeName;
+import com.jcabi.aspects.Tv;
+import com.jcabi.matchers.XhtmlMatchers;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.cactoos.list.ListOf;
+import org.hamcrest.MatcherAssert;
+import org.junit.Test;
+import org.xembly.Directives;
+import org.xembly.Xembler;
+
+/**
+ * Test case for {@link ClaimsIntake}.
+ *
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+public final class ClaimsIntakeTest {
+
+    @Test
+    public void countsReceivedMessages() throws Exception {
+        final ClaimsIntake intake = new ClaimsIntake();
+        intake.started(Tv.THREE);
+        intake.polled(
+            new ListOf<>(ClaimsIntakeTest.message(0L), new Message()), 1
+        );
+        intake.polled(Collections.emptyList(), 0);
+        intake.deleted(1);
+        MatcherAssert.assertThat(
+            new Xembler(new Directives().add("guts").append(intake)).xml(),
+            XhtmlMatchers.hasXPaths(
+                "/guts/intake[pollers=3 and polls=2 and empty=1]",
+                "/guts/intake[received=2 and enqueued=1 and deleted=1]"
+            )
+        );
+    }
+
+    @Test
+    public void measuresLag() throws Exception {
+        final ClaimsIntake intake = new ClaimsIntake();
+        intake.polled(
+            new ListOf<>(
+                ClaimsIntakeTest.message(TimeUnit.MINUTES.toMillis(1L)),
+                ClaimsIntakeTest.message(TimeUnit.MINUTES.toMillis(2L))
+            ),
+            2
+        );
+        MatcherAssert.assertThat(
+            new Xembler(new Directives().add("guts").append(intake)).xml(),
+            XhtmlMatchers.hasXPath("/guts/intake[lag >= 120000]")
+        );
+    }
+
+    /**
+     * Message sent some time ago.
+     * @param age How long ago it was sent, msec
+     * @return Message
+     */
+    private static Message message(final long age) {
+        return new Message().addAttributesEntry(
+            MessageSystemAttributeName.SentTimestamp.toString(),
+            Long.toString(System.currentTimeMillis() - age)
+        );
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.claims;
+
+import com.jcabi.aspects.Tv;
+import com.jcabi.xml.XMLDocument;
+import com.mongodb.MongoClient;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.zerocracy.FkFarm;
+import com.zerocracy.FkProject;
+import com.zerocracy.entry.ExtMongo;
+import com.zerocracy.farm.props.PropsFarm;
+import com.zerocracy.tk.project.reports.OrderChampions;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import org.bson.Document;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link FootprintRollup}.
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+public final class FootprintRollupTest {
+
+    @Test
+    public void countsClaimsByDay() throws Exception {
+        try (final MongoClient mongo =
+            new ExtMongo(new PropsFarm(new FkFarm()), "rollup").value()) {
+            final MongoDatabase dbs = mongo.getDatabase("footprint");
+            final String pid = "ROLLUP001";
+            try (final Footprint footprint =
+                new Footprint(mongo, pid, FkFarm.props())) {
+                for (int idx = 0; idx < Tv.THREE; ++idx) {
+                    footprint.open(
+                        new XMLDocument(
+                            String.join(
+                                "",
+                                String.format("<claim id='%d'>", idx),
+                                "<created>2019-01-01T01:01:01Z</created>",
+                                "<type>Order was given</type><params>",
+                                "<param name='login'>yegor256</param>",
+                                "</params></claim>"
+                            )
+                        ).nodes("/claim").get(0),
+                        "rollup"
+                    );
+                }
+            }
+            final FootprintRollup rollup = new FootprintRollup(() -> dbs);
+            rollup.refresh(Duration.ZERO);
+            rollup.refresh(Duration.ZERO);
+            MatcherAssert.assertThat(
+                rollup.collection().find(Filters.eq("project", pid)),
+                Matchers.iterableWithSize(1)
+            );
+            final Document row = rollup.collection().aggregate(
+                new OrderChampions().bson(
+                    new FkProject(pid),
+                    Instant.parse("2019-01-01T00:00:00Z"),
+                    Instant.now().plus(1L, ChronoUnit.DAYS)
+                )
+            ).first();
+            MatcherAssert.assertThat(
+                row.get("orders"),
+                Matchers.equalTo(Tv.THREE)
+            );
+        }
+    }
+}
@@ -0,0 +1,478 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.claims;
+
+import com.jcabi.aspects.Tv;
+import com.jcabi.log.Logger;
+import com.jcabi.xml.XML;
+import com.jcabi.xml.XMLDocument;
+import com.zerocracy.Farm;
+import com.zerocracy.FkFarm;
+import com.zerocracy.FkProject;
+import com.zerocracy.Latencies;
+import com.zerocracy.Project;
+import com.zerocracy.entry.ClaimsOf;
+import com.zerocracy.entry.ExtSqs;
+import com.zerocracy.farm.SmartFarm;
+import com.zerocracy.farm.fake.FkSqs;
+import com.zerocracy.farm.props.PropsFarm;
+import com.zerocracy.farm.sync.Locks;
+import com.zerocracy.farm.sync.TestLocks;
+import com.zerocracy.pmo.Catalog;
+import com.zerocracy.shutdown.ShutdownHook;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.stream.Collectors;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.cactoos.Func;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.xembly.Directives;
+import org.xembly.Xembler;
+
+/**
+ * Throughput of claims processing under load.
+ *
+ * <p>Claims of bundles from {@code src/test/resources/com/zerocracy/bundles}
+ * are replayed with fresh ids in many synthetic projects at once,
+ * interleaved, through the same chain production uses:
+ * {@link ClaimsRoutine}, {@link MessageSink} and all stakeholders.
+ * SQS is replaced by in-memory {@link FkSqs}, projects are stored
+ * in {@code target/load-testing}. Groovy scripts and PMO items of
+ * bundles are not used, some claims may fail because of that, which
+ * doesn't matter for load.</p>
+ *
+ * <p>The test is skipped by default, run it like this:</p>
+ *
+ * <pre> mvn verify -Dit.test=ThroughputITCase -DloadTest
+ *   -Dload.copies=20 -Dload.bundles=up1RLQ_add_milestone</pre>
+ *
+ * <p>It logs claims per second, latency percentiles of claims from
+ * sending till deleting from the queue, and waiting times for locks.</p>
+ *
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ * @checkstyle ClassFanOutComplexityCheck (500 lines)
+ * @checkstyle ExecutableStatementCountCheck (500 lines)
+ */
+@SuppressWarnings
+    (
+        {
+            "PMD.ExcessiveImports",
+            "PMD.AvoidInstantiatingObjectsInLoops"
+        }
+    )
+public final class ThroughputITCase {
+
+    /**
+     * Bundles directory.
+     */
+    private static final Path BUNDLES =
+        Paths.get("src/test/resources/com/zerocracy/bundles");
+
+    @BeforeClass
+    public static void checkShouldRun() {
+        Assume.assumeThat(
+            "Parameter loadTest not found, skipping...",
+            System.getProperty("loadTest"),
+            Matchers.notNullValue()
+        );
+    }
+
+    @Test
+    public void processesClaimsUnderLoad() throws Exception {
+        final int copies = Integer.getInteger("load.copies", Tv.TEN);
+        final long timeout = TimeUnit.MINUTES.toMillis(
+            Long.getLong("load.timeout", (long) Tv.TEN)
+        );
+        final Path home = Paths.get("target/load-testing").toAbsolutePath();
+        ThroughputITCase.clean(home);
+        final Path props = Files.createTempFile("load", ".xml");
+        final ThroughputITCase.TimedLocks locks =
+            new ThroughputITCase.TimedLocks(new TestLocks());
+        final ShutdownHook shutdown = new ShutdownHook();
+        try (
+            final MessageSink farm = new MessageSink(
+                new PropsFarm(
+                    new SmartFarm(
+                        new FkFarm(
+                            (Func<String, Project>) pid -> new FkProject(
+                                home.resolve(pid), pid
+                            ),
+                            home.toString()
+                        ),
+                        locks
+                    ),
+                    new Directives().xpath("/props")
+                        .add("sqs").add("fake").set("yes"),
+                    () -> props
+                ),
+                shutdown
+            );
+            final ClaimsRoutine routine = new ClaimsRoutine(farm)
+        ) {
+            final FkSqs sqs = (FkSqs) new ExtSqs(farm).value();
+            final Catalog catalog = new Catalog(farm).bootstrap();
+            catalog.add("PMO", "PMO/");
+            final List<String> bundles = ThroughputITCase.bundles();
+            final List<List<ThroughputITCase.Replay>> lines =
+                new LinkedList<>();
+            for (int idx = 0; idx < bundles.size(); ++idx) {
+                final Path dir = ThroughputITCase.BUNDLES
+                    .resolve(bundles.get(idx));
+                for (int copy = 0; copy < copies; ++copy) {
+                    final String pid = String.format("L%03d%05d", idx, copy);
+                    catalog.add(pid, String.format("2018/01/%s/", pid));
+                    ThroughputITCase.items(dir, home.resolve(pid));
+                    final Project project = farm.find(
+                        String.format("@id='%s'", pid)
+                    ).iterator().next();
+                    final List<ThroughputITCase.Replay> line =
+                        new LinkedList<>();
+                    for (final XML claim : new XMLDocument(
+                        dir.resolve("claims.xml").toFile()
+                    ).nodes("/claims/claim")) {
+                        line.add(
+                            new ThroughputITCase.Replay(farm, project, claim)
+                        );
+                    }
+                    lines.add(line);
+                }
+            }
+            sqs.latencies();
+            locks.waits();
+            final long start = System.currentTimeMillis();
+            farm.start(routine.messages());
+            routine.start(shutdown);
+            int sent = 0;
+            int failed = 0;
+            while (!lines.isEmpty()) {
+                for (final List<ThroughputITCase.Replay> line
+                    : new LinkedList<>(lines)) {
+                    if (line.isEmpty()) {
+                        lines.remove(line);
+                    } else if (line.remove(0).post()) {
+                        ++sent;
+                    } else {
+                        ++failed;
+                    }
+                }
+            }
+            while (sqs.size() > 0
+                && System.currentTimeMillis() - start < timeout) {
+                TimeUnit.SECONDS.sleep(1L);
+            }
+            final double secs = (double) Math.max(
+                System.currentTimeMillis() - start, 1L
+            ) / (double) Tv.THOUSAND;
+            final Histogram latency = sqs.latencies();
+            final Histogram waits = locks.waits();
+            Logger.info(
+                this,
+                // @checkstyle LineLengthCheck (4 lines)
+                "%d bundles x %d copies: %d claims sent, %d rejected, %d processed in %.1fs, %.1f claims/sec, %d left in queue",
+                bundles.size(), copies, sent, failed, sqs.deleted(), secs,
+                (double) sqs.deleted() / secs, sqs.size()
+            );
+            Logger.info(
+                this,
+                "Latency, msec: p50=%d p95=%d p99=%d max=%d",
+                latency.getValueAtPercentile(50.0),
+                latency.getValueAtPercentile(95.0),
+                latency.getValueAtPercentile(99.0),
+                latency.getMaxValue()
+            );
+            Logger.info(
+                this,
+                "Lock waits, msec: count=%d p50=%d p95=%d p99=%d max=%d",
+                waits.getTotalCount(),
+                waits.getValueAtPercentile(50.0),
+                waits.getValueAtPercentile(95.0),
+                waits.getValueAtPercentile(99.0),
+                waits.getMaxValue()
+            );
+            Logger.info(
+                this, "Latencies of stakeholders:\n%s",
+                new Xembler(
+                    new Directives().add("guts").append(Latencies.INSTANCE)
+                ).xmlQuietly()
+            );
+            MatcherAssert.assertThat(sqs.deleted(), Matchers.greaterThan(0L));
+        }
+    }
+
+    /**
+     * Names of bundles to replay.
+     * @return Names
+     * @throws IOException If fails
+     */
+    private static List<String> bundles() throws IOException {
+        final String names = System.getProperty("load.bundles", "");
+        final List<String> list;
+        if (names.isEmpty()) {
+            list = Files.list(ThroughputITCase.BUNDLES)
+                .filter(dir -> Files.exists(dir.resolve("claims.xml")))
+                .filter(dir -> !Files.exists(dir.resolve("_setup.xml")))
+                .map(dir -> dir.getFileName().toString())
+                .sorted()
+                .collect(Collectors.toList());
+        } else {
+            list = new LinkedList<>();
+            for (final String name : names.split(",")) {
+                list.add(name.trim());
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Copy project items of the bundle.
+     * @param bundle Bundle directory
+     * @param dir Project directory
+     * @throws IOException If fails
+     */
+    private static void items(final Path bundle, final Path dir)
+        throws IOException {
+        Files.createDirectories(dir);
+        for (final Path file : Files.list(bundle)
+            .collect(Collectors.toList())) {
+            final String name = file.getFileName().toString();
+            if (name.endsWith(".xml") && !name.startsWith("pmo_")
+                && !"claims.xml".equals(name)) {
+                Files.copy(file, dir.resolve(name));
+            }
+        }
+    }
+
+    /**
+     * Remove directory with all its content.
+     * @param dir Directory
+     * @throws IOException If fails
+     */
+    private static void clean(final Path dir) throws IOException {
+        if (dir.toFile().exists()) {
+            Files.walk(dir)
+                .sorted(Comparator.reverseOrder())
+                .map(Path::toFile)
+                .forEach(File::delete);
+        }
+    }
+
+    /**
+     * Claim of a bundle to replay in a project.
+     */
+    private static final class Replay {
+
+        /**
+         * Farm.
+         */
+        private final Farm farm;
+
+        /**
+         * Project.
+         */
+        private final Project project;
+
+        /**
+         * Original claim.
+         */
+        private final ClaimIn claim;
+
+        /**
+         * Ctor.
+         * @param frm Farm
+         * @param pkt Project
+         * @param xml Original claim
+         */
+        Replay(final Farm frm, final Project pkt, final XML xml) {
+            this.farm = frm;
+            this.project = pkt;
+            this.claim = new ClaimIn(xml);
+        }
+
+        /**
+         * Post a copy of the claim with fresh id.
+         * @return FALSE if it was rejected
+         */
+        public boolean post() {
+            final ClaimOut out = new ClaimOut()
+                .type(this.claim.type())
+                .params(this.claim.params());
+            if (this.claim.hasToken()) {
+                out.token(this.claim.token());
+            }
+            if (this.claim.hasAuthor()) {
+                out.author(this.claim.author());
+            }
+            boolean posted;
+            try {
+                out.postTo(new ClaimsOf(this.farm, this.project));
+                posted = true;
+            } catch (final IOException | IllegalArgumentException ex) {
+                Logger.warn(
+                    this, "Claim %s rejected in %s: %s",
+                    this.claim.type(), this.project.pid(),
+                    ex.getLocalizedMessage()
+                );
+                posted = false;
+            }
+            return posted;
+        }
+    }
+
+    /**
+     * Locks, which measure how long threads wait for them.
+     */
+    private static final class TimedLocks implements Locks {
+
+        /**
+         * Origin.
+         */
+        private final Locks origin;
+
+        /**
+         * Waiting times, in milliseconds.
+         */
+        private final Recorder recorder;
+
+        /**
+         * Ctor.
+         * @param locks Origin
+         */
+        TimedLocks(final Locks locks) {
+            this.origin = locks;
+            this.recorder = new Recorder(2);
+        }
+
+        @Override
+        public ReadWriteLock lock(final Project pkt, final String res)
+            throws IOException {
+            final ReadWriteLock lock = this.origin.lock(pkt, res);
+            return new ReadWriteLock() {
+                @Override
+                public Lock readLock() {
+                    return new ThroughputITCase.TimedLock(
+                        lock.readLock(), TimedLocks.this.recorder
+                    );
+                }
+                @Override
+                public Lock writeLock() {
+                    return new ThroughputITCase.TimedLock(
+                        lock.writeLock(), TimedLocks.this.recorder
+                    );
+                }
+            };
+        }
+
+        /**
+         * Waiting times since the previous call.
+         * @return Histogram of milliseconds
+         */
+        public Histogram waits() {
+            return this.recorder.getIntervalHistogram();
+        }
+    }
+
+    /**
+     * Lock, which measures how long threads wait for it.
+     */
+    private static final class TimedLock implements Lock {
+
+        /**
+         * Origin.
+         */
+        private final Lock origin;
+
+        /**
+         * Waiting times, in milliseconds.
+         */
+        private final Recorder recorder;
+
+        /**
+         * Ctor.
+         * @param lock Origin
+         * @param rec Waiting times
+         */
+        TimedLock(final Lock lock, final Recorder rec) {
+            this.origin = lock;
+            this.recorder = rec;
+        }
+
+        @Override
+        public void lock() {
+            final long start = System.nanoTime();
+            this.origin.lock();
+            this.record(start);
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            final long start = System.nanoTime();
+            this.origin.lockInterruptibly();
+            this.record(start);
+        }
+
+        @Override
+        public boolean tryLock() {
+            return this.origin.tryLock();
+        }
+
+        @Override
+        public boolean tryLock(final long time, final TimeUnit unit)
+            throws InterruptedException {
+            final long start = System.nanoTime();
+            final boolean done = this.origin.tryLock(time, unit);
+            this.record(start);
+            return done;
+        }
+
+        @Override
+        public void unlock() {
+            this.origin.unlock();
+        }
+
+        @Override
+        public Condition newCondition() {
+            return this.origin.newCondition();
+        }
+
+        /**
+         * Record waiting time.
+         * @param start When waiting started, in nanoseconds
+         */
+        private void record(final long start) {
+            this.recorder.recordValue(
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+            );
+        }
+    }
+}
@@ -25,17 +25,23 @@ import com.zerocracy.FkFarm;
 import com.zerocracy.FkProject;
 import com.zerocracy.Project;
 import com.zerocracy.Stakeholder;
+import com.zerocracy.TextItem;
 import com.zerocracy.claims.ClaimOut;
 import com.zerocracy.claims.ClaimXml;
+import com.zerocracy.farm.StkSafe;
 import com.zerocracy.farm.props.PropsFarm;
 import com.zerocracy.farm.reactive.Brigade;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.cactoos.map.MapEntry;
 import org.cactoos.map.MapOf;
 import org.hamcrest.Matcher;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Test;
+import org.xembly.Directives;
 
 /**
  * Test case for {@link BrigadeProc}.
@@ -78,6 +84,105 @@ public final class BrigadeProcTest {
         );
     }
 
+    @Test
+    public void discardsChangesOfFailedClaim() throws Exception {
+        final Project proj = new FkProject();
+        final Farm farm = new PropsFarm(new FkFarm(proj));
+        try {
+            new BrigadeProc(
+                new Brigade(
+                    (project, xml) -> {
+                        new TextItem(project.acq("test.txt")).write("hey");
+                        throw new IllegalStateException("failed");
+                    }
+                ),
+                farm
+            ).exec(BrigadeProcTest.message(proj));
+            MatcherAssert.assertThat("claim didn't fail", false);
+        } catch (final IllegalStateException ex) {
+            MatcherAssert.assertThat(
+                proj.acq("test.txt").read(Files::exists),
+                Matchers.is(false)
+            );
+        }
+    }
+
+    @Test
+    public void discardsChangesOfReportedFailure() throws Exception {
+        final Project proj = new FkProject();
+        final Farm farm = new PropsFarm(
+            new FkFarm(proj),
+            new Directives().xpath("/props/testing").remove(),
+            () -> {
+                final Path tmp = Files.createTempFile("brigade", ".xml");
+                tmp.toFile().deleteOnExit();
+                return tmp;
+            }
+        );
+        final AtomicBoolean skipped = new AtomicBoolean(true);
+        new BrigadeProc(
+            new Brigade(
+                new StkSafe(
+                    "broken", farm,
+                    (project, xml) -> {
+                        new TextItem(project.acq("half.txt")).write("half");
+                        throw new IllegalStateException("halfway");
+                    }
+                ),
+                new StkSafe(
+                    "next", farm,
+                    (project, xml) -> skipped.set(false)
+                )
+            ),
+            farm
+        ).exec(BrigadeProcTest.message(proj));
+        MatcherAssert.assertThat(
+            proj.acq("half.txt").read(Files::exists),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(skipped.get(), Matchers.is(true));
+    }
+
+    @Test
+    public void commitsChangesOfClaim() throws Exception {
+        final Project proj = new FkProject();
+        final Farm farm = new PropsFarm(new FkFarm(proj));
+        new BrigadeProc(
+            new Brigade(
+                (project, xml) -> new TextItem(project.acq("done.txt"))
+                    .write("done")
+            ),
+            farm
+        ).exec(BrigadeProcTest.message(proj));
+        MatcherAssert.assertThat(
+            new TextItem(proj.acq("done.txt")).readAll(),
+            Matchers.equalTo("done")
+        );
+    }
+
+    /**
+     * Message with test claim.
+     * @param proj Project
+     * @return Message
+     * @throws IOException If fails
+     */
+    private static Message message(final Project proj) throws IOException {
+        return new Message()
+            .withMessageAttributes(
+                new MapOf<String, MessageAttributeValue>(
+                    new MapEntry<>(
+                        "project",
+                        new MessageAttributeValue()
+                            .withDataType("String")
+                            .withStringValue(proj.pid())
+                    )
+                )
+            )
+            .withBody(
+                new ClaimXml(new ClaimOut().type("test")).asXml().toString()
+            );
+    }
+
     /**
      * Stakeholder to assert claim's xml.
      */
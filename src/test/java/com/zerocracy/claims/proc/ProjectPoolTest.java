@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.claims.proc;
+
+import com.amazonaws.services.sqs.model.Message;
+import com.jcabi.aspects.Tv;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link ProjectPool}.
+ *
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+@SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+public final class ProjectPoolTest {
+
+    @Test
+    public void servesProjectsRoundRobin() throws Exception {
+        final List<String> done = new CopyOnWriteArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(Tv.FIVE + 1);
+        try (final ProjectPool pool = new ProjectPool(1)) {
+            final ProjectQueue busy = new ProjectQueue(
+                "BUSYPRJCT",
+                msg -> {
+                    done.add(msg.getMessageId());
+                    latch.countDown();
+                },
+                pool
+            );
+            final ProjectQueue quiet = new ProjectQueue(
+                "QUIETPRJT",
+                msg -> {
+                    done.add(msg.getMessageId());
+                    latch.countDown();
+                },
+                pool
+            );
+            for (int idx = 0; idx < Tv.FIVE; ++idx) {
+                busy.push(ProjectPoolTest.msg(String.format("busy-%d", idx)));
+            }
+            quiet.push(ProjectPoolTest.msg("quiet"));
+            busy.start();
+            quiet.start();
+            MatcherAssert.assertThat(
+                latch.await(1L, TimeUnit.MINUTES),
+                Matchers.is(true)
+            );
+        }
+        MatcherAssert.assertThat(done.indexOf("quiet"), Matchers.lessThan(2));
+    }
+
+    @Test
+    public void processesOneMessageOfProjectAtTime() throws Exception {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger max = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(Tv.TWENTY);
+        try (final ProjectPool pool = new ProjectPool(Tv.FIVE)) {
+            final ProjectQueue queue = new ProjectQueue(
+                "SERIALPRJ",
+                msg -> {
+                    max.accumulateAndGet(
+                        running.incrementAndGet(), Math::max
+                    );
+                    TimeUnit.MILLISECONDS.sleep(1L);
+                    running.decrementAndGet();
+                    latch.countDown();
+                },
+                pool
+            );
+            queue.start();
+            for (int idx = 0; idx < Tv.TWENTY; ++idx) {
+                queue.push(ProjectPoolTest.msg(String.format("msg-%d", idx)));
+            }
+            MatcherAssert.assertThat(
+                latch.await(1L, TimeUnit.MINUTES),
+                Matchers.is(true)
+            );
+        }
+        MatcherAssert.assertThat(max.get(), Matchers.equalTo(1));
+    }
+
+    /**
+     * Message with ID.
+     * @param mid Message ID
+     * @return Message
+     */
+    private static Message msg(final String mid) {
+        return new Message().withMessageId(mid);
+    }
+}
@@ -40,8 +40,9 @@ public final class ProjectQueueTest {
     @Test
     public void takeByPriorityOrder() throws Exception {
         final ProjectQueueTest.TestProc out = new ProjectQueueTest.TestProc();
+        final ProjectPool pool = new ProjectPool(1);
         final ProjectQueue queue =
-            new ProjectQueue(new FkProject().pid(), out);
+            new ProjectQueue(new FkProject().pid(), out, pool);
         final String first = "first";
         queue.push(ProjectQueueTest.msg(first, MsgPriority.NORMAL));
         final String second = "second";
@@ -49,18 +50,21 @@ public final class ProjectQueueTest {
         final String third = "third";
         queue.push(ProjectQueueTest.msg(third, MsgPriority.HIGH));
         ProjectQueueTest.queueRun(queue);
+        pool.close();
         out.assertIds(third, first, second);
     }
 
     @Test
     public void removeDuplicates()throws Exception {
         final ProjectQueueTest.TestProc out = new ProjectQueueTest.TestProc();
+        final ProjectPool pool = new ProjectPool(1);
         final ProjectQueue queue =
-            new ProjectQueue(new FkProject().pid(), out);
+            new ProjectQueue(new FkProject().pid(), out, pool);
         final String mid = "message-id";
         queue.push(ProjectQueueTest.msg(mid, MsgPriority.NORMAL));
         queue.push(ProjectQueueTest.msg(mid, MsgPriority.NORMAL));
         ProjectQueueTest.queueRun(queue);
+        pool.close();
         out.assertIds(mid);
     }
 
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.claims.proc;
+
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.MessageAttributeValue;
+import com.jcabi.aspects.Tv;
+import com.jcabi.matchers.XhtmlMatchers;
+import com.zerocracy.kpi.Datums;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.xembly.Directives;
+import org.xembly.Xembler;
+
+/**
+ * Test case for {@link QueueStats}.
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+public final class QueueStatsTest {
+
+    @Test
+    public void measuresWaitAndBrigadeTimes() throws Exception {
+        final QueueStats stats = new QueueStats.Ext("STATS0001").value();
+        for (int idx = 0; idx < Tv.TEN; ++idx) {
+            final Message msg = QueueStatsTest.message(idx, "Stats measured");
+            stats.add(msg);
+            stats.runBrigade(
+                input -> TimeUnit.MILLISECONDS.sleep((long) Tv.FIVE), msg
+            );
+        }
+        MatcherAssert.assertThat(
+            XhtmlMatchers.xhtml(
+                new Xembler(new Directives().append(stats)).xml()
+            ),
+            XhtmlMatchers.hasXPaths(
+                "/stats[waiting='0']",
+                "/stats/wait[count='10']",
+                "/stats/brigade[count='10' and p50 >= 5 and max >= p99]"
+            )
+        );
+        MatcherAssert.assertThat(
+            XhtmlMatchers.xhtml(
+                new Xembler(
+                    new Directives().add("x").append(new QueueStats.Types())
+                ).xml()
+            ),
+            XhtmlMatchers.hasXPath(
+                "/x/claim-types/type[@name='Stats measured']/brigade[count=10]"
+            )
+        );
+    }
+
+    @Test
+    public void publishesPercentiles() throws Exception {
+        final QueueStats stats = new QueueStats.Ext("STATS0002").value();
+        final Message msg = QueueStatsTest.message(1, "Stats published");
+        stats.add(msg);
+        stats.runBrigade(input -> { }, msg);
+        final Datums.Fake fake = new Datums.Fake();
+        final Datums datums = new Datums(fake);
+        stats.publish(datums);
+        datums.close();
+        MatcherAssert.assertThat(
+            fake.requests().get(0).getMetricData(),
+            Matchers.hasSize(Tv.SIX)
+        );
+    }
+
+    /**
+     * Make a message.
+     * @param idx Index
+     * @param type Claim type
+     * @return Message
+     */
+    private static Message message(final int idx, final String type) {
+        return new Message()
+            .withMessageId(String.format("msg-%d", idx))
+            .addMessageAttributesEntry(
+                "type",
+                new MessageAttributeValue()
+                    .withDataType("String")
+                    .withStringValue(type)
+            );
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.entry;
+
+import com.zerocracy.Farm;
+import com.zerocracy.FkFarm;
+import com.zerocracy.claims.BatchClaims;
+import com.zerocracy.claims.ClaimOut;
+import com.zerocracy.farm.fake.FkSqs;
+import com.zerocracy.farm.props.PropsFarm;
+import com.zerocracy.pmo.Pmo;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.xembly.Directives;
+
+/**
+ * Test case for {@link ClaimsOf}.
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+public final class ClaimsOfTest {
+
+    @Test
+    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+    public void batchesClaimsOfSameProject() throws Exception {
+        final Path props = Files.createTempFile("claims", ".xml");
+        final Farm farm = new PropsFarm(
+            new FkFarm(),
+            new Directives().xpath("/props")
+                .add("sqs").add("fake").set("yes"),
+            () -> props
+        );
+        final FkSqs sqs = (FkSqs) new ExtSqs(farm).value();
+        final long batches = sqs.batches();
+        final int size = sqs.size();
+        BatchClaims.start();
+        try {
+            for (int idx = 0; idx < 3; ++idx) {
+                new ClaimOut()
+                    .type("Hello")
+                    .param("nonce", props.getFileName() + "/" + idx)
+                    .postTo(new ClaimsOf(farm, new Pmo(farm)));
+            }
+        } finally {
+            BatchClaims.finish();
+        }
+        MatcherAssert.assertThat(
+            sqs.batches() - batches, Matchers.equalTo(1L)
+        );
+        MatcherAssert.assertThat(
+            sqs.size() - size, Matchers.equalTo(3)
+        );
+    }
+}
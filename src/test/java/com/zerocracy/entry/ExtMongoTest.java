@@ -124,4 +124,30 @@ public final class ExtMongoTest {
             );
         }
     }
+
+    @Test
+    public void sharesOneClient() throws Exception {
+        final Farm farm = new PropsFarm(new FkFarm());
+        final ExtMongo ext = new ExtMongo(farm, "shared");
+        try {
+            MatcherAssert.assertThat(
+                ext.shared(),
+                Matchers.sameInstance(ext.shared())
+            );
+            final Project project = new Pmo(farm);
+            new ClaimOut().type("Shared").postTo(new ClaimsOf(farm, project));
+            final XML xml = new ClaimsItem(project).iterate().iterator().next();
+            try (final Footprint footprint = new Footprint(farm, project)) {
+                footprint.open(xml, "shared");
+            }
+            try (final Footprint footprint = new Footprint(farm, project)) {
+                MatcherAssert.assertThat(
+                    footprint.collection().find(Filters.eq("type", "Shared")),
+                    Matchers.iterableWithSize(1)
+                );
+            }
+        } finally {
+            ExtMongo.release();
+        }
+    }
 }
@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm;
+
+import com.jcabi.aspects.Tv;
+import com.jcabi.s3.Bucket;
+import com.jcabi.s3.Ocket;
+import com.jcabi.s3.fake.FkBucket;
+import com.zerocracy.TextItem;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link S3Cache}.
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+public final class S3CacheTest {
+
+    @Test
+    public void uploadsFewUpdatesOnce() throws Exception {
+        final Bucket bucket = new FkBucket(
+            Files.createTempDirectory("").toFile(), "cache-bucket"
+        );
+        final Ocket ocket = bucket.ocket("a/b.txt");
+        final S3Cache cache = S3CacheTest.cache();
+        for (int idx = 0; idx < Tv.FIVE; ++idx) {
+            final String text = String.format("text %d", idx);
+            cache.update(
+                ocket,
+                path -> Files.write(
+                    path, text.getBytes(StandardCharsets.UTF_8)
+                )
+            );
+        }
+        MatcherAssert.assertThat(ocket.exists(), Matchers.is(false));
+        cache.flush();
+        MatcherAssert.assertThat(
+            new TextItem(new S3Item(ocket)).readAll(),
+            Matchers.equalTo("text 4")
+        );
+        MatcherAssert.assertThat(
+            cache.toString(),
+            Matchers.allOf(
+                Matchers.containsString("5 writes"),
+                Matchers.containsString("1 uploads")
+            )
+        );
+    }
+
+    @Test
+    public void readsLocalCopy() throws Exception {
+        final Bucket bucket = new FkBucket(
+            Files.createTempDirectory("").toFile(), "cache-bucket-2"
+        );
+        final Ocket ocket = bucket.ocket("c.txt");
+        new TextItem(new S3Item(ocket)).write("hello");
+        final S3Cache cache = S3CacheTest.cache();
+        for (int idx = 0; idx < Tv.THREE; ++idx) {
+            MatcherAssert.assertThat(
+                new TextItem(new CachedItem(ocket, cache)).readAll(),
+                Matchers.equalTo("hello")
+            );
+        }
+        MatcherAssert.assertThat(
+            cache.toString(),
+            Matchers.allOf(
+                Matchers.containsString("2 hits"),
+                Matchers.containsString("1 downloads")
+            )
+        );
+    }
+
+    @Test
+    public void skipsUploadOfSameContent() throws Exception {
+        final Bucket bucket = new FkBucket(
+            Files.createTempDirectory("").toFile(), "cache-bucket-3"
+        );
+        final Ocket ocket = bucket.ocket("d.txt");
+        new TextItem(new S3Item(ocket)).write("same");
+        final S3Cache cache = S3CacheTest.cache();
+        new TextItem(new CachedItem(ocket, cache)).write("same");
+        cache.flush();
+        MatcherAssert.assertThat(
+            cache.toString(),
+            Matchers.containsString("0 uploads")
+        );
+    }
+
+    @Test
+    public void keepsDirtyObjectsOnEviction() throws Exception {
+        final Bucket bucket = new FkBucket(
+            Files.createTempDirectory("").toFile(), "cache-bucket-4"
+        );
+        final S3Cache cache = new S3Cache(
+            Files.createTempDirectory("evict"), 1,
+            Duration.ofMinutes(1L), Duration.ofMinutes(1L)
+        );
+        for (int idx = 0; idx < Tv.THREE; ++idx) {
+            new TextItem(
+                new CachedItem(
+                    bucket.ocket(String.format("e%d.txt", idx)), cache
+                )
+            ).write("dirty");
+        }
+        cache.close();
+        for (int idx = 0; idx < Tv.THREE; ++idx) {
+            MatcherAssert.assertThat(
+                new TextItem(
+                    new S3Item(bucket.ocket(String.format("e%d.txt", idx)))
+                ).readAll(),
+                Matchers.equalTo("dirty")
+            );
+        }
+    }
+
+    @Test
+    public void uploadsObjectsOfThreadOnFinish() throws Exception {
+        final Bucket bucket = new FkBucket(
+            Files.createTempDirectory("").toFile(), "cache-bucket-5"
+        );
+        final Ocket ocket = bucket.ocket("f.txt");
+        final S3Cache cache = S3CacheTest.cache();
+        MatcherAssert.assertThat(S3Cache.start(), Matchers.is(true));
+        try {
+            MatcherAssert.assertThat(S3Cache.start(), Matchers.is(false));
+            new TextItem(new CachedItem(ocket, cache)).write("claim");
+            MatcherAssert.assertThat(ocket.exists(), Matchers.is(false));
+        } finally {
+            S3Cache.finish();
+        }
+        MatcherAssert.assertThat(
+            new TextItem(new S3Item(ocket)).readAll(),
+            Matchers.equalTo("claim")
+        );
+    }
+
+    @Test
+    public void checksObjectBeforeUpdate() throws Exception {
+        final Bucket bucket = new FkBucket(
+            Files.createTempDirectory("").toFile(), "cache-bucket-6"
+        );
+        final Ocket ocket = bucket.ocket("g.txt");
+        new TextItem(new S3Item(ocket)).write("one");
+        final S3Cache cache = S3CacheTest.cache();
+        MatcherAssert.assertThat(
+            new TextItem(new CachedItem(ocket, cache)).readAll(),
+            Matchers.equalTo("one")
+        );
+        new TextItem(new S3Item(ocket)).write("two");
+        cache.update(
+            ocket,
+            path -> Files.write(
+                path, "!".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND
+            )
+        );
+        cache.flush();
+        MatcherAssert.assertThat(
+            new TextItem(new S3Item(ocket)).readAll(),
+            Matchers.equalTo("two!")
+        );
+    }
+
+    @Test
+    public void keepsObjectsOfUnfinishedThreadOnFlush() throws Exception {
+        final Bucket bucket = new FkBucket(
+            Files.createTempDirectory("").toFile(), "cache-bucket-8"
+        );
+        final Ocket ocket = bucket.ocket("i.txt");
+        final S3Cache cache = S3CacheTest.cache();
+        S3Cache.start();
+        try {
+            new TextItem(new CachedItem(ocket, cache)).write("pending");
+            cache.flush();
+            MatcherAssert.assertThat(ocket.exists(), Matchers.is(false));
+        } finally {
+            S3Cache.finish();
+        }
+        MatcherAssert.assertThat(ocket.exists(), Matchers.is(true));
+    }
+
+    @Test
+    public void dropsChangesOfThreadOnCancel() throws Exception {
+        final Bucket bucket = new FkBucket(
+            Files.createTempDirectory("").toFile(), "cache-bucket-9"
+        );
+        final Ocket ocket = bucket.ocket("j.txt");
+        new TextItem(new S3Item(ocket)).write("origin");
+        final S3Cache cache = S3CacheTest.cache();
+        S3Cache.start();
+        new TextItem(new CachedItem(ocket, cache)).write("failed");
+        S3Cache.cancel();
+        cache.flush();
+        MatcherAssert.assertThat(
+            new TextItem(new CachedItem(ocket, cache)).readAll(),
+            Matchers.equalTo("origin")
+        );
+        MatcherAssert.assertThat(
+            new TextItem(new S3Item(ocket)).readAll(),
+            Matchers.equalTo("origin")
+        );
+    }
+
+    @Test
+    public void dropsChangesOfThreadOnFailedFinish() throws Exception {
+        final Path dir = Files.createTempDirectory("");
+        final Ocket ocket = new FkBucket(dir.toFile(), "cache-bucket-7")
+            .ocket("h.txt");
+        new TextItem(new S3Item(ocket)).write("stored");
+        final Path stored;
+        try (final Stream<Path> files = Files.walk(dir)) {
+            stored = files.filter(
+                path -> "h.txt".equals(path.getFileName().toString())
+            ).findFirst().get();
+        }
+        final S3Cache cache = S3CacheTest.cache();
+        S3Cache.start();
+        final List<IOException> failures = new LinkedList<>();
+        try {
+            new TextItem(new CachedItem(ocket, cache)).write("claim");
+            Files.delete(stored);
+            Files.createDirectory(stored);
+        } finally {
+            try {
+                S3Cache.finish();
+            } catch (final IOException ex) {
+                failures.add(ex);
+            }
+        }
+        MatcherAssert.assertThat(failures, Matchers.hasSize(1));
+        Files.delete(stored);
+        Files.write(stored, "stored".getBytes(StandardCharsets.UTF_8));
+        MatcherAssert.assertThat(
+            new TextItem(new CachedItem(ocket, cache)).readAll(),
+            Matchers.equalTo("stored")
+        );
+    }
+
+    /**
+     * Cache, which never uploads by timer.
+     * @return Cache
+     * @throws Exception If fails
+     */
+    private static S3Cache cache() throws Exception {
+        return new S3Cache(
+            Files.createTempDirectory("cache"), Tv.TEN,
+            Duration.ofMinutes(1L), Duration.ofMinutes(1L)
+        );
+    }
+}
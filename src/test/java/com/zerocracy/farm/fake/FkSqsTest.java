@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.fake;
+
+import com.amazonaws.services.sqs.model.DeleteMessageRequest;
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import com.amazonaws.services.sqs.model.SendMessageRequest;
+import java.util.List;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link FkSqs}.
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+public final class FkSqsTest {
+
+    @Test
+    public void receivesAndDeletesMessages() {
+        final FkSqs sqs = new FkSqs();
+        final String url = sqs.getQueueUrl("test.fifo").getQueueUrl();
+        sqs.sendMessage(new SendMessageRequest(url, "hello"));
+        final List<Message> msgs = sqs.receiveMessage(
+            new ReceiveMessageRequest(url).withVisibilityTimeout(1)
+        ).getMessages();
+        MatcherAssert.assertThat(msgs, Matchers.hasSize(1));
+        MatcherAssert.assertThat(
+            sqs.receiveMessage(new ReceiveMessageRequest(url)).getMessages(),
+            Matchers.empty()
+        );
+        sqs.deleteMessage(
+            new DeleteMessageRequest(url, msgs.get(0).getReceiptHandle())
+        );
+        MatcherAssert.assertThat(sqs.size(), Matchers.equalTo(0));
+        MatcherAssert.assertThat(
+            sqs.latencies().getTotalCount(),
+            Matchers.equalTo(1L)
+        );
+    }
+
+    @Test
+    public void skipsDuplicatedMessages() {
+        final FkSqs sqs = new FkSqs();
+        final String url = sqs.getQueueUrl("dups.fifo").getQueueUrl();
+        for (int idx = 0; idx < 2; ++idx) {
+            sqs.sendMessage(
+                new SendMessageRequest(url, "same")
+                    .withMessageDeduplicationId("one")
+            );
+        }
+        MatcherAssert.assertThat(sqs.size(), Matchers.equalTo(1));
+    }
+}
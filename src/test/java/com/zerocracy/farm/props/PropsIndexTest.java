@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.props;
+
+import com.zerocracy.FkFarm;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link PropsIndex}.
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+public final class PropsIndexTest {
+
+    @Test
+    public void findsValuesByPaths() throws Exception {
+        final PropsIndex index = PropsIndex.of(PropsIndexTest.props());
+        MatcherAssert.assertThat(
+            index.values("/props/aws/key"),
+            Matchers.contains("k1")
+        );
+        MatcherAssert.assertThat(
+            index.values("//key"),
+            Matchers.contains("k1", "k2")
+        );
+        MatcherAssert.assertThat(
+            index.values("//sqs/aes.key"),
+            Matchers.contains("secret")
+        );
+        MatcherAssert.assertThat(
+            index.values("//absent"),
+            Matchers.emptyIterable()
+        );
+    }
+
+    @Test
+    public void findsValuesByComplexXpath() throws Exception {
+        MatcherAssert.assertThat(
+            PropsIndex.of(PropsIndexTest.props())
+                .values("/props/*[name()='sqs']/key"),
+            Matchers.contains("k2")
+        );
+    }
+
+    @Test
+    public void findsTestingMode() throws Exception {
+        MatcherAssert.assertThat(
+            PropsIndex.of(PropsIndexTest.props()).values("//testing"),
+            Matchers.contains("yes")
+        );
+        MatcherAssert.assertThat(
+            new Props(FkFarm.props()).testing(),
+            Matchers.is(true)
+        );
+    }
+
+    @Test
+    public void parsesFileOnce() throws Exception {
+        final Path file = PropsIndexTest.props();
+        MatcherAssert.assertThat(
+            PropsIndex.of(file),
+            Matchers.sameInstance(PropsIndex.of(file))
+        );
+    }
+
+    /**
+     * Props file.
+     * @return Path
+     * @throws Exception If fails
+     */
+    private static Path props() throws Exception {
+        final Path file = Files.createTempFile("props", ".xml");
+        Files.write(
+            file,
+            String.join(
+                "",
+                "<props><testing>yes</testing><aws><key>k1</key></aws>",
+                "<sqs><key>k2</key><aes.key><![CDATA[secret]]></aes.key>",
+                "</sqs></props>"
+            ).getBytes(StandardCharsets.UTF_8)
+        );
+        return file;
+    }
+}
@@ -135,4 +135,29 @@ public final class BrigadeTest {
         brigade.apply(project, claim);
         MatcherAssert.assertThat(hits.get(), Matchers.equalTo(1));
     }
+
+    @Test
+    public void dispatchesClaimsByType() throws Exception {
+        final AtomicInteger hits = new AtomicInteger();
+        final Brigade brigade = new Brigade(
+            (pkt, xml) -> {
+                hits.incrementAndGet();
+                throw new MismatchException("not mine", true);
+            },
+            new FkStakeholder()
+        );
+        final Project project = new FkProject();
+        for (final String type : new IterableOf<>("first", "first", "2nd")) {
+            MatcherAssert.assertThat(
+                brigade.apply(
+                    project,
+                    new XMLDocument(
+                        String.format("<claim><type>%s</type></claim>", type)
+                    ).nodes("/claim").get(0)
+                ),
+                Matchers.equalTo(1)
+            );
+        }
+        MatcherAssert.assertThat(hits.get(), Matchers.equalTo(2));
+    }
 }
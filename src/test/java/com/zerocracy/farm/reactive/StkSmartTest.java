@@ -96,4 +96,17 @@ public final class StkSmartTest {
         MatcherAssert.assertThat(hits.get(), Matchers.equalTo(2));
     }
 
+    @Test(expected = MismatchException.class)
+    public void passesTypeMismatchThrough() throws Exception {
+        new StkSmart(
+            (project, xml) -> {
+                throw new MismatchException("wrong type", true);
+            }
+        ).process(
+            new FkProject(),
+            new XMLDocument(
+                "<claim><type>test type</type></claim>"
+            ).nodes("/claim").get(0)
+        );
+    }
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.ruled;
+
+import com.jcabi.aspects.Tv;
+import com.jcabi.xml.XMLDocument;
+import com.zerocracy.FkProject;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link RdTemplates}.
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+public final class RdTemplatesTest {
+
+    @Test
+    public void compilesStylesheetOnce() throws Exception {
+        final Path xsl = Files.createTempFile("rule", ".xsl");
+        Files.write(
+            xsl,
+            String.join(
+                "",
+                "<xsl:stylesheet version='2.0' ",
+                "xmlns:xsl='http://www.w3.org/1999/XSL/Transform'>",
+                "<xsl:template match='/'><b><xsl:value-of select='/a'/>",
+                "</b></xsl:template></xsl:stylesheet>"
+            ).getBytes(StandardCharsets.UTF_8)
+        );
+        final URI uri = xsl.toUri();
+        final RdTemplates templates = new RdTemplates(Tv.TEN);
+        for (int idx = 0; idx < Tv.FIVE; ++idx) {
+            MatcherAssert.assertThat(
+                templates.transform(
+                    uri,
+                    new XMLDocument(String.format("<a>%d</a>", idx)),
+                    new RdSources(new FkProject())
+                ).xpath("/b/text()").get(0),
+                Matchers.equalTo(Integer.toString(idx))
+            );
+        }
+        MatcherAssert.assertThat(
+            templates.toString(),
+            Matchers.equalTo("4 hits, 1 misses")
+        );
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.sync;
+
+import com.jcabi.matchers.XhtmlMatchers;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.xembly.Xembler;
+
+/**
+ * Test case for {@link Contention}.
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+public final class ContentionTest {
+
+    @Test
+    public void detectsLockOrderInversion() {
+        final Contention stats = new Contention();
+        final Lock first = ContentionTest.lock("P:a.xml", stats);
+        final Lock second = ContentionTest.lock("P:b.xml", stats);
+        first.lock();
+        second.lock();
+        second.unlock();
+        first.unlock();
+        MatcherAssert.assertThat(stats.inversions(), Matchers.equalTo(0));
+        second.lock();
+        first.lock();
+        first.unlock();
+        second.unlock();
+        MatcherAssert.assertThat(stats.inversions(), Matchers.equalTo(1));
+        MatcherAssert.assertThat(
+            new Xembler(stats).xmlQuietly(),
+            XhtmlMatchers.hasXPath(
+                "/locks/inversions/inversion[@pair='P:b.xml -> P:a.xml']"
+            )
+        );
+    }
+
+    @Test
+    public void recordsTimeoutWithHolder() throws Exception {
+        final Contention stats = new Contention();
+        final ReadWriteLock rwl = new TracedLock(
+            "P:c.xml", new ReentrantReadWriteLock(), stats
+        );
+        final CountDownLatch locked = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+        final ExecutorService exec = Executors.newSingleThreadExecutor();
+        try {
+            final Future<?> holder = exec.submit(
+                () -> {
+                    stats.claim("42");
+                    rwl.writeLock().lock();
+                    try {
+                        locked.countDown();
+                        done.await();
+                    } finally {
+                        rwl.writeLock().unlock();
+                        stats.claim("");
+                    }
+                    return null;
+                }
+            );
+            locked.await();
+            MatcherAssert.assertThat(
+                rwl.writeLock().tryLock(1L, TimeUnit.MILLISECONDS),
+                Matchers.is(false)
+            );
+            MatcherAssert.assertThat(
+                new Xembler(stats).xmlQuietly(),
+                XhtmlMatchers.hasXPaths(
+                    "/locks/items/item[@id='P:c.xml' and timeouts='1']",
+                    "//item[@id='P:c.xml']/holder[contains(.,'\"42\"')]"
+                )
+            );
+            MatcherAssert.assertThat(
+                rwl.toString(),
+                Matchers.containsString("claim \"42\"")
+            );
+            done.countDown();
+            holder.get(1L, TimeUnit.MINUTES);
+        } finally {
+            exec.shutdown();
+        }
+        MatcherAssert.assertThat(
+            stats.holder("P:c.xml"),
+            Matchers.equalTo("free")
+        );
+    }
+
+    @Test
+    public void countsReentrantLockAsOneHold() {
+        final Contention stats = new Contention();
+        final Lock lock = ContentionTest.lock("P:d.xml", stats);
+        lock.lock();
+        lock.lock();
+        lock.unlock();
+        MatcherAssert.assertThat(
+            stats.holder("P:d.xml"),
+            Matchers.startsWith("held by")
+        );
+        lock.unlock();
+        MatcherAssert.assertThat(
+            new Xembler(stats).xmlQuietly(),
+            XhtmlMatchers.hasXPaths(
+                "/locks/items/item[@id='P:d.xml' and waits='2']",
+                "/locks/items/item[@id='P:d.xml' and holds='1']",
+                "/locks/items/item[@id='P:d.xml' and holder='free']"
+            )
+        );
+        MatcherAssert.assertThat(stats.inversions(), Matchers.equalTo(0));
+    }
+
+    /**
+     * Traced write lock.
+     * @param item Item
+     * @param stats Contention
+     * @return Lock
+     */
+    private static Lock lock(final String item, final Contention stats) {
+        return new TracedLock(item, new ReentrantReadWriteLock(), stats)
+            .writeLock();
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.sync;
+
+import com.zerocracy.Item;
+import com.zerocracy.farm.fake.FkItem;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link MvccItem}.
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+public final class MvccItemTest {
+
+    @Test
+    public void readsSnapshotWhileWriteLocked() throws Exception {
+        final VersionedLock lock =
+            new VersionedLock(new ReentrantReadWriteLock(true));
+        final Item item = new MvccItem(
+            new FkItem(Files.createTempDirectory("mvcc").resolve("a.xml")),
+            lock
+        );
+        MvccItemTest.write(item, "first");
+        final CountDownLatch locked = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+        final ExecutorService exec = Executors.newSingleThreadExecutor();
+        try {
+            final Future<?> writer = exec.submit(
+                () -> {
+                    final Lock wlock = lock.writeLock();
+                    wlock.lock();
+                    try {
+                        locked.countDown();
+                        done.await();
+                    } finally {
+                        wlock.unlock();
+                    }
+                    return null;
+                }
+            );
+            locked.await();
+            MatcherAssert.assertThat(
+                MvccItemTest.text(item),
+                Matchers.equalTo("first")
+            );
+            done.countDown();
+            writer.get(1L, TimeUnit.MINUTES);
+        } finally {
+            exec.shutdown();
+        }
+    }
+
+    @Test
+    public void dropsSnapshotOnForeignWrite() throws Exception {
+        final VersionedLock lock =
+            new VersionedLock(new ReentrantReadWriteLock(true));
+        final Path file = Files.createTempDirectory("mvcc").resolve("b.xml");
+        final Item item = new MvccItem(new FkItem(file), lock);
+        MvccItemTest.write(item, "old");
+        final long version = lock.version();
+        MatcherAssert.assertThat(
+            lock.snapshot().version(),
+            Matchers.equalTo(version)
+        );
+        final Lock wlock = lock.writeLock();
+        wlock.lock();
+        try {
+            Files.write(file, "new".getBytes(StandardCharsets.UTF_8));
+        } finally {
+            wlock.unlock();
+        }
+        MatcherAssert.assertThat(lock.snapshot(), Matchers.nullValue());
+        MatcherAssert.assertThat(
+            MvccItemTest.text(item),
+            Matchers.equalTo("new")
+        );
+        MatcherAssert.assertThat(
+            lock.snapshot().version(),
+            Matchers.equalTo(version + 1L)
+        );
+    }
+
+    @Test
+    public void sharesFileOfOneVersion() throws Exception {
+        final Item item = new MvccItem(
+            new FkItem(Files.createTempDirectory("mvcc").resolve("c.xml")),
+            new VersionedLock(new ReentrantReadWriteLock(true))
+        );
+        MvccItemTest.write(item, "origin");
+        final Path first = item.read(path -> path);
+        MatcherAssert.assertThat(
+            item.read(
+                path -> {
+                    MatcherAssert.assertThat(
+                        item.read(inner -> inner),
+                        Matchers.equalTo(path)
+                    );
+                    return path;
+                }
+            ),
+            Matchers.equalTo(first)
+        );
+        MatcherAssert.assertThat(
+            MvccItemTest.text(item),
+            Matchers.equalTo("origin")
+        );
+    }
+
+    @Test
+    public void deletesFileOfReplacedVersion() throws Exception {
+        final Item item = new MvccItem(
+            new FkItem(Files.createTempDirectory("mvcc").resolve("d.xml")),
+            new VersionedLock(new ReentrantReadWriteLock(true))
+        );
+        MvccItemTest.write(item, "before");
+        final Path file = item.read(
+            path -> {
+                MatcherAssert.assertThat(
+                    Files.exists(path),
+                    Matchers.is(true)
+                );
+                return path;
+            }
+        );
+        MvccItemTest.write(item, "after");
+        MatcherAssert.assertThat(Files.exists(file), Matchers.is(false));
+        MatcherAssert.assertThat(
+            MvccItemTest.text(item),
+            Matchers.equalTo("after")
+        );
+    }
+
+    @Test
+    public void publishesOnlyOnOutermostUnlock() throws Exception {
+        final VersionedLock lock =
+            new VersionedLock(new ReentrantReadWriteLock(true));
+        final Item item = new MvccItem(
+            new FkItem(Files.createTempDirectory("mvcc").resolve("e.xml")),
+            lock
+        );
+        MvccItemTest.write(item, "outer");
+        final long version = lock.version();
+        final Lock wlock = lock.writeLock();
+        wlock.lock();
+        try {
+            MvccItemTest.write(item, "inner");
+            MatcherAssert.assertThat(
+                lock.version(),
+                Matchers.equalTo(version)
+            );
+        } finally {
+            wlock.unlock();
+        }
+        MatcherAssert.assertThat(
+            lock.snapshot().version(),
+            Matchers.equalTo(version + 1L)
+        );
+        MatcherAssert.assertThat(
+            MvccItemTest.text(item),
+            Matchers.equalTo("inner")
+        );
+    }
+
+    /**
+     * Write text to the item.
+     * @param item Item
+     * @param text Text
+     * @throws Exception If fails
+     */
+    private static void write(final Item item, final String text)
+        throws Exception {
+        item.update(
+            path -> Files.write(path, text.getBytes(StandardCharsets.UTF_8))
+        );
+    }
+
+    /**
+     * Read text from the item.
+     * @param item Item
+     * @return Text
+     * @throws Exception If fails
+     */
+    private static String text(final Item item) throws Exception {
+        return item.read(
+            path -> new String(
+                Files.readAllBytes(path), StandardCharsets.UTF_8
+            )
+        );
+    }
+}
@@ -53,7 +53,9 @@ public final class PgLockTest {
             Collections.synchronizedList(new LinkedList<>());
         final DataSource data = new ExtDataSource(FkFarm.props()).value();
         final String pid = "test";
-        final Lock lone = new PgLock(data, pid, res, new PgLock.Holder());
+        final Lock lone = new PgLock(
+            new PgLeases(data), pid, res, new PgLock.Holder()
+        );
         actions.add("locking1");
         lone.lock();
         actions.add("locked1");
@@ -63,8 +65,9 @@ public final class PgLockTest {
                 synchronized (started) {
                     started.notifyAll();
                 }
-                final PgLock ltwo =
-                    new PgLock(data, pid, res, new PgLock.Holder());
+                final PgLock ltwo = new PgLock(
+                    new PgLeases(data), pid, res, new PgLock.Holder()
+                );
                 actions.add("locking2");
                 ltwo.lock();
                 actions.add("locked2");
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.farm.sync;
+
+import com.jcabi.aspects.Tv;
+import com.jcabi.jdbc.JdbcSession;
+import com.zerocracy.FkProject;
+import com.zerocracy.Project;
+import java.sql.Timestamp;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import javax.sql.DataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link PgLocks}.
+ *
+ * <p>H2 in PostgreSQL mode is used instead of a real server, it has
+ * no notifications, so only local wake up is tested here.</p>
+ *
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+public final class PgLocksTest {
+
+    /**
+     * Database counter.
+     */
+    private static final AtomicLong DBS = new AtomicLong();
+
+    @Test
+    public void locksResourcesSeparately() throws Exception {
+        final DataSource data = PgLocksTest.data();
+        final Project pkt = new FkProject("LOCKS1");
+        final ExecutorService exec = Executors.newSingleThreadExecutor();
+        try (final PgLocks locks = new PgLocks(data)) {
+            final Lock first = locks.lock(pkt, "a.xml").writeLock();
+            first.lock();
+            try {
+                MatcherAssert.assertThat(
+                    exec.submit(
+                        () -> PgLocksTest.tryLock(
+                            locks.lock(pkt, "b.xml").writeLock()
+                        )
+                    ).get(),
+                    Matchers.is(true)
+                );
+                MatcherAssert.assertThat(
+                    exec.submit(
+                        () -> PgLocksTest.tryLock(
+                            locks.lock(pkt, "a.xml").writeLock()
+                        )
+                    ).get(),
+                    Matchers.is(false)
+                );
+            } finally {
+                first.unlock();
+            }
+        } finally {
+            exec.shutdown();
+        }
+    }
+
+    @Test
+    public void takesOverExpiredLease() throws Exception {
+        final DataSource data = PgLocksTest.data();
+        final Project pkt = new FkProject("LOCKS2");
+        MatcherAssert.assertThat(
+            new PgLeases(data, 1L).acquire(pkt.pid(), "c.xml"),
+            Matchers.is(true)
+        );
+        TimeUnit.MILLISECONDS.sleep((long) Tv.TEN);
+        try (final PgLocks locks = new PgLocks(data)) {
+            MatcherAssert.assertThat(
+                PgLocksTest.tryLock(locks.lock(pkt, "c.xml").writeLock()),
+                Matchers.is(true)
+            );
+        }
+    }
+
+    @Test
+    public void doesNotRenewReleasedLease() throws Exception {
+        final DataSource data = PgLocksTest.data();
+        final Project pkt = new FkProject("LOCKS5");
+        final PgLeases leases = new PgLeases(data);
+        MatcherAssert.assertThat(
+            leases.acquire(pkt.pid(), "f.xml"),
+            Matchers.is(true)
+        );
+        new JdbcSession(data)
+            // @checkstyle LineLength (1 line)
+            .sql("INSERT INTO farm_locks (project, resource, owner, expires) VALUES (?, ?, ?, ?)")
+            .prepare(
+                stmt -> {
+                    stmt.setString(1, pkt.pid());
+                    stmt.setString(2, "g.xml");
+                    // @checkstyle MagicNumber (2 lines)
+                    stmt.setString(3, leases.toString());
+                    stmt.setTimestamp(
+                        4, new Timestamp(System.currentTimeMillis() - 1L)
+                    );
+                }
+            )
+            .execute();
+        leases.renew();
+        final PgLeases other = new PgLeases(data);
+        MatcherAssert.assertThat(
+            other.acquire(pkt.pid(), "f.xml"),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            other.acquire(pkt.pid(), "g.xml"),
+            Matchers.is(true)
+        );
+    }
+
+    @Test
+    public void wakesUpWaitingThread() throws Exception {
+        final DataSource data = PgLocksTest.data();
+        final Project pkt = new FkProject("LOCKS3");
+        final ExecutorService exec = Executors.newSingleThreadExecutor();
+        try (final PgLocks locks = new PgLocks(data)) {
+            final Lock lock = locks.lock(pkt, "d.xml").writeLock();
+            lock.lock();
+            final Future<Boolean> waiter = exec.submit(
+                () -> {
+                    final Lock other = locks.lock(pkt, "d.xml").writeLock();
+                    final boolean done = other.tryLock(1L, TimeUnit.MINUTES);
+                    if (done) {
+                        other.unlock();
+                    }
+                    return done;
+                }
+            );
+            TimeUnit.MILLISECONDS.sleep((long) Tv.HUNDRED);
+            lock.unlock();
+            MatcherAssert.assertThat(
+                waiter.get(Tv.TEN, TimeUnit.SECONDS),
+                Matchers.is(true)
+            );
+        } finally {
+            exec.shutdown();
+        }
+    }
+
+    @Test
+    public void reentersLockOfSameThread() throws Exception {
+        final DataSource data = PgLocksTest.data();
+        final Project pkt = new FkProject("LOCKS4");
+        try (
+            final PgLocks first = new PgLocks(data);
+            final PgLocks second = new PgLocks(data)
+        ) {
+            final Lock lock = first.lock(pkt, "e.xml").writeLock();
+            lock.lock();
+            MatcherAssert.assertThat(
+                first.lock(pkt, "e.xml").readLock().tryLock(),
+                Matchers.is(true)
+            );
+            lock.unlock();
+            MatcherAssert.assertThat(
+                second.lock(pkt, "e.xml").writeLock().tryLock(),
+                Matchers.is(false)
+            );
+            lock.unlock();
+            MatcherAssert.assertThat(
+                PgLocksTest.tryLock(second.lock(pkt, "e.xml").writeLock()),
+                Matchers.is(true)
+            );
+        }
+    }
+
+    /**
+     * Try to lock for a short time and unlock.
+     * @param lock Lock
+     * @return TRUE if it was locked
+     * @throws InterruptedException If interrupted
+     */
+    private static boolean tryLock(final Lock lock)
+        throws InterruptedException {
+        final boolean done = lock.tryLock(
+            (long) Tv.HUNDRED, TimeUnit.MILLISECONDS
+        );
+        if (done) {
+            lock.unlock();
+        }
+        return done;
+    }
+
+    /**
+     * New database with locks table.
+     * @return Data source
+     * @throws Exception If fails
+     */
+    private static DataSource data() throws Exception {
+        final JdbcDataSource data = new JdbcDataSource();
+        data.setURL(
+            String.format(
+                "jdbc:h2:mem:locks%d;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                PgLocksTest.DBS.incrementAndGet()
+            )
+        );
+        new JdbcSession(data)
+            .sql(
+                String.join(
+                    " ",
+                    "CREATE TABLE farm_locks (",
+                    "resource VARCHAR(128) NOT NULL,",
+                    "project VARCHAR(16) NOT NULL,",
+                    "created TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,",
+                    "owner VARCHAR(64), expires TIMESTAMP,",
+                    "PRIMARY KEY (project, resource))"
+                )
+            )
+            .execute();
+        return data;
+    }
+}
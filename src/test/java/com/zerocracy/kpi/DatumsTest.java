@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.kpi;
+
+import com.amazonaws.services.cloudwatch.model.MetricDatum;
+import com.amazonaws.services.cloudwatch.model.PutMetricDataRequest;
+import com.amazonaws.services.cloudwatch.model.StandardUnit;
+import com.jcabi.aspects.Tv;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link Datums}.
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
+public final class DatumsTest {
+
+    @Test
+    public void aggregatesValuesOfOneMetric() {
+        final Datums.Fake fake = new Datums.Fake();
+        final Datums datums = new Datums(fake);
+        for (int idx = 1; idx <= Tv.TEN; ++idx) {
+            datums.add("test", "one", StandardUnit.Count, (double) idx);
+        }
+        datums.close();
+        MatcherAssert.assertThat(fake.requests(), Matchers.hasSize(1));
+        final MetricDatum datum = fake.requests().get(0)
+            .getMetricData().get(0);
+        MatcherAssert.assertThat(
+            datum.getStatisticValues().getSampleCount(),
+            Matchers.equalTo((double) Tv.TEN)
+        );
+        MatcherAssert.assertThat(
+            datum.getStatisticValues().getMaximum(),
+            Matchers.equalTo((double) Tv.TEN)
+        );
+    }
+
+    @Test
+    public void keepsStorageResolution() {
+        final Datums.Fake fake = new Datums.Fake();
+        final Datums datums = new Datums(fake);
+        datums.add("test", "high", StandardUnit.None, 1.0, 1);
+        datums.close();
+        MatcherAssert.assertThat(
+            fake.requests().get(0).getMetricData().get(0)
+                .getStorageResolution(),
+            Matchers.equalTo(1)
+        );
+    }
+
+    @Test
+    public void sendsTwentyDatumsPerRequest() {
+        final Datums.Fake fake = new Datums.Fake();
+        final Datums datums = new Datums(fake);
+        for (int idx = 0; idx < Tv.FIFTY; ++idx) {
+            datums.add(
+                "test", String.format("m%d", idx), StandardUnit.None, 1.0
+            );
+        }
+        datums.close();
+        MatcherAssert.assertThat(fake.requests(), Matchers.hasSize(Tv.THREE));
+        for (final PutMetricDataRequest req : fake.requests()) {
+            MatcherAssert.assertThat(
+                req.getMetricData().size(),
+                Matchers.lessThanOrEqualTo(Tv.TWENTY)
+            );
+        }
+    }
+
+    @Test
+    public void dropsNewMetricsWhenFull() {
+        final Datums.Fake fake = new Datums.Fake();
+        final Datums datums = new Datums(fake, 2, (long) Tv.THOUSAND);
+        for (int idx = 0; idx < Tv.FIVE; ++idx) {
+            datums.add(
+                "test", String.format("d%d", idx), StandardUnit.None, 1.0
+            );
+        }
+        MatcherAssert.assertThat(
+            datums.toString(),
+            Matchers.containsString("3 dropped")
+        );
+        datums.close();
+        MatcherAssert.assertThat(
+            fake.requests().get(0).getMetricData(),
+            Matchers.hasSize(2)
+        );
+    }
+}
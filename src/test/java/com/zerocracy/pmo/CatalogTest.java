@@ -38,6 +38,7 @@ import org.xembly.Directives;
  * @checkstyle JavadocMethodCheck (500 lines)
  * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
  * @checkstyle ExecutableStatementCountCheck (500 lines)
+ * @checkstyle MagicNumber (500 lines)
  */
 @SuppressWarnings(
     {
@@ -321,6 +322,94 @@ public final class CatalogTest {
         );
     }
 
+    @Test
+    public void findsProjectsInLargeCatalog() throws Exception {
+        final Project project = new FkProject();
+        final Directives dirs = new Directives().xpath("/catalog");
+        final int total = 10_000;
+        for (int idx = 0; idx < total; ++idx) {
+            final String pid = String.format("P%08d", idx);
+            dirs.add("project")
+                .attr("id", pid)
+                .add("title").set(pid).up()
+                .add("created").set(Instant.now().toString()).up()
+                .add("prefix").set(String.format("2019/01/%s/", pid)).up()
+                .add("alive").set(idx % 2 == 0).up()
+                .add("fee").set(Cash.ZERO).up()
+                .add("publish").set("false").up()
+                .add("adviser").set("0crat").up()
+                .add("architect").set(String.format("arc%d", idx % 100)).up()
+                .add("members").up()
+                .add("jobs").set(0).up()
+                .add("orders").set(0).up()
+                .add("cash").attr("deficit", false).set(Cash.ZERO).up()
+                .add("languages").up()
+                .add("links").add("link")
+                .attr("rel", "github")
+                .attr("href", String.format("test/repo%d", idx))
+                .up().up()
+                .up();
+        }
+        CatalogTest.item(project).update(dirs);
+        final Catalog catalog = new Catalog(new FkFarm(project));
+        final String last = String.format("P%08d", total - 1);
+        MatcherAssert.assertThat(catalog.exists(last), Matchers.is(true));
+        MatcherAssert.assertThat(
+            catalog.findByXPath(String.format("@id='%s'", last)),
+            Matchers.contains(String.format("2019/01/%s/", last))
+        );
+        MatcherAssert.assertThat(
+            catalog.findByXPath("@id='P99999999'"),
+            Matchers.emptyIterable()
+        );
+        MatcherAssert.assertThat(
+            catalog.linkExists("github", "test/repo9999"),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            catalog.hasLink(last, "github", "test/repo9999"),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            catalog.architected("arc7"),
+            Matchers.iterableWithSize(total / 100)
+        );
+        MatcherAssert.assertThat(
+            catalog.active(),
+            Matchers.iterableWithSize(total / 2)
+        );
+        MatcherAssert.assertThat(catalog.pause(last), Matchers.is(true));
+    }
+
+    @Test
+    public void seesChangesMadeAroundIt() throws Exception {
+        final Project project = new FkProject();
+        final Catalog catalog = new Catalog(new FkFarm(project)).bootstrap();
+        final String pid = "AAAAAAAPB";
+        catalog.add(pid, "2018/10/000000405/");
+        MatcherAssert.assertThat(catalog.published(pid), Matchers.is(false));
+        CatalogTest.item(project).update(
+            new Directives()
+                .xpath(String.format("/catalog/project[@id='%s']/publish", pid))
+                .set("true")
+        );
+        MatcherAssert.assertThat(catalog.published(pid), Matchers.is(true));
+    }
+
+    @Test
+    public void findsProjectsOfArchitect() throws Exception {
+        final Catalog catalog = new Catalog(new FkFarm()).bootstrap();
+        final String pid = "AAAAAAAAR";
+        catalog.add(pid, "2018/10/000000406/");
+        catalog.architect(pid, "yegor256");
+        MatcherAssert.assertThat(
+            catalog.architected("yegor256"), Matchers.contains(pid)
+        );
+        MatcherAssert.assertThat(
+            catalog.architected("0crat"), Matchers.not(Matchers.hasItem(pid))
+        );
+    }
+
     private static Catalog withProject(final String pid) throws IOException {
         final Pmo pmo = new Pmo(new FkFarm());
         final Catalog catalog = new Catalog(pmo).bootstrap();
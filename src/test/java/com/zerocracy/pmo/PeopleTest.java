@@ -20,6 +20,7 @@ import com.jcabi.aspects.Tv;
 import com.zerocracy.Farm;
 import com.zerocracy.FkFarm;
 import com.zerocracy.FkProject;
+import com.zerocracy.ItemXml;
 import com.zerocracy.Project;
 import com.zerocracy.SoftException;
 import com.zerocracy.TextItem;
@@ -40,6 +41,7 @@ import org.hamcrest.Matchers;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.xembly.Directives;
 
 /**
  * Test case for {@link People}.
@@ -573,4 +575,49 @@ public final class PeopleTest {
             Matchers.is(false)
         );
     }
+
+    @Test
+    public void answersQueriesOnLargeList() throws Exception {
+        final Project project = new FkProject();
+        final Directives dirs = new Directives().xpath("/people");
+        final int total = 5000;
+        int high = 0;
+        for (int idx = 0; idx < total; ++idx) {
+            final String login = String.format("user%d", idx);
+            if (idx % 300 > 256) {
+                ++high;
+            }
+            dirs.add("person").attr("id", login)
+                .add("reputation").set(idx % 300).up()
+                .add("jobs").set(0).up()
+                .add("projects").set(0).up()
+                .add("speed").set("0.0").up()
+                .add("skills").attr("updated", Instant.now()).up()
+                .add("active").set(true).up()
+                .add("links").add("link")
+                .attr("rel", "slack")
+                .attr("href", String.format("U%d", idx))
+                .up().up()
+                .add("mentor").set("0crat").up()
+                .up();
+        }
+        new ItemXml(project.acq("people.xml"), "pmo/people").update(dirs);
+        final People people = new People(new FkFarm(project)).bootstrap();
+        MatcherAssert.assertThat(
+            people.find("slack", "U4999"), Matchers.contains("user4999")
+        );
+        MatcherAssert.assertThat(
+            people.hirep(), Matchers.hasSize(high)
+        );
+        MatcherAssert.assertThat(
+            people.students("0crat"), Matchers.iterableWithSize(total)
+        );
+        MatcherAssert.assertThat(
+            people.reputation("user299"), Matchers.equalTo(299)
+        );
+        people.reputation("user0", 1000);
+        MatcherAssert.assertThat(
+            people.hirep(), Matchers.hasItem("user0")
+        );
+    }
 }
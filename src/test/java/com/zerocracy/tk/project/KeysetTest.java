@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2016-2019 Zerocracy
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to read
+ * the Software only. Permissions is hereby NOT GRANTED to use, copy, modify,
+ * merge, publish, distribute, sublicense, and/or sell copies of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.zerocracy.tk.project;
+
+import com.jcabi.aspects.Tv;
+import com.mongodb.MongoClient;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.zerocracy.FkFarm;
+import com.zerocracy.entry.ExtMongo;
+import com.zerocracy.farm.props.PropsFarm;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.takes.HttpException;
+
+/**
+ * Test case for {@link Keyset}.
+ * @since 1.0
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+public final class KeysetTest {
+
+    @Test
+    public void pagesForwardAndBack() throws Exception {
+        try (final MongoClient mongo =
+            new ExtMongo(new PropsFarm(new FkFarm()), "keyset").value()) {
+            final MongoCollection<Document> col = mongo
+                .getDatabase("footprint").getCollection("claims");
+            final Date same = new Date();
+            for (int idx = 0; idx < Tv.SEVEN; ++idx) {
+                col.insertOne(
+                    new Document("project", "KEYSET001")
+                        .append("cid", Integer.toString(idx))
+                        .append("created", same)
+                );
+            }
+            final Bson filter = Filters.eq("project", "KEYSET001");
+            final List<Document> all = new ArrayList<>(Tv.SEVEN);
+            String cursor = "";
+            List<Document> page = new Keyset(cursor).older(
+                col, filter, Tv.THREE
+            );
+            while (!page.isEmpty()) {
+                all.addAll(page);
+                cursor = Keyset.cursor(page.get(page.size() - 1));
+                page = new Keyset(cursor).older(col, filter, Tv.THREE);
+            }
+            MatcherAssert.assertThat(all, Matchers.hasSize(Tv.SEVEN));
+            MatcherAssert.assertThat(
+                new Keyset(Keyset.cursor(all.get(Tv.SIX))).newer(
+                    col, filter, Tv.THREE
+                ),
+                Matchers.equalTo(all.subList(Tv.THREE, Tv.SIX))
+            );
+        }
+    }
+
+    @Test
+    public void acceptsWellFormedCursors() throws Exception {
+        MatcherAssert.assertThat(
+            new Keyset("").valid(), Matchers.notNullValue()
+        );
+        MatcherAssert.assertThat(
+            new Keyset("1546304461000-5c2abb4d7d0f6b0001a7e0b1").valid(),
+            Matchers.notNullValue()
+        );
+    }
+
+    @Test
+    public void rejectsMalformedCursor() throws Exception {
+        try {
+            new Keyset("abc-xyz").valid();
+            MatcherAssert.assertThat("cursor was accepted", false);
+        } catch (final HttpException ex) {
+            MatcherAssert.assertThat(
+                ex.code(), Matchers.equalTo(HttpURLConnection.HTTP_BAD_REQUEST)
+            );
+        }
+    }
+}